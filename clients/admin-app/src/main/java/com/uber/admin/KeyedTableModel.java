@@ -0,0 +1,131 @@
+package com.uber.admin;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 以主鍵索引的表格資料
+ *
+ * 只保存已載入的列 (視窗內 + 捲動載入過的頁)，伺服器增量回應以 insert/update/remove
+ * 套用到 ObservableList，既有列就地更新屬性，TableView 不需重建整張表。
+ * 須在 JavaFX Application Thread 上操作。
+ */
+public class KeyedTableModel<R> {
+
+    private final ObservableList<R> items = FXCollections.observableArrayList();
+    private final Map<String, R> index = new HashMap<>();
+    private final Function<R, String> keyOf;
+    private final Comparator<R> order;
+    private final BiConsumer<R, R> updater;
+
+    // 已套用到的伺服器序號
+    private long sequence;
+    // 伺服器端是否還有未載入的列
+    private boolean hasMore;
+    // 已載入的頁數 (下一次捲動載入的 page)
+    private int loadedPages;
+
+    /**
+     * @param keyOf   取得列主鍵
+     * @param order   列表排序 (須與伺服器分頁順序一致)
+     * @param updater 以新資料 (第二參數) 就地更新既有列 (第一參數)
+     */
+    public KeyedTableModel(Function<R, String> keyOf, Comparator<R> order, BiConsumer<R, R> updater) {
+        this.keyOf = keyOf;
+        this.order = order;
+        this.updater = updater;
+    }
+
+    public ObservableList<R> getItems() {
+        return items;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    public int getLoadedPages() {
+        return loadedPages;
+    }
+
+    /**
+     * 以快照取代全部內容 (首次載入、篩選變更或伺服器要求 reset)
+     */
+    public void reset(List<R> rows, long sequence, boolean hasMore) {
+        index.clear();
+        for (R row : rows) {
+            index.put(keyOf.apply(row), row);
+        }
+        items.setAll(rows);
+        this.sequence = sequence;
+        this.hasMore = hasMore;
+        this.loadedPages = 1;
+    }
+
+    /**
+     * 附加下一頁 (捲動載入)；期間已由增量插入的列略過
+     */
+    public void appendPage(List<R> rows, boolean hasMore) {
+        for (R row : rows) {
+            String key = keyOf.apply(row);
+            if (!index.containsKey(key)) {
+                index.put(key, row);
+                items.add(row);
+            }
+        }
+        this.hasMore = hasMore;
+        this.loadedPages++;
+    }
+
+    /**
+     * 套用一筆變更
+     *
+     * @param row     伺服器回傳的最新資料
+     * @param visible 此列是否符合目前的篩選條件
+     */
+    public void apply(R row, boolean visible) {
+        String key = keyOf.apply(row);
+        R existing = index.get(key);
+
+        if (existing != null) {
+            if (visible) {
+                updater.accept(existing, row);
+            } else {
+                index.remove(key);
+                items.remove(existing);
+            }
+            return;
+        }
+        if (!visible) {
+            return;
+        }
+
+        int position = Collections.binarySearch(items, row, order);
+        int insertAt = position >= 0 ? position : -position - 1;
+        // 排在已載入範圍之後的列交由捲動載入取得，避免在末端留下空洞
+        if (insertAt == items.size() && hasMore) {
+            return;
+        }
+        index.put(key, row);
+        items.add(insertAt, row);
+    }
+
+    /**
+     * 記錄已套用到的序號
+     */
+    public void advanceTo(long sequence) {
+        this.sequence = Math.max(this.sequence, sequence);
+    }
+}
@@ -10,10 +10,10 @@ import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.*;
@@ -25,14 +25,22 @@ import javafx.util.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * 管理後台主控制器
  */
 public class MainController {
     
+    // 每次載入的列數 (約數個視窗高度，捲動到底再載入下一頁)
+    private static final int PAGE_SIZE = 200;
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+        .withZone(ZoneId.systemDefault());
+    
     private final BorderPane root;
     private final ApiClient apiClient;
     private final ObjectMapper objectMapper;
@@ -50,18 +58,25 @@ public class MainController {
     // 訂單頁面
     private VBox ordersPage;
     private TableView<OrderRow> ordersTable;
-    private ObservableList<OrderRow> ordersData;
+    private final KeyedTableModel<OrderRow> orderModel =
+        new KeyedTableModel<>(OrderRow::getOrderId, OrderRow.NEWEST_FIRST, OrderRow::update);
+    private boolean ordersLoading;
     private ComboBox<String> orderStatusFilter;
     
     // 司機頁面
     private VBox driversPage;
     private TableView<DriverRow> driversTable;
-    private ObservableList<DriverRow> driversData;
+    private final KeyedTableModel<DriverRow> driverModel =
+        new KeyedTableModel<>(DriverRow::getDriverId, DriverRow.BY_DRIVER_ID, DriverRow::update);
+    private boolean driversLoading;
     
     // 審計日誌頁面
     private VBox auditPage;
     private TableView<AuditRow> auditTable;
-    private ObservableList<AuditRow> auditData;
+    // 依寫入順序附加，sequence 為下一次查詢的 offset
+    private final KeyedTableModel<AuditRow> auditModel =
+        new KeyedTableModel<>(AuditRow::getId, Comparator.comparing(AuditRow::getTimestamp), (row, latest) -> {});
+    private boolean auditLoading;
     private TextField orderIdFilter;
     private ComboBox<String> actionFilter;
     
@@ -82,6 +97,7 @@ public class MainController {
         
         initUI();
         showOrdersPage();
+        loadStats();
         startPolling();
     }
     
@@ -262,8 +278,8 @@ public class MainController {
         header.getChildren().addAll(titleLabel, spacer, filterLabel, orderStatusFilter);
         
         // 表格
-        ordersData = FXCollections.observableArrayList();
-        ordersTable = new TableView<>(ordersData);
+        ordersTable = new TableView<>(orderModel.getItems());
+        onScrolledToEnd(ordersTable, this::loadMoreOrders);
         ordersTable.setStyle("-fx-background-color: " + Theme.BG_CARD + ";");
         
         TableColumn<OrderRow, String> idCol = new TableColumn<>("訂單 ID");
@@ -331,8 +347,8 @@ public class MainController {
         titleLabel.setTextFill(Color.WHITE);
         
         // 表格
-        driversData = FXCollections.observableArrayList();
-        driversTable = new TableView<>(driversData);
+        driversTable = new TableView<>(driverModel.getItems());
+        onScrolledToEnd(driversTable, this::loadMoreDrivers);
         driversTable.setStyle("-fx-background-color: " + Theme.BG_CARD + ";");
         
         TableColumn<DriverRow, String> idCol = new TableColumn<>("司機 ID");
@@ -443,8 +459,8 @@ public class MainController {
         header.getChildren().addAll(titleLabel, spacer, orderIdLabel, orderIdFilter, actionLabel, actionFilter, searchBtn);
         
         // 表格
-        auditData = FXCollections.observableArrayList();
-        auditTable = new TableView<>(auditData);
+        auditTable = new TableView<>(auditModel.getItems());
+        onScrolledToEnd(auditTable, this::loadMoreAuditLogs);
         auditTable.setStyle("-fx-background-color: " + Theme.BG_CARD + ";");
         
         TableColumn<AuditRow, String> timeCol = new TableColumn<>("時間");
@@ -630,191 +646,378 @@ public class MainController {
         }
     }
     
+    // ============ 訂單 ============
+    
+    /**
+     * 載入訂單快照 (第一頁)，並記錄伺服器序號供後續增量更新
+     */
     @SuppressWarnings("unchecked")
     private void loadOrders() {
-        String status = orderStatusFilter.getValue();
-        String statusParam = "全部".equals(status) ? null : status;
+        String statusParam = selectedOrderStatus();
+        ordersLoading = true;
         
-        apiClient.getAllOrders(statusParam, 0, 100)
+        apiClient.getAllOrders(statusParam, 0, PAGE_SIZE)
             .whenComplete((response, error) -> {
                 Platform.runLater(() -> {
-                    if (error != null) {
+                    ordersLoading = false;
+                    if (error != null || !response.isSuccess()) {
                         return;
                     }
-                    
-                    if (response.isSuccess()) {
-                        Map<String, Object> data = response.getData();
-                        List<Map<String, Object>> orders = (List<Map<String, Object>>) data.get("orders");
-                        
-                        ordersData.clear();
-                        int pending = 0, completed = 0;
-                        
-                        if (orders != null) {
-                            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
-                                .withZone(ZoneId.systemDefault());
-                            
-                            for (Map<String, Object> order : orders) {
-                                String orderStatus = (String) order.get("status");
-                                if ("PENDING".equals(orderStatus)) pending++;
-                                if ("COMPLETED".equals(orderStatus)) completed++;
-                                
-                                Object fareObj = order.get("fare");
-                                if (fareObj == null) fareObj = order.get("estimatedFare");
-                                String fareStr = fareObj != null ? 
-                                    String.format("$%.0f", ((Number) fareObj).doubleValue()) : "--";
-                                
-                                String createdAt = "--";
-                                Object createdAtObj = order.get("createdAt");
-                                if (createdAtObj != null) {
-                                    try {
-                                        Instant instant = Instant.parse(createdAtObj.toString());
-                                        createdAt = formatter.format(instant);
-                                    } catch (Exception e) {
-                                        createdAt = createdAtObj.toString();
-                                    }
-                                }
-                                
-                                ordersData.add(new OrderRow(
-                                    (String) order.get("orderId"),
-                                    (String) order.get("passengerId"),
-                                    order.get("driverId") != null ? (String) order.get("driverId") : "--",
-                                    orderStatus,
-                                    order.get("vehicleType") != null ? (String) order.get("vehicleType") : "--",
-                                    fareStr,
-                                    createdAt
-                                ));
-                            }
-                        }
-                        
-                        // 更新統計
-                        totalOrdersLabel.setText(String.valueOf(orders != null ? orders.size() : 0));
-                        pendingOrdersLabel.setText(String.valueOf(pending));
-                        completedOrdersLabel.setText(String.valueOf(completed));
+                    Map<String, Object> data = response.getData();
+                    Map<String, Object> pagination = (Map<String, Object>) data.get("pagination");
+                    orderModel.reset(toRows((List<Map<String, Object>>) data.get("orders"), this::toOrderRow),
+                            longValue(data.get("sequence")), hasNextPage(pagination, 0));
+                });
+            });
+    }
+    
+    /**
+     * 捲動至底部時載入下一頁
+     */
+    @SuppressWarnings("unchecked")
+    private void loadMoreOrders() {
+        if (ordersLoading || !orderModel.hasMore()) {
+            return;
+        }
+        int page = orderModel.getLoadedPages();
+        ordersLoading = true;
+        
+        apiClient.getAllOrders(selectedOrderStatus(), page, PAGE_SIZE)
+            .whenComplete((response, error) -> {
+                Platform.runLater(() -> {
+                    ordersLoading = false;
+                    if (error != null || !response.isSuccess()) {
+                        return;
                     }
+                    Map<String, Object> data = response.getData();
+                    Map<String, Object> pagination = (Map<String, Object>) data.get("pagination");
+                    orderModel.appendPage(toRows((List<Map<String, Object>>) data.get("orders"), this::toOrderRow),
+                            hasNextPage(pagination, page));
                 });
             });
     }
     
+    /**
+     * 輪詢：只取 since 之後變更的訂單並套用到表格
+     */
+    @SuppressWarnings("unchecked")
+    private void pollOrders() {
+        if (ordersLoading) {
+            return;
+        }
+        String statusParam = selectedOrderStatus();
+        
+        apiClient.getOrderChanges(orderModel.getSequence())
+            .whenComplete((response, error) -> {
+                Platform.runLater(() -> {
+                    if (error != null || !response.isSuccess() || ordersLoading) {
+                        return;
+                    }
+                    Map<String, Object> data = response.getData();
+                    if (Boolean.TRUE.equals(data.get("reset"))) {
+                        loadOrders();
+                        return;
+                    }
+                    for (OrderRow row : toRows((List<Map<String, Object>>) data.get("changes"), this::toOrderRow)) {
+                        orderModel.apply(row, statusParam == null || statusParam.equals(row.getStatus()));
+                    }
+                    orderModel.advanceTo(longValue(data.get("sequence")));
+                });
+            });
+    }
+    
+    private String selectedOrderStatus() {
+        String status = orderStatusFilter.getValue();
+        return "全部".equals(status) ? null : status;
+    }
+    
+    private OrderRow toOrderRow(Map<String, Object> order) {
+        Object fareObj = order.get("fare");
+        if (fareObj == null) fareObj = order.get("estimatedFare");
+        String fareStr = fareObj != null ? 
+            String.format("$%.0f", ((Number) fareObj).doubleValue()) : "--";
+        
+        Instant createdTime = null;
+        String createdAt = "--";
+        Object createdAtObj = order.get("createdAt");
+        if (createdAtObj != null) {
+            try {
+                createdTime = Instant.parse(createdAtObj.toString());
+                createdAt = TIME_FORMATTER.format(createdTime);
+            } catch (Exception e) {
+                createdAt = createdAtObj.toString();
+            }
+        }
+        
+        return new OrderRow(
+            (String) order.get("orderId"),
+            (String) order.get("passengerId"),
+            order.get("driverId") != null ? (String) order.get("driverId") : "--",
+            (String) order.get("status"),
+            order.get("vehicleType") != null ? (String) order.get("vehicleType") : "--",
+            fareStr,
+            createdAt,
+            createdTime
+        );
+    }
+    
+    // ============ 司機 ============
+    
     @SuppressWarnings("unchecked")
     private void loadDrivers() {
-        apiClient.getAllDrivers()
+        driversLoading = true;
+        
+        apiClient.getDrivers(0, PAGE_SIZE)
             .whenComplete((response, error) -> {
                 Platform.runLater(() -> {
-                    if (error != null) {
+                    driversLoading = false;
+                    if (error != null || !response.isSuccess()) {
                         return;
                     }
-                    
-                    if (response.isSuccess()) {
-                        Map<String, Object> data = response.getData();
-                        List<Map<String, Object>> drivers = (List<Map<String, Object>>) data.get("drivers");
-                        
-                        driversData.clear();
-                        int online = 0;
-                        
-                        if (drivers != null) {
-                            for (Map<String, Object> driver : drivers) {
-                                String status = (String) driver.get("status");
-                                if ("ONLINE".equals(status)) online++;
-                                
-                                Map<String, Object> location = (Map<String, Object>) driver.get("location");
-                                String locationStr = location != null ?
-                                    String.format("(%.0f, %.0f)", 
-                                        ((Number) location.get("x")).doubleValue(),
-                                        ((Number) location.get("y")).doubleValue()) : "--";
-                                
-                                Object busyObj = driver.get("busy");
-                                boolean busy = busyObj instanceof Boolean ? (Boolean) busyObj : false;
-                                
-                                driversData.add(new DriverRow(
-                                    (String) driver.get("driverId"),
-                                    driver.get("name") != null ? (String) driver.get("name") : "--",
-                                    driver.get("phone") != null ? (String) driver.get("phone") : "--",
-                                    driver.get("vehiclePlate") != null ? (String) driver.get("vehiclePlate") : "--",
-                                    driver.get("vehicleType") != null ? (String) driver.get("vehicleType") : "--",
-                                    status,
-                                    busy ? "是" : "否",
-                                    locationStr
-                                ));
-                            }
-                        }
-                        
-                        onlineDriversLabel.setText(String.valueOf(online));
+                    Map<String, Object> data = response.getData();
+                    driverModel.reset(toRows((List<Map<String, Object>>) data.get("drivers"), this::toDriverRow),
+                            longValue(data.get("sequence")), longValue(data.get("totalElements")) > PAGE_SIZE);
+                });
+            });
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void loadMoreDrivers() {
+        if (driversLoading || !driverModel.hasMore()) {
+            return;
+        }
+        int page = driverModel.getLoadedPages();
+        driversLoading = true;
+        
+        apiClient.getDrivers(page, PAGE_SIZE)
+            .whenComplete((response, error) -> {
+                Platform.runLater(() -> {
+                    driversLoading = false;
+                    if (error != null || !response.isSuccess()) {
+                        return;
                     }
+                    Map<String, Object> data = response.getData();
+                    driverModel.appendPage(toRows((List<Map<String, Object>>) data.get("drivers"), this::toDriverRow),
+                            longValue(data.get("totalElements")) > (long) (page + 1) * PAGE_SIZE);
                 });
             });
     }
     
     @SuppressWarnings("unchecked")
+    private void pollDrivers() {
+        if (driversLoading) {
+            return;
+        }
+        
+        apiClient.getDriverChanges(driverModel.getSequence())
+            .whenComplete((response, error) -> {
+                Platform.runLater(() -> {
+                    if (error != null || !response.isSuccess() || driversLoading) {
+                        return;
+                    }
+                    Map<String, Object> data = response.getData();
+                    if (Boolean.TRUE.equals(data.get("reset"))) {
+                        loadDrivers();
+                        return;
+                    }
+                    for (DriverRow row : toRows((List<Map<String, Object>>) data.get("changes"), this::toDriverRow)) {
+                        driverModel.apply(row, true);
+                    }
+                    driverModel.advanceTo(longValue(data.get("sequence")));
+                });
+            });
+    }
+    
+    @SuppressWarnings("unchecked")
+    private DriverRow toDriverRow(Map<String, Object> driver) {
+        Map<String, Object> location = (Map<String, Object>) driver.get("location");
+        String locationStr = location != null ?
+            String.format("(%.0f, %.0f)", 
+                ((Number) location.get("x")).doubleValue(),
+                ((Number) location.get("y")).doubleValue()) : "--";
+        
+        Object busyObj = driver.get("busy");
+        boolean busy = busyObj instanceof Boolean ? (Boolean) busyObj : false;
+        
+        return new DriverRow(
+            (String) driver.get("driverId"),
+            driver.get("name") != null ? (String) driver.get("name") : "--",
+            driver.get("phone") != null ? (String) driver.get("phone") : "--",
+            driver.get("vehiclePlate") != null ? (String) driver.get("vehiclePlate") : "--",
+            driver.get("vehicleType") != null ? (String) driver.get("vehicleType") : "--",
+            (String) driver.get("status"),
+            busy ? "是" : "否",
+            locationStr
+        );
+    }
+    
+    // ============ 審計日誌 ============
+    
+    /**
+     * 審計日誌只會附加：以寫入序號 offset 分段載入，追上最新後由輪詢接續尾端
+     */
     private void loadAuditLogs() {
+        auditModel.reset(List.of(), 0, true);
+        loadMoreAuditLogs();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void loadMoreAuditLogs() {
+        if (auditLoading) {
+            return;
+        }
         String orderId = orderIdFilter.getText().trim();
         String action = actionFilter.getValue();
-        
         String orderIdParam = orderId.isEmpty() ? null : orderId;
         String actionParam = "全部".equals(action) ? null : action;
+        auditLoading = true;
         
-        apiClient.getAuditLogs(orderIdParam, actionParam)
+        apiClient.getAuditLogsSince(orderIdParam, actionParam, (int) auditModel.getSequence(), PAGE_SIZE)
             .whenComplete((response, error) -> {
                 Platform.runLater(() -> {
-                    if (error != null) {
+                    auditLoading = false;
+                    if (error != null || !response.isSuccess()) {
+                        return;
+                    }
+                    Map<String, Object> data = response.getData();
+                    if (Boolean.TRUE.equals(data.get("reset"))) {
+                        loadAuditLogs();
                         return;
                     }
+                    List<AuditRow> rows = toRows((List<Map<String, Object>>) data.get("logs"), this::toAuditRow);
+                    boolean hasMore = Boolean.TRUE.equals(data.get("hasMore"));
+                    auditModel.appendPage(rows, hasMore);
+                    auditModel.advanceTo(longValue(data.get("sequence")));
                     
-                    if (response.isSuccess()) {
-                        Map<String, Object> data = response.getData();
-                        List<Map<String, Object>> logs = (List<Map<String, Object>>) data.get("logs");
-                        
-                        auditData.clear();
-                        
-                        if (logs != null) {
-                            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
-                                .withZone(ZoneId.systemDefault());
-                            
-                            for (Map<String, Object> log : logs) {
-                                String timestamp = "--";
-                                Object timestampObj = log.get("timestamp");
-                                if (timestampObj != null) {
-                                    try {
-                                        Instant instant = Instant.parse(timestampObj.toString());
-                                        timestamp = formatter.format(instant);
-                                    } catch (Exception e) {
-                                        timestamp = timestampObj.toString();
-                                    }
-                                }
-                                
-                                String actor = String.format("%s (%s)", 
-                                    log.get("actorId") != null ? log.get("actorId") : "--",
-                                    log.get("actorType") != null ? log.get("actorType") : "--");
-                                
-                                Object successObj = log.get("success");
-                                boolean success = successObj instanceof Boolean ? (Boolean) successObj : false;
-                                
-                                auditData.add(new AuditRow(
-                                    timestamp,
-                                    (String) log.get("orderId"),
-                                    (String) log.get("action"),
-                                    actor,
-                                    log.get("previousState") != null ? (String) log.get("previousState") : "--",
-                                    log.get("newState") != null ? (String) log.get("newState") : "--",
-                                    success ? "✅" : "❌",
-                                    log.get("failureReason") != null ? (String) log.get("failureReason") : ""
-                                ));
-                            }
-                        }
+                    // 篩選後本段沒有符合的日誌，繼續往後掃描直到填滿視窗或追上最新
+                    if (hasMore && auditModel.getItems().size() < PAGE_SIZE) {
+                        loadMoreAuditLogs();
+                    }
+                });
+            });
+    }
+    
+    /**
+     * 輪詢：已載入到最新時才接續尾端，其餘由捲動載入
+     */
+    private void pollAuditLogs() {
+        if (!auditModel.hasMore()) {
+            loadMoreAuditLogs();
+        }
+    }
+    
+    private AuditRow toAuditRow(Map<String, Object> log) {
+        String timestamp = "--";
+        Object timestampObj = log.get("timestamp");
+        if (timestampObj != null) {
+            try {
+                Instant instant = Instant.parse(timestampObj.toString());
+                timestamp = TIME_FORMATTER.format(instant);
+            } catch (Exception e) {
+                timestamp = timestampObj.toString();
+            }
+        }
+        
+        String actor = String.format("%s (%s)", 
+            log.get("actorId") != null ? log.get("actorId") : "--",
+            log.get("actorType") != null ? log.get("actorType") : "--");
+        
+        Object successObj = log.get("success");
+        boolean success = successObj instanceof Boolean ? (Boolean) successObj : false;
+        
+        return new AuditRow(
+            (String) log.get("id"),
+            timestamp,
+            (String) log.get("orderId"),
+            (String) log.get("action"),
+            actor,
+            log.get("previousState") != null ? (String) log.get("previousState") : "--",
+            log.get("newState") != null ? (String) log.get("newState") : "--",
+            success ? "✅" : "❌",
+            log.get("failureReason") != null ? (String) log.get("failureReason") : ""
+        );
+    }
+    
+    // ============ 統計 ============
+    
+    /**
+     * 統計數據改由 /admin/stats 取得，表格只載入視窗內的列
+     */
+    @SuppressWarnings("unchecked")
+    private void loadStats() {
+        apiClient.getSystemStats()
+            .whenComplete((response, error) -> {
+                Platform.runLater(() -> {
+                    if (error != null || !response.isSuccess()) {
+                        return;
+                    }
+                    Map<String, Object> orders = (Map<String, Object>) response.getData().get("orders");
+                    Map<String, Object> drivers = (Map<String, Object>) response.getData().get("drivers");
+                    if (orders != null) {
+                        totalOrdersLabel.setText(String.valueOf(longValue(orders.get("total"))));
+                        pendingOrdersLabel.setText(String.valueOf(longValue(orders.get("pending"))));
+                        completedOrdersLabel.setText(String.valueOf(longValue(orders.get("completed"))));
+                    }
+                    if (drivers != null) {
+                        onlineDriversLabel.setText(String.valueOf(longValue(drivers.get("online"))));
                     }
                 });
             });
     }
     
+    // ============ 工具方法 ============
+    
+    private static <R> List<R> toRows(List<Map<String, Object>> items, Function<Map<String, Object>, R> mapper) {
+        if (items == null) {
+            return List.of();
+        }
+        List<R> rows = new ArrayList<>(items.size());
+        for (Map<String, Object> item : items) {
+            rows.add(mapper.apply(item));
+        }
+        return rows;
+    }
+    
+    private static long longValue(Object value) {
+        return value instanceof Number number ? number.longValue() : 0;
+    }
+    
+    private static boolean hasNextPage(Map<String, Object> pagination, int page) {
+        return pagination != null && page + 1 < longValue(pagination.get("totalPages"));
+    }
+    
+    /**
+     * 垂直捲軸接近底部時觸發 (ScrollBar 於 skin 建立後才存在)
+     */
+    private static void onScrolledToEnd(TableView<?> table, Runnable action) {
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+            for (Node node : table.lookupAll(".scroll-bar")) {
+                if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                    bar.valueProperty().addListener((o, oldValue, value) -> {
+                        if (value.doubleValue() >= bar.getMax() * 0.9) {
+                            action.run();
+                        }
+                    });
+                }
+            }
+        });
+    }
+    
     private void loadRatePlans() {
         // 費率從後端載入（目前使用預設值）
     }
     
     private void startPolling() {
+        // 只輪詢目前頁面的增量變更
         pollingTimeline = new Timeline(new KeyFrame(Duration.seconds(2), e -> {
             if (contentPane.getChildren().contains(ordersPage)) {
-                loadOrders();
+                pollOrders();
+            } else if (contentPane.getChildren().contains(driversPage)) {
+                pollDrivers();
+            } else if (contentPane.getChildren().contains(auditPage)) {
+                pollAuditLogs();
             }
-            loadDrivers(); // 用於更新統計數據
+            loadStats();
         }));
         pollingTimeline.setCycleCount(Timeline.INDEFINITE);
         pollingTimeline.play();
@@ -828,6 +1031,9 @@ public class MainController {
     
     // ============ Data Classes ============
     
+    /**
+     * 訂單列 (屬性可就地更新，增量變更直接反映到表格)
+     */
     public static class OrderRow {
         private final SimpleStringProperty orderId;
         private final SimpleStringProperty passengerId;
@@ -836,9 +1042,11 @@ public class MainController {
         private final SimpleStringProperty vehicleType;
         private final SimpleStringProperty fare;
         private final SimpleStringProperty createdAt;
+        // 排序用 (新到舊，與伺服器分頁順序一致)
+        private final Instant createdTime;
         
         public OrderRow(String orderId, String passengerId, String driverId, 
-                       String status, String vehicleType, String fare, String createdAt) {
+                       String status, String vehicleType, String fare, String createdAt, Instant createdTime) {
             this.orderId = new SimpleStringProperty(orderId);
             this.passengerId = new SimpleStringProperty(passengerId);
             this.driverId = new SimpleStringProperty(driverId);
@@ -846,6 +1054,17 @@ public class MainController {
             this.vehicleType = new SimpleStringProperty(vehicleType);
             this.fare = new SimpleStringProperty(fare);
             this.createdAt = new SimpleStringProperty(createdAt);
+            this.createdTime = createdTime;
+        }
+        
+        static final Comparator<OrderRow> NEWEST_FIRST = Comparator
+            .comparing((OrderRow row) -> row.createdTime, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(OrderRow::getOrderId, Comparator.nullsLast(Comparator.naturalOrder()));
+        
+        void update(OrderRow latest) {
+            driverId.set(latest.getDriverId());
+            status.set(latest.getStatus());
+            fare.set(latest.getFare());
         }
         
         public String getOrderId() { return orderId.get(); }
@@ -855,8 +1074,19 @@ public class MainController {
         public String getVehicleType() { return vehicleType.get(); }
         public String getFare() { return fare.get(); }
         public String getCreatedAt() { return createdAt.get(); }
+        
+        public SimpleStringProperty orderIdProperty() { return orderId; }
+        public SimpleStringProperty passengerIdProperty() { return passengerId; }
+        public SimpleStringProperty driverIdProperty() { return driverId; }
+        public SimpleStringProperty statusProperty() { return status; }
+        public SimpleStringProperty vehicleTypeProperty() { return vehicleType; }
+        public SimpleStringProperty fareProperty() { return fare; }
+        public SimpleStringProperty createdAtProperty() { return createdAt; }
     }
     
+    /**
+     * 司機列 (屬性可就地更新)
+     */
     public static class DriverRow {
         private final SimpleStringProperty driverId;
         private final SimpleStringProperty name;
@@ -879,6 +1109,19 @@ public class MainController {
             this.location = new SimpleStringProperty(location);
         }
         
+        static final Comparator<DriverRow> BY_DRIVER_ID =
+            Comparator.comparing(DriverRow::getDriverId, Comparator.nullsLast(Comparator.naturalOrder()));
+        
+        void update(DriverRow latest) {
+            name.set(latest.getName());
+            phone.set(latest.getPhone());
+            vehiclePlate.set(latest.getVehiclePlate());
+            vehicleType.set(latest.getVehicleType());
+            status.set(latest.getStatus());
+            busy.set(latest.getBusy());
+            location.set(latest.getLocation());
+        }
+        
         public String getDriverId() { return driverId.get(); }
         public String getName() { return name.get(); }
         public String getPhone() { return phone.get(); }
@@ -887,9 +1130,20 @@ public class MainController {
         public String getStatus() { return status.get(); }
         public String getBusy() { return busy.get(); }
         public String getLocation() { return location.get(); }
+        
+        public SimpleStringProperty driverIdProperty() { return driverId; }
+        public SimpleStringProperty nameProperty() { return name; }
+        public SimpleStringProperty phoneProperty() { return phone; }
+        public SimpleStringProperty vehiclePlateProperty() { return vehiclePlate; }
+        public SimpleStringProperty vehicleTypeProperty() { return vehicleType; }
+        public SimpleStringProperty statusProperty() { return status; }
+        public SimpleStringProperty busyProperty() { return busy; }
+        public SimpleStringProperty locationProperty() { return location; }
     }
     
     public static class AuditRow {
+        // 日誌 ID (只用於去重，不顯示)
+        private final String id;
         private final SimpleStringProperty timestamp;
         private final SimpleStringProperty orderId;
         private final SimpleStringProperty action;
@@ -899,8 +1153,9 @@ public class MainController {
         private final SimpleStringProperty success;
         private final SimpleStringProperty failureReason;
         
-        public AuditRow(String timestamp, String orderId, String action, String actor,
+        public AuditRow(String id, String timestamp, String orderId, String action, String actor,
                        String previousState, String newState, String success, String failureReason) {
+            this.id = id;
             this.timestamp = new SimpleStringProperty(timestamp);
             this.orderId = new SimpleStringProperty(orderId);
             this.action = new SimpleStringProperty(action);
@@ -911,6 +1166,7 @@ public class MainController {
             this.failureReason = new SimpleStringProperty(failureReason);
         }
         
+        public String getId() { return id; }
         public String getTimestamp() { return timestamp.get(); }
         public String getOrderId() { return orderId.get(); }
         public String getAction() { return action.get(); }
@@ -2,39 +2,75 @@ package com.uber.client.api;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.uber.client.model.*;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
 
 /**
  * REST API 客戶端
  * 提供與後端伺服器通訊的所有 HTTP 操作
+ * 
+ * baseUrl 可用逗號列出主節點與備援節點 (如 http://a:8080/api,http://b:8080/api)，
+ * 目前節點無法連線時改送下一個節點並沿用之 (備援節點升級前只接受查詢)
  */
 public class ApiClient {
     
     private static final String DEFAULT_BASE_URL = "http://localhost:8080/api";
     
-    private final String baseUrl;
+    // 條件查詢快取容量 (GET 路徑數)
+    private static final int ETAG_CACHE_SIZE = 256;
+    
+    private final List<String> baseUrls;
+    // 目前使用的 baseUrls 索引
+    private final AtomicInteger activeUrl = new AtomicInteger();
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
     
+    private static final byte[] EMPTY_OBJECT = "{}".getBytes(StandardCharsets.UTF_8);
+    
+    // GET 完整 URL (節點 + 路徑) -> (ETag, 已解析的回應內容)，收到 304 時重用快取內容。
+    // ETag 由各節點自己的修改計數產生，不同節點的相同 ETag 不代表相同內容，因此以節點區分
+    private final Map<String, CachedResponse> etagCache = new LinkedHashMap<>(ETAG_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+            return size() > ETAG_CACHE_SIZE;
+        }
+    };
+    
     public ApiClient() {
-        this(DEFAULT_BASE_URL);
+        this(System.getProperty("dispatch.api.url", DEFAULT_BASE_URL));
     }
     
     public ApiClient(String baseUrl) {
-        this.baseUrl = baseUrl;
+        this.baseUrls = Arrays.stream(baseUrl.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+        // 以 h2c 協商 HTTP/2，所有輪詢請求在同一條連線上多工傳輸 (伺服器不支援時退回 HTTP/1.1)
         this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
                 .connectTimeout(Duration.ofSeconds(10))
                 .build();
         this.objectMapper = new ObjectMapper();
@@ -51,8 +87,10 @@ public class ApiClient {
             Location pickup, Location dropoff, VehicleType vehicleType) {
         Map<String, Object> body = Map.of(
             "passengerId", passengerId,
-            "pickupLocation", Map.of("x", pickup.getX(), "y", pickup.getY()),
-            "dropoffLocation", Map.of("x", dropoff.getX(), "y", dropoff.getY()),
+            "pickupX", pickup.getX(),
+            "pickupY", pickup.getY(),
+            "dropoffX", dropoff.getX(),
+            "dropoffY", dropoff.getY(),
             "vehicleType", vehicleType.name()
         );
         return post("/orders", body, new TypeReference<ApiResponse<Order>>() {});
@@ -65,6 +103,14 @@ public class ApiClient {
         return get("/orders/" + orderId, new TypeReference<ApiResponse<Order>>() {});
     }
     
+    /**
+     * 批次查詢訂單 (一次請求取代逐筆輪詢，單次最多 100 筆)
+     */
+    public CompletableFuture<ApiResponse<OrderList>> getOrders(Collection<String> orderIds) {
+        String ids = URLEncoder.encode(String.join(",", orderIds), StandardCharsets.UTF_8);
+        return get("/orders?ids=" + ids, new TypeReference<ApiResponse<OrderList>>() {});
+    }
+    
     /**
      * 取消訂單
      */
@@ -83,7 +129,8 @@ public class ApiClient {
      */
     public CompletableFuture<ApiResponse<Driver>> goOnline(String driverId, Location location) {
         Map<String, Object> body = Map.of(
-            "location", Map.of("x", location.getX(), "y", location.getY())
+            "x", location.getX(),
+            "y", location.getY()
         );
         return put("/drivers/" + driverId + "/online", body, new TypeReference<ApiResponse<Driver>>() {});
     }
@@ -172,6 +219,13 @@ public class ApiClient {
         return get("/admin/orders" + query, new TypeReference<ApiResponse<Map<String, Object>>>() {});
     }
     
+    /**
+     * 取得版本號大於 since 的訂單 (增量模式，回應含 changes/sequence/reset)
+     */
+    public CompletableFuture<ApiResponse<Map<String, Object>>> getOrderChanges(long since) {
+        return get("/admin/orders?since=" + since, new TypeReference<ApiResponse<Map<String, Object>>>() {});
+    }
+    
     /**
      * 取得所有司機
      */
@@ -179,6 +233,21 @@ public class ApiClient {
         return get("/admin/drivers", new TypeReference<ApiResponse<Map<String, Object>>>() {});
     }
     
+    /**
+     * 分頁取得司機 (依 driverId 排序)
+     */
+    public CompletableFuture<ApiResponse<Map<String, Object>>> getDrivers(int page, int size) {
+        return get(String.format("/admin/drivers?page=%d&size=%d", page, size),
+                new TypeReference<ApiResponse<Map<String, Object>>>() {});
+    }
+    
+    /**
+     * 取得版本號大於 since 的司機 (增量模式)
+     */
+    public CompletableFuture<ApiResponse<Map<String, Object>>> getDriverChanges(long since) {
+        return get("/admin/drivers?since=" + since, new TypeReference<ApiResponse<Map<String, Object>>>() {});
+    }
+    
     /**
      * 取得審計日誌
      */
@@ -193,6 +262,28 @@ public class ApiClient {
         return get("/admin/audit-logs" + query, new TypeReference<ApiResponse<Map<String, Object>>>() {});
     }
     
+    /**
+     * 自寫入序號 since 起取得最多 limit 筆審計日誌 (回應的 sequence 為下一次的 since)
+     */
+    public CompletableFuture<ApiResponse<Map<String, Object>>> getAuditLogsSince(String orderId, String action,
+                                                                                  int since, int limit) {
+        StringBuilder query = new StringBuilder("?since=").append(since).append("&limit=").append(limit);
+        if (orderId != null && !orderId.isEmpty()) {
+            query.append("&orderId=").append(orderId);
+        }
+        if (action != null && !action.isEmpty()) {
+            query.append("&action=").append(action);
+        }
+        return get("/admin/audit-logs" + query, new TypeReference<ApiResponse<Map<String, Object>>>() {});
+    }
+    
+    /**
+     * 取得系統統計數據
+     */
+    public CompletableFuture<ApiResponse<Map<String, Object>>> getSystemStats() {
+        return get("/admin/stats", new TypeReference<ApiResponse<Map<String, Object>>>() {});
+    }
+    
     /**
      * 取得費率設定
      */
@@ -217,23 +308,51 @@ public class ApiClient {
     
     // ============ HTTP 方法 ============
     
+    /**
+     * GET 請求 (自動帶入 If-None-Match，304 時重用快取內容)
+     */
     private <T> CompletableFuture<T> get(String path, TypeReference<T> typeRef) {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(baseUrl + path))
-                .header("Content-Type", "application/json")
-                .GET()
-                .build();
+        String url = baseUrls.get(activeUrl.get()) + path;
+        HttpRequest.Builder builder = newRequestTo(url).GET();
+        CachedResponse cached;
+        synchronized (etagCache) {
+            cached = etagCache.get(url);
+        }
+        if (cached != null) {
+            builder.header("If-None-Match", cached.etag());
+        }
         
-        return sendRequest(request, typeRef);
+        return send(builder.build())
+                .thenApply(response -> {
+                    try (InputStream body = decode(response)) {
+                        JsonNode tree;
+                        // 切換節點重送時不帶 If-None-Match，不會收到 304
+                        if (response.statusCode() == 304 && cached != null) {
+                            tree = cached.body();
+                        } else {
+                            Optional<String> etag = response.headers().firstValue("ETag");
+                            if (etag.isEmpty()) {
+                                return objectMapper.readValue(body, typeRef);
+                            }
+                            // 有 ETag 的回應保留解析後的樹，304 時不必重新解析文字
+                            tree = objectMapper.readTree(body);
+                            synchronized (etagCache) {
+                                etagCache.put(response.request().uri().toString(), new CachedResponse(etag.get(), tree));
+                            }
+                        }
+                        return objectMapper.readerFor(typeRef).readValue(tree);
+                    } catch (IOException e) {
+                        throw new RuntimeException("Failed to parse response: " + path, e);
+                    }
+                });
     }
     
     private <T> CompletableFuture<T> post(String path, Object body, TypeReference<T> typeRef) {
         try {
-            String jsonBody = objectMapper.writeValueAsString(body);
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(baseUrl + path))
+            byte[] jsonBody = objectMapper.writeValueAsBytes(body);
+            HttpRequest request = newRequest(path)
                     .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(jsonBody))
                     .build();
             
             return sendRequest(request, typeRef);
@@ -244,11 +363,10 @@ public class ApiClient {
     
     private <T> CompletableFuture<T> put(String path, Object body, TypeReference<T> typeRef) {
         try {
-            String jsonBody = body != null ? objectMapper.writeValueAsString(body) : "{}";
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(baseUrl + path))
+            byte[] jsonBody = body != null ? objectMapper.writeValueAsBytes(body) : EMPTY_OBJECT;
+            HttpRequest request = newRequest(path)
                     .header("Content-Type", "application/json")
-                    .PUT(HttpRequest.BodyPublishers.ofString(jsonBody))
+                    .PUT(HttpRequest.BodyPublishers.ofByteArray(jsonBody))
                     .build();
             
             return sendRequest(request, typeRef);
@@ -258,13 +376,77 @@ public class ApiClient {
     }
     
     private <T> CompletableFuture<T> sendRequest(HttpRequest request, TypeReference<T> typeRef) {
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+        return send(request)
                 .thenApply(response -> {
-                    try {
-                        return objectMapper.readValue(response.body(), typeRef);
+                    try (InputStream body = decode(response)) {
+                        return objectMapper.readValue(body, typeRef);
                     } catch (IOException e) {
-                        throw new RuntimeException("Failed to parse response: " + response.body(), e);
+                        throw new RuntimeException("Failed to parse response: " + request.uri(), e);
+                    }
+                });
+    }
+    
+    /**
+     * 送出請求；連線失敗 (請求未送達) 時切換到下一個節點重送一次
+     * (不帶 If-None-Match：ETag 來自原節點，對新節點沒有意義)
+     */
+    private CompletableFuture<HttpResponse<InputStream>> send(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .exceptionallyCompose(error -> {
+                    String uri = request.uri().toString();
+                    int failed = indexOfBase(uri);
+                    if (baseUrls.size() < 2 || failed < 0 || !isConnectFailure(error)) {
+                        return CompletableFuture.failedFuture(error);
                     }
+                    activeUrl.compareAndSet(failed, (failed + 1) % baseUrls.size());
+                    String path = uri.substring(baseUrls.get(failed).length());
+                    HttpRequest retry = HttpRequest.newBuilder(request,
+                                    (name, value) -> !name.equalsIgnoreCase("If-None-Match"))
+                            .uri(URI.create(baseUrls.get(activeUrl.get()) + path))
+                            .build();
+                    return httpClient.sendAsync(retry, HttpResponse.BodyHandlers.ofInputStream());
                 });
     }
+    
+    private int indexOfBase(String uri) {
+        for (int i = 0; i < baseUrls.size(); i++) {
+            if (uri.startsWith(baseUrls.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static boolean isConnectFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof HttpConnectTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private HttpRequest.Builder newRequest(String path) {
+        return newRequestTo(baseUrls.get(activeUrl.get()) + path);
+    }
+    
+    private HttpRequest.Builder newRequestTo(String url) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip");
+    }
+    
+    /**
+     * 直接由回應位元組串流解析，伺服器壓縮時以 GZIPInputStream 解壓
+     */
+    private static InputStream decode(HttpResponse<InputStream> response) throws IOException {
+        boolean gzip = response.headers().firstValue("Content-Encoding")
+                .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+                .orElse(false);
+        return gzip ? new GZIPInputStream(response.body()) : response.body();
+    }
+    
+    private record CachedResponse(String etag, JsonNode body) {
+    }
 }
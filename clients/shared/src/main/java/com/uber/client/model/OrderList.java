@@ -0,0 +1,19 @@
+package com.uber.client.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批次查詢訂單結果
+ */
+@Data
+@NoArgsConstructor
+public class OrderList {
+    private List<Order> orders = new ArrayList<>();
+    // 不存在的訂單 ID
+    private List<String> notFound = new ArrayList<>();
+    private int count;
+}
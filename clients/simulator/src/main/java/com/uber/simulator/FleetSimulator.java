@@ -0,0 +1,309 @@
+package com.uber.simulator;
+
+import com.uber.client.api.ApiClient;
+import com.uber.client.api.ApiResponse;
+import com.uber.client.model.Location;
+import com.uber.client.model.Order;
+import com.uber.client.model.VehicleType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 車隊模擬器
+ * 
+ * N 位司機：註冊、上線、定期回報位置、輪詢可接訂單並搶單，接單後依設定時間開始/完成行程。
+ * M 位乘客：依 Poisson 到達率建立訂單，部分訂單在等待後取消。
+ * 
+ * 每位司機與乘客到達流程各自使用由 seed 衍生的 Random，相同 seed 產生相同的
+ * 訂單序列 (時間、座標、車種、是否取消) 與司機移動路徑；搶單結果仍取決於伺服器端的實際競爭。
+ */
+public class FleetSimulator {
+    
+    static final String CREATE_ORDER = "POST /orders";
+    static final String CANCEL_ORDER = "PUT /orders/{id}/cancel";
+    static final String ACCEPT_ORDER = "PUT /orders/{id}/accept";
+    static final String START_TRIP = "PUT /orders/{id}/start";
+    static final String COMPLETE_TRIP = "PUT /orders/{id}/complete";
+    static final String REGISTER_DRIVER = "POST /drivers";
+    static final String GO_ONLINE = "PUT /drivers/{id}/online";
+    static final String UPDATE_LOCATION = "PUT /drivers/{id}/location";
+    static final String GET_OFFERS = "GET /drivers/{id}/offers";
+    // 非端點：訂單建立 (送出請求) 到司機接單成功 (收到回應) 的時間
+    static final String TIME_TO_ACCEPT = "order created -> accepted";
+    
+    private static final VehicleType[] VEHICLE_TYPES = VehicleType.values();
+    
+    private final SimulatorConfig config;
+    private final ApiClient apiClient;
+    private final LatencyRecorder latency = new LatencyRecorder();
+    private final ScheduledExecutorService scheduler;
+    
+    private final LongAdder ordersCreated = new LongAdder();
+    private final LongAdder ordersCancelled = new LongAdder();
+    private final LongAdder acceptAttempts = new LongAdder();
+    private final LongAdder acceptConflicts = new LongAdder();
+    private final LongAdder acceptRejected = new LongAdder();
+    private final LongAdder tripsCompleted = new LongAdder();
+    private final LongAdder requestErrors = new LongAdder();
+    
+    // 尚未被接單的訂單建立時間 (orderId -> System.nanoTime)，接單或取消後移除
+    private final Map<String, Long> createdAt = new ConcurrentHashMap<>();
+    
+    private volatile boolean running;
+    
+    public FleetSimulator(SimulatorConfig config) {
+        this.config = config;
+        this.apiClient = new ApiClient(config.getBaseUrl());
+        this.scheduler = Executors.newScheduledThreadPool(config.getThreads());
+    }
+    
+    /**
+     * 執行一次完整模擬並回傳報表
+     */
+    public SimulationReport run() throws InterruptedException {
+        List<SimDriver> drivers = new ArrayList<>(config.getDrivers());
+        for (int i = 0; i < config.getDrivers(); i++) {
+            drivers.add(new SimDriver(i, new Random(config.getSeed() * 31 + i + 1)));
+        }
+        
+        // 先完成註冊與上線，再開始計時
+        CompletableFuture.allOf(drivers.stream().map(SimDriver::start).toArray(CompletableFuture[]::new)).join();
+        latency.snapshot();
+        
+        running = true;
+        long startNanos = System.nanoTime();
+        for (SimDriver driver : drivers) {
+            driver.schedule();
+        }
+        scheduleNextArrival(new Random(config.getSeed()));
+        
+        TimeUnit.SECONDS.sleep(config.getDurationSeconds());
+        running = false;
+        scheduler.shutdownNow();
+        scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        long endNanos = System.nanoTime();
+        double seconds = (endNanos - startNanos) / 1e9;
+        
+        // 結束時仍未被接單的訂單：最久等候時間反映是否有訂單餓死
+        long oldestPendingNanos = createdAt.values().stream()
+                .mapToLong(created -> endNanos - created)
+                .max().orElse(0);
+        
+        return new SimulationReport(seconds,
+                ordersCreated.sum(), ordersCancelled.sum(),
+                acceptAttempts.sum(), acceptConflicts.sum(), acceptRejected.sum(),
+                tripsCompleted.sum(), requestErrors.sum(),
+                createdAt.size(), oldestPendingNanos / 1e6,
+                latency.snapshot());
+    }
+    
+    // ============ 乘客 ============
+    
+    private void scheduleNextArrival(Random random) {
+        if (!running) {
+            return;
+        }
+        // 指數分佈的到達間隔
+        double intervalSeconds = -Math.log(1 - random.nextDouble()) / config.getOrderRate();
+        
+        String passengerId = "sim-passenger-" + random.nextInt(config.getPassengers());
+        Location pickup = randomLocation(random);
+        Location dropoff = randomLocation(random);
+        VehicleType vehicleType = VEHICLE_TYPES[random.nextInt(VEHICLE_TYPES.length)];
+        boolean cancel = random.nextDouble() < config.getCancelRate();
+        long cancelDelayMs = (long) (random.nextDouble() * config.getCancelDelayMaxMs());
+        
+        schedule(() -> {
+            createOrder(passengerId, pickup, dropoff, vehicleType, cancel, cancelDelayMs);
+            scheduleNextArrival(random);
+        }, (long) (intervalSeconds * 1_000_000), TimeUnit.MICROSECONDS);
+    }
+    
+    private void createOrder(String passengerId, Location pickup, Location dropoff,
+                             VehicleType vehicleType, boolean cancel, long cancelDelayMs) {
+        long start = System.nanoTime();
+        latency.time(CREATE_ORDER, () -> apiClient.createOrder(passengerId, pickup, dropoff, vehicleType))
+                .whenComplete((response, error) -> {
+                    if (!succeeded(response, error)) {
+                        return;
+                    }
+                    ordersCreated.increment();
+                    String orderId = response.getData().getOrderId();
+                    createdAt.put(orderId, start);
+                    if (cancel) {
+                        schedule(() -> cancelOrder(orderId, passengerId), cancelDelayMs, TimeUnit.MILLISECONDS);
+                    }
+                });
+    }
+    
+    private void cancelOrder(String orderId, String passengerId) {
+        // 伺服器僅允許訂單擁有者取消，cancelledBy 需為乘客 ID
+        latency.time(CANCEL_ORDER, () -> apiClient.cancelOrder(orderId, passengerId, "simulated"))
+                .whenComplete((response, error) -> {
+                    // 已完成或已取消的訂單會被拒絕，屬正常情況
+                    if (error != null) {
+                        requestErrors.increment();
+                    } else if (response.isSuccess()) {
+                        ordersCancelled.increment();
+                        createdAt.remove(orderId);
+                    }
+                });
+    }
+    
+    // ============ 司機 ============
+    
+    private enum DriverState { IDLE, ACCEPTING, ON_TRIP }
+    
+    private final class SimDriver {
+        
+        private final String driverId;
+        private final Random random;
+        private final VehicleType vehicleType;
+        private final AtomicReference<DriverState> state = new AtomicReference<>(DriverState.IDLE);
+        private volatile Location location;
+        
+        SimDriver(int index, Random random) {
+            this.driverId = "sim-driver-" + index;
+            this.random = random;
+            this.vehicleType = VEHICLE_TYPES[index % VEHICLE_TYPES.length];
+            this.location = randomLocation(random);
+        }
+        
+        CompletableFuture<?> start() {
+            return latency.time(REGISTER_DRIVER, () -> apiClient.registerDriver(driverId, "Sim " + driverId,
+                            "0900000000", "SIM-" + driverId, vehicleType))
+                    .thenCompose(registered -> latency.time(GO_ONLINE, () -> apiClient.goOnline(driverId, location)));
+        }
+        
+        void schedule() {
+            // 錯開各司機的第一次執行，避免同時送出請求
+            long pollOffset = (long) (random.nextDouble() * config.getOfferPollIntervalMs());
+            long locationOffset = (long) (random.nextDouble() * config.getLocationIntervalMs());
+            scheduler.scheduleAtFixedRate(this::pollOffers, pollOffset,
+                    config.getOfferPollIntervalMs(), TimeUnit.MILLISECONDS);
+            scheduler.scheduleAtFixedRate(this::move, locationOffset,
+                    config.getLocationIntervalMs(), TimeUnit.MILLISECONDS);
+        }
+        
+        private void move() {
+            if (state.get() == DriverState.ACCEPTING) {
+                return;
+            }
+            double size = config.getCitySize();
+            Location next = new Location(
+                    clamp(location.getX() + random.nextGaussian(), size),
+                    clamp(location.getY() + random.nextGaussian(), size));
+            location = next;
+            latency.time(UPDATE_LOCATION, () -> apiClient.updateLocation(driverId, next))
+                    .whenComplete(FleetSimulator.this::succeeded);
+        }
+        
+        @SuppressWarnings("unchecked")
+        private void pollOffers() {
+            if (state.get() != DriverState.IDLE) {
+                return;
+            }
+            latency.time(GET_OFFERS, () -> apiClient.getOffers(driverId))
+                    .whenComplete((response, error) -> {
+                        if (!succeeded(response, error)) {
+                            return;
+                        }
+                        List<Map<String, Object>> offers = (List<Map<String, Object>>) response.getData().get("offers");
+                        // 伺服器依距離排序，所有司機都搶最近的一筆以產生真實競爭
+                        if (offers != null && !offers.isEmpty()
+                                && state.compareAndSet(DriverState.IDLE, DriverState.ACCEPTING)) {
+                            accept((String) offers.get(0).get("orderId"));
+                        }
+                    });
+        }
+        
+        private void accept(String orderId) {
+            acceptAttempts.increment();
+            latency.time(ACCEPT_ORDER, () -> apiClient.acceptOrder(orderId, driverId))
+                    .whenComplete((response, error) -> {
+                        if (error != null) {
+                            requestErrors.increment();
+                            state.set(DriverState.IDLE);
+                        } else if (response.isSuccess()) {
+                            Long created = createdAt.remove(orderId);
+                            if (created != null) {
+                                latency.record(TIME_TO_ACCEPT, System.nanoTime() - created);
+                            }
+                            state.set(DriverState.ON_TRIP);
+                            FleetSimulator.this.schedule(() -> startTrip(orderId),
+                                    config.getPickupDelayMs(), TimeUnit.MILLISECONDS);
+                        } else {
+                            // OFFER_LEASED：伺服器開啟訂單保留，訂單保留給其他司機 (列表已過時)
+                            if ("ORDER_ALREADY_ACCEPTED".equals(response.getErrorCode())
+                                    || "OFFER_LEASED".equals(response.getErrorCode())) {
+                                acceptConflicts.increment();
+                            } else {
+                                acceptRejected.increment();
+                            }
+                            state.set(DriverState.IDLE);
+                        }
+                    });
+        }
+        
+        private void startTrip(String orderId) {
+            latency.time(START_TRIP, () -> apiClient.startTrip(orderId, driverId))
+                    .whenComplete((response, error) -> {
+                        if (!succeeded(response, error)) {
+                            // 乘客已取消等情況，回到待命
+                            state.set(DriverState.IDLE);
+                            return;
+                        }
+                        FleetSimulator.this.schedule(() -> completeTrip(orderId),
+                                config.getTripDurationMs(), TimeUnit.MILLISECONDS);
+                    });
+        }
+        
+        private void completeTrip(String orderId) {
+            latency.time(COMPLETE_TRIP, () -> apiClient.completeTrip(orderId, driverId))
+                    .whenComplete((response, error) -> {
+                        if (succeeded(response, error)) {
+                            tripsCompleted.increment();
+                        }
+                        state.set(DriverState.IDLE);
+                    });
+        }
+    }
+    
+    // ============ 工具方法 ============
+    
+    private void schedule(Runnable task, long delay, TimeUnit unit) {
+        if (running && !scheduler.isShutdown()) {
+            try {
+                scheduler.schedule(task, delay, unit);
+            } catch (java.util.concurrent.RejectedExecutionException e) {
+                // 模擬結束後排程器已關閉
+            }
+        }
+    }
+    
+    private boolean succeeded(ApiResponse<?> response, Throwable error) {
+        if (error != null) {
+            requestErrors.increment();
+            return false;
+        }
+        return response.isSuccess();
+    }
+    
+    private Location randomLocation(Random random) {
+        return new Location(random.nextDouble() * config.getCitySize(), random.nextDouble() * config.getCitySize());
+    }
+    
+    private static double clamp(double value, double max) {
+        return Math.max(0, Math.min(max, value));
+    }
+}
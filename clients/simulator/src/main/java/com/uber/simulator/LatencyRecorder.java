@@ -0,0 +1,82 @@
+package com.uber.simulator;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 各端點延遲記錄 (HdrHistogram)
+ * 
+ * 以 Recorder 在多執行緒下無鎖記錄，每個端點一個直方圖，
+ * 單位為奈秒，報表以毫秒輸出。
+ */
+public class LatencyRecorder {
+    
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.SECONDS.toNanos(60);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double NANOS_PER_MS = 1_000_000.0;
+    
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    
+    /**
+     * 計時一次非同步呼叫 (成功或失敗皆記錄)
+     */
+    public <T> CompletableFuture<T> time(String endpoint, Supplier<CompletableFuture<T>> call) {
+        long start = System.nanoTime();
+        return call.get().whenComplete((result, error) -> record(endpoint, System.nanoTime() - start));
+    }
+    
+    public void record(String endpoint, long nanos) {
+        recorders.computeIfAbsent(endpoint, k -> new Recorder(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS))
+                .recordValue(Math.min(nanos, HIGHEST_TRACKABLE_NANOS));
+    }
+    
+    /**
+     * 取出各端點直方圖 (依端點名稱排序)
+     */
+    public Map<String, Histogram> snapshot() {
+        Map<String, Histogram> histograms = new TreeMap<>();
+        recorders.forEach((endpoint, recorder) -> {
+            Histogram histogram = recorder.getIntervalHistogram();
+            if (histogram.getTotalCount() > 0) {
+                histograms.put(endpoint, histogram);
+            }
+        });
+        return histograms;
+    }
+    
+    public static void printSummary(Map<String, Histogram> histograms, double seconds, PrintStream out) {
+        out.printf("%-36s %9s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "req/s", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+        histograms.forEach((endpoint, h) -> out.printf("%-36s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                endpoint, h.getTotalCount(), h.getTotalCount() / seconds,
+                h.getValueAtPercentile(50) / NANOS_PER_MS,
+                h.getValueAtPercentile(90) / NANOS_PER_MS,
+                h.getValueAtPercentile(99) / NANOS_PER_MS,
+                h.getValueAtPercentile(99.9) / NANOS_PER_MS,
+                h.getMaxValue() / NANOS_PER_MS));
+    }
+    
+    /**
+     * 輸出 .hgrm 檔，可用 HdrHistogram plotter 繪製百分位曲線
+     */
+    public static void writeDistributions(Map<String, Histogram> histograms, Path dir) throws IOException {
+        Files.createDirectories(dir);
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            String fileName = entry.getKey().replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm";
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(fileName)))) {
+                entry.getValue().outputPercentileDistribution(out, NANOS_PER_MS);
+            }
+        }
+    }
+}
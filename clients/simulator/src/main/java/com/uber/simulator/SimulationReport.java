@@ -0,0 +1,49 @@
+package com.uber.simulator;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.Map;
+
+/**
+ * 模擬結果
+ */
+public record SimulationReport(
+        double seconds,
+        long ordersCreated,
+        long ordersCancelled,
+        long acceptAttempts,
+        long acceptConflicts,
+        long acceptRejected,
+        long tripsCompleted,
+        long requestErrors,
+        int ordersPending,
+        double oldestPendingMs,
+        Map<String, Histogram> latencies) {
+    
+    /**
+     * 搶單衝突率 = 收到 409 (已被其他司機接走或保留給其他司機) 的接單請求 / 全部接單請求
+     */
+    public double acceptConflictRate() {
+        return acceptAttempts == 0 ? 0 : (double) acceptConflicts / acceptAttempts;
+    }
+    
+    /**
+     * 接單失敗率 = 未成功的接單請求 (衝突與其他拒絕) / 全部接單請求
+     */
+    public double acceptFailureRate() {
+        return acceptAttempts == 0 ? 0 : (double) (acceptConflicts + acceptRejected) / acceptAttempts;
+    }
+    
+    public void print(PrintStream out) {
+        out.printf("執行時間: %.1f s%n", seconds);
+        out.printf("建立訂單: %d (%.1f/s), 取消: %d, 完成行程: %d%n",
+                ordersCreated, ordersCreated / seconds, ordersCancelled, tripsCompleted);
+        out.printf("接單請求: %d, 搶單衝突: %d (%.2f%%), 其他拒絕: %d, 接單失敗率: %.2f%%%n",
+                acceptAttempts, acceptConflicts, acceptConflictRate() * 100, acceptRejected,
+                acceptFailureRate() * 100);
+        out.printf("結束時未接單: %d, 最久等候: %.1f s%n", ordersPending, oldestPendingMs / 1000);
+        out.printf("連線錯誤: %d%n%n", requestErrors);
+        LatencyRecorder.printSummary(latencies, seconds, out);
+    }
+}
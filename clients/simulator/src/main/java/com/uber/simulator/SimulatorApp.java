@@ -0,0 +1,29 @@
+package com.uber.simulator;
+
+import java.nio.file.Path;
+
+/**
+ * 無介面車隊模擬器入口
+ * 
+ * mvn exec:java -Dexec.args="--drivers=100 --order-rate=20 --duration=60 --seed=42"
+ */
+public class SimulatorApp {
+    
+    public static void main(String[] args) throws Exception {
+        SimulatorConfig config = SimulatorConfig.fromArgs(args);
+        System.out.printf("模擬 %d 位司機、%d 位乘客，到達率 %.1f 單/秒，持續 %d 秒 (seed=%d) -> %s%n%n",
+                config.getDrivers(), config.getPassengers(), config.getOrderRate(),
+                config.getDurationSeconds(), config.getSeed(), config.getBaseUrl());
+        
+        SimulationReport report = new FleetSimulator(config).run();
+        report.print(System.out);
+        
+        if (config.getReportDir() != null) {
+            LatencyRecorder.writeDistributions(report.latencies(), Path.of(config.getReportDir()));
+            System.out.println();
+            System.out.println("百分位分佈已輸出至 " + config.getReportDir());
+        }
+        // HttpClient 執行緒不會自行結束
+        System.exit(0);
+    }
+}
@@ -0,0 +1,90 @@
+package com.uber.simulator;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * 模擬參數
+ * 
+ * 以命令列 --key=value 覆寫預設值，例如：
+ * --drivers=200 --passengers=1000 --order-rate=50 --duration=120 --seed=7
+ */
+@Data
+@Builder
+public class SimulatorConfig {
+    
+    @Builder.Default
+    private String baseUrl = "http://localhost:8080/api";
+    
+    // 司機數 (N) 與乘客數 (M)
+    @Builder.Default
+    private int drivers = 50;
+    @Builder.Default
+    private int passengers = 200;
+    
+    // 叫車到達率 (每秒訂單數，Poisson 分佈)
+    @Builder.Default
+    private double orderRate = 10.0;
+    
+    // 乘客建立訂單後取消的機率，與取消前最長等待時間
+    @Builder.Default
+    private double cancelRate = 0.1;
+    @Builder.Default
+    private long cancelDelayMaxMs = 5_000;
+    
+    // 司機位置回報與輪詢可接訂單的間隔
+    @Builder.Default
+    private long locationIntervalMs = 1_000;
+    @Builder.Default
+    private long offerPollIntervalMs = 500;
+    
+    // 接單後到開始行程、開始行程到完成行程的時間
+    @Builder.Default
+    private long pickupDelayMs = 1_000;
+    @Builder.Default
+    private long tripDurationMs = 3_000;
+    
+    // 城市範圍 (座標 0 ~ citySize)
+    @Builder.Default
+    private double citySize = 100.0;
+    
+    @Builder.Default
+    private long durationSeconds = 60;
+    @Builder.Default
+    private long seed = 42L;
+    @Builder.Default
+    private int threads = 8;
+    
+    // 若設定則輸出各端點的 .hgrm 百分位分佈檔
+    private String reportDir;
+    
+    public static SimulatorConfig fromArgs(String[] args) {
+        SimulatorConfigBuilder builder = SimulatorConfig.builder();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("參數格式錯誤 (應為 --key=value): " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (key) {
+                case "base-url" -> builder.baseUrl(value);
+                case "drivers" -> builder.drivers(Integer.parseInt(value));
+                case "passengers" -> builder.passengers(Integer.parseInt(value));
+                case "order-rate" -> builder.orderRate(Double.parseDouble(value));
+                case "cancel-rate" -> builder.cancelRate(Double.parseDouble(value));
+                case "cancel-delay-max" -> builder.cancelDelayMaxMs(Long.parseLong(value));
+                case "location-interval" -> builder.locationIntervalMs(Long.parseLong(value));
+                case "offer-poll-interval" -> builder.offerPollIntervalMs(Long.parseLong(value));
+                case "pickup-delay" -> builder.pickupDelayMs(Long.parseLong(value));
+                case "trip-duration" -> builder.tripDurationMs(Long.parseLong(value));
+                case "city-size" -> builder.citySize(Double.parseDouble(value));
+                case "duration" -> builder.durationSeconds(Long.parseLong(value));
+                case "seed" -> builder.seed(Long.parseLong(value));
+                case "threads" -> builder.threads(Integer.parseInt(value));
+                case "report-dir" -> builder.reportDir(value);
+                default -> throw new IllegalArgumentException("未知參數: " + key);
+            }
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.uber.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * 允入控制設定 (dispatch.admission.enabled=false 時關閉)
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "dispatch.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionConfig {
+    
+    @Bean
+    public AdmissionControl admissionControl(AdmissionProperties properties) {
+        return new AdmissionControl(properties);
+    }
+    
+    /**
+     * 排在備援唯讀與叢集路由之前，過載時不做任何轉送或解析
+     */
+    @Bean
+    public FilterRegistrationBean<AdmissionFilter> admissionFilter(AdmissionControl admissionControl,
+                                                                   ObjectMapper objectMapper,
+                                                                   AdmissionProperties properties) {
+        FilterRegistrationBean<AdmissionFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionFilter(admissionControl, objectMapper, properties.getRetryAfterSeconds()));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
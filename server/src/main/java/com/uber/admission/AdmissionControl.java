@@ -0,0 +1,29 @@
+package com.uber.admission;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各端點類別的併發上限
+ */
+public class AdmissionControl {
+    
+    private final Map<EndpointClass, AimdLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    
+    public AdmissionControl(AdmissionProperties properties) {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            AdmissionProperties.Budget budget = properties.budgetOf(endpointClass);
+            limiters.put(endpointClass, new AimdLimiter(
+                    budget.getInitialLimit(),
+                    budget.getMinLimit(),
+                    budget.getMaxLimit(),
+                    TimeUnit.MILLISECONDS.toNanos(budget.getLatencyThresholdMillis()),
+                    properties.getBackoffRatio()));
+        }
+    }
+    
+    public AimdLimiter limiter(EndpointClass endpointClass) {
+        return limiters.get(endpointClass);
+    }
+}
@@ -0,0 +1,57 @@
+package com.uber.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uber.dto.ApiResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 允入控制 Filter
+ * 
+ * 受限端點超過該類別的併發上限時立即回應 503 OVERLOADED (附 Retry-After)，
+ * 請求不進入 Tomcat 工作執行緒後段與 acceptLock 的等待佇列。
+ * 處理時間以同步 dispatch 計算；串流回應的非同步階段不計入
+ */
+public class AdmissionFilter extends OncePerRequestFilter {
+    
+    private final AdmissionControl admissionControl;
+    private final ObjectMapper objectMapper;
+    private final String retryAfter;
+    
+    public AdmissionFilter(AdmissionControl admissionControl, ObjectMapper objectMapper, long retryAfterSeconds) {
+        this.admissionControl = admissionControl;
+        this.objectMapper = objectMapper;
+        this.retryAfter = Long.toString(retryAfterSeconds);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.of(request.getMethod(), request.getRequestURI());
+        if (endpointClass == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        AimdLimiter limiter = admissionControl.limiter(endpointClass);
+        if (!limiter.tryAcquire()) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", retryAfter);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    ApiResponse.error("OVERLOADED", "系統忙碌中，請稍後再試"));
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.uber.admission;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 允入控制設定 (dispatch.admission.*)
+ * 
+ * 預設開啟。各端點類別的上限由 initial-limit 起算，依處理時間在 [min-limit, max-limit] 間調整
+ */
+@Data
+@ConfigurationProperties(prefix = "dispatch.admission")
+public class AdmissionProperties {
+    
+    private boolean enabled = true;
+    
+    // 拒絕時回應的 Retry-After (秒)
+    private long retryAfterSeconds = 1;
+    
+    // 處理時間超過門檻時上限乘上的比例
+    private double backoffRatio = 0.9;
+    
+    private Budget accept = new Budget(16, 2, 64, 200);
+    private Budget offers = new Budget(32, 4, 128, 200);
+    private Budget location = new Budget(64, 8, 256, 100);
+    private Budget admin = new Budget(4, 1, 16, 1000);
+    
+    public Budget budgetOf(EndpointClass endpointClass) {
+        return switch (endpointClass) {
+            case ACCEPT -> accept;
+            case OFFERS -> offers;
+            case LOCATION -> location;
+            case ADMIN -> admin;
+        };
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Budget {
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+        // 處理時間超過此值 (毫秒) 視為過載訊號
+        private long latencyThresholdMillis;
+    }
+}
@@ -0,0 +1,99 @@
+package com.uber.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 依延遲調整的併發上限 (AIMD: additive increase / multiplicative decrease)
+ * 
+ * - 請求完成時間超過門檻：上限乘以 backoffRatio；遞減後一個門檻時間內不再遞減
+ *   (這段期間完成的慢請求多半是在舊上限下送入的，同一波壅塞只算一次)
+ * - 未超過且使用量達上限一半以上：上限 +1；使用量低時不增加，避免閒置期間上限無限成長
+ * - 使用中的請求數已達上限時立即拒絕，不排隊
+ * 
+ * 允入判斷只有一次 CAS；上限調整在請求完成時以 synchronized 進行
+ */
+public class AimdLimiter {
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final LongSupplier clockNanos;
+    private volatile double limit;
+    // 上次遞減的時間 (僅於 synchronized 時存取)
+    private long lastDecreaseNanos;
+    
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos, double backoffRatio) {
+        this(initialLimit, minLimit, maxLimit, latencyThresholdNanos, backoffRatio, System::nanoTime);
+    }
+    
+    AimdLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos, double backoffRatio,
+                LongSupplier clockNanos) {
+        if (minLimit <= 0 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("require 0 < minLimit <= initialLimit <= maxLimit");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be in (0, 1)");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.clockNanos = clockNanos;
+        this.limit = initialLimit;
+        this.lastDecreaseNanos = clockNanos.getAsLong() - latencyThresholdNanos;
+    }
+    
+    /**
+     * 取得一個額度；成功時呼叫端必須於請求完成後呼叫 release
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * 歸還額度並以此請求的處理時間調整上限
+     */
+    public void release(long latencyNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        onSample(latencyNanos, inFlightAtCompletion);
+    }
+    
+    private synchronized void onSample(long latencyNanos, int inFlightAtCompletion) {
+        if (latencyNanos > latencyThresholdNanos) {
+            long now = clockNanos.getAsLong();
+            if (now - lastDecreaseNanos >= latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseNanos = now;
+            }
+        } else if (inFlightAtCompletion * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+    
+    public int getLimit() {
+        return (int) limit;
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
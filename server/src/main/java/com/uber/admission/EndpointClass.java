@@ -0,0 +1,39 @@
+package com.uber.admission;
+
+/**
+ * 允入控制的端點類別，各類別有獨立的併發額度
+ * 
+ * 建立訂單、開始 / 完成 / 取消行程、上下線等關鍵狀態轉移不受限，
+ * 過載時由前四類先行拒絕，讓這些請求不必排在搶單與輪詢後面
+ */
+public enum EndpointClass {
+    ACCEPT,     // PUT /api/orders/{orderId}/accept
+    OFFERS,     // GET /api/drivers/{driverId}/offers
+    LOCATION,   // PUT /api/drivers/{driverId}/location
+    ADMIN;      // /api/admin/**、GET /api/changes
+    
+    private static final String ORDERS = "/api/orders/";
+    private static final String DRIVERS = "/api/drivers/";
+    
+    /**
+     * 依方法與路徑分類，不受限的請求回傳 null
+     * (/api/changes/stream 為長連線，不計入額度)
+     */
+    public static EndpointClass of(String method, String path) {
+        if (path.startsWith("/api/admin/") || ("GET".equals(method) && "/api/changes".equals(path))) {
+            return ADMIN;
+        }
+        if ("PUT".equals(method) && path.startsWith(ORDERS) && path.endsWith("/accept")) {
+            return ACCEPT;
+        }
+        if (path.startsWith(DRIVERS)) {
+            if ("GET".equals(method) && path.endsWith("/offers")) {
+                return OFFERS;
+            }
+            if ("PUT".equals(method) && path.endsWith("/location")) {
+                return LOCATION;
+            }
+        }
+        return null;
+    }
+}
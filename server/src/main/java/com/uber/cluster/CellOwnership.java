@@ -0,0 +1,85 @@
+package com.uber.cluster;
+
+import com.uber.model.Location;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 格子與資料擁有權
+ * 
+ * - 待派訂單：歸屬上車點所在格子的擁有者；叢集模式下訂單 ID 帶格子前綴 (c{x}_{y}-uuid)，
+ *   任何節點皆可由 ID 判斷擁有者
+ * - 司機：歸屬 driverId 雜湊的節點 (移動跨格時不需搬移資料)
+ */
+public class CellOwnership {
+    
+    private static final Pattern ORDER_CELL = Pattern.compile("^c(-?\\d+_-?\\d+)-");
+    
+    private final String localNodeId;
+    private final double cellSize;
+    private final ConsistentHashRing ring;
+    
+    public CellOwnership(ClusterProperties properties) {
+        if (!properties.getNodes().containsKey(properties.getNodeId())) {
+            throw new IllegalArgumentException("dispatch.cluster.nodes 未包含本節點 " + properties.getNodeId());
+        }
+        this.localNodeId = properties.getNodeId();
+        this.cellSize = properties.getCellSize();
+        this.ring = new ConsistentHashRing(properties.getNodes().keySet(), properties.getVirtualNodes());
+    }
+    
+    public String getLocalNodeId() {
+        return localNodeId;
+    }
+    
+    public boolean isLocal(String nodeId) {
+        return localNodeId.equals(nodeId);
+    }
+    
+    public GridCell cellOf(Location location) {
+        return GridCell.of(location, cellSize);
+    }
+    
+    public String ownerOfCell(GridCell cell) {
+        return ring.ownerOf("cell:" + cell.key());
+    }
+    
+    public String ownerOfLocation(Location location) {
+        return ownerOfCell(cellOf(location));
+    }
+    
+    /**
+     * 訂單擁有者；不帶格子前綴的 ID (單機模式建立) 視為本機
+     */
+    public String ownerOfOrder(String orderId) {
+        Matcher matcher = ORDER_CELL.matcher(orderId);
+        return matcher.find() ? ownerOfCell(GridCell.parse(matcher.group(1))) : localNodeId;
+    }
+    
+    public String ownerOfDriver(String driverId) {
+        return ring.ownerOf("driver:" + driverId);
+    }
+    
+    /**
+     * 訂單 ID 前綴 (c{x}_{y}-)
+     */
+    public String orderIdPrefix(Location pickup) {
+        return "c" + cellOf(pickup).key() + "-";
+    }
+    
+    /**
+     * location 半徑 radius 內的格子，依擁有者分組 (依節點順序)
+     */
+    public Map<String, List<GridCell>> cellsNear(Location location, double radius) {
+        Map<String, List<GridCell>> byOwner = new LinkedHashMap<>();
+        for (GridCell cell : GridCell.covering(location, radius, cellSize)) {
+            byOwner.computeIfAbsent(ownerOfCell(cell), owner -> new ArrayList<>()).add(cell);
+        }
+        return byOwner;
+    }
+}
@@ -0,0 +1,19 @@
+package com.uber.cluster;
+
+/**
+ * 司機保留逾期時，訂單所屬節點對該次接單 (orderId + fencing token) 的裁決
+ */
+public enum ClaimOutcome {
+    
+    // 訂單已由此司機接單：保留轉為正式指派
+    COMMITTED,
+    
+    // 接單流程仍在進行 (commit 尚未送達)：延長保留
+    IN_FLIGHT,
+    
+    // 接單已放棄或訂單已不存在：釋放司機並封鎖此 token
+    ABORTED,
+    
+    // 訂單所屬節點無法連線：維持保留，超過 orphan-timeout 才釋放
+    UNKNOWN
+}
@@ -0,0 +1,54 @@
+package com.uber.cluster;
+
+import com.uber.service.OrderService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 定期處理逾期的司機保留 (本節點為司機所屬節點)
+ * 
+ * 租約逾期仍未 commit 時向訂單所屬節點查詢裁決：已接單則轉為正式指派、仍在進行則延長、
+ * 已放棄則釋放司機；訂單所屬節點無法連線時維持保留，超過 claim-orphan-timeout 才釋放
+ */
+@Slf4j
+public class ClaimSweeper implements AutoCloseable {
+    
+    private final OrderService orderService;
+    private final DispatchCluster dispatchCluster;
+    private final ClusterProperties properties;
+    private final ScheduledExecutorService scheduler;
+    
+    public ClaimSweeper(OrderService orderService, DispatchCluster dispatchCluster, ClusterProperties properties) {
+        this.orderService = orderService;
+        this.dispatchCluster = dispatchCluster;
+        this.properties = properties;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "claim-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(50, properties.getClaimLeaseMillis() / 4);
+        scheduler.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+    
+    void sweep() {
+        try {
+            for (DriverClaim claim : orderService.getExpiredDriverClaims()) {
+                ClaimOutcome outcome = dispatchCluster.resolveClaim(claim);
+                log.debug("Claim {}/{} for driver {} resolved as {}", claim.orderId(), claim.token(), claim.driverId(), outcome);
+                orderService.settleDriverClaim(claim, outcome,
+                        properties.getClaimLeaseMillis(), properties.getClaimOrphanTimeoutMillis());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Claim sweep failed", e);
+        }
+    }
+    
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,62 @@
+package com.uber.cluster;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 節點間 HTTP 用戶端
+ * 
+ * 轉送的請求帶 X-Dispatch-Forwarded 標頭，接收端一律在本機處理，避免擁有權不一致時循環轉送
+ */
+public class ClusterClient {
+    
+    public static final String FORWARDED_HEADER = "X-Dispatch-Forwarded";
+    
+    private final ClusterProperties properties;
+    private final HttpClient httpClient;
+    private final Duration timeout;
+    
+    public ClusterClient(ClusterProperties properties) {
+        this.properties = properties;
+        this.timeout = Duration.ofMillis(properties.getRequestTimeoutMillis());
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+    
+    public HttpResponse<byte[]> send(String nodeId, String method, String pathAndQuery,
+                                     Map<String, String> headers, byte[] body)
+            throws IOException, InterruptedException {
+        return httpClient.send(request(nodeId, method, pathAndQuery, headers, body),
+                HttpResponse.BodyHandlers.ofByteArray());
+    }
+    
+    public CompletableFuture<HttpResponse<byte[]>> sendAsync(String nodeId, String method, String pathAndQuery,
+                                                             Map<String, String> headers, byte[] body) {
+        return httpClient.sendAsync(request(nodeId, method, pathAndQuery, headers, body),
+                HttpResponse.BodyHandlers.ofByteArray());
+    }
+    
+    private HttpRequest request(String nodeId, String method, String pathAndQuery,
+                                Map<String, String> headers, byte[] body) {
+        String baseUrl = properties.getNodes().get(nodeId);
+        if (baseUrl == null) {
+            throw new IllegalArgumentException("unknown node: " + nodeId);
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery))
+                .timeout(timeout)
+                .header(FORWARDED_HEADER, properties.getNodeId())
+                .method(method, body == null || body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+        headers.forEach(builder::header);
+        return builder.build();
+    }
+}
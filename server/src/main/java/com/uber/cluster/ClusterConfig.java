@@ -0,0 +1,57 @@
+package com.uber.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uber.service.OrderService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * 叢集模式設定 (dispatch.cluster.enabled=true 時啟用)
+ * 
+ * 未啟用時不建立任何 bean，服務層使用 DispatchCluster.STANDALONE
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "dispatch.cluster", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ClusterProperties.class)
+public class ClusterConfig {
+    
+    @Bean
+    public CellOwnership cellOwnership(ClusterProperties properties) {
+        return new CellOwnership(properties);
+    }
+    
+    @Bean
+    public ClusterClient clusterClient(ClusterProperties properties) {
+        return new ClusterClient(properties);
+    }
+    
+    @Bean
+    public ClusterDispatch clusterDispatch(CellOwnership cellOwnership, ClusterClient clusterClient,
+                                           ObjectMapper objectMapper, ClusterProperties properties) {
+        return new ClusterDispatch(cellOwnership, clusterClient, objectMapper, properties);
+    }
+    
+    @Bean(destroyMethod = "close")
+    public ClaimSweeper claimSweeper(OrderService orderService, ClusterDispatch clusterDispatch,
+                                     ClusterProperties properties) {
+        return new ClaimSweeper(orderService, clusterDispatch, properties);
+    }
+    
+    /**
+     * 路由 Filter 排在最前面，轉送的請求不經過本機的壓縮與控制器
+     */
+    @Bean
+    public FilterRegistrationBean<ClusterRoutingFilter> clusterRoutingFilter(CellOwnership cellOwnership,
+                                                                             ClusterClient clusterClient,
+                                                                             ObjectMapper objectMapper) {
+        FilterRegistrationBean<ClusterRoutingFilter> registration =
+                new FilterRegistrationBean<>(new ClusterRoutingFilter(cellOwnership, clusterClient, objectMapper));
+        registration.addUrlPatterns("/api/orders", "/api/orders/*", "/api/drivers", "/api/drivers/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registration;
+    }
+}
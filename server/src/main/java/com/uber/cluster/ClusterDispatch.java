@@ -0,0 +1,203 @@
+package com.uber.cluster;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uber.dto.ApiResponse;
+import com.uber.model.Location;
+import com.uber.model.Order;
+import com.uber.model.VehicleType;
+import com.uber.service.ValidationResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 叢集模式的 DispatchCluster 實作
+ */
+@Slf4j
+public class ClusterDispatch implements DispatchCluster {
+    
+    private static final TypeReference<ApiResponse<List<Order>>> ORDER_LIST = new TypeReference<>() {};
+    
+    // 保留/commit/abort 連線失敗時的嘗試次數
+    private static final int MAX_ATTEMPTS = 2;
+    
+    private final CellOwnership ownership;
+    private final ClusterClient client;
+    private final ObjectMapper objectMapper;
+    private final ClusterProperties properties;
+    
+    public ClusterDispatch(CellOwnership ownership, ClusterClient client,
+                           ObjectMapper objectMapper, ClusterProperties properties) {
+        this.ownership = ownership;
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+    
+    @Override
+    public String newOrderId(Location pickup) {
+        return ownership.orderIdPrefix(pickup) + UUID.randomUUID();
+    }
+    
+    @Override
+    public boolean isRemoteDriver(String driverId) {
+        return !ownership.isLocal(ownership.ownerOfDriver(driverId));
+    }
+    
+    @Override
+    public ValidationResult reserveDriver(String driverId, String orderId, long token) {
+        return callDriverNode(driverId, claimPath(driverId, "reserve", orderId, token)
+                + "&leaseMillis=" + properties.getClaimLeaseMillis());
+    }
+    
+    @Override
+    public ValidationResult commitDriver(String driverId, String orderId, long token) {
+        return callDriverNode(driverId, claimPath(driverId, "commit", orderId, token));
+    }
+    
+    @Override
+    public void abortDriver(String driverId, String orderId, long token) {
+        ValidationResult result = callDriverNode(driverId, claimPath(driverId, "abort", orderId, token));
+        if (!result.isValid()) {
+            log.warn("Abort claim {}/{} for driver {} failed: {}", orderId, token, driverId, result.getCode());
+        }
+    }
+    
+    @Override
+    public void releaseDriver(String driverId, String orderId) {
+        // 司機所屬節點無法連線時僅記錄，司機需重新上線恢復
+        ValidationResult result = callDriverNode(driverId, driverPath(driverId, "release")
+                + "?orderId=" + encode(orderId));
+        if (!result.isValid()) {
+            log.warn("Release driver {} for order {} failed: {}", driverId, orderId, result.getCode());
+        }
+    }
+    
+    @Override
+    public ClaimOutcome resolveClaim(DriverClaim claim) {
+        String path = "/internal/cluster/orders/" + encode(claim.orderId()) + "/claims/" + claim.token()
+                + "?driverId=" + encode(claim.driverId());
+        try {
+            HttpResponse<byte[]> response = client.send(ownership.ownerOfOrder(claim.orderId()), "GET", path, Map.of(), null);
+            JsonNode body = objectMapper.readTree(response.body());
+            if (body.path("success").asBoolean()) {
+                return ClaimOutcome.valueOf(body.path("data").asText());
+            }
+            log.warn("Resolve claim {}/{} failed: {}", claim.orderId(), claim.token(), body.path("error").path("code").asText());
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Resolve claim {}/{} failed: {}", claim.orderId(), claim.token(), e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return ClaimOutcome.UNKNOWN;
+    }
+    
+    @Override
+    public long claimLeaseMillis() {
+        return properties.getClaimLeaseMillis();
+    }
+    
+    @Override
+    public List<Order> remotePendingOrders(Location location, VehicleType vehicleType) {
+        List<CompletableFuture<List<Order>>> requests = new ArrayList<>();
+        for (Map.Entry<String, List<GridCell>> entry : ownership.cellsNear(location, properties.getMatchRadius()).entrySet()) {
+            String owner = entry.getKey();
+            if (ownership.isLocal(owner)) {
+                continue;
+            }
+            String cells = entry.getValue().stream().map(GridCell::key).collect(Collectors.joining(","));
+            String path = "/internal/cluster/pending-orders?vehicleType=" + vehicleType + "&cells=" + cells;
+            requests.add(client.sendAsync(owner, "GET", path, Map.of(), null)
+                    .thenApply(this::readOrders)
+                    .exceptionally(error -> {
+                        // 鄰近節點失效時降級為只回傳可取得的訂單
+                        log.warn("Pending orders from {} unavailable: {}", owner, error.toString());
+                        return List.of();
+                    }));
+        }
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        
+        List<Order> orders = new ArrayList<>();
+        for (CompletableFuture<List<Order>> request : requests) {
+            try {
+                orders.addAll(request.get(properties.getRequestTimeoutMillis(), TimeUnit.MILLISECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("Pending orders request timed out: {}", e.toString());
+            }
+        }
+        return orders;
+    }
+    
+    @Override
+    public double matchRadius() {
+        return properties.getMatchRadius();
+    }
+    
+    private List<Order> readOrders(HttpResponse<byte[]> response) {
+        try {
+            ApiResponse<List<Order>> body = objectMapper.readValue(response.body(), ORDER_LIST);
+            return body.isSuccess() && body.getData() != null ? body.getData() : List.of();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    /**
+     * 呼叫司機所屬節點；連線失敗時以相同參數重送 (保留/commit/abort 皆以 token 冪等)，
+     * 任何失敗都以 NODE_UNAVAILABLE 回報，不向呼叫端拋出例外
+     */
+    private ValidationResult callDriverNode(String driverId, String path) {
+        String owner = ownership.ownerOfDriver(driverId);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                HttpResponse<byte[]> response = client.send(owner, "POST", path, Map.of(), null);
+                JsonNode body = objectMapper.readTree(response.body());
+                if (body.path("success").asBoolean()) {
+                    return ValidationResult.OK;
+                }
+                return ValidationResult.ofDriverCode(body.path("error").path("code").asText(null));
+            } catch (IOException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    log.warn("POST {} on {} failed: {}", path, owner, e.toString());
+                    return ValidationResult.NODE_UNAVAILABLE;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return ValidationResult.NODE_UNAVAILABLE;
+            } catch (RuntimeException e) {
+                // 回應無法解析等非 I/O 錯誤：不重送，同樣視為節點不可用
+                log.warn("POST {} on {} failed: {}", path, owner, e.toString());
+                return ValidationResult.NODE_UNAVAILABLE;
+            }
+        }
+    }
+    
+    private static String claimPath(String driverId, String action, String orderId, long token) {
+        return driverPath(driverId, action) + "?orderId=" + encode(orderId) + "&token=" + token;
+    }
+    
+    private static String driverPath(String driverId, String action) {
+        return "/internal/cluster/drivers/" + encode(driverId) + "/" + action;
+    }
+    
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,44 @@
+package com.uber.cluster;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 叢集模式設定 (dispatch.cluster.*)
+ * 
+ * 預設關閉：單一節點，所有資料皆在本機。開啟後各節點須使用相同的 nodes / cell-size / virtual-nodes，
+ * 格子擁有權才會一致
+ */
+@Data
+@ConfigurationProperties(prefix = "dispatch.cluster")
+public class ClusterProperties {
+    
+    private boolean enabled = false;
+    
+    // 本節點 ID (須為 nodes 的 key 之一)
+    private String nodeId = "node-1";
+    
+    // 所有節點 ID -> base URL (如 http://localhost:8081)
+    private Map<String, String> nodes = new LinkedHashMap<>();
+    
+    // 格子邊長 (座標單位)
+    private double cellSize = 10.0;
+    
+    // 每個節點在雜湊環上的虛擬節點數
+    private int virtualNodes = 128;
+    
+    // 跨格配對的搜尋半徑，只向此範圍內格子的擁有者查詢
+    private double matchRadius = 10.0;
+    
+    // 節點間請求逾時 (毫秒)
+    private long requestTimeoutMillis = 1000;
+    
+    // 跨節點接單時司機保留的租約 (毫秒)，逾期未 commit 即向訂單所屬節點查詢裁決
+    private long claimLeaseMillis = 5000;
+    
+    // 訂單所屬節點持續無法連線時，逾期保留最多再維持多久才強制釋放 (毫秒)
+    private long claimOrphanTimeoutMillis = 30000;
+}
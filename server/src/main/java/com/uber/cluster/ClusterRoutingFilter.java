@@ -0,0 +1,306 @@
+package com.uber.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.uber.controller.OrderController;
+import com.uber.dto.ApiResponse;
+import com.uber.model.Location;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 叢集路由 Filter
+ * 
+ * 依擁有權將乘客 / 司機 API 轉送到負責的節點，回應原樣回傳：
+ * - POST /api/orders          : 上車點格子的擁有者
+ * - /api/orders/{orderId}/**  : 訂單 ID 前綴格子的擁有者
+ * - GET /api/orders?ids=      : 依擁有者分組查詢後合併
+ * - POST /api/drivers、/api/drivers/{driverId}/** : driverId 雜湊的節點
+ * 
+ * 批次匯入 (bulk) 在叢集模式不支援；管理端與變更事件端點只回傳本機資料。
+ * 已被轉送過的請求 (帶 X-Dispatch-Forwarded) 一律在本機處理
+ */
+@Slf4j
+public class ClusterRoutingFilter extends OncePerRequestFilter {
+    
+    private static final String ORDERS = "/api/orders";
+    private static final String DRIVERS = "/api/drivers";
+    // 轉送時保留的請求標頭 (Accept-Encoding 不轉送，回應以未壓縮內容轉回)
+    private static final List<String> FORWARDED_REQUEST_HEADERS =
+            List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.ACCEPT, HttpHeaders.IF_NONE_MATCH);
+    private static final List<String> FORWARDED_RESPONSE_HEADERS =
+            List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG);
+    
+    private final CellOwnership ownership;
+    private final ClusterClient client;
+    private final ObjectMapper objectMapper;
+    
+    public ClusterRoutingFilter(CellOwnership ownership, ClusterClient client, ObjectMapper objectMapper) {
+        this.ownership = ownership;
+        this.client = client;
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return request.getHeader(ClusterClient.FORWARDED_HEADER) != null
+                || !(path.startsWith(ORDERS) || path.startsWith(DRIVERS));
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+        
+        if (path.equals(ORDERS + "/bulk") || path.equals(DRIVERS + "/bulk")) {
+            writeError(response, 501, "CLUSTER_UNSUPPORTED", "叢集模式不支援批次匯入，請逐筆建立");
+            return;
+        }
+        
+        if (path.equals(ORDERS) && "GET".equals(method) && request.getParameter("ids") != null) {
+            getOrdersAcrossNodes(request, response, chain);
+            return;
+        }
+        
+        byte[] body = null;
+        String owner;
+        if (path.equals(ORDERS) && "POST".equals(method)) {
+            body = request.getInputStream().readAllBytes();
+            owner = ownerOfNewOrder(body);
+        } else if (path.startsWith(ORDERS + "/") && !path.equals(ORDERS + "/quotes")) {
+            owner = ownership.ownerOfOrder(segment(path, ORDERS.length() + 1));
+        } else if (path.equals(DRIVERS) && "POST".equals(method)) {
+            body = request.getInputStream().readAllBytes();
+            owner = ownerOfDriverBody(body);
+        } else if (path.startsWith(DRIVERS + "/")) {
+            owner = ownership.ownerOfDriver(segment(path, DRIVERS.length() + 1));
+        } else {
+            owner = ownership.getLocalNodeId();
+        }
+        
+        if (ownership.isLocal(owner)) {
+            chain.doFilter(body != null ? new CachedBodyRequest(request, body) : request, response);
+            return;
+        }
+        if (body == null) {
+            body = request.getInputStream().readAllBytes();
+        }
+        forward(owner, request, body, response);
+    }
+    
+    // ========== 擁有者判斷 ==========
+    
+    private String ownerOfNewOrder(byte[] body) {
+        try {
+            JsonNode json = objectMapper.readTree(body);
+            if (json != null && json.path("pickupX").isNumber() && json.path("pickupY").isNumber()) {
+                return ownership.ownerOfLocation(new Location(json.get("pickupX").asDouble(), json.get("pickupY").asDouble()));
+            }
+        } catch (IOException e) {
+            // 格式錯誤交由本機驗證回應
+        }
+        return ownership.getLocalNodeId();
+    }
+    
+    private String ownerOfDriverBody(byte[] body) {
+        try {
+            JsonNode json = objectMapper.readTree(body);
+            if (json != null && json.path("driverId").isTextual()) {
+                return ownership.ownerOfDriver(json.get("driverId").asText());
+            }
+        } catch (IOException e) {
+            // 格式錯誤交由本機驗證回應
+        }
+        return ownership.getLocalNodeId();
+    }
+    
+    private static String segment(String path, int start) {
+        int end = path.indexOf('/', start);
+        return path.substring(start, end < 0 ? path.length() : end);
+    }
+    
+    // ========== 轉送 ==========
+    
+    private void forward(String owner, HttpServletRequest request, byte[] body, HttpServletResponse response)
+            throws IOException {
+        String pathAndQuery = request.getRequestURI()
+                + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+        try {
+            HttpResponse<byte[]> remote = client.send(owner, request.getMethod(), pathAndQuery, requestHeaders(request), body);
+            response.setStatus(remote.statusCode());
+            for (String name : FORWARDED_RESPONSE_HEADERS) {
+                remote.headers().firstValue(name).ifPresent(value -> response.setHeader(name, value));
+            }
+            response.getOutputStream().write(remote.body());
+        } catch (IOException e) {
+            log.warn("Forward {} {} to {} failed: {}", request.getMethod(), pathAndQuery, owner, e.toString());
+            writeError(response, 503, "NODE_UNAVAILABLE", "叢集節點暫時無法連線");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeError(response, 503, "NODE_UNAVAILABLE", "叢集節點暫時無法連線");
+        }
+    }
+    
+    private static Map<String, String> requestHeaders(HttpServletRequest request) {
+        Map<String, String> headers = new HashMap<>();
+        for (String name : FORWARDED_REQUEST_HEADERS) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        }
+        return headers;
+    }
+    
+    /**
+     * 批次查詢：依擁有者分組平行查詢，再依輸入順序合併 orders / notFound
+     */
+    private void getOrdersAcrossNodes(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Set<String> ids = new LinkedHashSet<>();
+        for (String value : request.getParameterValues("ids")) {
+            for (String id : value.split(",")) {
+                if (!id.isBlank()) {
+                    ids.add(id.trim());
+                }
+            }
+        }
+        Map<String, List<String>> byOwner = new LinkedHashMap<>();
+        for (String id : ids) {
+            byOwner.computeIfAbsent(ownership.ownerOfOrder(id), owner -> new ArrayList<>()).add(id);
+        }
+        // 全部在同一節點 (或沒有有效 ID，交由控制器驗證) 時不需合併
+        if (byOwner.size() <= 1 || ids.size() > OrderController.MAX_BATCH_IDS) {
+            String owner = byOwner.isEmpty() ? ownership.getLocalNodeId() : byOwner.keySet().iterator().next();
+            if (ownership.isLocal(owner)) {
+                chain.doFilter(request, response);
+            } else {
+                forward(owner, request, null, response);
+            }
+            return;
+        }
+        
+        // 跨節點時各自查詢 (本機部分同樣以 HTTP 送給自己，帶轉送標頭直接在本機處理)
+        Map<String, CompletableFuture<HttpResponse<byte[]>>> requests = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> entry : byOwner.entrySet()) {
+            String query = "?ids=" + URLEncoder.encode(String.join(",", entry.getValue()), StandardCharsets.UTF_8);
+            requests.put(entry.getKey(), client.sendAsync(entry.getKey(), "GET", ORDERS + query, Map.of(), null));
+        }
+        
+        Map<String, JsonNode> found = new HashMap<>();
+        for (Map.Entry<String, CompletableFuture<HttpResponse<byte[]>>> entry : requests.entrySet()) {
+            try {
+                HttpResponse<byte[]> remote = entry.getValue().join();
+                if (remote.statusCode() != 200) {
+                    // 數量驗證等錯誤原樣回傳
+                    response.setStatus(remote.statusCode());
+                    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                    response.getOutputStream().write(remote.body());
+                    return;
+                }
+                for (JsonNode order : objectMapper.readTree(remote.body()).path("data").path("orders")) {
+                    found.put(order.path("orderId").asText(), order);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Batch order lookup on {} failed: {}", entry.getKey(), e.toString());
+                writeError(response, 503, "NODE_UNAVAILABLE", "叢集節點暫時無法連線");
+                return;
+            }
+        }
+        
+        ObjectNode data = objectMapper.createObjectNode();
+        ArrayNode orders = data.putArray("orders");
+        ArrayNode notFound = data.putArray("notFound");
+        for (String id : ids) {
+            JsonNode order = found.get(id);
+            if (order != null) {
+                orders.add(order);
+            } else {
+                notFound.add(id);
+            }
+        }
+        data.put("count", orders.size());
+        writeJson(response, 200, ApiResponse.success(data));
+    }
+    
+    private void writeError(HttpServletResponse response, int status, String code, String message) throws IOException {
+        writeJson(response, status, ApiResponse.error(code, message));
+    }
+    
+    private void writeJson(HttpServletResponse response, int status, Object body) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+    
+    /**
+     * 已讀取內容的請求，重新提供 body 給後續處理
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        
+        private final byte[] body;
+        
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+        
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+                
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+                
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+                
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+                
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.uber.cluster;
+
+import com.uber.model.Location;
+import com.uber.model.Order;
+import com.uber.model.VehicleType;
+import com.uber.service.ValidationResult;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 服務層使用的叢集操作
+ * 
+ * 單機模式使用 STANDALONE：所有司機都在本機、沒有遠端訂單，行為與未分片時相同
+ */
+public interface DispatchCluster {
+    
+    DispatchCluster STANDALONE = new DispatchCluster() {
+        @Override
+        public String newOrderId(Location pickup) {
+            return UUID.randomUUID().toString();
+        }
+        
+        @Override
+        public boolean isRemoteDriver(String driverId) {
+            return false;
+        }
+        
+        @Override
+        public ValidationResult reserveDriver(String driverId, String orderId, long token) {
+            throw new UnsupportedOperationException("standalone mode has no remote drivers");
+        }
+        
+        @Override
+        public ValidationResult commitDriver(String driverId, String orderId, long token) {
+            throw new UnsupportedOperationException("standalone mode has no remote drivers");
+        }
+        
+        @Override
+        public void abortDriver(String driverId, String orderId, long token) {
+            throw new UnsupportedOperationException("standalone mode has no remote drivers");
+        }
+        
+        @Override
+        public void releaseDriver(String driverId, String orderId) {
+            throw new UnsupportedOperationException("standalone mode has no remote drivers");
+        }
+        
+        @Override
+        public ClaimOutcome resolveClaim(DriverClaim claim) {
+            throw new UnsupportedOperationException("standalone mode has no remote orders");
+        }
+        
+        @Override
+        public long claimLeaseMillis() {
+            return 0;
+        }
+        
+        @Override
+        public List<Order> remotePendingOrders(Location location, VehicleType vehicleType) {
+            return List.of();
+        }
+        
+        @Override
+        public double matchRadius() {
+            return Double.POSITIVE_INFINITY;
+        }
+    };
+    
+    /**
+     * 產生訂單 ID (叢集模式帶上車點格子前綴)
+     */
+    String newOrderId(Location pickup);
+    
+    /**
+     * 司機資料是否在其他節點
+     */
+    boolean isRemoteDriver(String driverId);
+    
+    /**
+     * 接單第一階段：於司機所屬節點以租約保留司機 (同一 token 重送冪等，較舊的 token 回應 CLAIM_FENCED)
+     */
+    ValidationResult reserveDriver(String driverId, String orderId, long token);
+    
+    /**
+     * 接單第二階段：將保留轉為正式指派 (token 須與保留相同；重送冪等)
+     */
+    ValidationResult commitDriver(String driverId, String orderId, long token);
+    
+    /**
+     * 放棄保留 (盡力而為，送達失敗時由司機所屬節點於租約逾期後查詢裁決)
+     */
+    void abortDriver(String driverId, String orderId, long token);
+    
+    /**
+     * 於司機所屬節點釋放司機 (完成 / 取消)
+     */
+    void releaseDriver(String driverId, String orderId);
+    
+    /**
+     * 向訂單所屬節點查詢逾期保留的裁決
+     */
+    ClaimOutcome resolveClaim(DriverClaim claim);
+    
+    /**
+     * 司機保留的租約長度 (毫秒)
+     */
+    long claimLeaseMillis();
+    
+    /**
+     * 向鄰近格子的其他擁有者查詢待派訂單 (有界 scatter-gather)
+     */
+    List<Order> remotePendingOrders(Location location, VehicleType vehicleType);
+    
+    /**
+     * 可接訂單的搜尋半徑 (單機模式不限)
+     */
+    double matchRadius();
+}
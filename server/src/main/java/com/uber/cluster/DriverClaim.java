@@ -0,0 +1,7 @@
+package com.uber.cluster;
+
+/**
+ * 尚未 commit 的司機保留 (fencing token 由訂單所屬節點發出，同一訂單的新嘗試 token 較大)
+ */
+public record DriverClaim(String driverId, String orderId, long token) {
+}
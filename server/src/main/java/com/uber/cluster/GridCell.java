@@ -0,0 +1,48 @@
+package com.uber.cluster;
+
+import com.uber.model.Location;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 地理格子 (以 cellSize 切分平面座標)
+ */
+public record GridCell(int x, int y) {
+    
+    public static GridCell of(Location location, double cellSize) {
+        return new GridCell((int) Math.floor(location.getX() / cellSize),
+                (int) Math.floor(location.getY() / cellSize));
+    }
+    
+    /**
+     * 與 location 距離 radius 內可能包含點的所有格子 (含 location 所在格)
+     */
+    public static List<GridCell> covering(Location location, double radius, double cellSize) {
+        GridCell min = of(new Location(location.getX() - radius, location.getY() - radius), cellSize);
+        GridCell max = of(new Location(location.getX() + radius, location.getY() + radius), cellSize);
+        List<GridCell> cells = new ArrayList<>((max.x - min.x + 1) * (max.y - min.y + 1));
+        for (int cx = min.x; cx <= max.x; cx++) {
+            for (int cy = min.y; cy <= max.y; cy++) {
+                cells.add(new GridCell(cx, cy));
+            }
+        }
+        return cells;
+    }
+    
+    /**
+     * 格子鍵值，用於雜湊與 URL 參數 (如 "3_-2")
+     */
+    public String key() {
+        return x + "_" + y;
+    }
+    
+    public static GridCell parse(String key) {
+        int separator = key.indexOf('_', 1);
+        if (separator < 0) {
+            throw new IllegalArgumentException("invalid cell key: " + key);
+        }
+        return new GridCell(Integer.parseInt(key.substring(0, separator)),
+                Integer.parseInt(key.substring(separator + 1)));
+    }
+}
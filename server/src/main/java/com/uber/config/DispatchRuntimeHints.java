@@ -0,0 +1,41 @@
+package com.uber.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * 原生映像 (GraalVM native-image) 反射提示
+ * 
+ * Controller 的回傳型別由 Spring AOT 自動註冊，但 ApiResponse&lt;T&gt; 的泛型內容、
+ * 叢集 / 複寫 RPC 以 TypeReference 反序列化的型別、串流端點以 ObjectWriter 寫出的列型別
+ * 都無法靜態推導，因此於 AOT 處理時掃描 model 與 dto 套件，逐一註冊 Jackson 綁定所需的
+ * 建構子、getter / setter 與 record accessor
+ */
+public class DispatchRuntimeHints implements RuntimeHintsRegistrar {
+    
+    static final List<String> BINDING_PACKAGES = List.of("com.uber.model", "com.uber.dto");
+    
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+    
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter((reader, factory) -> true);
+        if (classLoader != null) {
+            scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+        }
+        for (String basePackage : BINDING_PACKAGES) {
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                Class<?> type = ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader);
+                bindingRegistrar.registerReflectionHints(hints.reflection(), type);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.uber.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.NativeDetector;
+
+/**
+ * Jackson 設定
+ * 
+ * 註冊 Blackbird 模組，以產生的存取器取代反射呼叫 getter / record accessor
+ * (Spring Boot 會自動將 Module bean 註冊至 ObjectMapper)
+ * 
+ * 原生映像不支援執行期定義 hidden class，改走反射路徑 (見 DispatchRuntimeHints)；
+ * AOT 會在建置期凍結 bean 定義，因此於 bean 方法內判斷而非以 @Conditional 排除
+ */
+@Configuration
+@ImportRuntimeHints(DispatchRuntimeHints.class)
+public class JacksonConfig {
+    
+    @Bean
+    public Module blackbirdModule() {
+        if (NativeDetector.inNativeImage()) {
+            return new SimpleModule("blackbird-disabled");
+        }
+        return new BlackbirdModule();
+    }
+}
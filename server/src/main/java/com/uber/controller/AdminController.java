@@ -1,19 +1,40 @@
 package com.uber.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.uber.dto.ApiResponse;
+import com.uber.dto.response.AdminDriverResponse;
+import com.uber.dto.response.AdminOrderResponse;
+import com.uber.dto.response.AuditLogResponse;
+import com.uber.exception.BusinessException;
 import com.uber.model.*;
+import com.uber.repository.ChangeSet;
+import com.uber.repository.OrderFilter;
 import com.uber.service.AuditService;
 import com.uber.service.DriverService;
 import com.uber.service.FareService;
 import com.uber.service.OrderService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -27,9 +48,14 @@ import java.util.stream.Collectors;
  * - GET /api/admin/drivers         : 取得所有司機
  * - GET /api/admin/audit-logs      : 取得 Audit Log (支援篩選)
  * - GET /api/admin/accept-stats/{orderId}: 取得搶單統計 (H2 驗證用)
+ * - GET /api/admin/export/orders   : 匯出訂單 (NDJSON / CSV 串流)
+ * - GET /api/admin/export/audit-logs: 匯出 Audit Log (NDJSON / CSV 串流)
  * - GET /api/admin/rate-plans      : 取得費率設定
  * - PUT /api/admin/rate-plans/{vehicleType}: 更新費率設定
  * - GET /api/admin/stats           : 系統統計數據
+ * 
+ * 列表端點支援 If-None-Match 條件查詢 (ETag 為集合修改計數)，
+ * 並以 since 參數提供增量查詢，供管理後台套用差異而不重新載入整張表
  */
 @RestController
 @RequestMapping("/api/admin")
@@ -40,57 +66,88 @@ public class AdminController {
     private final DriverService driverService;
     private final AuditService auditService;
     private final FareService fareService;
+    private final ObjectMapper objectMapper;
+    
+    private static final Comparator<Order> NEWEST_FIRST = Comparator
+            .comparing(Order::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Order::getOrderId, Comparator.nullsLast(Comparator.naturalOrder()));
+    private static final Comparator<Driver> BY_DRIVER_ID =
+            Comparator.comparing(Driver::getDriverId, Comparator.nullsLast(Comparator.naturalOrder()));
+    
+    // 匯出續傳用：本次匯出涵蓋到的審計日誌序號 (下一次的 since)
+    static final String EXPORT_SEQUENCE_HEADER = "X-Export-Sequence";
+    
+    private static final ExportRows.Layout<Order, AdminOrderResponse> ORDER_EXPORT = new ExportRows.Layout<>(
+            AdminOrderResponse.class, AdminOrderResponse::detailOf,
+            List.of("orderId", "status", "passengerId", "driverId", "vehicleType",
+                    "pickupX", "pickupY", "dropoffX", "dropoffY", "estimatedFare", "actualFare", "distance",
+                    "duration", "createdAt", "acceptedAt", "startedAt", "completedAt", "cancelledAt",
+                    "cancelledBy", "cancelFee"),
+            order -> new Object[] {
+                    order.getOrderId(), order.getStatus(), order.getPassengerId(), order.getDriverId(),
+                    order.getVehicleType(),
+                    order.getPickupLocation() == null ? null : order.getPickupLocation().getX(),
+                    order.getPickupLocation() == null ? null : order.getPickupLocation().getY(),
+                    order.getDropoffLocation() == null ? null : order.getDropoffLocation().getX(),
+                    order.getDropoffLocation() == null ? null : order.getDropoffLocation().getY(),
+                    order.getEstimatedFare(), order.getActualFare(), order.getDistance(), order.getDuration(),
+                    order.getCreatedAt(), order.getAcceptedAt(), order.getStartedAt(), order.getCompletedAt(),
+                    order.getCancelledAt(), order.getCancelledBy(), order.getCancelFee()});
+    
+    private static final ExportRows.Layout<AuditLog, AuditLogResponse> AUDIT_EXPORT = new ExportRows.Layout<>(
+            AuditLogResponse.class, AuditLogResponse::from,
+            List.of("id", "timestamp", "orderId", "action", "actorType", "actorId",
+                    "previousState", "newState", "success", "failureReason"),
+            log -> new Object[] {
+                    log.getId(), log.getTimestamp(), log.getOrderId(), log.getAction(), log.getActorType(),
+                    log.getActorId(), log.getPreviousState(), log.getNewState(), log.isSuccess(),
+                    log.getFailureReason()});
     
     /**
      * 取得所有訂單 (支援分頁和狀態篩選)
      * GET /api/admin/orders
+     * 
+     * 以串流輸出，只保留到本頁為止的有界 top-k，記憶體用量不隨訂單數成長；
+     * 依建立時間新到舊排序，分頁位置穩定。
+     * 帶 since 時改為增量模式：回傳版本號大於 since 的訂單 (不套用狀態篩選)
      */
     @GetMapping("/orders")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getAllOrders(
+    public ResponseEntity<StreamingResponseBody> getAllOrders(
             @RequestParam(required = false) String status,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
-        
-        List<Order> orders = orderService.getAllOrders();
-        
-        // 狀態篩選
-        if (status != null && !status.isEmpty()) {
-            try {
-                OrderStatus orderStatus = OrderStatus.valueOf(status.toUpperCase());
-                orders = orders.stream()
-                        .filter(o -> o.getStatus() == orderStatus)
-                        .toList();
-            } catch (IllegalArgumentException e) {
-                // 無效的狀態參數，忽略篩選
-            }
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        
+        long sequence = orderService.getOrdersModificationCount();
+        String etag = ETags.of("orders", sequence);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        if (since != null) {
+            return streamingOk(etag, changesBody(orderService.getOrderChanges(since),
+                    AdminOrderResponse.class, AdminOrderResponse::summaryOf));
         }
         
-        int totalElements = orders.size();
-        int totalPages = (int) Math.ceil((double) totalElements / size);
-        
-        // 分頁
-        int start = page * size;
-        int end = Math.min(start + size, orders.size());
-        List<Order> pagedOrders = start < orders.size() 
-                ? orders.subList(start, end) 
-                : List.of();
-        
-        // 轉換為 API 回應格式
-        List<Map<String, Object>> orderList = pagedOrders.stream()
-                .map(this::buildOrderSummary)
-                .collect(Collectors.toList());
-        
-        Map<String, Object> pagination = new HashMap<>();
-        pagination.put("page", page);
-        pagination.put("size", size);
-        pagination.put("totalElements", totalElements);
-        pagination.put("totalPages", totalPages);
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("orders", orderList);
-        response.put("pagination", pagination);
+        OrderStatus orderStatus = parseEnum(OrderStatus.class, status);
+        OrderFilter filter = new OrderFilter(orderStatus, null, null, null, null);
         
-        return ResponseEntity.ok(ApiResponse.success(response));
+        return streamingOk(etag, StreamingJsonResponse.body(objectMapper, "orders", AdminOrderResponse.class, sink -> {
+            // 逐筆走訪 (冷儲存逐區塊解壓)，只保留到本頁為止的前 (page + 1) * size 筆，同時計算總筆數
+            long start = (long) page * size;
+            TopK<Order> top = topK(orderService.exportOrders(filter), order -> true, NEWEST_FIRST, start + size);
+            for (Order order : top.items().subList((int) Math.min(start, top.items().size()), top.items().size())) {
+                sink.write(AdminOrderResponse.summaryOf(order));
+            }
+            int totalElements = top.totalElements();
+            
+            Map<String, Object> pagination = new HashMap<>();
+            pagination.put("page", page);
+            pagination.put("size", size);
+            pagination.put("totalElements", totalElements);
+            pagination.put("totalPages", (int) Math.ceil((double) totalElements / size));
+            return trailer("pagination", pagination, "sequence", sequence);
+        }));
     }
     
     /**
@@ -98,76 +155,174 @@ public class AdminController {
      * GET /api/admin/orders/{orderId}
      */
     @GetMapping("/orders/{orderId}")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getOrderDetail(
+    public ResponseEntity<ApiResponse<AdminOrderResponse>> getOrderDetail(
             @PathVariable String orderId) {
         Order order = orderService.getOrder(orderId);
-        return ResponseEntity.ok(ApiResponse.success(buildOrderDetail(order)));
+        return ResponseEntity.ok(ApiResponse.success(AdminOrderResponse.detailOf(order)));
     }
     
     /**
      * 取得所有司機
      * GET /api/admin/drivers
+     * 
+     * 依 driverId 排序；帶 size 時分頁，帶 since 時改為增量模式 (同訂單列表)
      */
     @GetMapping("/drivers")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getAllDrivers(
-            @RequestParam(required = false) String status) {
-        List<Driver> drivers = driverService.getAllDrivers();
-        
-        // 狀態篩選
-        if (status != null && !status.isEmpty()) {
-            try {
-                DriverStatus driverStatus = DriverStatus.valueOf(status.toUpperCase());
-                drivers = drivers.stream()
-                        .filter(d -> d.getStatus() == driverStatus)
-                        .toList();
-            } catch (IllegalArgumentException e) {
-                // 無效的狀態參數，忽略篩選
-            }
+    public ResponseEntity<StreamingResponseBody> getAllDrivers(
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        long sequence = driverService.getDriversModificationCount();
+        String etag = ETags.of("drivers", sequence);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        if (since != null) {
+            return streamingOk(etag, changesBody(driverService.getDriverChanges(since),
+                    AdminDriverResponse.class, AdminDriverResponse::from));
         }
         
-        List<Map<String, Object>> driverList = drivers.stream()
-                .map(this::buildDriverSummary)
-                .collect(Collectors.toList());
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("drivers", driverList);
-        response.put("count", driverList.size());
-        
-        return ResponseEntity.ok(ApiResponse.success(response));
+        DriverStatus driverStatus = parseEnum(DriverStatus.class, status);
+        
+        return streamingOk(etag, StreamingJsonResponse.body(objectMapper, "drivers", AdminDriverResponse.class, sink -> {
+            long start = size != null ? (long) page * size : 0;
+            long keep = size != null ? start + size : Long.MAX_VALUE;
+            TopK<Driver> top = topK(driverService.scanDrivers(),
+                    driver -> driverStatus == null || driver.getStatus() == driverStatus, BY_DRIVER_ID, keep);
+            int count = 0;
+            for (Driver driver : top.items().subList((int) Math.min(start, top.items().size()), top.items().size())) {
+                sink.write(AdminDriverResponse.from(driver));
+                count++;
+            }
+            int totalElements = top.totalElements();
+            return trailer("count", count, "totalElements", totalElements, "sequence", sequence);
+        }));
     }
     
     /**
-     * 取得 Audit Log (支援 orderId 和 action 篩選)
+     * 取得 Audit Log (支援 orderId、action 和時間範圍篩選)
      * GET /api/admin/audit-logs
+     * 
+     * 審計日誌只會附加，帶 since (寫入序號 offset) 時只掃描 since 之後最多 limit 筆，
+     * 回傳的 sequence 為下一次查詢的 since；
+     * 未帶 since 時依 from (含) / to (不含) 篩選時間，封存區段可依摘要整段略過
      */
     @GetMapping("/audit-logs")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getAuditLogs(
+    public ResponseEntity<StreamingResponseBody> getAuditLogs(
             @RequestParam(required = false) String orderId,
-            @RequestParam(required = false) String action) {
-        
-        List<AuditLog> logs;
-        if (orderId != null && !orderId.isEmpty()) {
-            logs = auditService.getLogsByOrderId(orderId);
-        } else {
-            logs = auditService.getAllLogs();
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) Integer since,
+            @RequestParam(defaultValue = "500") int limit,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        
+        String etag = ETags.of("audit-logs", auditService.getModificationCount());
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
         }
         
-        // Action 篩選
-        if (action != null && !action.isEmpty()) {
-            logs = logs.stream()
-                    .filter(log -> log.getAction().equalsIgnoreCase(action))
-                    .collect(Collectors.toList());
+        boolean filterOrderId = orderId != null && !orderId.isEmpty();
+        boolean filterAction = action != null && !action.isEmpty();
+        
+        if (since != null) {
+            int total = auditService.getLogCount();
+            // 日誌被清空過，客戶端需自 0 重新載入
+            boolean reset = since > total;
+            List<AuditLog> slice = reset ? List.of() : auditService.getLogsFrom(since, Math.max(limit, 1));
+            int next = reset ? 0 : since + slice.size();
+            return streamingOk(etag, StreamingJsonResponse.body(objectMapper, "logs", AuditLogResponse.class, sink -> {
+                int count = 0;
+                for (AuditLog log : slice) {
+                    if ((!filterOrderId || orderId.equals(log.getOrderId()))
+                            && (!filterAction || log.getAction().equalsIgnoreCase(action))) {
+                        sink.write(AuditLogResponse.from(log));
+                        count++;
+                    }
+                }
+                return trailer("count", count, "sequence", next, "reset", reset, "hasMore", next < total);
+            }));
         }
         
-        List<Map<String, Object>> logList = logs.stream()
-                .map(this::buildAuditLogResponse)
-                .collect(Collectors.toList());
+        // action 一律以大寫記錄，轉大寫後可直接比對區段字典
+        List<AuditLog> logs = auditService.findLogs(filterOrderId ? orderId : null,
+                filterAction ? action.toUpperCase(Locale.ROOT) : null,
+                parseInstant("from", from), parseInstant("to", to));
         
-        Map<String, Object> response = new HashMap<>();
-        response.put("logs", logList);
-        response.put("count", logList.size());
-        
-        return ResponseEntity.ok(ApiResponse.success(response));
+        return streamingOk(etag, StreamingJsonResponse.body(objectMapper, "logs", AuditLogResponse.class, sink -> {
+            for (AuditLog log : logs) {
+                sink.write(AuditLogResponse.from(log));
+            }
+            return Map.of("count", logs.size());
+        }));
+    }
+    
+    private static Instant parseInstant(String name, String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BusinessException("INVALID_REQUEST", name + " 需為 ISO-8601 時間 (例如 2024-01-01T00:00:00Z)");
+        }
+    }
+    
+    /**
+     * 匯出訂單 (含冷儲存)
+     * GET /api/admin/export/orders?format=ndjson|csv&status=&passengerId=&driverId=&from=&to=
+     * 
+     * 邊走訪儲存庫邊寫出 (冷儲存一次只解壓一個區塊)，記憶體用量與訂單數無關；
+     * from / to 篩選建立時間，順序不保證
+     */
+    @GetMapping("/export/orders")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String passengerId,
+            @RequestParam(required = false) String driverId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            HttpServletRequest request) {
+        ExportRows.Format exportFormat = ExportRows.Format.parse(format);
+        OrderFilter filter = new OrderFilter(parseEnum(OrderStatus.class, status),
+                emptyToNull(passengerId), emptyToNull(driverId), parseInstant("from", from), parseInstant("to", to));
+        return ExportRows.response(request, objectMapper, exportFormat, "orders", ORDER_EXPORT,
+                orderService.exportOrders(filter), new HttpHeaders());
+    }
+    
+    /**
+     * 匯出 Audit Log
+     * GET /api/admin/export/audit-logs?format=ndjson|csv&orderId=&action=&from=&to=&since=
+     * 
+     * 依寫入順序匯出序號 since (預設 0) 起到請求當下為止的日誌，一次只還原一個區段；
+     * 回應標頭 X-Export-Sequence 為下一次續傳的 since
+     */
+    @GetMapping("/export/audit-logs")
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String orderId,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "0") int since,
+            HttpServletRequest request) {
+        ExportRows.Format exportFormat = ExportRows.Format.parse(format);
+        String actionFilter = emptyToNull(action);
+        int until = auditService.getLogCount();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(EXPORT_SEQUENCE_HEADER, String.valueOf(until));
+        return ExportRows.response(request, objectMapper, exportFormat, "audit-logs", AUDIT_EXPORT,
+                auditService.exportLogs(emptyToNull(orderId),
+                        actionFilter == null ? null : actionFilter.toUpperCase(Locale.ROOT),
+                        parseInstant("from", from), parseInstant("to", to), since, until),
+                headers);
+    }
+    
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
     }
     
     /**
@@ -264,98 +419,83 @@ public class AdminController {
     
     // ========== 私有方法 ==========
     
-    private Map<String, Object> buildOrderSummary(Order order) {
-        Map<String, Object> summary = new HashMap<>();
-        summary.put("orderId", order.getOrderId());
-        summary.put("passengerId", order.getPassengerId());
-        summary.put("status", order.getStatus().name());
-        summary.put("vehicleType", order.getVehicleType().name());
-        summary.put("createdAt", order.getCreatedAt());
-        
-        if (order.getDriverId() != null) {
-            summary.put("driverId", order.getDriverId());
-        }
-        if (order.getActualFare() != null && order.getActualFare() > 0) {
-            summary.put("fare", order.getActualFare());
-        }
-        if (order.getCompletedAt() != null) {
-            summary.put("completedAt", order.getCompletedAt());
-        }
-        if (order.getCancelledAt() != null) {
-            summary.put("cancelledAt", order.getCancelledAt());
-        }
-        
-        return summary;
+    /**
+     * 增量模式回應：changes 列表 + sequence/reset
+     */
+    private <E, R> StreamingResponseBody changesBody(ChangeSet<E> changeSet, Class<R> rowType,
+                                                     Function<E, R> mapper) {
+        return StreamingJsonResponse.body(objectMapper, "changes", rowType, sink -> {
+            for (E item : changeSet.changes()) {
+                sink.write(mapper.apply(item));
+            }
+            return trailer("count", changeSet.changes().size(),
+                    "sequence", changeSet.sequence(), "reset", changeSet.reset());
+        });
     }
     
-    private Map<String, Object> buildOrderDetail(Order order) {
-        Map<String, Object> detail = buildOrderSummary(order);
-        detail.put("pickupLocation", order.getPickupLocation());
-        detail.put("dropoffLocation", order.getDropoffLocation());
-        detail.put("estimatedFare", order.getEstimatedFare());
-        detail.put("distance", order.getDistance());
-        
-        if (order.getAcceptedAt() != null) {
-            detail.put("acceptedAt", order.getAcceptedAt());
-        }
-        if (order.getStartedAt() != null) {
-            detail.put("startedAt", order.getStartedAt());
-        }
-        if (order.getDuration() != null && order.getDuration() > 0) {
-            detail.put("duration", order.getDuration());
-        }
-        if (order.getCancelFee() != null && order.getCancelFee() > 0) {
-            detail.put("cancelFee", order.getCancelFee());
-        }
-        if (order.getCancelledBy() != null) {
-            detail.put("cancelledBy", order.getCancelledBy());
+    /**
+     * 依參數順序建立附加欄位
+     */
+    private static Map<String, Object> trailer(Object... keyValues) {
+        Map<String, Object> trailer = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            trailer.put((String) keyValues[i], keyValues[i + 1]);
         }
-        
-        return detail;
+        return trailer;
     }
     
-    private Map<String, Object> buildDriverSummary(Driver driver) {
-        Map<String, Object> summary = new HashMap<>();
-        summary.put("driverId", driver.getDriverId());
-        summary.put("name", driver.getName());
-        summary.put("status", driver.getStatus().name());
-        summary.put("vehicleType", driver.getVehicleType().name());
-        summary.put("busy", driver.isBusy());
-        
-        if (driver.getPhone() != null) {
-            summary.put("phone", driver.getPhone());
-        }
-        if (driver.getVehiclePlate() != null) {
-            summary.put("vehiclePlate", driver.getVehiclePlate());
-        }
-        if (driver.getLocation() != null) {
-            summary.put("location", driver.getLocation());
-        }
-        if (driver.getCurrentOrderId() != null) {
-            summary.put("currentOrderId", driver.getCurrentOrderId());
+    private static ResponseEntity<StreamingResponseBody> streamingOk(String etag, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+    
+    private static ResponseEntity<StreamingResponseBody> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    
+    /**
+     * 分頁用的有界 top-k：走訪時只保留依 order 排序的前 keep 筆 (堆頂為保留中排序最後的一筆)，
+     * 不複製、不排序完整列表；同時計算符合 filter 的總筆數
+     */
+    private static <T> TopK<T> topK(Iterator<T> items, Predicate<? super T> filter,
+                                    Comparator<T> order, long keep) {
+        PriorityQueue<T> heap = new PriorityQueue<>(order.reversed());
+        int totalElements = 0;
+        while (items.hasNext()) {
+            T item = items.next();
+            if (!filter.test(item)) {
+                continue;
+            }
+            totalElements++;
+            if (heap.size() < keep) {
+                heap.add(item);
+            } else if (!heap.isEmpty() && order.compare(item, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(item);
+            }
         }
-        summary.put("lastUpdatedAt", driver.getLastUpdatedAt());
-        
-        return summary;
+        List<T> sorted = new ArrayList<>(heap);
+        sorted.sort(order);
+        return new TopK<>(sorted, totalElements);
     }
     
-    private Map<String, Object> buildAuditLogResponse(AuditLog log) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("id", log.getId());
-        response.put("timestamp", log.getTimestamp());
-        response.put("orderId", log.getOrderId());
-        response.put("action", log.getAction());
-        response.put("actorType", log.getActorType());
-        response.put("actorId", log.getActorId());
-        response.put("previousState", log.getPreviousState());
-        response.put("newState", log.getNewState());
-        response.put("success", log.isSuccess());
-        
-        if (log.getFailureReason() != null) {
-            response.put("failureReason", log.getFailureReason());
+    private record TopK<T>(List<T> items, int totalElements) {}
+    
+    /**
+     * 解析狀態參數，空值或無效值表示不篩選
+     */
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            // 無效的狀態參數，忽略篩選
+            return null;
         }
-        
-        return response;
     }
     
     private Map<String, Object> buildRatePlanResponse(RatePlan ratePlan) {
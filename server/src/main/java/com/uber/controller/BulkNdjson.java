@@ -0,0 +1,166 @@
+package com.uber.controller;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.uber.dto.response.BulkResult;
+import com.uber.exception.BusinessException;
+import com.uber.service.ValidationResult;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * NDJSON 批次匯入
+ * 
+ * 逐行讀取請求 (每行一筆 JSON)，解析與 Bean Validation 失敗的行直接記錄錯誤，
+ * 有效資料每 BATCH_SIZE 行交給 handler 一次寫入，並依原始行號逐行輸出 BulkResult。
+ * 每批處理完即 flush，呼叫端不需等待整個請求處理完才看到結果。
+ */
+final class BulkNdjson {
+    
+    static final int BATCH_SIZE = 1000;
+    
+    private BulkNdjson() {
+    }
+    
+    /**
+     * 批次寫入有效資料，回傳與輸入順序相同的 ID 列表
+     */
+    @FunctionalInterface
+    interface BatchHandler<T> {
+        List<String> insert(List<T> batch);
+    }
+    
+    static <T> void process(ObjectMapper objectMapper, Validator validator, Class<T> rowType,
+                            InputStream in, OutputStream out,
+                            Function<T, ValidationResult> check, BatchHandler<T> handler) throws IOException {
+        ObjectReader rowReader = objectMapper.readerFor(rowType);
+        ObjectWriter resultWriter = objectMapper.writerFor(BulkResult.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        try (JsonGenerator gen = objectMapper.createGenerator(out, JsonEncoding.UTF8)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // 每行結果以換行分隔，不使用預設的空白分隔
+            gen.setRootValueSeparator(null);
+            
+            Chunk<T> chunk = new Chunk<>();
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                parse(rowReader, validator, check, lineNumber, line, chunk);
+                if (chunk.size() >= BATCH_SIZE) {
+                    chunk.flush(handler, resultWriter, gen);
+                }
+            }
+            chunk.flush(handler, resultWriter, gen);
+        }
+    }
+    
+    private static <T> void parse(ObjectReader rowReader, Validator validator,
+                                  Function<T, ValidationResult> check,
+                                  int lineNumber, String line, Chunk<T> chunk) {
+        T row;
+        try {
+            row = rowReader.readValue(line);
+        } catch (IOException e) {
+            chunk.addFailure(lineNumber, "INVALID_JSON", "無法解析 JSON");
+            return;
+        }
+        if (row == null) {
+            chunk.addFailure(lineNumber, "INVALID_JSON", "無法解析 JSON");
+            return;
+        }
+        
+        Set<ConstraintViolation<T>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            chunk.addFailure(lineNumber, "VALIDATION_ERROR", violations.iterator().next().getMessage());
+            return;
+        }
+        
+        ValidationResult result = check.apply(row);
+        if (!result.isValid()) {
+            chunk.addFailure(lineNumber, result.getCode(), result.getMessage());
+            return;
+        }
+        chunk.addRow(lineNumber, row);
+    }
+    
+    /**
+     * 一批輸入行：有效資料與失敗結果依行號保存，flush 時依原始順序輸出
+     */
+    private static final class Chunk<T> {
+        private final List<Integer> lines = new ArrayList<>(BATCH_SIZE);
+        private final List<BulkResult> failures = new ArrayList<>(BATCH_SIZE);
+        // 交給 handler 後不再重用，handler 可保留批次列表
+        private List<T> rows = new ArrayList<>(BATCH_SIZE);
+        
+        void addRow(int lineNumber, T row) {
+            lines.add(lineNumber);
+            failures.add(null);
+            rows.add(row);
+        }
+        
+        void addFailure(int lineNumber, String code, String message) {
+            lines.add(lineNumber);
+            failures.add(BulkResult.failed(lineNumber, code, message));
+        }
+        
+        int size() {
+            return lines.size();
+        }
+        
+        void flush(BatchHandler<T> handler, ObjectWriter resultWriter, JsonGenerator gen) throws IOException {
+            if (lines.isEmpty()) {
+                return;
+            }
+            
+            List<String> ids = null;
+            BusinessException batchError = null;
+            if (!rows.isEmpty()) {
+                try {
+                    ids = handler.insert(rows);
+                } catch (BusinessException e) {
+                    batchError = e;
+                }
+            }
+            
+            int rowIndex = 0;
+            for (int i = 0; i < lines.size(); i++) {
+                BulkResult result = failures.get(i);
+                if (result == null) {
+                    int lineNumber = lines.get(i);
+                    result = batchError == null
+                            ? BulkResult.ok(lineNumber, ids.get(rowIndex))
+                            : BulkResult.failed(lineNumber, batchError.getCode(), batchError.getMessage());
+                    rowIndex++;
+                }
+                resultWriter.writeValue(gen, result);
+                gen.writeRaw('\n');
+            }
+            gen.flush();
+            
+            lines.clear();
+            failures.clear();
+            rows = new ArrayList<>(BATCH_SIZE);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.uber.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.uber.dto.response.ChangeEventResponse;
+import com.uber.exception.BusinessException;
+import com.uber.model.ChangeEvent;
+import com.uber.repository.ChangeSet;
+import com.uber.service.ChangeFeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 變更事件 API Controller (change data capture)
+ * 
+ * 端點:
+ * - GET /api/changes?since={seq}        : 取得 since 之後的變更 (JSON)
+ * - GET /api/changes/stream?since={seq} : 以 Server-Sent Events 持續推送變更
+ * 
+ * 事件序號全域遞增；since 已被環狀緩衝覆寫時回傳 reset，消費端需重新載入快照
+ */
+@RestController
+@RequestMapping("/api/changes")
+@RequiredArgsConstructor
+public class ChangeController {
+    
+    static final int MAX_LIMIT = 10_000;
+    // 串流最長持續時間，需短於容器的非同步請求逾時 (Tomcat 預設 30 秒)，之後由客戶端以 Last-Event-ID 重連
+    static final int MAX_WAIT_SECONDS = 25;
+    private static final long HEARTBEAT_MILLIS = 10_000;
+    private static final int STREAM_BATCH = 500;
+    
+    private static final MediaType TEXT_EVENT_STREAM_UTF8 =
+            new MediaType(MediaType.TEXT_EVENT_STREAM, StandardCharsets.UTF_8);
+    
+    private final ChangeFeedService changeFeedService;
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * 取得變更
+     * GET /api/changes?since={seq}&limit={limit}
+     * 
+     * 回傳的 sequence 為最後一筆事件的序號，hasMore 為 true 時應立即以其繼續查詢
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "1000") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BusinessException("INVALID_REQUEST", "limit 需介於 1 到 " + MAX_LIMIT);
+        }
+        
+        ChangeSet<ChangeEvent> changeSet = changeFeedService.getChangesSince(since, limit);
+        boolean hasMore = !changeSet.reset() && changeSet.sequence() < changeFeedService.getLastSequence();
+        
+        StreamingResponseBody body = StreamingJsonResponse.body(objectMapper, "changes", ChangeEventResponse.class, sink -> {
+            for (ChangeEvent event : changeSet.changes()) {
+                sink.write(ChangeEventResponse.from(event));
+            }
+            Map<String, Object> trailer = new LinkedHashMap<>();
+            trailer.put("count", changeSet.changes().size());
+            trailer.put("sequence", changeSet.sequence());
+            trailer.put("reset", changeSet.reset());
+            trailer.put("hasMore", hasMore);
+            return trailer;
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+    
+    /**
+     * 串流變更 (Server-Sent Events)
+     * GET /api/changes/stream?since={seq}
+     * 
+     * 先送出 since 之後的積壓事件，再持續推送新事件 (id 為序號，event 為 change)，
+     * 最長 wait 秒後結束；Last-Event-ID 優先於 since，兩者皆無時只推送新事件。
+     * since 已失效時送出 reset 事件後結束
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamChanges(
+            @RequestParam(required = false) Long since,
+            @RequestParam(defaultValue = "" + MAX_WAIT_SECONDS) int wait,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        long start = parseLastEventId(lastEventId, since);
+        long waitMillis = Math.max(0, Math.min(wait, MAX_WAIT_SECONDS)) * 1000L;
+        ObjectWriter eventWriter = objectMapper.writerFor(ChangeEventResponse.class);
+        
+        StreamingResponseBody body = out -> {
+            long deadline = System.currentTimeMillis() + waitMillis;
+            long cursor = start;
+            write(out, "retry: 1000\n\n");
+            out.flush();
+            
+            while (true) {
+                ChangeSet<ChangeEvent> changeSet = changeFeedService.getChangesSince(cursor, STREAM_BATCH);
+                if (changeSet.reset()) {
+                    write(out, "event: reset\ndata: {\"sequence\":" + changeSet.sequence() + "}\n\n");
+                    out.flush();
+                    return;
+                }
+                for (ChangeEvent event : changeSet.changes()) {
+                    write(out, "id: " + event.getSequence() + "\nevent: change\ndata: ");
+                    out.write(eventWriter.writeValueAsBytes(ChangeEventResponse.from(event)));
+                    write(out, "\n\n");
+                }
+                cursor = changeSet.sequence();
+                if (!changeSet.changes().isEmpty()) {
+                    out.flush();
+                }
+                if (changeSet.changes().size() == STREAM_BATCH) {
+                    continue;
+                }
+                
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return;
+                }
+                try {
+                    if (!changeFeedService.awaitChangesAfter(cursor, Math.min(remaining, HEARTBEAT_MILLIS))) {
+                        // 心跳註解行，讓中介代理保持連線並及早發現斷線
+                        write(out, ": keepalive\n\n");
+                        out.flush();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        };
+        
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .contentType(TEXT_EVENT_STREAM_UTF8)
+                .body(body);
+    }
+    
+    private long parseLastEventId(String lastEventId, Long since) {
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                return Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                throw new BusinessException("INVALID_REQUEST", "Last-Event-ID 格式錯誤");
+            }
+        }
+        return since != null ? since : changeFeedService.getLastSequence();
+    }
+    
+    private static void write(OutputStream out, String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,96 @@
+package com.uber.controller;
+
+import com.uber.cluster.ClaimOutcome;
+import com.uber.cluster.ClusterProperties;
+import com.uber.cluster.GridCell;
+import com.uber.dto.ApiResponse;
+import com.uber.model.Order;
+import com.uber.model.VehicleType;
+import com.uber.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 叢集節點間 API (僅叢集模式啟用)
+ * 
+ * 端點:
+ * - GET  /internal/cluster/pending-orders?cells=&vehicleType= : 本機指定格子內的待派訂單
+ * - POST /internal/cluster/drivers/{driverId}/reserve?orderId=&token=&leaseMillis= : 以租約保留本機司機
+ * - POST /internal/cluster/drivers/{driverId}/commit?orderId=&token= : 保留轉為正式指派
+ * - POST /internal/cluster/drivers/{driverId}/abort?orderId=&token= : 放棄保留
+ * - POST /internal/cluster/drivers/{driverId}/release?orderId= : 行程結束釋放本機司機
+ * - GET  /internal/cluster/orders/{orderId}/claims/{token}?driverId= : 裁決逾期的司機保留
+ */
+@RestController
+@RequestMapping("/internal/cluster")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "dispatch.cluster", name = "enabled", havingValue = "true")
+public class ClusterController {
+    
+    private final OrderService orderService;
+    private final ClusterProperties clusterProperties;
+    
+    @GetMapping("/pending-orders")
+    public ResponseEntity<ApiResponse<List<Order>>> getPendingOrders(
+            @RequestParam List<String> cells,
+            @RequestParam VehicleType vehicleType) {
+        Set<GridCell> wanted = new HashSet<>();
+        for (String cell : cells) {
+            wanted.add(GridCell.parse(cell));
+        }
+        
+        // 由待派訂單索引取得，不掃描全部訂單
+        List<Order> orders = orderService.getPendingOrders(vehicleType, wanted, clusterProperties.getCellSize());
+        return ResponseEntity.ok(ApiResponse.success(orders));
+    }
+    
+    @PostMapping("/drivers/{driverId}/reserve")
+    public ResponseEntity<ApiResponse<Void>> reserveDriver(
+            @PathVariable String driverId,
+            @RequestParam String orderId,
+            @RequestParam long token,
+            @RequestParam long leaseMillis) {
+        orderService.reserveDriver(driverId, orderId, token, leaseMillis);
+        return ResponseEntity.ok(ApiResponse.success(null));
+    }
+    
+    @PostMapping("/drivers/{driverId}/commit")
+    public ResponseEntity<ApiResponse<Void>> commitDriver(
+            @PathVariable String driverId,
+            @RequestParam String orderId,
+            @RequestParam long token) {
+        orderService.commitDriver(driverId, orderId, token);
+        return ResponseEntity.ok(ApiResponse.success(null));
+    }
+    
+    @PostMapping("/drivers/{driverId}/abort")
+    public ResponseEntity<ApiResponse<Void>> abortDriver(
+            @PathVariable String driverId,
+            @RequestParam String orderId,
+            @RequestParam long token) {
+        orderService.abortDriver(driverId, orderId, token, clusterProperties.getClaimLeaseMillis());
+        return ResponseEntity.ok(ApiResponse.success(null));
+    }
+    
+    @PostMapping("/drivers/{driverId}/release")
+    public ResponseEntity<ApiResponse<Void>> releaseDriver(
+            @PathVariable String driverId,
+            @RequestParam String orderId) {
+        orderService.releaseDriver(driverId, orderId);
+        return ResponseEntity.ok(ApiResponse.success(null));
+    }
+    
+    @GetMapping("/orders/{orderId}/claims/{token}")
+    public ResponseEntity<ApiResponse<ClaimOutcome>> resolveClaim(
+            @PathVariable String orderId,
+            @PathVariable long token,
+            @RequestParam String driverId) {
+        return ResponseEntity.ok(ApiResponse.success(orderService.resolveClaim(orderId, driverId, token)));
+    }
+}
@@ -1,22 +1,37 @@
 package com.uber.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.uber.dto.ApiResponse;
 import com.uber.dto.DriverOnlineRequest;
 import com.uber.dto.RegisterDriverRequest;
+import com.uber.dto.response.DriverListResponse;
+import com.uber.dto.response.DriverResponse;
+import com.uber.dto.response.OfferListResponse;
+import com.uber.dto.response.OfferResponse;
+import com.uber.exception.BusinessException;
 import com.uber.model.Driver;
 import com.uber.model.Location;
 import com.uber.model.Order;
 import com.uber.service.DriverService;
+import com.uber.service.ValidationResult;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * 司機 API Controller
@@ -25,6 +40,7 @@ import java.util.stream.Collectors;
  * 
  * 端點:
  * - POST   /api/drivers                    : 註冊司機
+ * - POST   /api/drivers/bulk               : 批次註冊司機 (NDJSON)
  * - GET    /api/drivers/{driverId}         : 取得司機資訊
  * - GET    /api/drivers                    : 取得所有司機
  * - PUT    /api/drivers/{driverId}/online  : 司機上線
@@ -38,13 +54,15 @@ import java.util.stream.Collectors;
 public class DriverController {
     
     private final DriverService driverService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
     
     /**
      * 註冊司機
      * POST /api/drivers
      */
     @PostMapping
-    public ResponseEntity<ApiResponse<Map<String, Object>>> registerDriver(
+    public ResponseEntity<ApiResponse<DriverResponse>> registerDriver(
             @Valid @RequestBody RegisterDriverRequest request) {
         Driver driver = driverService.registerDriver(
                 request.getDriverId(),
@@ -55,7 +73,23 @@ public class DriverController {
         );
         return ResponseEntity
                 .status(HttpStatus.CREATED)
-                .body(ApiResponse.success(buildDriverResponse(driver)));
+                .body(ApiResponse.success(DriverResponse.from(driver)));
+    }
+    
+    /**
+     * 批次註冊司機
+     * POST /api/drivers/bulk
+     * 
+     * 請求與回應皆為 NDJSON，每行輸出一筆 BulkResult (成功時 id 為 driverId)
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void registerDrivers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        BulkNdjson.process(objectMapper, validator, RegisterDriverRequest.class,
+                request.getInputStream(), response.getOutputStream(),
+                row -> ValidationResult.OK,
+                batch -> driverService.registerDrivers(batch).stream().map(Driver::getDriverId).toList());
     }
     
     /**
@@ -63,11 +97,11 @@ public class DriverController {
      * PUT /api/drivers/{driverId}/online
      */
     @PutMapping("/{driverId}/online")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> goOnline(
+    public ResponseEntity<ApiResponse<DriverResponse>> goOnline(
             @PathVariable String driverId,
             @Valid @RequestBody DriverOnlineRequest request) {
         Driver driver = driverService.goOnline(driverId, request.getLocation());
-        return ResponseEntity.ok(ApiResponse.success(buildDriverResponse(driver)));
+        return ResponseEntity.ok(ApiResponse.success(DriverResponse.from(driver)));
     }
     
     /**
@@ -75,9 +109,9 @@ public class DriverController {
      * PUT /api/drivers/{driverId}/offline
      */
     @PutMapping("/{driverId}/offline")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> goOffline(@PathVariable String driverId) {
+    public ResponseEntity<ApiResponse<DriverResponse>> goOffline(@PathVariable String driverId) {
         Driver driver = driverService.goOffline(driverId);
-        return ResponseEntity.ok(ApiResponse.success(buildDriverResponse(driver)));
+        return ResponseEntity.ok(ApiResponse.success(DriverResponse.from(driver)));
     }
     
     /**
@@ -101,31 +135,55 @@ public class DriverController {
     /**
      * 取得可接訂單列表
      * GET /api/drivers/{driverId}/offers
+     * 
+     * 支援 If-None-Match 條件查詢 (ETag 為司機版本號 + 訂單集合修改計數，開啟訂單保留時另加保留狀態版本，
+     * 開啟等候加權排序時另加秒數分段)；叢集模式下列表含其他節點的待派訂單，不回傳 ETag 也不做條件查詢
+     * 可選 limit 只取排序最前面的幾筆
      */
     @GetMapping("/{driverId}/offers")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getOffers(@PathVariable String driverId) {
-        List<Order> offers = driverService.getOffers(driverId);
+    public ResponseEntity<ApiResponse<OfferListResponse>> getOffers(
+            @PathVariable String driverId,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (limit != null && limit < 1) {
+            throw new BusinessException("INVALID_REQUEST", "limit 需為正整數");
+        }
+        // 司機與訂單集合皆未變動時，可接訂單列表必定相同
+        String etag = driverService.isClustered() ? null : offersETag(driverId);
+        if (etag != null && ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         
-        // 轉換為精簡的 offer 格式
-        List<Map<String, Object>> offerList = offers.stream()
-                .map(order -> {
-                    Map<String, Object> offer = new HashMap<>();
-                    offer.put("orderId", order.getOrderId());
-                    offer.put("pickupLocation", order.getPickupLocation());
-                    offer.put("dropoffLocation", order.getDropoffLocation());
-                    offer.put("vehicleType", order.getVehicleType().name());
-                    offer.put("distance", order.getDistance());
-                    offer.put("estimatedFare", order.getEstimatedFare());
-                    offer.put("createdAt", order.getCreatedAt());
-                    return offer;
-                })
-                .collect(Collectors.toList());
+        List<Order> offers = limit == null
+                ? driverService.getOffers(driverId)
+                : driverService.getOffers(driverId, limit);
         
-        Map<String, Object> response = new HashMap<>();
-        response.put("offers", offerList);
-        response.put("count", offerList.size());
+        // 轉換為精簡的 offer 格式
+        List<OfferResponse> offerList = new ArrayList<>(offers.size());
+        for (Order order : offers) {
+            offerList.add(OfferResponse.from(order));
+        }
         
-        return ResponseEntity.ok(ApiResponse.success(response));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        return response.body(ApiResponse.success(new OfferListResponse(offerList, offerList.size())));
+    }
+    
+    private String offersETag(String driverId) {
+        long driverVersion = driverService.getDriverVersion(driverId);
+        long ordersVersion = driverService.getOrdersModificationCount();
+        long[] versions = {driverVersion, ordersVersion, 0, 0, 0};
+        int count = 2;
+        if (driverService.isOfferLeaseEnabled()) {
+            versions[count++] = driverService.getOfferLeaseChanges();
+            versions[count++] = driverService.getOfferLeasePeriod();
+        }
+        if (driverService.isOfferAgingEnabled()) {
+            versions[count++] = driverService.getOfferRankingVersion();
+        }
+        return ETags.of("offers", Arrays.copyOf(versions, count));
     }
     
     /**
@@ -133,9 +191,9 @@ public class DriverController {
      * GET /api/drivers/{driverId}
      */
     @GetMapping("/{driverId}")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getDriver(@PathVariable String driverId) {
+    public ResponseEntity<ApiResponse<DriverResponse>> getDriver(@PathVariable String driverId) {
         Driver driver = driverService.getDriver(driverId);
-        return ResponseEntity.ok(ApiResponse.success(buildDriverResponse(driver)));
+        return ResponseEntity.ok(ApiResponse.success(DriverResponse.from(driver)));
     }
     
     /**
@@ -143,53 +201,18 @@ public class DriverController {
      * GET /api/drivers
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getAllDrivers(
+    public ResponseEntity<ApiResponse<DriverListResponse>> getAllDrivers(
             @RequestParam(required = false) String status) {
         List<Driver> drivers = driverService.getAllDrivers();
         
         // 若有指定狀態，則篩選
-        if (status != null && !status.isEmpty()) {
-            drivers = drivers.stream()
-                    .filter(d -> d.getStatus().name().equalsIgnoreCase(status))
-                    .toList();
-        }
-        
-        List<Map<String, Object>> driverList = drivers.stream()
-                .map(this::buildDriverResponse)
-                .collect(Collectors.toList());
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("drivers", driverList);
-        response.put("count", driverList.size());
-        
-        return ResponseEntity.ok(ApiResponse.success(response));
-    }
-    
-    /**
-     * 建構司機回應資料
-     */
-    private Map<String, Object> buildDriverResponse(Driver driver) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("driverId", driver.getDriverId());
-        response.put("name", driver.getName());
-        response.put("status", driver.getStatus().name());
-        response.put("vehicleType", driver.getVehicleType().name());
-        response.put("busy", driver.isBusy());
-        response.put("updatedAt", driver.getLastUpdatedAt());
-        
-        if (driver.getPhone() != null) {
-            response.put("phone", driver.getPhone());
-        }
-        if (driver.getVehiclePlate() != null) {
-            response.put("vehiclePlate", driver.getVehiclePlate());
-        }
-        if (driver.getLocation() != null) {
-            response.put("location", driver.getLocation());
-        }
-        if (driver.getCurrentOrderId() != null) {
-            response.put("currentOrderId", driver.getCurrentOrderId());
+        List<DriverResponse> driverList = new ArrayList<>(drivers.size());
+        for (Driver driver : drivers) {
+            if (status == null || status.isEmpty() || driver.getStatus().name().equalsIgnoreCase(status)) {
+                driverList.add(DriverResponse.from(driver));
+            }
         }
         
-        return response;
+        return ResponseEntity.ok(ApiResponse.success(new DriverListResponse(driverList, driverList.size())));
     }
 }
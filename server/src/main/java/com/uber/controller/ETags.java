@@ -0,0 +1,48 @@
+package com.uber.controller;
+
+/**
+ * 版本號 ETag 工具
+ * 
+ * ETag 由 repository 的版本號 / 修改計數組成，判斷是否未修改時不需建立回應內容。
+ * 使用弱 ETag：同一版本可能以 gzip 或未壓縮兩種位元組表示回傳 (Tomcat 不壓縮帶強 ETag 的回應)。
+ */
+final class ETags {
+    
+    private ETags() {
+    }
+    
+    private static final String WEAK_PREFIX = "W/";
+    
+    /**
+     * 建立弱 ETag，例如 W/"order-12"、W/"offers-3-57"
+     */
+    static String of(String prefix, long... versions) {
+        StringBuilder sb = new StringBuilder(prefix.length() + 4 + versions.length * 8);
+        sb.append(WEAK_PREFIX).append('"').append(prefix);
+        for (long version : versions) {
+            sb.append('-').append(version);
+        }
+        return sb.append('"').toString();
+    }
+    
+    /**
+     * If-None-Match 是否包含指定 ETag (弱比較，支援 * 與逗號分隔的多個值)
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        String opaque = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || stripWeak(trimmed).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String stripWeak(String etag) {
+        return etag.startsWith(WEAK_PREFIX) ? etag.substring(WEAK_PREFIX.length()) : etag;
+    }
+}
@@ -0,0 +1,145 @@
+package com.uber.controller;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.uber.exception.BusinessException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * 大量資料匯出 (NDJSON / CSV)
+ *
+ * 邊走訪儲存庫的 iterator 邊寫入回應串流：每列序列化後直接寫入固定大小的緩衝區，
+ * 記憶體用量與匯出筆數無關，也不回傳 ApiResponse 包裝 (匯出檔可直接交給其他工具讀取)。
+ */
+final class ExportRows {
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    private static final int BUFFER_CHARS = 64 * 1024;
+
+    // 匯出可能超過預設的非同步逾時 (Tomcat 30 秒)，單獨放寬
+    static final long TIMEOUT_MILLIS = 60 * 60 * 1000L;
+
+    private ExportRows() {
+    }
+
+    enum Format {
+        NDJSON, CSV;
+
+        /**
+         * 解析 format 參數 (預設 NDJSON)，無效值回傳 INVALID_REQUEST
+         */
+        static Format parse(String value) {
+            if (value == null || value.isEmpty()) {
+                return NDJSON;
+            }
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException("INVALID_REQUEST", "format 需為 ndjson 或 csv");
+            }
+        }
+    }
+
+    /**
+     * 一種資料的兩種匯出格式：NDJSON 的列型別與轉換，CSV 的欄位名稱與每列的值
+     */
+    record Layout<T, R>(Class<R> rowType, Function<T, R> toRow, List<String> columns, Function<T, Object[]> toValues) {
+    }
+
+    static <T, R> ResponseEntity<StreamingResponseBody> response(HttpServletRequest request,
+                                                                 ObjectMapper objectMapper, Format format,
+                                                                 String fileName, Layout<T, R> layout,
+                                                                 Iterator<T> rows, HttpHeaders headers) {
+        AsyncWebRequest asyncRequest = WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest();
+        if (asyncRequest != null) {
+            asyncRequest.setTimeout(TIMEOUT_MILLIS);
+        }
+        StreamingResponseBody body = format == Format.CSV
+                ? csv(layout, rows)
+                : ndjson(objectMapper, layout, rows);
+        String extension = format.name().toLowerCase(Locale.ROOT);
+        return ResponseEntity.ok()
+                .headers(headers)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "." + extension + "\"")
+                .contentType(format == Format.CSV ? CSV : NDJSON)
+                .body(body);
+    }
+
+    private static <T, R> StreamingResponseBody ndjson(ObjectMapper objectMapper, Layout<T, R> layout,
+                                                       Iterator<T> rows) {
+        ObjectWriter rowWriter = objectMapper.writerFor(layout.rowType())
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return out -> {
+            try (JsonGenerator gen = objectMapper.createGenerator(out, JsonEncoding.UTF8)) {
+                gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                gen.setRootValueSeparator(null);
+                while (rows.hasNext()) {
+                    rowWriter.writeValue(gen, layout.toRow().apply(rows.next()));
+                    gen.writeRaw('\n');
+                }
+            }
+        };
+    }
+
+    private static <T> StreamingResponseBody csv(Layout<T, ?> layout, Iterator<T> rows) {
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_CHARS);
+            writeLine(writer, layout.columns().toArray());
+            while (rows.hasNext()) {
+                writeLine(writer, layout.toValues().apply(rows.next()));
+            }
+            writer.flush();
+        };
+    }
+
+    private static void writeLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writeField(writer, values[i].toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * RFC 4180：含逗號、引號或換行的欄位以引號包住，引號重複一次
+     */
+    private static void writeField(Writer writer, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,48 @@
+package com.uber.controller;
+
+import com.uber.dto.ApiResponse;
+import com.uber.dto.response.RecordingResponse;
+import com.uber.exception.BusinessException;
+import com.uber.jfr.FlightRecorderService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * JFR 錄製 API (管理端)
+ * 
+ * 端點:
+ * - POST /api/admin/recordings?durationSeconds=&maxSizeMb= : 開始有界錄製
+ * - POST /api/admin/recordings/stop                        : 停止並寫出 .jfr 檔
+ * - GET  /api/admin/recordings                             : 最近一次錄製的狀態
+ */
+@RestController
+@RequestMapping("/api/admin/recordings")
+@RequiredArgsConstructor
+public class FlightRecordingController {
+    
+    private final FlightRecorderService flightRecorderService;
+    
+    @PostMapping
+    public ResponseEntity<ApiResponse<RecordingResponse>> start(
+            @RequestParam(required = false) Long durationSeconds,
+            @RequestParam(required = false) Long maxSizeMb) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(flightRecorderService.start(durationSeconds, maxSizeMb)));
+    }
+    
+    @PostMapping("/stop")
+    public ResponseEntity<ApiResponse<RecordingResponse>> stop() {
+        return ResponseEntity.ok(ApiResponse.success(flightRecorderService.stop()));
+    }
+    
+    @GetMapping
+    public ResponseEntity<ApiResponse<RecordingResponse>> status() {
+        RecordingResponse status = flightRecorderService.status();
+        if (status == null) {
+            throw new BusinessException("NO_RECORDING", "尚未錄製", 404);
+        }
+        return ResponseEntity.ok(ApiResponse.success(status));
+    }
+}
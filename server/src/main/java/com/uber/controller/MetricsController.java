@@ -0,0 +1,92 @@
+package com.uber.controller;
+
+import com.uber.admission.AdmissionControl;
+import com.uber.admission.AimdLimiter;
+import com.uber.admission.EndpointClass;
+import com.uber.metrics.DispatchMetrics;
+import com.uber.metrics.PrometheusWriter;
+import com.uber.repository.OrderRepository;
+import com.uber.routing.CachedDistanceProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 指標 API (Prometheus 抓取)
+ * 
+ * 端點:
+ * - GET /internal/metrics : Prometheus 文字格式 (0.0.4)，含直方圖、計數器、允入控制、訂單分層狀態、最久待派訂單
+ *   與距離快取命中率
+ */
+@RestController
+@RequestMapping("/internal/metrics")
+@RequiredArgsConstructor
+public class MetricsController {
+    
+    private final DispatchMetrics metrics;
+    private final ObjectProvider<AdmissionControl> admissionControl;
+    private final OrderRepository orderRepository;
+    private final ObjectProvider<CachedDistanceProvider> distanceCache;
+    
+    @GetMapping
+    public ResponseEntity<String> scrape() throws IOException {
+        StringWriter body = new StringWriter(16 * 1024);
+        PrometheusWriter out = new PrometheusWriter(body);
+        metrics.writeTo(out);
+        
+        AdmissionControl admission = admissionControl.getIfAvailable();
+        if (admission != null) {
+            Map<String, Integer> limits = new LinkedHashMap<>();
+            Map<String, Integer> inFlight = new LinkedHashMap<>();
+            Map<String, Long> rejected = new LinkedHashMap<>();
+            for (EndpointClass endpointClass : EndpointClass.values()) {
+                AimdLimiter limiter = admission.limiter(endpointClass);
+                String name = endpointClass.name().toLowerCase();
+                limits.put(name, limiter.getLimit());
+                inFlight.put(name, limiter.getInFlight());
+                rejected.put(name, limiter.getRejected());
+            }
+            out.gauge("dispatch_admission_limit", "Current concurrency limit by endpoint class", limits, "class");
+            out.gauge("dispatch_admission_in_flight", "In-flight requests by endpoint class", inFlight, "class");
+            out.counter("dispatch_admission_rejected_total", "Requests shed with 503 by endpoint class",
+                    rejected, "class");
+        }
+        
+        out.gauge("dispatch_orders", "Stored orders by tier", Map.of(
+                "hot", orderRepository.countHot(), "cold", orderRepository.countCold()), "tier");
+        out.gauge("dispatch_order_store_bytes", "Compressed off-heap size of the cold order store",
+                Map.of("cold", orderRepository.getColdStoreBytes()), "tier");
+        
+        long now = System.currentTimeMillis();
+        Map<String, Double> oldestWait = new LinkedHashMap<>();
+        orderRepository.oldestPendingCreatedAt().forEach((vehicleType, createdAt) ->
+                oldestWait.put(vehicleType.name(), Math.max(now - createdAt, 0) / 1000.0));
+        out.gauge("dispatch_pending_oldest_wait_seconds", "Wait time of the oldest pending order by vehicle type",
+                oldestWait, "vehicle_type");
+        
+        CachedDistanceProvider cache = distanceCache.getIfAvailable();
+        if (cache != null && cache.isEnabled()) {
+            out.counter("dispatch_distance_cache_requests_total", "Driver-to-pickup distance cache lookups by result",
+                    Map.of("hit", cache.hitCount(), "miss", cache.missCount()), "result");
+            out.counter("dispatch_distance_cache_evictions_total", "Distance cache entries evicted by W-TinyLFU",
+                    Map.of("size", cache.evictionCount()), "cause");
+            out.gauge("dispatch_distance_cache_entries", "Distance cache entries and capacity",
+                    Map.of("current", cache.size(), "maximum", cache.maximumSize()), "state");
+        }
+        
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, PrometheusWriter.CONTENT_TYPE)
+                .cacheControl(CacheControl.noStore())
+                .body(body.toString());
+    }
+}
@@ -1,21 +1,37 @@
 package com.uber.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.uber.dto.AcceptOrderRequest;
 import com.uber.dto.ApiResponse;
 import com.uber.dto.CancelOrderRequest;
 import com.uber.dto.CreateOrderRequest;
+import com.uber.dto.FareQuoteRequest;
+import com.uber.dto.response.OrderListResponse;
+import com.uber.dto.response.OrderResponse;
+import com.uber.exception.BusinessException;
+import com.uber.model.FareQuote;
 import com.uber.model.Order;
-import com.uber.model.OrderStatus;
 import com.uber.service.FareService;
 import com.uber.service.OrderService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 訂單 API Controller
@@ -24,6 +40,11 @@ import java.util.Map;
  * 
  * 端點:
  * - POST   /api/orders              : 建立叫車請求
+ * - POST   /api/orders/quotes       : 批次報價 (不建立訂單)
+ * - POST   /api/orders/bulk         : 批次建立叫車請求 (NDJSON)
+ * - GET    /api/orders?ids=a,b,c    : 批次查詢訂單狀態
+ * - GET    /api/orders?passengerId= : 乘客歷史訂單 (含已歸檔)
+ * - GET    /api/orders?driverId=    : 司機歷史訂單 (含已歸檔)
  * - GET    /api/orders/{orderId}    : 查詢訂單狀態
  * - PUT    /api/orders/{orderId}/accept   : 接受訂單
  * - PUT    /api/orders/{orderId}/start    : 開始行程
@@ -35,15 +56,23 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class OrderController {
     
+    // 批次查詢單次最多訂單數
+    public static final int MAX_BATCH_IDS = 100;
+    
+    // 歷史查詢單次最多訂單數
+    public static final int MAX_HISTORY_LIMIT = 200;
+    
     private final OrderService orderService;
     private final FareService fareService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
     
     /**
      * 建立叫車請求
      * POST /api/orders
      */
     @PostMapping
-    public ResponseEntity<ApiResponse<Map<String, Object>>> createOrder(
+    public ResponseEntity<ApiResponse<OrderResponse>> createOrder(
             @Valid @RequestBody CreateOrderRequest request) {
         Order order = orderService.createOrder(
                 request.getPassengerId(),
@@ -52,21 +81,140 @@ public class OrderController {
                 request.getVehicleType()
         );
         
-        Map<String, Object> response = buildOrderResponse(order);
         return ResponseEntity
                 .status(HttpStatus.CREATED)
-                .body(ApiResponse.success(response));
+                .body(ApiResponse.success(OrderResponse.from(order)));
+    }
+    
+    /**
+     * 批次建立叫車請求
+     * POST /api/orders/bulk
+     * 
+     * 請求與回應皆為 NDJSON，每行輸出一筆 BulkResult (成功時 id 為 orderId)；
+     * 單行錯誤不影響其他行，故 HTTP 狀態固定為 200
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void createOrders(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        BulkNdjson.process(objectMapper, validator, CreateOrderRequest.class,
+                request.getInputStream(), response.getOutputStream(),
+                row -> orderService.checkNewOrder(row.getPickupLocation(), row.getDropoffLocation()),
+                batch -> orderService.createOrders(batch).stream().map(Order::getOrderId).toList());
+    }
+    
+    /**
+     * 批次報價
+     * POST /api/orders/quotes
+     * 
+     * 僅計算各車種預估車資，不建立訂單也不觸發派單
+     */
+    @PostMapping("/quotes")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> quoteFares(
+            @Valid @RequestBody FareQuoteRequest request) {
+        List<Map<String, Object>> quoteList = new ArrayList<>(request.getRoutes().size());
+        for (FareQuoteRequest.Route route : request.getRoutes()) {
+            FareQuote quote = fareService.quoteRoute(route.getPickupLocation(), route.getDropoffLocation());
+            
+            Map<String, Object> item = new HashMap<>();
+            item.put("pickupLocation", route.getPickupLocation());
+            item.put("dropoffLocation", route.getDropoffLocation());
+            item.put("distance", quote.distance());
+            item.put("estimates", quote.estimates());
+            if (route.getVehicleType() != null) {
+                item.put("vehicleType", route.getVehicleType().name());
+                item.put("estimatedFare", quote.estimates().get(route.getVehicleType()));
+            }
+            quoteList.add(item);
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("quotes", quoteList);
+        response.put("count", quoteList.size());
+        
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+    
+    /**
+     * 批次查詢訂單狀態
+     * GET /api/orders?ids=a,b,c
+     * 
+     * 讓同時追蹤多筆訂單的客戶端以一次請求取代逐筆輪詢
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<ApiResponse<OrderListResponse>> getOrders(@RequestParam List<String> ids) {
+        Set<String> orderIds = new LinkedHashSet<>(ids);
+        orderIds.remove("");
+        if (orderIds.isEmpty() || orderIds.size() > MAX_BATCH_IDS) {
+            throw new BusinessException("INVALID_REQUEST", "訂單 ID 數量需介於 1 到 " + MAX_BATCH_IDS);
+        }
+        
+        List<OrderResponse> orders = new ArrayList<>(orderIds.size());
+        Set<String> notFound = new LinkedHashSet<>(orderIds);
+        for (Order order : orderService.getOrders(orderIds)) {
+            orders.add(OrderResponse.from(order));
+            notFound.remove(order.getOrderId());
+        }
+        
+        return ResponseEntity.ok(ApiResponse.success(
+                new OrderListResponse(orders, new ArrayList<>(notFound), orders.size())));
+    }
+    
+    /**
+     * 乘客歷史訂單 (由新到舊)
+     * GET /api/orders?passengerId=p1&limit=50
+     */
+    @GetMapping(params = "passengerId")
+    public ResponseEntity<ApiResponse<OrderListResponse>> getPassengerHistory(
+            @RequestParam String passengerId,
+            @RequestParam(defaultValue = "50") int limit) {
+        return historyResponse(orderService.getPassengerHistory(passengerId, checkHistoryLimit(limit)));
+    }
+    
+    /**
+     * 司機歷史訂單 (由新到舊)
+     * GET /api/orders?driverId=d1&limit=50
+     */
+    @GetMapping(params = "driverId")
+    public ResponseEntity<ApiResponse<OrderListResponse>> getDriverHistory(
+            @RequestParam String driverId,
+            @RequestParam(defaultValue = "50") int limit) {
+        return historyResponse(orderService.getDriverHistory(driverId, checkHistoryLimit(limit)));
+    }
+    
+    private static int checkHistoryLimit(int limit) {
+        if (limit < 1 || limit > MAX_HISTORY_LIMIT) {
+            throw new BusinessException("INVALID_REQUEST", "limit 需介於 1 到 " + MAX_HISTORY_LIMIT);
+        }
+        return limit;
+    }
+    
+    private static ResponseEntity<ApiResponse<OrderListResponse>> historyResponse(List<Order> history) {
+        List<OrderResponse> orders = new ArrayList<>(history.size());
+        for (Order order : history) {
+            orders.add(OrderResponse.from(order));
+        }
+        return ResponseEntity.ok(ApiResponse.success(new OrderListResponse(orders, List.of(), orders.size())));
     }
     
     /**
      * 查詢訂單狀態
      * GET /api/orders/{orderId}
+     * 
+     * 支援 If-None-Match 條件查詢 (ETag 為訂單版本號)
      */
     @GetMapping("/{orderId}")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getOrder(@PathVariable String orderId) {
+    public ResponseEntity<ApiResponse<OrderResponse>> getOrder(
+            @PathVariable String orderId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // 版本未變則直接回傳 304，不建立回應內容
+        String etag = ETags.of("order", orderService.getOrderVersion(orderId));
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        
         Order order = orderService.getOrder(orderId);
-        Map<String, Object> response = buildOrderResponse(order);
-        return ResponseEntity.ok(ApiResponse.success(response));
+        return ResponseEntity.ok().eTag(etag).body(ApiResponse.success(OrderResponse.from(order)));
     }
     
     /**
@@ -163,43 +311,4 @@ public class OrderController {
         
         return ResponseEntity.ok(ApiResponse.success(response));
     }
-    
-    /**
-     * 建構訂單回應資料
-     */
-    private Map<String, Object> buildOrderResponse(Order order) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("orderId", order.getOrderId());
-        response.put("passengerId", order.getPassengerId());
-        response.put("status", order.getStatus().name());
-        response.put("vehicleType", order.getVehicleType().name());
-        response.put("pickupLocation", order.getPickupLocation());
-        response.put("dropoffLocation", order.getDropoffLocation());
-        response.put("estimatedFare", order.getEstimatedFare());
-        response.put("estimatedDistance", order.getDistance());
-        response.put("createdAt", order.getCreatedAt());
-        
-        // 條件性欄位
-        if (order.getDriverId() != null) {
-            response.put("driverId", order.getDriverId());
-        }
-        if (order.getAcceptedAt() != null) {
-            response.put("acceptedAt", order.getAcceptedAt());
-        }
-        if (order.getStartedAt() != null) {
-            response.put("startedAt", order.getStartedAt());
-        }
-        if (order.getCompletedAt() != null) {
-            response.put("completedAt", order.getCompletedAt());
-            response.put("fare", order.getActualFare());
-            response.put("duration", order.getDuration());
-        }
-        if (order.getStatus() == OrderStatus.CANCELLED) {
-            response.put("cancelledAt", order.getCancelledAt());
-            response.put("cancelledBy", order.getCancelledBy());
-            response.put("cancelFee", order.getCancelFee());
-        }
-        
-        return response;
-    }
 }
@@ -0,0 +1,186 @@
+package com.uber.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.uber.dto.ApiResponse;
+import com.uber.dto.response.ReplicationSnapshot;
+import com.uber.dto.response.ReplicationStatusResponse;
+import com.uber.model.AuditLog;
+import com.uber.model.ChangeEvent;
+import com.uber.replication.ReplicationFollower;
+import com.uber.repository.ChangeSet;
+import com.uber.repository.DriverRepository;
+import com.uber.repository.OrderRepository;
+import com.uber.service.AuditService;
+import com.uber.service.ChangeFeedService;
+import com.uber.service.FareService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 熱備援複製 API (主節點提供，備援節點讀取)
+ * 
+ * 端點:
+ * - GET /internal/replication/snapshot                              : 完整快照 (含快照序號、審計日誌與費率)
+ * - GET /internal/replication/journal?since={seq}&auditSince={n}&heartbeatMillis= : 以 NDJSON 持續推送變更日誌、
+ *                                                                      新增的審計日誌與費率變更
+ * - GET /internal/replication/status                                : 本節點複製狀態
+ * 
+ * 僅於 dispatch.replication.enabled=true 時提供 (快照含所有訂單、司機與審計日誌，未使用熱備援的節點不對外開放)
+ */
+@RestController
+@ConditionalOnProperty(prefix = "dispatch.replication", name = "enabled", havingValue = "true")
+@RequestMapping("/internal/replication")
+@RequiredArgsConstructor
+public class ReplicationController {
+    
+    static final long MIN_HEARTBEAT_MILLIS = 50;
+    private static final int JOURNAL_BATCH = 500;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    
+    private final ChangeFeedService changeFeedService;
+    private final OrderRepository orderRepository;
+    private final DriverRepository driverRepository;
+    private final AuditService auditService;
+    private final FareService fareService;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<ReplicationFollower> follower;
+    
+    /**
+     * 完整快照
+     * GET /internal/replication/snapshot
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<ApiResponse<ReplicationSnapshot>> getSnapshot() {
+        long sequence = changeFeedService.getLastSequence();
+        return ResponseEntity.ok(ApiResponse.success(new ReplicationSnapshot(sequence,
+                orderRepository.findAll(), driverRepository.findAll(),
+                auditService.getAllLogs(), fareService.getAllRatePlans())));
+    }
+    
+    /**
+     * 日誌串流
+     * GET /internal/replication/journal?since={seq}&auditSince={n}&heartbeatMillis={ms}
+     * 
+     * 每行一筆 ChangeEvent (含變更後的完整實體)；閒置 heartbeatMillis 送出 {"heartbeat":seq}，
+     * since 或 auditSince 已失效時送出 {"reset":seq} 後結束。最長 ChangeController.MAX_WAIT_SECONDS 後結束，由備援節點重連
+     * 
+     * 審計日誌與費率不經變更日誌：每輪另送 {"auditOffset":n,"audit":[...]} (自序號 n 起新增的審計日誌)，
+     * 連線時與費率版本變更後送 {"ratePlans":[...]}。兩者最遲於下一次心跳送出
+     */
+    @GetMapping("/journal")
+    public ResponseEntity<StreamingResponseBody> streamJournal(
+            @RequestParam long since,
+            @RequestParam(defaultValue = "0") int auditSince,
+            @RequestParam(defaultValue = "500") long heartbeatMillis) {
+        long heartbeat = Math.max(MIN_HEARTBEAT_MILLIS, heartbeatMillis);
+        ObjectWriter eventWriter = objectMapper.writerFor(ChangeEvent.class);
+        
+        StreamingResponseBody body = out -> {
+            long deadline = System.currentTimeMillis() + ChangeController.MAX_WAIT_SECONDS * 1000L;
+            long cursor = since;
+            int auditCursor = auditSince;
+            long ratePlanVersion = -1;
+            // 先送出心跳，備援節點連上即可確認主節點存活
+            writeLine(out, "{\"heartbeat\":" + changeFeedService.getLastSequence() + "}");
+            out.flush();
+            
+            while (true) {
+                ChangeSet<ChangeEvent> changeSet = changeFeedService.getChangesSince(cursor, JOURNAL_BATCH);
+                if (changeSet.reset() || auditCursor > auditService.getLogCount()) {
+                    writeLine(out, "{\"reset\":" + changeSet.sequence() + "}");
+                    out.flush();
+                    return;
+                }
+                for (ChangeEvent event : changeSet.changes()) {
+                    out.write(eventWriter.writeValueAsBytes(event));
+                    out.write('\n');
+                }
+                cursor = changeSet.sequence();
+                boolean written = !changeSet.changes().isEmpty();
+                
+                // 先讀版本再讀費率：讀取期間的變更會於下一輪重送
+                long version = fareService.getRatePlanVersion();
+                if (version != ratePlanVersion) {
+                    out.write(objectMapper.writeValueAsBytes(Map.of("ratePlans", fareService.getAllRatePlans())));
+                    out.write('\n');
+                    ratePlanVersion = version;
+                    written = true;
+                }
+                List<AuditLog> auditLogs = auditService.getLogsFrom(auditCursor, JOURNAL_BATCH);
+                if (!auditLogs.isEmpty()) {
+                    out.write(objectMapper.writeValueAsBytes(Map.of("auditOffset", auditCursor, "audit", auditLogs)));
+                    out.write('\n');
+                    auditCursor += auditLogs.size();
+                    written = true;
+                }
+                if (written) {
+                    out.flush();
+                }
+                if (changeSet.changes().size() == JOURNAL_BATCH || auditLogs.size() == JOURNAL_BATCH) {
+                    continue;
+                }
+                
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return;
+                }
+                try {
+                    if (!changeFeedService.awaitChangesAfter(cursor, Math.min(remaining, heartbeat))
+                            && auditService.getLogCount() == auditCursor
+                            && fareService.getRatePlanVersion() == ratePlanVersion) {
+                        writeLine(out, "{\"heartbeat\":" + cursor + "}");
+                        out.flush();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        };
+        
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .contentType(NDJSON)
+                .body(body);
+    }
+    
+    /**
+     * 複製狀態
+     * GET /internal/replication/status
+     */
+    @GetMapping("/status")
+    public ResponseEntity<ApiResponse<ReplicationStatusResponse>> getStatus() {
+        ReplicationFollower replica = follower.getIfAvailable();
+        if (replica == null) {
+            return ResponseEntity.ok(ApiResponse.success(new ReplicationStatusResponse(
+                    "PRIMARY", false, changeFeedService.getLastSequence(), null, null, null, null)));
+        }
+        boolean promoted = replica.isPromoted();
+        return ResponseEntity.ok(ApiResponse.success(new ReplicationStatusResponse(
+                promoted ? "PRIMARY" : "FOLLOWER",
+                !promoted,
+                promoted ? changeFeedService.getLastSequence() : replica.getAppliedSequence(),
+                replica.getLagMillis(),
+                replica.getLastContactMillis(),
+                replica.getPromotedAt(),
+                promoted ? replica.getFailoverMillis() : null)));
+    }
+    
+    private static void writeLine(OutputStream out, String line) throws IOException {
+        out.write(line.getBytes(StandardCharsets.UTF_8));
+        out.write('\n');
+    }
+}
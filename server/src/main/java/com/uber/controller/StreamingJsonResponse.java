@@ -0,0 +1,68 @@
+package com.uber.controller;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * 串流輸出 ApiResponse 格式的大型列表
+ * 
+ * 逐筆序列化列資料直接寫入回應串流，不在記憶體中建立完整列表或 Map，
+ * 輸出格式與 ApiResponse.success(...) 相同：
+ * {"success":true,"data":{"<listField>":[...], ...附加欄位},"error":null,"timestamp":...}
+ */
+final class StreamingJsonResponse {
+    
+    private StreamingJsonResponse() {
+    }
+    
+    /**
+     * 逐筆輸出列資料
+     */
+    @FunctionalInterface
+    interface RowSink<T> {
+        void write(T row) throws IOException;
+    }
+    
+    /**
+     * 產生列資料，回傳列表之後要輸出的附加欄位 (如 count、pagination)
+     */
+    @FunctionalInterface
+    interface RowProducer<T> {
+        Map<String, Object> produce(RowSink<T> sink) throws IOException;
+    }
+    
+    static <T> StreamingResponseBody body(ObjectMapper objectMapper, String listField,
+                                          Class<T> rowType, RowProducer<T> producer) {
+        // 預先解析列型別的 serializer，每列不再 flush
+        ObjectWriter rowWriter = objectMapper.writerFor(rowType)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        
+        return out -> {
+            try (JsonGenerator gen = objectMapper.createGenerator(out, JsonEncoding.UTF8)) {
+                gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                gen.writeStartObject();
+                gen.writeBooleanField("success", true);
+                gen.writeFieldName("data");
+                gen.writeStartObject();
+                gen.writeArrayFieldStart(listField);
+                Map<String, Object> trailer = producer.produce(row -> rowWriter.writeValue(gen, row));
+                gen.writeEndArray();
+                for (Map.Entry<String, Object> entry : trailer.entrySet()) {
+                    gen.writeObjectField(entry.getKey(), entry.getValue());
+                }
+                gen.writeEndObject();
+                gen.writeNullField("error");
+                gen.writeObjectField("timestamp", Instant.now());
+                gen.writeEndObject();
+            }
+        };
+    }
+}
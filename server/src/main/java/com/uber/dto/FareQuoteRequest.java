@@ -0,0 +1,62 @@
+package com.uber.dto;
+
+import com.uber.model.Location;
+import com.uber.model.VehicleType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批次報價請求 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FareQuoteRequest {
+    
+    @NotEmpty(message = "報價路線不可為空")
+    @Size(max = 100, message = "單次最多報價 100 條路線")
+    private List<@Valid Route> routes;
+    
+    /**
+     * 報價路線
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Route {
+        
+        @NotNull(message = "上車地點不可為空")
+        private Double pickupX;
+        
+        @NotNull(message = "上車地點不可為空")
+        private Double pickupY;
+        
+        @NotNull(message = "下車地點不可為空")
+        private Double dropoffX;
+        
+        @NotNull(message = "下車地點不可為空")
+        private Double dropoffY;
+        
+        // 可選：指定車種時回傳該車種的 estimatedFare
+        private VehicleType vehicleType;
+        
+        // 輔助方法：轉換為 Location 對象
+        public Location getPickupLocation() {
+            return new Location(pickupX, pickupY);
+        }
+        
+        public Location getDropoffLocation() {
+            return new Location(dropoffX, dropoffY);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.uber.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.uber.model.Driver;
+import com.uber.model.DriverStatus;
+import com.uber.model.Location;
+import com.uber.model.VehicleType;
+
+import java.time.Instant;
+
+/**
+ * 管理端司機回應
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AdminDriverResponse(
+        String driverId,
+        String name,
+        DriverStatus status,
+        VehicleType vehicleType,
+        boolean busy,
+        String phone,
+        String vehiclePlate,
+        Location location,
+        String currentOrderId,
+        Instant lastUpdatedAt) {
+    
+    public static AdminDriverResponse from(Driver driver) {
+        return new AdminDriverResponse(
+                driver.getDriverId(),
+                driver.getName(),
+                driver.getStatus(),
+                driver.getVehicleType(),
+                driver.isBusy(),
+                driver.getPhone(),
+                driver.getVehiclePlate(),
+                driver.getLocation(),
+                driver.getCurrentOrderId(),
+                driver.getLastUpdatedAt());
+    }
+}
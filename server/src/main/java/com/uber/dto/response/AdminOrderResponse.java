@@ -0,0 +1,81 @@
+package com.uber.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.uber.model.Location;
+import com.uber.model.Order;
+import com.uber.model.OrderStatus;
+import com.uber.model.VehicleType;
+
+import java.time.Instant;
+
+/**
+ * 管理端訂單回應 (列表摘要 / 單筆詳情)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AdminOrderResponse(
+        String orderId,
+        String passengerId,
+        OrderStatus status,
+        VehicleType vehicleType,
+        Instant createdAt,
+        String driverId,
+        Double fare,
+        Instant completedAt,
+        Instant cancelledAt,
+        // 以下僅詳情包含
+        Location pickupLocation,
+        Location dropoffLocation,
+        Double estimatedFare,
+        Double distance,
+        Instant acceptedAt,
+        Instant startedAt,
+        Integer duration,
+        Double cancelFee,
+        String cancelledBy) {
+    
+    /**
+     * 列表用摘要
+     */
+    public static AdminOrderResponse summaryOf(Order order) {
+        return new AdminOrderResponse(
+                order.getOrderId(),
+                order.getPassengerId(),
+                order.getStatus(),
+                order.getVehicleType(),
+                order.getCreatedAt(),
+                order.getDriverId(),
+                positive(order.getActualFare()),
+                order.getCompletedAt(),
+                order.getCancelledAt(),
+                null, null, null, null, null, null, null, null, null);
+    }
+    
+    /**
+     * 單筆詳情
+     */
+    public static AdminOrderResponse detailOf(Order order) {
+        return new AdminOrderResponse(
+                order.getOrderId(),
+                order.getPassengerId(),
+                order.getStatus(),
+                order.getVehicleType(),
+                order.getCreatedAt(),
+                order.getDriverId(),
+                positive(order.getActualFare()),
+                order.getCompletedAt(),
+                order.getCancelledAt(),
+                order.getPickupLocation(),
+                order.getDropoffLocation(),
+                order.getEstimatedFare(),
+                order.getDistance(),
+                order.getAcceptedAt(),
+                order.getStartedAt(),
+                order.getDuration() != null && order.getDuration() > 0 ? order.getDuration() : null,
+                positive(order.getCancelFee()),
+                order.getCancelledBy());
+    }
+    
+    private static Double positive(Double value) {
+        return value != null && value > 0 ? value : null;
+    }
+}
@@ -0,0 +1,37 @@
+package com.uber.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.uber.model.AuditLog;
+
+import java.time.Instant;
+
+/**
+ * 審計日誌回應
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AuditLogResponse(
+        String id,
+        Instant timestamp,
+        String orderId,
+        String action,
+        String actorType,
+        String actorId,
+        String previousState,
+        String newState,
+        boolean success,
+        String failureReason) {
+    
+    public static AuditLogResponse from(AuditLog log) {
+        return new AuditLogResponse(
+                log.getId(),
+                log.getTimestamp(),
+                log.getOrderId(),
+                log.getAction(),
+                log.getActorType(),
+                log.getActorId(),
+                log.getPreviousState(),
+                log.getNewState(),
+                log.isSuccess(),
+                log.getFailureReason());
+    }
+}
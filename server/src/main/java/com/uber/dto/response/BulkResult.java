@@ -0,0 +1,19 @@
+package com.uber.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.uber.dto.ApiResponse;
+
+/**
+ * 批次匯入單行結果 (NDJSON 每行一筆)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkResult(int line, boolean success, String id, ApiResponse.ErrorInfo error) {
+    
+    public static BulkResult ok(int line, String id) {
+        return new BulkResult(line, true, id, null);
+    }
+    
+    public static BulkResult failed(int line, String code, String message) {
+        return new BulkResult(line, false, null, new ApiResponse.ErrorInfo(code, message));
+    }
+}
@@ -0,0 +1,31 @@
+package com.uber.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.uber.model.ChangeEvent;
+
+import java.time.Instant;
+
+/**
+ * 變更事件回應 (order / driver 依 type 擇一)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChangeEventResponse(
+        long sequence,
+        ChangeEvent.EntityType type,
+        String id,
+        String action,
+        Instant timestamp,
+        AdminOrderResponse order,
+        AdminDriverResponse driver) {
+    
+    public static ChangeEventResponse from(ChangeEvent event) {
+        return new ChangeEventResponse(
+                event.getSequence(),
+                event.getEntityType(),
+                event.getEntityId(),
+                event.getAction(),
+                event.getTimestamp(),
+                event.getOrder() != null ? AdminOrderResponse.detailOf(event.getOrder()) : null,
+                event.getDriver() != null ? AdminDriverResponse.from(event.getDriver()) : null);
+    }
+}
@@ -0,0 +1,9 @@
+package com.uber.dto.response;
+
+import java.util.List;
+
+/**
+ * 司機列表
+ */
+public record DriverListResponse(List<DriverResponse> drivers, int count) {
+}
@@ -0,0 +1,40 @@
+package com.uber.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.uber.model.Driver;
+import com.uber.model.DriverStatus;
+import com.uber.model.Location;
+import com.uber.model.VehicleType;
+
+import java.time.Instant;
+
+/**
+ * 司機回應 (司機端 API)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DriverResponse(
+        String driverId,
+        String name,
+        DriverStatus status,
+        VehicleType vehicleType,
+        boolean busy,
+        Instant updatedAt,
+        String phone,
+        String vehiclePlate,
+        Location location,
+        String currentOrderId) {
+    
+    public static DriverResponse from(Driver driver) {
+        return new DriverResponse(
+                driver.getDriverId(),
+                driver.getName(),
+                driver.getStatus(),
+                driver.getVehicleType(),
+                driver.isBusy(),
+                driver.getLastUpdatedAt(),
+                driver.getPhone(),
+                driver.getVehiclePlate(),
+                driver.getLocation(),
+                driver.getCurrentOrderId());
+    }
+}
@@ -0,0 +1,9 @@
+package com.uber.dto.response;
+
+import java.util.List;
+
+/**
+ * 可接訂單列表
+ */
+public record OfferListResponse(List<OfferResponse> offers, int count) {
+}
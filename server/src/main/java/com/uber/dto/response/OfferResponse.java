@@ -0,0 +1,33 @@
+package com.uber.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.uber.model.Location;
+import com.uber.model.Order;
+import com.uber.model.VehicleType;
+
+import java.time.Instant;
+
+/**
+ * 可接訂單 (精簡 offer 格式)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record OfferResponse(
+        String orderId,
+        Location pickupLocation,
+        Location dropoffLocation,
+        VehicleType vehicleType,
+        Double distance,
+        Double estimatedFare,
+        Instant createdAt) {
+    
+    public static OfferResponse from(Order order) {
+        return new OfferResponse(
+                order.getOrderId(),
+                order.getPickupLocation(),
+                order.getDropoffLocation(),
+                order.getVehicleType(),
+                order.getDistance(),
+                order.getEstimatedFare(),
+                order.getCreatedAt());
+    }
+}
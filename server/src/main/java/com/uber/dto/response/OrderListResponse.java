@@ -0,0 +1,9 @@
+package com.uber.dto.response;
+
+import java.util.List;
+
+/**
+ * 批次查詢訂單結果 (notFound 為不存在的訂單 ID)
+ */
+public record OrderListResponse(List<OrderResponse> orders, List<String> notFound, int count) {
+}
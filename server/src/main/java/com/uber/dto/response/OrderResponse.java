@@ -0,0 +1,58 @@
+package com.uber.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.uber.model.Location;
+import com.uber.model.Order;
+import com.uber.model.OrderStatus;
+import com.uber.model.VehicleType;
+
+import java.time.Instant;
+
+/**
+ * 訂單回應 (乘客/司機查詢訂單)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record OrderResponse(
+        String orderId,
+        String passengerId,
+        OrderStatus status,
+        VehicleType vehicleType,
+        Location pickupLocation,
+        Location dropoffLocation,
+        Double estimatedFare,
+        Double estimatedDistance,
+        Instant createdAt,
+        String driverId,
+        Instant acceptedAt,
+        Instant startedAt,
+        Instant completedAt,
+        Double fare,
+        Integer duration,
+        Instant cancelledAt,
+        String cancelledBy,
+        Double cancelFee) {
+    
+    public static OrderResponse from(Order order) {
+        boolean completed = order.getCompletedAt() != null;
+        boolean cancelled = order.getStatus() == OrderStatus.CANCELLED;
+        return new OrderResponse(
+                order.getOrderId(),
+                order.getPassengerId(),
+                order.getStatus(),
+                order.getVehicleType(),
+                order.getPickupLocation(),
+                order.getDropoffLocation(),
+                order.getEstimatedFare(),
+                order.getDistance(),
+                order.getCreatedAt(),
+                order.getDriverId(),
+                order.getAcceptedAt(),
+                order.getStartedAt(),
+                order.getCompletedAt(),
+                completed ? order.getActualFare() : null,
+                completed ? order.getDuration() : null,
+                cancelled ? order.getCancelledAt() : null,
+                cancelled ? order.getCancelledBy() : null,
+                cancelled ? order.getCancelFee() : null);
+    }
+}
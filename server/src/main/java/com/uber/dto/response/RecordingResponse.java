@@ -0,0 +1,19 @@
+package com.uber.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * JFR 錄製狀態 (state 為 RUNNING 或 CLOSED；sizeBytes 於停止並寫出後才有值)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RecordingResponse(
+        String name,
+        String state,
+        String destination,
+        Instant startTime,
+        Long durationSeconds,
+        long maxSizeBytes,
+        Long sizeBytes) {
+}
@@ -0,0 +1,22 @@
+package com.uber.dto.response;
+
+import com.uber.model.AuditLog;
+import com.uber.model.Driver;
+import com.uber.model.Order;
+import com.uber.model.RatePlan;
+
+import java.util.List;
+
+/**
+ * 備援節點初始同步用的完整快照
+ * 
+ * sequence 於複製資料前取得，備援節點自 sequence 起套用日誌；期間的變更會被重新套用為最新狀態。
+ * 審計日誌只會附加，auditLogs 的筆數即備援節點接續讀取的審計序號
+ */
+public record ReplicationSnapshot(
+        long sequence,
+        List<Order> orders,
+        List<Driver> drivers,
+        List<AuditLog> auditLogs,
+        List<RatePlan> ratePlans) {
+}
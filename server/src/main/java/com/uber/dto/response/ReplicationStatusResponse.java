@@ -0,0 +1,19 @@
+package com.uber.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * 複製狀態 (主節點只有 role / readOnly / sequence)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ReplicationStatusResponse(
+        String role,
+        boolean readOnly,
+        long sequence,
+        Long lagMillis,
+        Long lastContactMillis,
+        Instant promotedAt,
+        Long failoverMillis) {
+}
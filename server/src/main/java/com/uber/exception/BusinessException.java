@@ -22,4 +22,13 @@ public class BusinessException extends RuntimeException {
         this.code = code;
         this.httpStatus = httpStatus;
     }
+    
+    /**
+     * 供子類別控制是否填入 stack trace
+     */
+    protected BusinessException(String code, String message, int httpStatus, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        this.code = code;
+        this.httpStatus = httpStatus;
+    }
 }
@@ -1,6 +1,7 @@
 package com.uber.exception;
 
 import com.uber.dto.ApiResponse;
+import com.uber.logging.LogSampler;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -15,9 +16,18 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @Slf4j
 public class GlobalExceptionHandler {
     
+    // 業務例外多為搶單衝突等常態結果：依錯誤代碼取樣，每種每秒最多記錄 10 筆
+    private final LogSampler businessLogSampler = new LogSampler(10);
+    
+    /**
+     * 業務例外 (含預先建立、不含 stack trace 的 StacklessBusinessException)
+     */
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<ApiResponse<Void>> handleBusinessException(BusinessException ex) {
-        log.warn("Business exception: {} - {}", ex.getCode(), ex.getMessage());
+        long suppressed = businessLogSampler.tryAcquire(ex.getCode());
+        if (suppressed != LogSampler.SUPPRESSED) {
+            log.warn("Business exception: {} - {} ({} similar suppressed)", ex.getCode(), ex.getMessage(), suppressed);
+        }
         
         HttpStatus status = HttpStatus.valueOf(ex.getHttpStatus());
         return ResponseEntity
@@ -0,0 +1,14 @@
+package com.uber.exception;
+
+/**
+ * 不含 stack trace 的業務邏輯例外
+ * 
+ * 用於預期內、高頻的拒絕結果 (如搶單失敗)，不填入 stack trace 也不記錄 suppressed，
+ * 因此可預先建立並重複拋出。由 GlobalExceptionHandler 以 BusinessException 相同方式處理。
+ */
+public class StacklessBusinessException extends BusinessException {
+    
+    public StacklessBusinessException(String code, String message, int httpStatus) {
+        super(code, message, httpStatus, false);
+    }
+}
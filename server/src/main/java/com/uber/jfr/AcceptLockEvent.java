@@ -0,0 +1,31 @@
+package com.uber.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import lombok.Setter;
+
+/**
+ * 接單鎖 (持續時間為持有時間，等待時間另列)
+ */
+@Name("com.uber.dispatch.AcceptLock")
+@Label("Accept Lock")
+@Category({"Ride Dispatch", "Locks"})
+@Description("Accept lock held by a local accept; the duration is the hold time")
+@StackTrace(false)
+@Setter
+public class AcceptLockEvent extends jdk.jfr.Event {
+    
+    @Label("Order Id")
+    private String orderId;
+    
+    @Label("Driver Id")
+    private String driverId;
+    
+    @Label("Wait Time")
+    @Timespan(Timespan.NANOSECONDS)
+    private long waitTime;
+}
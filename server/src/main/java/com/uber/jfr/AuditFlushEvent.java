@@ -0,0 +1,29 @@
+package com.uber.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * 審計日誌寫入 (單筆或批次)
+ */
+@Name("com.uber.dispatch.AuditFlush")
+@Label("Audit Flush")
+@Category({"Ride Dispatch", "Audit"})
+@Description("Audit log entries appended in one write")
+@StackTrace(false)
+@Setter
+public class AuditFlushEvent extends jdk.jfr.Event {
+    
+    @Label("Action")
+    private String action;
+    
+    @Label("Batch Size")
+    private int batchSize;
+    
+    @Label("Success")
+    private boolean success;
+}
@@ -0,0 +1,157 @@
+package com.uber.jfr;
+
+import com.uber.dto.response.RecordingResponse;
+import com.uber.exception.BusinessException;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * 有界 JFR 錄製
+ * 
+ * 同時只允許一個錄製；以 JDK 設定檔 (GC、safepoint、鎖競爭等) 加上派單事件，
+ * 限制長度與大小 (超過大小時保留最新的資料)，停止或到期時寫入 dispatch.jfr.directory
+ */
+@Slf4j
+public class FlightRecorderService implements AutoCloseable {
+    
+    static final List<Class<? extends Event>> DISPATCH_EVENTS = List.of(
+            OrderTransitionEvent.class,
+            AcceptLockEvent.class,
+            MatchingEvent.class,
+            OfferQueryEvent.class,
+            AuditFlushEvent.class);
+    
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final long MB = 1024 * 1024;
+    
+    private final JfrProperties properties;
+    
+    // 最近一次錄製 (可能已到期停止)，僅於 synchronized 時存取
+    private Recording recording;
+    
+    public FlightRecorderService(JfrProperties properties) {
+        this.properties = properties;
+    }
+    
+    /**
+     * 開始錄製
+     * 
+     * @param durationSeconds 錄製長度，null 時使用預設值
+     * @param maxSizeMb       檔案大小上限，null 時使用預設值
+     */
+    public synchronized RecordingResponse start(Long durationSeconds, Long maxSizeMb) {
+        if (!FlightRecorder.isAvailable()) {
+            throw new BusinessException("JFR_UNAVAILABLE", "此執行環境不支援 JFR", 503);
+        }
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new BusinessException("RECORDING_IN_PROGRESS", "已有錄製進行中", 409);
+        }
+        long duration = durationSeconds != null ? durationSeconds : properties.getDefaultDurationSeconds();
+        long maxSize = maxSizeMb != null ? maxSizeMb : properties.getDefaultMaxSizeMb();
+        if (duration <= 0 || duration > properties.getMaxDurationSeconds()) {
+            throw new BusinessException("INVALID_RECORDING_LIMIT",
+                    "錄製長度需介於 1 到 " + properties.getMaxDurationSeconds() + " 秒");
+        }
+        if (maxSize <= 0 || maxSize > properties.getMaxSizeMb()) {
+            throw new BusinessException("INVALID_RECORDING_LIMIT",
+                    "錄製大小需介於 1 到 " + properties.getMaxSizeMb() + " MB");
+        }
+        
+        String name = "dispatch-" + LocalDateTime.now().format(FILE_TIMESTAMP);
+        Recording next;
+        try {
+            Path directory = Path.of(properties.getDirectory()).toAbsolutePath();
+            Files.createDirectories(directory);
+            next = new Recording(Configuration.getConfiguration(properties.getSettings()));
+            next.setName(name);
+            next.setToDisk(true);
+            next.setDuration(Duration.ofSeconds(duration));
+            next.setMaxSize(maxSize * MB);
+            next.setDestination(directory.resolve(name + ".jfr"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("無法載入 JFR 設定檔: " + properties.getSettings(), e);
+        }
+        Duration threshold = Duration.ofMillis(properties.getThresholdMillis());
+        for (Class<? extends Event> eventClass : DISPATCH_EVENTS) {
+            next.enable(eventClass).withThreshold(threshold);
+        }
+        next.start();
+        
+        if (recording != null) {
+            recording.close();
+        }
+        recording = next;
+        log.info("JFR recording {} started ({} s, {} MB) -> {}", name, duration, maxSize, next.getDestination());
+        return describe(next);
+    }
+    
+    /**
+     * 停止錄製並寫出檔案
+     */
+    public synchronized RecordingResponse stop() {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            throw new BusinessException("NO_ACTIVE_RECORDING", "目前沒有進行中的錄製");
+        }
+        recording.stop();
+        log.info("JFR recording {} stopped -> {}", recording.getName(), recording.getDestination());
+        return describe(recording);
+    }
+    
+    /**
+     * 最近一次錄製的狀態 (尚未錄製時為 null)
+     */
+    public synchronized RecordingResponse status() {
+        return recording != null ? describe(recording) : null;
+    }
+    
+    /**
+     * 關閉時停止進行中的錄製，已錄製的內容仍寫出
+     */
+    @Override
+    public synchronized void close() {
+        if (recording != null) {
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            recording.close();
+            recording = null;
+        }
+    }
+    
+    private static RecordingResponse describe(Recording recording) {
+        Path destination = recording.getDestination();
+        Long size = null;
+        // 設定輸出檔的錄製停止 (含到期) 時寫出並關閉
+        if (recording.getState() == RecordingState.STOPPED || recording.getState() == RecordingState.CLOSED) {
+            try {
+                size = Files.size(destination);
+            } catch (IOException e) {
+                log.warn("JFR recording file not readable: {}", destination);
+            }
+        }
+        return new RecordingResponse(
+                recording.getName(),
+                recording.getState().name(),
+                destination.toString(),
+                recording.getStartTime(),
+                recording.getDuration() != null ? recording.getDuration().toSeconds() : null,
+                recording.getMaxSize(),
+                size);
+    }
+}
@@ -0,0 +1,18 @@
+package com.uber.jfr;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JFR 錄製設定 (派單事件本身不需設定：未錄製時不寫入)
+ */
+@Configuration
+@EnableConfigurationProperties(JfrProperties.class)
+public class JfrConfig {
+    
+    @Bean(destroyMethod = "close")
+    public FlightRecorderService flightRecorderService(JfrProperties properties) {
+        return new FlightRecorderService(properties);
+    }
+}
@@ -0,0 +1,29 @@
+package com.uber.jfr;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * JFR 錄製設定 (dispatch.jfr.*)
+ * 
+ * 錄製由管理端 API 啟動，長度與大小不得超過 max-*，到期自動停止並寫出檔案
+ */
+@Data
+@ConfigurationProperties(prefix = "dispatch.jfr")
+public class JfrProperties {
+    
+    // 錄製檔輸出目錄 (相對於工作目錄)
+    private String directory = "recordings";
+    
+    // JDK 內建設定檔：default (約 1% 開銷) 或 profile (較詳細)
+    private String settings = "default";
+    
+    private long defaultDurationSeconds = 60;
+    private long maxDurationSeconds = 600;
+    
+    private long defaultMaxSizeMb = 50;
+    private long maxSizeMb = 200;
+    
+    // 派單事件的門檻 (毫秒)，短於此時間的事件不寫入；0 表示全部寫入
+    private long thresholdMillis = 0;
+}
@@ -0,0 +1,39 @@
+package com.uber.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * 為訂單配對司機
+ */
+@Name("com.uber.dispatch.Matching")
+@Label("Driver Matching")
+@Category({"Ride Dispatch", "Matching"})
+@Description("Nearest-driver search for an order")
+@StackTrace(false)
+@Setter
+public class MatchingEvent extends jdk.jfr.Event {
+    
+    @Label("Order Id")
+    private String orderId;
+    
+    @Label("Vehicle Type")
+    private String vehicleType;
+    
+    @Label("Radius (km)")
+    private double radius;
+    
+    @Label("Drivers Scanned")
+    private int scanned;
+    
+    @Label("Candidates")
+    @Description("Available drivers of the requested type within the radius")
+    private int candidates;
+    
+    @Label("Matched Driver Id")
+    private String driverId;
+}
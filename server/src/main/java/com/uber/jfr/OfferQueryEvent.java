@@ -0,0 +1,33 @@
+package com.uber.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * 司機查詢可接訂單
+ */
+@Name("com.uber.dispatch.OfferQuery")
+@Label("Offer Query")
+@Category({"Ride Dispatch", "Matching"})
+@Description("Pending orders offered to a driver")
+@StackTrace(false)
+@Setter
+public class OfferQueryEvent extends jdk.jfr.Event {
+    
+    @Label("Driver Id")
+    private String driverId;
+    
+    @Label("Radius (km)")
+    @Description("Infinity when every pending order is offered")
+    private double radius;
+    
+    @Label("Orders Scanned")
+    private int scanned;
+    
+    @Label("Orders Offered")
+    private int offered;
+}
@@ -0,0 +1,36 @@
+package com.uber.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * 訂單狀態轉移 (持續時間為服務層處理時間)
+ */
+@Name("com.uber.dispatch.OrderTransition")
+@Label("Order Transition")
+@Category({"Ride Dispatch", "Orders"})
+@Description("Order state transition handled by OrderService")
+@StackTrace(false)
+@Setter
+public class OrderTransitionEvent extends jdk.jfr.Event {
+    
+    @Label("Order Id")
+    private String orderId;
+    
+    @Label("Transition")
+    @Description("create / accept / start / complete / cancel")
+    private String transition;
+    
+    @Label("From Status")
+    private String fromStatus;
+    
+    @Label("To Status")
+    private String toStatus;
+    
+    @Label("Failure Code")
+    private String failure;
+}
@@ -0,0 +1,103 @@
+package com.uber.logging;
+
+import com.uber.model.AuditLog;
+import com.uber.service.AuditService;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 將審計日誌依寫入順序輸出至 AUDIT logger (與診斷日誌分開的檔案，設定見 logback-spring.xml)
+ *
+ * 以背景執行緒追蹤只會附加的審計日誌儲存庫，狀態轉移 (含持有 acceptLock 的接單) 不直接寫日誌；
+ * AUDIT appender 為同步寫檔，不會因佇列滿而遺失紀錄。關閉時先送出尚未輸出的紀錄。
+ */
+@Slf4j
+public class AuditLogShipper implements AutoCloseable {
+
+    /** 審計日誌的 logger 名稱 */
+    public static final String AUDIT_LOGGER = "AUDIT";
+
+    private static final Logger audit = LoggerFactory.getLogger(AUDIT_LOGGER);
+
+    private static final int BATCH_SIZE = 1_000;
+
+    private final AuditService auditService;
+    private final ScheduledExecutorService scheduler;
+
+    // 下一筆要輸出的序號與上一筆已輸出的紀錄 (只在排程執行緒或 close 時存取)
+    private int offset;
+    private AuditLog lastShipped;
+
+    public AuditLogShipper(AuditService auditService, LoggingProperties properties) {
+        this.auditService = auditService;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-shipper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getAuditShipIntervalMillis();
+        scheduler.scheduleWithFixedDelay(this::ship, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void ship() {
+        try {
+            if (offset > 0 && !isLastShipped(auditService.getLogsFrom(offset - 1, 1))) {
+                // 儲存庫被清空 (測試 / 管理端重設)：從頭開始
+                offset = 0;
+            }
+            List<AuditLog> batch;
+            do {
+                batch = auditService.getLogsFrom(offset, BATCH_SIZE);
+                for (AuditLog entry : batch) {
+                    audit.info(format(entry));
+                    lastShipped = entry;
+                    offset++;
+                }
+            } while (batch.size() == BATCH_SIZE);
+        } catch (RuntimeException e) {
+            log.warn("Audit log shipping failed at offset {}", offset, e);
+        }
+    }
+
+    /**
+     * 以 id 比對 (封存後的區段每次讀取都會還原出新的物件)
+     */
+    private boolean isLastShipped(List<AuditLog> previous) {
+        return !previous.isEmpty() && Objects.equals(previous.get(0).getId(), lastShipped.getId());
+    }
+
+    /**
+     * 固定欄位順序的 key=value 格式 (空值省略)，方便以 grep / 日誌系統解析
+     */
+    static String format(AuditLog entry) {
+        StringBuilder line = new StringBuilder(160)
+                .append("ts=").append(entry.getTimestamp())
+                .append(" order=").append(entry.getOrderId())
+                .append(" action=").append(entry.getAction())
+                .append(" actor=").append(entry.getActorType()).append(':').append(entry.getActorId());
+        if (entry.getPreviousState() != null) {
+            line.append(" from=").append(entry.getPreviousState());
+        }
+        if (entry.getNewState() != null) {
+            line.append(" to=").append(entry.getNewState());
+        }
+        line.append(" success=").append(entry.isSuccess());
+        if (entry.getFailureReason() != null) {
+            line.append(" reason=").append(entry.getFailureReason());
+        }
+        return line.append(" id=").append(entry.getId()).toString();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        ship();
+    }
+}
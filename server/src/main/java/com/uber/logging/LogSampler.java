@@ -0,0 +1,65 @@
+package com.uber.logging;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 依事件種類取樣的日誌限流器
+ *
+ * 每種事件每秒最多放行 permitsPerSecond 筆，其餘只累計略過的筆數，於下一筆放行時一併回報。
+ * 事件種類須為有限集合 (轉移名稱、錯誤代碼)，不可使用訂單或司機 ID。
+ * 放行判斷只有原子遞增，不配置物件、不格式化字串。
+ */
+public final class LogSampler {
+
+    /** tryAcquire 的回傳值：本筆不記錄 */
+    public static final long SUPPRESSED = -1;
+
+    private final int permitsPerSecond;
+    private final LongSupplier clockMillis;
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    public LogSampler(int permitsPerSecond) {
+        this(permitsPerSecond, System::currentTimeMillis);
+    }
+
+    LogSampler(int permitsPerSecond, LongSupplier clockMillis) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.clockMillis = clockMillis;
+    }
+
+    /**
+     * @return 放行時為上次放行後略過的筆數 (≥ 0)；超過本秒額度時為 {@link #SUPPRESSED}
+     */
+    public long tryAcquire(String key) {
+        Window window = windows.get(key);
+        if (window == null) {
+            window = windows.computeIfAbsent(key, k -> new Window());
+        }
+        long second = clockMillis.getAsLong() / 1000;
+        if (window.second != second) {
+            synchronized (window) {
+                if (window.second != second) {
+                    window.emitted.set(0);
+                    window.second = second;
+                }
+            }
+        }
+        if (window.emitted.incrementAndGet() <= permitsPerSecond) {
+            return window.suppressed.getAndSet(0);
+        }
+        window.suppressed.incrementAndGet();
+        return SUPPRESSED;
+    }
+
+    private static final class Window {
+        volatile long second = Long.MIN_VALUE;
+        final AtomicInteger emitted = new AtomicInteger();
+        final AtomicLong suppressed = new AtomicLong();
+    }
+}
@@ -0,0 +1,19 @@
+package com.uber.logging;
+
+import com.uber.service.AuditService;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 日誌設定：審計日誌由背景執行緒輸出，不佔用狀態轉移的執行時間
+ */
+@Configuration
+@EnableConfigurationProperties(LoggingProperties.class)
+public class LoggingConfig {
+
+    @Bean(destroyMethod = "close")
+    public AuditLogShipper auditLogShipper(AuditService auditService, LoggingProperties properties) {
+        return new AuditLogShipper(auditService, properties);
+    }
+}
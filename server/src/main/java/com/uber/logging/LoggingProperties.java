@@ -0,0 +1,20 @@
+package com.uber.logging;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 日誌設定 (dispatch.logging.*)
+ *
+ * appender 本身 (非同步佇列、審計檔案) 設定於 logback-spring.xml
+ */
+@Data
+@ConfigurationProperties(prefix = "dispatch.logging")
+public class LoggingProperties {
+
+    // 審計日誌檔 (由 logback-spring.xml 讀取)
+    private String auditFile = "logs/audit.log";
+
+    // 審計日誌輸出至 AUDIT logger 的間隔
+    private long auditShipIntervalMillis = 200;
+}
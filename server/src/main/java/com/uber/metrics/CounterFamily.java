@@ -0,0 +1,56 @@
+package com.uber.metrics;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 依標籤分組的計數器
+ */
+public final class CounterFamily {
+    
+    private static final String SEPARATOR = "\u0001";
+    
+    private final boolean enabled;
+    private final List<String> labelNames;
+    private final ConcurrentHashMap<String, LongAdder> children = new ConcurrentHashMap<>();
+    
+    CounterFamily(boolean enabled, String... labelNames) {
+        this.enabled = enabled;
+        this.labelNames = List.of(labelNames);
+    }
+    
+    /**
+     * 標籤值依建立時的標籤名稱順序傳入
+     */
+    public void increment(String... labelValues) {
+        if (!enabled) {
+            return;
+        }
+        String key = labelValues.length == 1 ? labelValues[0] : String.join(SEPARATOR, labelValues);
+        LongAdder adder = children.get(key);
+        if (adder == null) {
+            adder = children.computeIfAbsent(key, k -> new LongAdder());
+        }
+        adder.increment();
+    }
+    
+    List<String> labelNames() {
+        return labelNames;
+    }
+    
+    /**
+     * 標籤值 -> 計數，依標籤值排序
+     */
+    Map<List<String>, Long> values() {
+        Map<String, Long> sorted = new TreeMap<>();
+        children.forEach((key, adder) -> sorted.put(key, adder.sum()));
+        Map<List<String>, Long> values = new LinkedHashMap<>();
+        sorted.forEach((key, count) -> values.put(Arrays.asList(key.split(SEPARATOR, -1)), count));
+        return values;
+    }
+}
@@ -0,0 +1,156 @@
+package com.uber.metrics;
+
+import java.io.IOException;
+
+/**
+ * 派單熱路徑指標
+ * 
+ * 直方圖以 HdrHistogram 記錄 (延遲單位為奈秒，輸出為秒)，計數器以 LongAdder 累計；
+ * 由 GET /internal/metrics 以 Prometheus 文字格式輸出。
+ * 以 new 建立的服務 (單元測試、基準測試) 預設使用 DISABLED，不記錄也不配置直方圖
+ */
+public class DispatchMetrics {
+    
+    public static final DispatchMetrics DISABLED = new DispatchMetrics(false);
+    
+    private static final double NANOS = 1e-9;
+    
+    private final boolean enabled;
+    
+    private final HistogramFamily httpRequests;
+    private final CounterFamily httpResponses;
+    private final HistogramFamily transitions;
+    private final HistogramMetric acceptLockWait;
+    private final HistogramMetric acceptLockHold;
+    private final HistogramMetric matching;
+    private final HistogramMetric offerQuery;
+    private final HistogramMetric auditAppend;
+    private final HistogramMetric serialization;
+    private final HistogramMetric matchingScanned;
+    private final HistogramMetric offerScanned;
+    private final HistogramMetric acceptWait;
+    private final CounterFamily acceptConflicts;
+    private final CounterFamily idempotentRepeats;
+    
+    public DispatchMetrics(boolean enabled) {
+        this.enabled = enabled;
+        this.httpRequests = new HistogramFamily(enabled, NANOS, HistogramMetric.LATENCY_BUCKETS);
+        this.httpResponses = new CounterFamily(enabled, "endpoint", "status");
+        this.transitions = new HistogramFamily(enabled, NANOS, HistogramMetric.LATENCY_BUCKETS);
+        this.acceptLockWait = latency();
+        this.acceptLockHold = latency();
+        this.matching = latency();
+        this.offerQuery = latency();
+        this.auditAppend = latency();
+        this.serialization = latency();
+        this.matchingScanned = new HistogramMetric(enabled, 1, HistogramMetric.SIZE_BUCKETS);
+        this.offerScanned = new HistogramMetric(enabled, 1, HistogramMetric.SIZE_BUCKETS);
+        this.acceptWait = new HistogramMetric(enabled, NANOS, HistogramMetric.WAIT_BUCKETS);
+        this.acceptConflicts = new CounterFamily(enabled, "code");
+        this.idempotentRepeats = new CounterFamily(enabled, "transition");
+    }
+    
+    private HistogramMetric latency() {
+        return new HistogramMetric(enabled, NANOS, HistogramMetric.LATENCY_BUCKETS);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * 計時起點 (停用時為 0)
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+    
+    /** 每個端點 (方法 + 路徑樣板) 的處理時間 */
+    public HistogramMetric httpRequest(String endpoint) {
+        return httpRequests.labels(endpoint);
+    }
+    
+    public CounterFamily httpResponses() {
+        return httpResponses;
+    }
+    
+    /** 訂單狀態轉移 (create / accept / start / complete / cancel) 的服務層耗時 */
+    public HistogramMetric transition(String transition) {
+        return transitions.labels(transition);
+    }
+    
+    /** 等待 acceptLock 的時間 */
+    public HistogramMetric acceptLockWait() {
+        return acceptLockWait;
+    }
+    
+    /** 持有 acceptLock 執行接單的時間 */
+    public HistogramMetric acceptLockHold() {
+        return acceptLockHold;
+    }
+    
+    public HistogramMetric matching() {
+        return matching;
+    }
+    
+    public HistogramMetric offerQuery() {
+        return offerQuery;
+    }
+    
+    public HistogramMetric auditAppend() {
+        return auditAppend;
+    }
+    
+    /** JSON 回應序列化 (含寫入回應緩衝區) */
+    public HistogramMetric serialization() {
+        return serialization;
+    }
+    
+    /** 配對時掃描的司機數 */
+    public HistogramMetric matchingScanned() {
+        return matchingScanned;
+    }
+    
+    /** 可接訂單查詢時掃描的待派訂單數 */
+    public HistogramMetric offerScanned() {
+        return offerScanned;
+    }
+    
+    /** 訂單建立到被接單的等候時間 */
+    public HistogramMetric acceptWait() {
+        return acceptWait;
+    }
+    
+    /** 搶單失敗 (H2)，依錯誤碼 */
+    public CounterFamily acceptConflicts() {
+        return acceptConflicts;
+    }
+    
+    /** 重送請求直接回傳既有結果 (H4)，依轉移 */
+    public CounterFamily idempotentRepeats() {
+        return idempotentRepeats;
+    }
+    
+    /**
+     * 以 Prometheus 文字格式 (0.0.4) 輸出所有指標
+     */
+    public void writeTo(PrometheusWriter out) throws IOException {
+        out.histogramFamily("dispatch_http_request_seconds", "HTTP request latency by endpoint",
+                "endpoint", httpRequests);
+        out.counterFamily("dispatch_http_responses_total", "HTTP responses by endpoint and status", httpResponses);
+        out.histogramFamily("dispatch_transition_seconds", "Order transition latency in the service layer",
+                "transition", transitions);
+        out.histogram("dispatch_accept_lock_wait_seconds", "Time waiting for the accept lock", acceptLockWait);
+        out.histogram("dispatch_accept_lock_hold_seconds", "Time holding the accept lock", acceptLockHold);
+        out.histogram("dispatch_matching_seconds", "Driver matching latency", matching);
+        out.histogram("dispatch_offer_query_seconds", "Offer query latency", offerQuery);
+        out.histogram("dispatch_audit_append_seconds", "Audit log append latency", auditAppend);
+        out.histogram("dispatch_serialization_seconds", "JSON response serialization latency", serialization);
+        out.histogram("dispatch_matching_scanned_drivers", "Drivers scanned per matching", matchingScanned);
+        out.histogram("dispatch_offer_scanned_orders", "Pending orders scanned per offer query", offerScanned);
+        out.histogram("dispatch_accept_wait_seconds", "Time from order creation to acceptance", acceptWait);
+        out.counterFamily("dispatch_accept_conflicts_total", "Rejected accepts by error code", acceptConflicts);
+        out.counterFamily("dispatch_idempotent_repeats_total", "Repeated requests answered idempotently",
+                idempotentRepeats);
+    }
+}
@@ -0,0 +1,35 @@
+package com.uber.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 依單一標籤分組的直方圖 (如 endpoint、transition)
+ */
+public final class HistogramFamily {
+    
+    private final boolean enabled;
+    private final double scale;
+    private final double[] buckets;
+    private final ConcurrentHashMap<String, HistogramMetric> children = new ConcurrentHashMap<>();
+    
+    HistogramFamily(boolean enabled, double scale, double[] buckets) {
+        this.enabled = enabled;
+        this.scale = scale;
+        this.buckets = buckets;
+    }
+    
+    public HistogramMetric labels(String value) {
+        HistogramMetric metric = children.get(value);
+        return metric != null ? metric
+                : children.computeIfAbsent(value, key -> new HistogramMetric(enabled, scale, buckets));
+    }
+    
+    /**
+     * 依標籤值排序的子項
+     */
+    Map<String, HistogramMetric> children() {
+        return new TreeMap<>(children);
+    }
+}
@@ -0,0 +1,47 @@
+package com.uber.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * 指標設定
+ * 
+ * DispatchMetrics 一律建立 (關閉時為不記錄的實例)；端點計時 Filter 與序列化計時只在開啟時註冊
+ */
+@Configuration
+@EnableConfigurationProperties(MetricsProperties.class)
+public class MetricsConfig {
+    
+    @Bean
+    public DispatchMetrics dispatchMetrics(MetricsProperties properties) {
+        return properties.isEnabled() ? new DispatchMetrics(true) : DispatchMetrics.DISABLED;
+    }
+    
+    /**
+     * 排在允入控制之後：被拒絕的請求已由 dispatch_admission_rejected_total 計數，不混入端點延遲
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "dispatch.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<RequestMetricsFilter> requestMetricsFilter(DispatchMetrics metrics) {
+        FilterRegistrationBean<RequestMetricsFilter> registration =
+                new FilterRegistrationBean<>(new RequestMetricsFilter(metrics));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 30);
+        return registration;
+    }
+    
+    /**
+     * 取代 Spring Boot 的 mappingJackson2HttpMessageConverter (其為 @ConditionalOnMissingBean)
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "dispatch.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public TimedJsonMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                         DispatchMetrics metrics) {
+        return new TimedJsonMessageConverter(objectMapper, metrics);
+    }
+}
@@ -0,0 +1,16 @@
+package com.uber.metrics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 指標設定 (dispatch.metrics.*)
+ * 
+ * 預設開啟；關閉時 /internal/metrics 仍可存取但不記錄任何數值
+ */
+@Data
+@ConfigurationProperties(prefix = "dispatch.metrics")
+public class MetricsProperties {
+    
+    private boolean enabled = true;
+}
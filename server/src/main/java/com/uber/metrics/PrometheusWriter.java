@@ -0,0 +1,99 @@
+package com.uber.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prometheus 文字格式 (0.0.4) 輸出
+ */
+public class PrometheusWriter {
+    
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    
+    private final Writer out;
+    
+    public PrometheusWriter(Writer out) {
+        this.out = out;
+    }
+    
+    public void histogram(String name, String help, HistogramMetric metric) throws IOException {
+        header(name, help, "histogram");
+        histogramSamples(name, "", metric.snapshot());
+    }
+    
+    public void histogramFamily(String name, String help, String labelName, HistogramFamily family)
+            throws IOException {
+        header(name, help, "histogram");
+        for (Map.Entry<String, HistogramMetric> child : family.children().entrySet()) {
+            histogramSamples(name, label(labelName, child.getKey()) + ",", child.getValue().snapshot());
+        }
+    }
+    
+    public void counterFamily(String name, String help, CounterFamily family) throws IOException {
+        header(name, help, "counter");
+        List<String> labelNames = family.labelNames();
+        for (Map.Entry<List<String>, Long> child : family.values().entrySet()) {
+            StringBuilder labels = new StringBuilder();
+            for (int i = 0; i < labelNames.size(); i++) {
+                if (i > 0) {
+                    labels.append(',');
+                }
+                labels.append(label(labelNames.get(i), child.getKey().get(i)));
+            }
+            sample(name, "{" + labels + "}", child.getValue());
+        }
+    }
+    
+    public void gauge(String name, String help, Map<String, ? extends Number> valuesByLabel, String labelName)
+            throws IOException {
+        header(name, help, "gauge");
+        for (Map.Entry<String, ? extends Number> entry : valuesByLabel.entrySet()) {
+            sample(name, "{" + label(labelName, entry.getKey()) + "}", entry.getValue());
+        }
+    }
+    
+    public void counter(String name, String help, Map<String, ? extends Number> valuesByLabel, String labelName)
+            throws IOException {
+        header(name, help, "counter");
+        for (Map.Entry<String, ? extends Number> entry : valuesByLabel.entrySet()) {
+            sample(name, "{" + label(labelName, entry.getKey()) + "}", entry.getValue());
+        }
+    }
+    
+    private void histogramSamples(String name, String labelPrefix, HistogramMetric.Snapshot snapshot)
+            throws IOException {
+        double[] bounds = snapshot.bounds();
+        long[] counts = snapshot.cumulativeCounts();
+        for (int i = 0; i < bounds.length; i++) {
+            sample(name + "_bucket", "{" + labelPrefix + "le=\"" + format(bounds[i]) + "\"}", counts[i]);
+        }
+        sample(name + "_bucket", "{" + labelPrefix + "le=\"+Inf\"}", snapshot.count());
+        String labels = labelPrefix.isEmpty() ? "" : "{" + labelPrefix.substring(0, labelPrefix.length() - 1) + "}";
+        sample(name + "_sum", labels, snapshot.sum());
+        sample(name + "_count", labels, snapshot.count());
+    }
+    
+    private void header(String name, String help, String type) throws IOException {
+        out.write("# HELP " + name + " " + help + "\n");
+        out.write("# TYPE " + name + " " + type + "\n");
+    }
+    
+    private void sample(String name, String labels, Number value) throws IOException {
+        out.write(name + labels + " " + format(value.doubleValue()) + "\n");
+    }
+    
+    private static String label(String name, String value) {
+        return name + "=\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+    
+    private static String format(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        // bucket 邊界 (如 0.0001) 不以科學記號輸出
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+}
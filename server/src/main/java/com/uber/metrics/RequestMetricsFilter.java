@@ -0,0 +1,42 @@
+package com.uber.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * 每個端點的處理時間與回應狀態
+ * 
+ * 端點標籤為「方法 + 路徑樣板」(如 PUT /api/orders/{orderId}/accept)，標籤數不隨訂單數成長；
+ * 未對應到 handler 的請求 (404、轉送至其他節點) 歸為 unmatched。
+ * 與 AdmissionFilter 相同，只計同步 dispatch 的時間
+ */
+public class RequestMetricsFilter extends OncePerRequestFilter {
+    
+    static final String UNMATCHED = "unmatched";
+    
+    private final DispatchMetrics metrics;
+    
+    public RequestMetricsFilter(DispatchMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = metrics.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String endpoint = pattern != null ? request.getMethod() + " " + pattern : UNMATCHED;
+            metrics.httpRequest(endpoint).recordSince(start);
+            metrics.httpResponses().increment(endpoint, Integer.toString(response.getStatus()));
+        }
+    }
+}
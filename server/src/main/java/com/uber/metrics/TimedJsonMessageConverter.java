@@ -0,0 +1,36 @@
+package com.uber.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * 記錄 JSON 回應序列化時間的訊息轉換器
+ * 
+ * 取代 Spring Boot 預設的 MappingJackson2HttpMessageConverter (同一個 ObjectMapper)；
+ * 時間包含寫入回應緩衝區，不含 StreamingResponseBody 自行輸出的串流回應
+ */
+public class TimedJsonMessageConverter extends MappingJackson2HttpMessageConverter {
+    
+    private final DispatchMetrics metrics;
+    
+    public TimedJsonMessageConverter(ObjectMapper objectMapper, DispatchMetrics metrics) {
+        super(objectMapper);
+        this.metrics = metrics;
+    }
+    
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long start = metrics.start();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            metrics.serialization().recordSince(start);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.uber.model;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * 狀態變更事件 (change feed)
+ * 
+ * 每次訂單或司機狀態轉換寫入一筆，sequence 由變更日誌依寫入順序全域遞增
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEvent {
+    
+    private long sequence;
+    private Instant timestamp;
+    
+    private EntityType entityType;
+    private String entityId;
+    private String action;        // CREATE, ACCEPT, START, COMPLETE, CANCEL, REGISTER, ONLINE, OFFLINE, LOCATION, ASSIGN, RELEASE
+    
+    // 變更後的快照 (依 entityType 擇一)
+    private Order order;
+    private Driver driver;
+    
+    public enum EntityType {
+        ORDER,
+        DRIVER
+    }
+}
@@ -11,7 +11,7 @@ import java.time.Instant;
  * 司機實體
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Driver {
@@ -0,0 +1,18 @@
+package com.uber.model;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 路線報價 (各車種預估車資)
+ * 
+ * 報價會被快取並回傳給所有查詢相同路線的呼叫端，因此為不可變物件
+ */
+public record FareQuote(double distance, Map<VehicleType, Double> estimates) {
+    
+    public FareQuote {
+        estimates = estimates.isEmpty() ? Map.of()
+                : Collections.unmodifiableMap(new EnumMap<>(estimates));
+    }
+}
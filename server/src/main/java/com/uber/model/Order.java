@@ -11,7 +11,7 @@ import java.time.Instant;
  * 訂單實體
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
@@ -0,0 +1,20 @@
+package com.uber.offers;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 可接訂單保留設定 (預設關閉；關閉時維持所有鄰近司機搶同一筆訂單)
+ */
+@Configuration
+@EnableConfigurationProperties(OfferLeaseProperties.class)
+public class OfferLeaseConfig {
+    
+    @Bean
+    @ConditionalOnProperty(prefix = "dispatch.offers.lease", name = "enabled", havingValue = "true")
+    public OfferLeases offerLeases(OfferLeaseProperties properties) {
+        return new OfferLeases(properties);
+    }
+}
@@ -0,0 +1,25 @@
+package com.uber.offers;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 可接訂單保留設定 (dispatch.offers.lease.*)
+ * 
+ * 開啟後訂單同時只顯示給 max-holders 位司機，並為其保留 lease-millis；
+ * 每位司機一次最多保留 offers-per-driver 筆 (依距離排序取前幾筆)
+ */
+@Data
+@ConfigurationProperties(prefix = "dispatch.offers.lease")
+public class OfferLeaseProperties {
+    
+    private boolean enabled = false;
+    
+    // 保留期間：應涵蓋司機輪詢到送出接單的時間，逾期後釋放給其他司機
+    private long leaseMillis = 3_000;
+    
+    // 同一筆訂單同時保留的司機數 (K)；1 為獨佔，較大時容許部分司機不接單
+    private int maxHolders = 2;
+    
+    private int offersPerDriver = 3;
+}
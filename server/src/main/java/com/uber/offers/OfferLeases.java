@@ -0,0 +1,289 @@
+package com.uber.offers;
+
+import com.uber.model.Order;
+import com.uber.service.ValidationResult;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 可接訂單保留 (offer lease)
+ *
+ * 搶單模式下每位鄰近司機都看到同一筆訂單，只有一人成功，其餘收到 ORDER_ALREADY_ACCEPTED
+ * 並各寫入一筆失敗審計。保留模式下訂單顯示給司機時即為其保留一段時間，同時最多保留給
+ * maxHolders 位司機；名額已滿的訂單不出現在其他司機的列表中，逾期或釋放後才再顯示。
+ *
+ * 司機依自己的排序 (距離最近優先) 取得保留，一次最多 offersPerDriver 筆；
+ * 重新輪詢時未再取得的舊保留立即釋放。保留不因重新輪詢而延長，未接單的司機不會一直佔住名額。
+ *
+ * 叢集模式下保留記錄在司機所在節點：本機訂單的接單由本節點檢查，
+ * 其他節點的訂單只限制本節點司機的可見性，接單仍依訂單所屬節點的搶單結果。
+ */
+public class OfferLeases {
+
+    /** 未開啟保留：可接訂單原樣回傳，接單不檢查 */
+    public static final OfferLeases DISABLED = new OfferLeases(false, 1, 1, 1, System::nanoTime);
+
+    private final boolean enabled;
+    private final long leaseNanos;
+    private final int maxHolders;
+    private final int offersPerDriver;
+    private final LongSupplier clockNanos;
+
+    // 以下狀態僅於持有 this 的鎖時存取
+    // orderId -> 保留中的司機
+    private final Map<String, Lease> leases = new HashMap<>();
+    // driverId -> 上次輪詢取得保留的訂單 (重新輪詢時釋放未再取得的)
+    private final Map<String, String[]> held = new HashMap<>();
+    // 保留取得或釋放的次數 (供 ETag 使用)
+    private long changes;
+
+    public OfferLeases(OfferLeaseProperties properties) {
+        this(true, properties.getLeaseMillis(), properties.getMaxHolders(), properties.getOffersPerDriver(),
+                System::nanoTime);
+    }
+
+    OfferLeases(boolean enabled, long leaseMillis, int maxHolders, int offersPerDriver, LongSupplier clockNanos) {
+        if (leaseMillis <= 0 || maxHolders <= 0 || offersPerDriver <= 0) {
+            throw new IllegalArgumentException("leaseMillis, maxHolders and offersPerDriver must be positive");
+        }
+        this.enabled = enabled;
+        this.leaseNanos = TimeUnit.MILLISECONDS.toNanos(leaseMillis);
+        this.maxHolders = maxHolders;
+        this.offersPerDriver = offersPerDriver;
+        this.clockNanos = clockNanos;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 依排序為司機取得保留，回傳保留成功的訂單 (維持原排序)
+     *
+     * @param ranked 司機可接的訂單，最優先者在前
+     */
+    public List<Order> reserve(String driverId, List<Order> ranked) {
+        return reserve(driverId, ranked, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 同上，最多保留 limit 筆 (且不超過 offersPerDriver)；未開啟時回傳前 limit 筆
+     */
+    public List<Order> reserve(String driverId, List<Order> ranked, int limit) {
+        if (!enabled) {
+            return ranked.size() > limit ? ranked.subList(0, limit) : ranked;
+        }
+        int cap = Math.min(offersPerDriver, limit);
+        List<Order> offered = new ArrayList<>(Math.min(ranked.size(), cap));
+        synchronized (this) {
+            long now = clockNanos.getAsLong();
+            for (int i = 0; i < ranked.size() && offered.size() < cap; i++) {
+                Order order = ranked.get(i);
+                Lease lease = leases.computeIfAbsent(order.getOrderId(), id -> new Lease(maxHolders));
+                if (lease.acquire(driverId, now, leaseNanos)) {
+                    offered.add(order);
+                } else if (lease.isEmpty()) {
+                    // 逾期清空後仍未取得：不留下空的保留記錄
+                    leases.remove(order.getOrderId());
+                }
+            }
+
+            String[] orderIds = new String[offered.size()];
+            for (int i = 0; i < orderIds.length; i++) {
+                orderIds[i] = offered.get(i).getOrderId();
+            }
+            String[] previous = orderIds.length > 0 ? held.put(driverId, orderIds) : held.remove(driverId);
+            if (previous != null) {
+                for (String orderId : previous) {
+                    if (!contains(orderIds, orderId)) {
+                        releaseHolder(orderId, driverId);
+                    }
+                }
+            }
+        }
+        return offered;
+    }
+
+    /**
+     * 接單前檢查：訂單無人保留、保留皆已逾期，或司機為保留者時可接單
+     */
+    public ValidationResult check(String orderId, String driverId) {
+        if (!enabled) {
+            return ValidationResult.OK;
+        }
+        synchronized (this) {
+            Lease lease = leases.get(orderId);
+            if (lease == null) {
+                return ValidationResult.OK;
+            }
+            long now = clockNanos.getAsLong();
+            if (lease.holds(driverId, now)) {
+                return ValidationResult.OK;
+            }
+            lease.expire(now);
+            if (lease.isEmpty()) {
+                leases.remove(orderId);
+                changes++;
+                return ValidationResult.OK;
+            }
+            return ValidationResult.OFFER_LEASED;
+        }
+    }
+
+    /**
+     * 訂單已被接走：釋放此訂單的所有保留，以及接單司機在其他訂單上的保留 (司機已忙碌，不會再接)
+     */
+    public void accepted(String orderId, String driverId) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            if (leases.remove(orderId) != null) {
+                changes++;
+            }
+            String[] previous = held.remove(driverId);
+            if (previous != null) {
+                for (String other : previous) {
+                    releaseHolder(other, driverId);
+                }
+            }
+        }
+    }
+
+    /**
+     * 訂單已取消：釋放所有保留
+     */
+    public void release(String orderId) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            if (leases.remove(orderId) != null) {
+                changes++;
+            }
+        }
+    }
+
+    /**
+     * 保留取得或釋放的次數 (供可接訂單的 ETag 使用)
+     */
+    public synchronized long changes() {
+        return changes;
+    }
+
+    /**
+     * 目前的保留期間分段 (供可接訂單的 ETag 使用)
+     *
+     * 逾期不主動通知，ETag 另含此分段：逾期釋放的名額最遲一個保留期間後反映在其他司機的 ETag。
+     * 與 changes 分開放入 ETag，兩者相加會有不同狀態得到同一值的情形
+     */
+    public long period() {
+        return clockNanos.getAsLong() / leaseNanos;
+    }
+
+    /**
+     * 有保留記錄的訂單數
+     */
+    synchronized int leasedOrderCount() {
+        return leases.size();
+    }
+
+    private void releaseHolder(String orderId, String driverId) {
+        Lease lease = leases.get(orderId);
+        if (lease != null && lease.remove(driverId)) {
+            changes++;
+            if (lease.isEmpty()) {
+                leases.remove(orderId);
+            }
+        }
+    }
+
+    private static boolean contains(String[] values, String value) {
+        for (String candidate : values) {
+            if (candidate.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 單筆訂單的保留者 (最多 maxHolders 位，以陣列保存不配置節點)
+     */
+    private final class Lease {
+        private final String[] drivers;
+        private final long[] expiresAt;
+        private int size;
+
+        Lease(int maxHolders) {
+            drivers = new String[maxHolders];
+            expiresAt = new long[maxHolders];
+        }
+
+        /**
+         * 司機已保留 (未逾期) 時維持原期限；否則於名額未滿時加入
+         */
+        boolean acquire(String driverId, long now, long leaseNanos) {
+            expire(now);
+            if (indexOf(driverId) >= 0) {
+                return true;
+            }
+            if (size == drivers.length) {
+                return false;
+            }
+            drivers[size] = driverId;
+            expiresAt[size] = now + leaseNanos;
+            size++;
+            changes++;
+            return true;
+        }
+
+        boolean holds(String driverId, long now) {
+            int index = indexOf(driverId);
+            return index >= 0 && expiresAt[index] - now > 0;
+        }
+
+        void expire(long now) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (expiresAt[i] - now <= 0) {
+                    removeAt(i);
+                    changes++;
+                }
+            }
+        }
+
+        boolean remove(String driverId) {
+            int index = indexOf(driverId);
+            if (index < 0) {
+                return false;
+            }
+            removeAt(index);
+            return true;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        private int indexOf(String driverId) {
+            for (int i = 0; i < size; i++) {
+                if (drivers[i].equals(driverId)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void removeAt(int index) {
+            size--;
+            drivers[index] = drivers[size];
+            expiresAt[index] = expiresAt[size];
+            drivers[size] = null;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.uber.offers;
+
+import com.uber.model.Location;
+import com.uber.model.Order;
+import com.uber.model.VehicleType;
+import com.uber.repository.OrderRepository;
+import com.uber.routing.DistanceProvider;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 可接訂單排序：距離與等候時間加權
+ *
+ * 只依距離排序時，稀疏地區的舊訂單會一直輸給司機附近的新訂單；
+ * 分數「距離 − agingPerSecond × 等候秒數」讓訂單等候越久越優先，最終會排到鄰近司機的前面。
+ * 本機待派訂單由 OrderRepository 的待派索引依分數逐筆產生，不需每次輪詢重新排序全部訂單。
+ *
+ * 使用路網距離時，索引依直線距離產生的分數為路網分數的下界：先取出直線分數最前面的候選，
+ * 計算路網距離後，第 limit 名的路網分數已小於未取出候選的直線分數時即停止，否則加倍取出。
+ */
+public class OfferRanking {
+
+    /** 只依距離排序 (距離相同時 orderId 較小者優先) */
+    public static final OfferRanking DISTANCE = new OfferRanking(0);
+
+    // 使用路網距離時最少先取出的候選數
+    private static final int MIN_FETCH = 16;
+
+    private final double agingPerSecond;
+    private final DistanceProvider distanceProvider;
+
+    public OfferRanking(double agingPerSecond) {
+        this(agingPerSecond, DistanceProvider.EUCLIDEAN);
+    }
+
+    public OfferRanking(double agingPerSecond, DistanceProvider distanceProvider) {
+        if (agingPerSecond < 0 || Double.isNaN(agingPerSecond)) {
+            throw new IllegalArgumentException("agingPerSecond must not be negative");
+        }
+        this.agingPerSecond = agingPerSecond;
+        this.distanceProvider = distanceProvider;
+    }
+
+    public double agingPerSecond() {
+        return agingPerSecond;
+    }
+
+    /**
+     * 依分數取得本機 radius 內的待派訂單，最多 limit 筆
+     */
+    public List<Order> rank(OrderRepository orderRepository, Location from, VehicleType vehicleType,
+                            double radius, long nowMillis, int limit) {
+        if (distanceProvider.isEuclidean() || limit <= 0) {
+            return orderRepository.rankPending(from, vehicleType, radius, agingPerSecond, nowMillis, limit);
+        }
+        Map<String, Double> distances = new HashMap<>();
+        int fetch = limit <= Integer.MAX_VALUE / 2 ? Math.max(limit * 2, MIN_FETCH) : Integer.MAX_VALUE;
+        while (true) {
+            List<Order> candidates = orderRepository.rankPending(from, vehicleType, radius, agingPerSecond,
+                    nowMillis, fetch);
+            List<Order> ranked = byScore(from, candidates, radius, nowMillis, distances);
+            // 取出的候選少於 fetch 表示已無其他候選
+            if (candidates.size() < fetch || (ranked.size() >= limit
+                    && score(ranked.get(limit - 1), distances, nowMillis)
+                    < straightScore(from, candidates.get(candidates.size() - 1), nowMillis))) {
+                return ranked.size() > limit ? new ArrayList<>(ranked.subList(0, limit)) : ranked;
+            }
+            fetch = fetch <= Integer.MAX_VALUE / 2 ? fetch * 2 : Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * 將其他節點的訂單 (已依車種篩選) 依分數併入本機的排序結果，最多 limit 筆；距離超過 radius 的不列入
+     */
+    public List<Order> merge(List<Order> ranked, List<Order> remote, Location from, double radius,
+                             long nowMillis, int limit) {
+        Map<String, Double> distances = new HashMap<>();
+        List<Order> merged = new ArrayList<>(ranked.size() + remote.size());
+        merged.addAll(ranked);
+        merged.addAll(remote);
+        List<Order> sorted = byScore(from, merged, radius, nowMillis, distances);
+        return sorted.size() > limit ? new ArrayList<>(sorted.subList(0, limit)) : sorted;
+    }
+
+    /**
+     * 計算距離 (結果記在 distances，已計算過的不重算)，移除超過 radius 的訂單後依分數排序
+     */
+    private List<Order> byScore(Location from, List<Order> orders, double radius, long nowMillis,
+                                    Map<String, Double> distances) {
+        List<Order> pending = new ArrayList<>();
+        List<Location> pickups = new ArrayList<>();
+        for (Order order : orders) {
+            if (!distances.containsKey(order.getOrderId())) {
+                pending.add(order);
+                pickups.add(order.getPickupLocation());
+            }
+        }
+        if (!pending.isEmpty()) {
+            double[] row = distanceProvider.matrix(List.of(from), pickups)[0];
+            for (int i = 0; i < row.length; i++) {
+                distances.put(pending.get(i).getOrderId(), row[i]);
+            }
+        }
+        List<Order> result = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            // 路網上無法到達的訂單 (距離為無限大) 不列入
+            double distance = distances.get(order.getOrderId());
+            if (distance <= radius && distance != Double.POSITIVE_INFINITY) {
+                result.add(order);
+            }
+        }
+        result.sort(Comparator
+                .comparingDouble((Order o) -> score(o, distances, nowMillis))
+                .thenComparing(Order::getOrderId));
+        return result;
+    }
+
+    private double score(Order order, Map<String, Double> distances, long nowMillis) {
+        return distances.get(order.getOrderId()) - agingPerSecond * waitedMillis(order, nowMillis) / 1000.0;
+    }
+
+    private double straightScore(Location from, Order order, long nowMillis) {
+        return from.distanceTo(order.getPickupLocation()) - agingPerSecond * waitedMillis(order, nowMillis) / 1000.0;
+    }
+
+    private static long waitedMillis(Order order, long nowMillis) {
+        Instant createdAt = order.getCreatedAt();
+        return createdAt != null ? Math.max(nowMillis - createdAt.toEpochMilli(), 0) : 0;
+    }
+}
@@ -0,0 +1,20 @@
+package com.uber.offers;
+
+import com.uber.routing.CachedDistanceProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 可接訂單排序設定 (預設只依距離；距離依 DistanceProvider，預設為直線距離，經司機到上車點距離的快取)
+ */
+@Configuration
+@EnableConfigurationProperties(OfferRankingProperties.class)
+public class OfferRankingConfig {
+    
+    @Bean
+    public OfferRanking offerRanking(OfferRankingProperties properties,
+                                     CachedDistanceProvider cachedDistanceProvider) {
+        return new OfferRanking(properties.getAgingPerSecond(), cachedDistanceProvider);
+    }
+}
@@ -0,0 +1,17 @@
+package com.uber.offers;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 可接訂單排序設定 (dispatch.offers.ranking.*)
+ * 
+ * 分數為「距離 − aging-per-second × 等候秒數」，越小越優先；0 (預設) 時只依距離排序
+ */
+@Data
+@ConfigurationProperties(prefix = "dispatch.offers.ranking")
+public class OfferRankingProperties {
+    
+    // 每等候一秒相當於拉近的距離 (座標單位)；例如 0.1 表示等候 60 秒的訂單與近 6 單位的新訂單同分
+    private double agingPerSecond = 0;
+}
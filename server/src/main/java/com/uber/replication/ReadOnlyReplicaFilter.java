@@ -0,0 +1,43 @@
+package com.uber.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uber.dto.ApiResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * 備援節點升級前拒絕寫入請求 (503 REPLICA_READ_ONLY)，GET 照常由本機複本回應
+ */
+public class ReadOnlyReplicaFilter extends OncePerRequestFilter {
+    
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    
+    private final ReplicationFollower follower;
+    private final ObjectMapper objectMapper;
+    
+    public ReadOnlyReplicaFilter(ReplicationFollower follower, ObjectMapper objectMapper) {
+        this.follower = follower;
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (READ_METHODS.contains(request.getMethod()) || follower.isPromoted()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader("Retry-After", "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("REPLICA_READ_ONLY", "備援節點僅提供查詢，請改送至主節點"));
+    }
+}
@@ -0,0 +1,51 @@
+package com.uber.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uber.repository.AuditLogRepository;
+import com.uber.repository.DriverRepository;
+import com.uber.repository.OrderRepository;
+import com.uber.service.ChangeFeedService;
+import com.uber.service.FareService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * 熱備援設定
+ * 
+ * dispatch.replication.enabled 為 true 時才提供 /internal/replication 端點 (見 ReplicationController)；
+ * 角色為 follower 時另建立複製程序與唯讀 Filter
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicationProperties.class)
+public class ReplicationConfig {
+    
+    @Configuration
+    @ConditionalOnProperty(prefix = "dispatch.replication", name = "enabled", havingValue = "true")
+    static class FollowerConfig {
+        
+        @Bean
+        @ConditionalOnProperty(prefix = "dispatch.replication", name = "role", havingValue = "follower")
+        public ReplicationFollower replicationFollower(ReplicationProperties properties, OrderRepository orderRepository,
+                                                       DriverRepository driverRepository,
+                                                       AuditLogRepository auditLogRepository, FareService fareService,
+                                                       ChangeFeedService changeFeedService, ObjectMapper objectMapper) {
+            return new ReplicationFollower(properties, orderRepository, driverRepository, auditLogRepository,
+                    fareService, changeFeedService, objectMapper);
+        }
+        
+        @Bean
+        @ConditionalOnProperty(prefix = "dispatch.replication", name = "role", havingValue = "follower")
+        public FilterRegistrationBean<ReadOnlyReplicaFilter> readOnlyReplicaFilter(ReplicationFollower follower,
+                                                                                    ObjectMapper objectMapper) {
+            FilterRegistrationBean<ReadOnlyReplicaFilter> registration =
+                    new FilterRegistrationBean<>(new ReadOnlyReplicaFilter(follower, objectMapper));
+            registration.addUrlPatterns("/api/*");
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 50);
+            return registration;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.uber.replication;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uber.dto.ApiResponse;
+import com.uber.dto.response.ReplicationSnapshot;
+import com.uber.model.AuditLog;
+import com.uber.model.ChangeEvent;
+import com.uber.model.RatePlan;
+import com.uber.repository.AuditLogRepository;
+import com.uber.repository.DriverRepository;
+import com.uber.repository.OrderRepository;
+import com.uber.service.ChangeFeedService;
+import com.uber.service.FareService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 備援節點的複製程序
+ * 
+ * 1. 由主節點載入完整快照 (GET /internal/replication/snapshot)，變更日誌序號與主節點對齊，
+ *    並取代本機的審計日誌與費率
+ * 2. 持續讀取日誌串流 (GET /internal/replication/journal，NDJSON)，逐筆套用到本機儲存庫與變更日誌，
+ *    新增的審計日誌依序附加、費率變更直接套用；主節點閒置時送出心跳行。
+ *    串流中斷時自已套用的序號重連，日誌已被覆寫或審計序號不連續則重新載入快照
+ * 3. 超過 failover-timeout-millis 未收到任何資料或心跳即升為主節點，停止複製並開放寫入
+ * 
+ * 尚未完成第一次快照前不會升級，避免主節點尚未啟動時以空資料接手。
+ * 未做多數決：主節點僅與備援節點斷線 (仍在服務) 時兩者都會接受寫入，須由部署端隔離舊主節點
+ */
+@Slf4j
+public class ReplicationFollower implements SmartLifecycle {
+    
+    private static final TypeReference<ApiResponse<ReplicationSnapshot>> SNAPSHOT = new TypeReference<>() {};
+    private static final TypeReference<List<AuditLog>> AUDIT_LOGS = new TypeReference<>() {};
+    private static final TypeReference<List<RatePlan>> RATE_PLANS = new TypeReference<>() {};
+    private static final long RECONNECT_MILLIS = 100;
+    
+    private final ReplicationProperties properties;
+    private final OrderRepository orderRepository;
+    private final DriverRepository driverRepository;
+    private final AuditLogRepository auditLogRepository;
+    private final FareService fareService;
+    private final ChangeFeedService changeFeedService;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replication-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Thread tailer;
+    
+    private volatile boolean running;
+    private volatile boolean synced;
+    private volatile boolean promoted;
+    private volatile long appliedSequence;
+    // 已附加的審計日誌筆數 (即下一次讀取的審計序號)
+    private volatile int auditOffset;
+    private volatile long lastContactNanos;
+    private volatile long lagMillis;
+    private volatile Instant promotedAt;
+    private volatile long failoverMillis;
+    private volatile InputStream journal;
+    
+    public ReplicationFollower(ReplicationProperties properties, OrderRepository orderRepository,
+                               DriverRepository driverRepository, AuditLogRepository auditLogRepository,
+                               FareService fareService, ChangeFeedService changeFeedService,
+                               ObjectMapper objectMapper) {
+        if (properties.getPrimaryUrl() == null || properties.getPrimaryUrl().isBlank()) {
+            throw new IllegalArgumentException("dispatch.replication.primary-url is required for follower role");
+        }
+        this.properties = properties;
+        this.orderRepository = orderRepository;
+        this.driverRepository = driverRepository;
+        this.auditLogRepository = auditLogRepository;
+        this.fareService = fareService;
+        this.changeFeedService = changeFeedService;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(properties.getFailoverTimeoutMillis()))
+                .build();
+    }
+    
+    @Override
+    public void start() {
+        running = true;
+        lastContactNanos = System.nanoTime();
+        tailer = new Thread(this::replicate, "replication-follower");
+        tailer.setDaemon(true);
+        tailer.start();
+        long interval = Math.max(10, properties.getHeartbeatMillis() / 2);
+        watchdog.scheduleWithFixedDelay(this::checkHeartbeat, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Replicating from {}", properties.getPrimaryUrl());
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        watchdog.shutdownNow();
+        closeJournal();
+        if (tailer != null) {
+            tailer.interrupt();
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    public boolean isPromoted() {
+        return promoted;
+    }
+    
+    public long getAppliedSequence() {
+        return appliedSequence;
+    }
+    
+    /**
+     * 最近一筆套用事件自主節點寫入到本機套用的時間差 (毫秒)
+     */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+    
+    public long getLastContactMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastContactNanos);
+    }
+    
+    public Instant getPromotedAt() {
+        return promotedAt;
+    }
+    
+    /**
+     * 最後一次收到主節點資料到升級完成的時間 (毫秒)，未升級時為 0
+     */
+    public long getFailoverMillis() {
+        return failoverMillis;
+    }
+    
+    private void replicate() {
+        boolean needSnapshot = true;
+        while (running && !promoted) {
+            try {
+                if (needSnapshot) {
+                    loadSnapshot();
+                    needSnapshot = false;
+                }
+                needSnapshot = tailJournal();
+            } catch (IOException | RuntimeException e) {
+                if (running && !promoted) {
+                    log.debug("Replication stream interrupted: {}", e.toString());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                closeJournal();
+            }
+            
+            try {
+                Thread.sleep(RECONNECT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    private void loadSnapshot() throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = httpClient.send(
+                HttpRequest.newBuilder(URI.create(properties.getPrimaryUrl() + "/internal/replication/snapshot")).build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        ReplicationSnapshot snapshot;
+        try (InputStream body = response.body()) {
+            snapshot = objectMapper.readValue(body, SNAPSHOT).getData();
+        }
+        if (snapshot == null) {
+            throw new IOException("snapshot unavailable: HTTP " + response.statusCode());
+        }
+        
+        synchronized (this) {
+            if (promoted) {
+                return;
+            }
+            orderRepository.deleteAll();
+            driverRepository.deleteAll();
+            auditLogRepository.deleteAll();
+            orderRepository.saveAll(snapshot.orders());
+            driverRepository.saveAll(snapshot.drivers());
+            auditLogRepository.saveAll(snapshot.auditLogs());
+            snapshot.ratePlans().forEach(plan -> fareService.updateRatePlan(plan.getVehicleType(), plan));
+            changeFeedService.restartAt(snapshot.sequence());
+            appliedSequence = snapshot.sequence();
+            auditOffset = snapshot.auditLogs().size();
+        }
+        synced = true;
+        lastContactNanos = System.nanoTime();
+        log.info("Loaded snapshot at sequence {} ({} orders, {} drivers, {} audit logs)",
+                snapshot.sequence(), snapshot.orders().size(), snapshot.drivers().size(), snapshot.auditLogs().size());
+    }
+    
+    /**
+     * 讀取日誌串流直到結束
+     * 
+     * @return 是否需要重新載入快照
+     */
+    private boolean tailJournal() throws IOException, InterruptedException {
+        String url = properties.getPrimaryUrl() + "/internal/replication/journal?since=" + appliedSequence
+                + "&auditSince=" + auditOffset + "&heartbeatMillis=" + properties.getHeartbeatMillis();
+        HttpResponse<InputStream> response = httpClient.send(HttpRequest.newBuilder(URI.create(url)).build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        journal = response.body();
+        if (response.statusCode() != 200) {
+            throw new IOException("journal unavailable: HTTP " + response.statusCode());
+        }
+        
+        BufferedReader reader = new BufferedReader(new InputStreamReader(journal, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lastContactNanos = System.nanoTime();
+            if (line.isEmpty()) {
+                continue;
+            }
+            JsonNode node = objectMapper.readTree(line);
+            if (node.has("heartbeat")) {
+                continue;
+            }
+            if (node.has("reset")) {
+                log.warn("Journal position {} no longer available, reloading snapshot", appliedSequence);
+                return true;
+            }
+            if (node.has("ratePlans")) {
+                applyRatePlans(objectMapper.convertValue(node.get("ratePlans"), RATE_PLANS));
+                continue;
+            }
+            if (node.has("audit")) {
+                if (!applyAudit(node.path("auditOffset").asInt(), objectMapper.convertValue(node.get("audit"), AUDIT_LOGS))) {
+                    return true;
+                }
+                continue;
+            }
+            if (!apply(objectMapper.treeToValue(node, ChangeEvent.class))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 套用一筆事件 (事件內含變更後的完整實體)
+     * 
+     * @return false 表示序號不連續，需重新載入快照
+     */
+    private synchronized boolean apply(ChangeEvent event) {
+        if (promoted || event.getSequence() <= appliedSequence) {
+            return true;
+        }
+        if (event.getSequence() != appliedSequence + 1) {
+            log.warn("Journal gap: expected {} but got {}", appliedSequence + 1, event.getSequence());
+            return false;
+        }
+        // 儲存庫保存複本：升級後服務層會直接修改實體，不可影響已寫入變更日誌的事件
+        switch (event.getEntityType()) {
+            case ORDER -> orderRepository.save(event.getOrder().toBuilder().build());
+            case DRIVER -> driverRepository.save(event.getDriver().toBuilder().build());
+        }
+        changeFeedService.replicate(event);
+        appliedSequence = event.getSequence();
+        if (event.getTimestamp() != null) {
+            lagMillis = Math.max(0, Duration.between(event.getTimestamp(), Instant.now()).toMillis());
+        }
+        return true;
+    }
+    
+    /**
+     * 附加自 offset 起的審計日誌
+     * 
+     * @return false 表示審計序號不連續，需重新載入快照
+     */
+    private synchronized boolean applyAudit(int offset, List<AuditLog> logs) {
+        if (promoted) {
+            return true;
+        }
+        if (offset != auditOffset) {
+            log.warn("Audit log gap: expected offset {} but got {}", auditOffset, offset);
+            return false;
+        }
+        auditLogRepository.saveAll(logs);
+        auditOffset = offset + logs.size();
+        return true;
+    }
+    
+    private synchronized void applyRatePlans(List<RatePlan> ratePlans) {
+        if (!promoted) {
+            ratePlans.forEach(plan -> fareService.updateRatePlan(plan.getVehicleType(), plan));
+        }
+    }
+    
+    private void checkHeartbeat() {
+        if (!synced || promoted) {
+            return;
+        }
+        long silentMillis = getLastContactMillis();
+        if (silentMillis > properties.getFailoverTimeoutMillis()) {
+            promote(silentMillis);
+        }
+    }
+    
+    private void promote(long silentMillis) {
+        synchronized (this) {
+            if (promoted) {
+                return;
+            }
+            promoted = true;
+            promotedAt = Instant.now();
+            failoverMillis = silentMillis;
+        }
+        closeJournal();
+        watchdog.shutdown();
+        log.warn("Primary {} silent for {} ms, promoted to primary at sequence {}",
+                properties.getPrimaryUrl(), silentMillis, appliedSequence);
+    }
+    
+    private void closeJournal() {
+        InputStream stream = journal;
+        journal = null;
+        if (stream != null) {
+            try {
+                stream.close();
+            } catch (IOException ignored) {
+                // 已關閉
+            }
+        }
+    }
+}
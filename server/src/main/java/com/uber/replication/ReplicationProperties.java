@@ -0,0 +1,34 @@
+package com.uber.replication;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 熱備援設定 (dispatch.replication.*)
+ * 
+ * 預設關閉 (不提供 /internal/replication 的快照與日誌端點)。開啟後預設為主節點；
+ * 設為 follower 時持續複製 primary-url 的變更日誌並只提供讀取，
+ * 主節點心跳中斷超過 failover-timeout-millis 後自動升為主節點
+ */
+@Data
+@ConfigurationProperties(prefix = "dispatch.replication")
+public class ReplicationProperties {
+    
+    private boolean enabled = false;
+    
+    private Role role = Role.PRIMARY;
+    
+    // 主節點 base URL (如 http://localhost:8080)，follower 必填
+    private String primaryUrl;
+    
+    // 日誌串流閒置時主節點送出心跳的間隔 (毫秒)
+    private long heartbeatMillis = 500;
+    
+    // 超過此時間未收到任何資料或心跳即升為主節點 (毫秒)
+    private long failoverTimeoutMillis = 3000;
+    
+    public enum Role {
+        PRIMARY,
+        FOLLOWER
+    }
+}
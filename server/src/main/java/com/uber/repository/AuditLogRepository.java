@@ -3,68 +3,290 @@ package com.uber.repository;
 import com.uber.model.AuditLog;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.stream.Collectors;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 審計日誌儲存庫 (In-Memory)
+ *
+ * 日誌依寫入順序分為固定列數的區段：寫入中的區段保存原物件，寫滿後交由背景執行緒
+ * 封存為欄式區段 (見 {@link ColumnarAuditSegment})，每筆約由數百 bytes 降為數十 bytes。
+ * 查詢先以區段摘要 (時間範圍、orderId bloom filter、action 字典) 略過不相關的區段。
+ *
+ * 寫入由呼叫端序列化 (synchronized)；讀取不加鎖，只看到已發布的列。
  */
 @Repository
 public class AuditLogRepository {
-    
-    private final List<AuditLog> logs = new CopyOnWriteArrayList<>();
-    
+
+    // 區段列數 (findFrom 依 offset 直接定位區段)
+    static final int SEGMENT_ROWS = 4096;
+
+    // 所有實例共用的封存執行緒 (封存只在區段寫滿時進行，量不大)
+    private static final ExecutorService SEALER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "audit-segment-sealer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 目前的區段配置：已寫滿的區段 (原物件或欄式) 與寫入中的區段；
+     * 區段替換時整個換新，讀取端拿到的一定是一致的組合
+     */
+    private record View(AuditSegment[] sealed, AuditLog[] active, int sealedRows, StringDictionary ids) {
+
+        static View empty() {
+            return new View(new AuditSegment[0], new AuditLog[SEGMENT_ROWS], 0, new StringDictionary());
+        }
+    }
+
+    private volatile View view = View.empty();
+
+    // 已發布的總列數 (寫入 active 後才遞增，讀取端先讀 size 再讀 view)
+    private volatile int size;
+
+    // 修改計數 (供 ETag 使用)
+    private final AtomicLong modificationCount = new AtomicLong();
+
     public AuditLog save(AuditLog auditLog) {
-        logs.add(auditLog);
+        synchronized (this) {
+            append(auditLog);
+        }
+        modificationCount.incrementAndGet();
         return auditLog;
     }
-    
+
+    /**
+     * 批次寫入 (整批只算一次修改)
+     */
+    public void saveAll(List<AuditLog> batch) {
+        synchronized (this) {
+            for (AuditLog auditLog : batch) {
+                append(auditLog);
+            }
+        }
+        modificationCount.incrementAndGet();
+    }
+
+    private void append(AuditLog auditLog) {
+        View current = view;
+        int row = size - current.sealedRows();
+        current.active()[row] = auditLog;
+        size = current.sealedRows() + row + 1;
+        if (row + 1 == SEGMENT_ROWS) {
+            AuditSegment.Raw full = new AuditSegment.Raw(current.active(), SEGMENT_ROWS);
+            AuditSegment[] sealed = Arrays.copyOf(current.sealed(), current.sealed().length + 1);
+            sealed[sealed.length - 1] = full;
+            view = new View(sealed, new AuditLog[SEGMENT_ROWS], size, current.ids());
+            int index = sealed.length - 1;
+            SEALER.execute(() -> seal(index, full));
+        }
+    }
+
+    /**
+     * 將原物件區段編碼為欄式並替換 (區段已被其他呼叫封存或儲存庫已清空時不替換)
+     */
+    private void seal(int index, AuditSegment.Raw raw) {
+        View snapshot = view;
+        if (!contains(snapshot, index, raw)) {
+            return;
+        }
+        ColumnarAuditSegment columnar = ColumnarAuditSegment.encode(raw.logs(), snapshot.ids());
+        synchronized (this) {
+            View current = view;
+            if (contains(current, index, raw)) {
+                AuditSegment[] sealed = current.sealed().clone();
+                sealed[index] = columnar;
+                view = new View(sealed, current.active(), current.sealedRows(), current.ids());
+            }
+        }
+    }
+
+    private static boolean contains(View view, int index, AuditSegment segment) {
+        return index < view.sealed().length && view.sealed()[index] == segment;
+    }
+
+    /**
+     * 立即封存所有已寫滿但尚未封存的區段 (背景封存之外，供測試與基準測試使用)
+     */
+    public void sealPending() {
+        AuditSegment[] sealed = view.sealed();
+        for (int index = 0; index < sealed.length; index++) {
+            if (sealed[index] instanceof AuditSegment.Raw raw) {
+                seal(index, raw);
+            }
+        }
+    }
+
+    public long getModificationCount() {
+        return modificationCount.get();
+    }
+
     public List<AuditLog> findAll() {
-        return new ArrayList<>(logs);
+        return findFrom(0, Integer.MAX_VALUE);
     }
-    
+
+    /**
+     * 依寫入順序取得自 offset 起最多 limit 筆 (審計日誌只會附加，offset 即序號)
+     */
+    public List<AuditLog> findFrom(int offset, int limit) {
+        int published = size;
+        View current = view;
+        int activeRows = activeRows(current, published);
+        int total = current.sealedRows() + activeRows;
+        if (offset >= total) {
+            return List.of();
+        }
+        int end = (int) Math.min((long) offset + limit, total);
+        List<AuditLog> result = new ArrayList<>(end - offset);
+        for (int index = offset / SEGMENT_ROWS; index < current.sealed().length && index * SEGMENT_ROWS < end;
+             index++) {
+            int base = index * SEGMENT_ROWS;
+            current.sealed()[index].slice(Math.max(offset - base, 0), Math.min(end - base, SEGMENT_ROWS), result);
+        }
+        int from = Math.max(offset - current.sealedRows(), 0);
+        int to = end - current.sealedRows();
+        if (to > from) {
+            new AuditSegment.Raw(current.active(), activeRows).slice(from, to, result);
+        }
+        return result;
+    }
+
+    /**
+     * 依條件查詢 (null 表示不篩選；時間範圍含 from、不含 to)，結果依寫入順序
+     */
+    public List<AuditLog> find(String orderId, String action, Instant from, Instant to) {
+        return find(new AuditQuery(orderId, action, from, to));
+    }
+
+    private List<AuditLog> find(AuditQuery query) {
+        int published = size;
+        View current = view;
+        List<AuditLog> result = new ArrayList<>();
+        for (AuditSegment segment : current.sealed()) {
+            segment.find(query, result);
+        }
+        new AuditSegment.Raw(current.active(), activeRows(current, published)).find(query, result);
+        return result;
+    }
+
+    /**
+     * 逐區段走訪寫入序號 [since, until) 內符合條件的紀錄 (匯出用)，依寫入順序；
+     * 一次只還原一個區段，不建立完整列表
+     */
+    public Iterator<AuditLog> scan(String orderId, String action, Instant from, Instant to, int since, int until) {
+        AuditQuery query = new AuditQuery(orderId, action, from, to);
+        int published = size;
+        View current = view;
+        int end = Math.min(until, current.sealedRows() + activeRows(current, published));
+        AuditSegment active = new AuditSegment.Raw(current.active(), activeRows(current, published));
+        return new Iterator<>() {
+            private int index = Math.max(since, 0) / SEGMENT_ROWS;
+            private final List<AuditLog> buffer = new ArrayList<>();
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+                while (position == buffer.size()) {
+                    int base = index * SEGMENT_ROWS;
+                    if (base >= end) {
+                        return false;
+                    }
+                    AuditSegment segment = index < current.sealed().length ? current.sealed()[index] : active;
+                    buffer.clear();
+                    position = 0;
+                    collect(segment, Math.max(since - base, 0), Math.min(end - base, segment.rows()), query, buffer);
+                    index++;
+                }
+                return true;
+            }
+
+            @Override
+            public AuditLog next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return buffer.get(position++);
+            }
+        };
+    }
+
+    /**
+     * 區段第 from 到 to - 1 列中符合條件的紀錄；整個區段時使用區段摘要
+     */
+    private static void collect(AuditSegment segment, int from, int to, AuditQuery query, List<AuditLog> out) {
+        if (from == 0 && to == segment.rows()) {
+            segment.find(query, out);
+            return;
+        }
+        List<AuditLog> slice = new ArrayList<>(Math.max(to - from, 0));
+        segment.slice(from, to, slice);
+        for (AuditLog log : slice) {
+            if (query.matches(log)) {
+                out.add(log);
+            }
+        }
+    }
+
+    /**
+     * 寫入中區段的可見列數：清空與寫入並行時 view 可能較 size 新，遇到尚未寫入的列即停止
+     */
+    private static int activeRows(View view, int published) {
+        int rows = Math.clamp((long) published - view.sealedRows(), 0, SEGMENT_ROWS);
+        while (rows > 0 && view.active()[rows - 1] == null) {
+            rows--;
+        }
+        return rows;
+    }
+
     public List<AuditLog> findByOrderId(String orderId) {
-        return logs.stream()
-                .filter(log -> orderId.equals(log.getOrderId()))
-                .collect(Collectors.toList());
+        return find(new AuditQuery(orderId, null, null, null));
     }
-    
+
     public List<AuditLog> findByAction(String action) {
-        return logs.stream()
-                .filter(log -> action.equals(log.getAction()))
-                .collect(Collectors.toList());
+        return find(new AuditQuery(null, action, null, null));
     }
-    
+
     public List<AuditLog> findByOrderIdAndAction(String orderId, String action) {
-        return logs.stream()
-                .filter(log -> orderId.equals(log.getOrderId()))
-                .filter(log -> action.equals(log.getAction()))
-                .collect(Collectors.toList());
+        return find(new AuditQuery(orderId, action, null, null));
     }
-    
+
     public long countSuccessByOrderIdAndAction(String orderId, String action) {
-        return logs.stream()
-                .filter(log -> orderId.equals(log.getOrderId()))
-                .filter(log -> action.equals(log.getAction()))
+        return findByOrderIdAndAction(orderId, action).stream()
                 .filter(AuditLog::isSuccess)
                 .count();
     }
-    
+
     public long countFailureByOrderIdAndAction(String orderId, String action) {
-        return logs.stream()
-                .filter(log -> orderId.equals(log.getOrderId()))
-                .filter(log -> action.equals(log.getAction()))
+        return findByOrderIdAndAction(orderId, action).stream()
                 .filter(log -> !log.isSuccess())
                 .count();
     }
-    
+
     public void deleteAll() {
-        logs.clear();
+        synchronized (this) {
+            size = 0;
+            view = View.empty();
+        }
+        modificationCount.incrementAndGet();
     }
-    
+
     public int count() {
-        return logs.size();
+        int published = size;
+        View current = view;
+        return current.sealedRows() + activeRows(current, published);
+    }
+
+    /**
+     * 已封存為欄式的區段數
+     */
+    int columnarSegmentCount() {
+        return (int) Arrays.stream(view.sealed()).filter(ColumnarAuditSegment.class::isInstance).count();
     }
 }
@@ -0,0 +1,26 @@
+package com.uber.repository;
+
+import com.uber.model.AuditLog;
+
+import java.time.Instant;
+
+/**
+ * 審計日誌查詢條件 (null 表示不篩選；時間範圍含 from、不含 to)
+ */
+record AuditQuery(String orderId, String action, Instant from, Instant to) {
+    
+    boolean matches(AuditLog log) {
+        return (orderId == null || orderId.equals(log.getOrderId()))
+                && (action == null || action.equals(log.getAction()))
+                && inRange(log.getTimestamp());
+    }
+    
+    boolean inRange(Instant timestamp) {
+        if (from == null && to == null) {
+            return true;
+        }
+        return timestamp != null
+                && (from == null || !timestamp.isBefore(from))
+                && (to == null || timestamp.isBefore(to));
+    }
+}
@@ -0,0 +1,45 @@
+package com.uber.repository;
+
+import com.uber.model.AuditLog;
+
+import java.util.List;
+
+/**
+ * 審計日誌區段：寫入中 / 待封存的區段保存原物件，封存後轉為欄式 (見 ColumnarAuditSegment)
+ */
+interface AuditSegment {
+    
+    int rows();
+    
+    /**
+     * 依寫入順序加入第 from 到 to - 1 列
+     */
+    void slice(int from, int to, List<AuditLog> out);
+    
+    /**
+     * 依寫入順序加入符合條件的紀錄
+     */
+    void find(AuditQuery query, List<AuditLog> out);
+    
+    /**
+     * 保存原物件的區段 (寫入中的區段只包含已發布的前 rows 列)
+     */
+    record Raw(AuditLog[] logs, int rows) implements AuditSegment {
+        
+        @Override
+        public void slice(int from, int to, List<AuditLog> out) {
+            for (int row = from; row < to; row++) {
+                out.add(logs[row]);
+            }
+        }
+        
+        @Override
+        public void find(AuditQuery query, List<AuditLog> out) {
+            for (int row = 0; row < rows; row++) {
+                if (query.matches(logs[row])) {
+                    out.add(logs[row]);
+                }
+            }
+        }
+    }
+}
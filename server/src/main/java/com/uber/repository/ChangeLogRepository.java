@@ -0,0 +1,161 @@
+package com.uber.repository;
+
+import com.uber.model.ChangeEvent;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 變更日誌儲存庫 (In-Memory 環狀緩衝)
+ * 
+ * 只保留最近 capacity 筆事件；消費端的 since 已被覆寫 (落後超過容量) 或早於最近一次清空時，
+ * 查詢回傳 reset，消費端需重新載入完整快照後自回傳的 sequence 繼續同步
+ */
+@Repository
+public class ChangeLogRepository {
+    
+    public static final int DEFAULT_CAPACITY = 65_536;
+    
+    private final ChangeEvent[] ring;
+    
+    // 以下欄位皆由 this 保護
+    private long lastSequence;
+    // 最近一次清空時的序號
+    private long resetSequence;
+    
+    public ChangeLogRepository() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    public ChangeLogRepository(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.ring = new ChangeEvent[capacity];
+    }
+    
+    /**
+     * 寫入事件並指定序號 (序號與環中順序一致)，喚醒等待中的串流
+     */
+    public ChangeEvent append(ChangeEvent event) {
+        return append(() -> event);
+    }
+    
+    /**
+     * 於鎖內建立事件後寫入 (見 {@link #appendAll(Collection, Function)})
+     */
+    public synchronized ChangeEvent append(Supplier<ChangeEvent> event) {
+        ChangeEvent created = event.get();
+        created.setSequence(++lastSequence);
+        ring[slot(lastSequence)] = created;
+        notifyAll();
+        return created;
+    }
+    
+    /**
+     * 批次寫入 (一次取得鎖)
+     */
+    public void appendAll(List<ChangeEvent> events) {
+        appendAll(events, Function.identity());
+    }
+    
+    /**
+     * 批次寫入，每筆事件於鎖內由 toEvent 建立
+     * 
+     * 事件保存實體的快照；快照在取得序號的同一個鎖內建立，同一實體的事件依序號排列時狀態也依修改先後排列。
+     * 在鎖外建立時，兩個未互斥的修改 (如位置更新與接單) 可能以相反順序取得序號，
+     * 最後一筆事件保存的是較舊的狀態
+     */
+    public synchronized <T> void appendAll(Collection<T> items, Function<? super T, ChangeEvent> toEvent) {
+        for (T item : items) {
+            ChangeEvent event = toEvent.apply(item);
+            event.setSequence(++lastSequence);
+            ring[slot(lastSequence)] = event;
+        }
+        notifyAll();
+    }
+    
+    /**
+     * 寫入複製來的事件並保留原序號 (備援節點套用主節點日誌，須逐筆連續)
+     * 
+     * @throws IllegalStateException 序號不連續
+     */
+    public synchronized void appendReplicated(ChangeEvent event) {
+        if (event.getSequence() != lastSequence + 1) {
+            throw new IllegalStateException("expected sequence " + (lastSequence + 1) + " but got " + event.getSequence());
+        }
+        lastSequence = event.getSequence();
+        ring[slot(lastSequence)] = event;
+        notifyAll();
+    }
+    
+    /**
+     * 取得序號大於 since 的事件 (最多 limit 筆)
+     * 
+     * 回傳的 sequence 為最後一筆事件的序號 (無事件時為 since)，下次以此值繼續查詢
+     */
+    public synchronized ChangeSet<ChangeEvent> findSince(long since, int limit) {
+        if (since < resetSequence || since > lastSequence || since < lastSequence - ring.length) {
+            return new ChangeSet<>(lastSequence, true, List.of());
+        }
+        long end = Math.min(lastSequence, since + limit);
+        List<ChangeEvent> changes = new ArrayList<>((int) (end - since));
+        for (long seq = since + 1; seq <= end; seq++) {
+            changes.add(ring[slot(seq)]);
+        }
+        return new ChangeSet<>(end, false, changes);
+    }
+    
+    /**
+     * 等待序號大於 since 的事件寫入，最多等待 timeoutMillis
+     * 
+     * @return 是否已有新事件
+     */
+    public synchronized boolean awaitAfter(long since, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (lastSequence <= since) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+    
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+    
+    public int getCapacity() {
+        return ring.length;
+    }
+    
+    /**
+     * 清空日誌；序號不歸零，先前的 since 一律回傳 reset
+     */
+    public synchronized void deleteAll() {
+        Arrays.fill(ring, null);
+        resetSequence = lastSequence;
+        notifyAll();
+    }
+    
+    /**
+     * 清空日誌並自 sequence 起接續 (備援節點載入快照後與主節點序號對齊)
+     */
+    public synchronized void restartAt(long sequence) {
+        Arrays.fill(ring, null);
+        lastSequence = sequence;
+        resetSequence = sequence;
+        notifyAll();
+    }
+    
+    private int slot(long sequence) {
+        return (int) (sequence % ring.length);
+    }
+}
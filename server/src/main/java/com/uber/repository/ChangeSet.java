@@ -0,0 +1,12 @@
+package com.uber.repository;
+
+import java.util.List;
+
+/**
+ * 指定序號之後的變更集合
+ * 
+ * sequence 為產生此結果時的集合修改計數，下次以此值查詢即可取得後續變更；
+ * reset 為 true 表示 since 早於最近一次清空，客戶端需重新載入完整快照。
+ */
+public record ChangeSet<T>(long sequence, boolean reset, List<T> changes) {
+}
@@ -0,0 +1,302 @@
+package com.uber.repository;
+
+import com.uber.model.Location;
+import com.uber.model.Order;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * 已結束訂單的冷儲存 (只會附加)
+ *
+ * 訂單以欄式編碼、壓縮後存放於 heap 外 (direct buffer)，heap 上只保留索引：
+ * orderId → 區塊與列、乘客 / 司機 → 含其訂單的區塊清單。
+ * 查詢時解壓整個區塊，最近使用的區塊保留解碼結果。
+ *
+ * 寫入 (append / clear) 只由單一執行緒進行 (呼叫端同步)，讀取可並行。
+ */
+final class ColdOrderStore {
+
+    // 保留解碼結果的區塊數 (歷史查詢通常集中在少數區塊)
+    private static final int DECODED_CACHE_BLOCKS = 64;
+
+    /**
+     * 一個壓縮區塊 (data 為 heap 外唯讀內容)；以物件本身作為解碼快取的 key
+     */
+    private static final class Block {
+        final ByteBuffer data;
+        final int rows;
+        final int rawLength;
+        final long maxVersion;
+        
+        Block(ByteBuffer data, int rows, int rawLength, long maxVersion) {
+            this.data = data;
+            this.rows = rows;
+            this.rawLength = rawLength;
+            this.maxVersion = maxVersion;
+        }
+    }
+
+    /**
+     * orderId 索引：區塊、列與版本號 (版本號供 ETag，查詢時不需解壓)
+     */
+    private record Ref(Block block, int row, long version) {
+    }
+
+    /**
+     * 一代資料：clear 時整代替換，進行中的讀取仍看到完整的舊資料
+     */
+    private static final class Generation {
+        final List<Block> blocks = new CopyOnWriteArrayList<>();
+        final Map<String, Ref> byOrderId = new ConcurrentHashMap<>();
+        final Map<String, Block[]> byPassengerId = new ConcurrentHashMap<>();
+        final Map<String, Block[]> byDriverId = new ConcurrentHashMap<>();
+        volatile long compressedBytes;
+        volatile long rawBytes;
+    }
+
+    private volatile Generation generation = new Generation();
+
+    private final Map<Block, OrderBlockCodec.Decoded> decodedCache =
+            Collections.synchronizedMap(new LinkedHashMap<>(DECODED_CACHE_BLOCKS, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Block, OrderBlockCodec.Decoded> eldest) {
+                    return size() > DECODED_CACHE_BLOCKS;
+                }
+            });
+
+    /**
+     * 附加訂單 (超過區塊上限時分成多個區塊)；versions 與 orders 依序對應
+     */
+    void append(List<Order> orders, long[] versions) {
+        Generation current = generation;
+        for (int from = 0; from < orders.size(); from += OrderBlockCodec.MAX_ROWS) {
+            int to = Math.min(orders.size(), from + OrderBlockCodec.MAX_ROWS);
+            List<Order> rows = orders.subList(from, to);
+            long[] rowVersions = Arrays.copyOfRange(versions, from, to);
+            OrderBlockCodec.Encoded encoded = OrderBlockCodec.encode(rows, rowVersions);
+
+            ByteBuffer data = ByteBuffer.allocateDirect(encoded.compressedLength());
+            data.put(encoded.data(), 0, encoded.compressedLength()).flip();
+            long maxVersion = Arrays.stream(rowVersions).max().orElse(0);
+            Block block = new Block(data.asReadOnlyBuffer(), rows.size(), encoded.rawLength(), maxVersion);
+
+            current.blocks.add(block);
+            for (int row = 0; row < rows.size(); row++) {
+                Order order = rows.get(row);
+                current.byOrderId.put(order.getOrderId(), new Ref(block, row, rowVersions[row]));
+                addPosting(current.byPassengerId, order.getPassengerId(), block);
+                addPosting(current.byDriverId, order.getDriverId(), block);
+            }
+            current.compressedBytes += encoded.compressedLength();
+            current.rawBytes += encoded.rawLength();
+        }
+    }
+
+    private static void addPosting(Map<String, Block[]> index, String key, Block block) {
+        if (key == null) {
+            return;
+        }
+        Block[] blocks = index.get(key);
+        if (blocks == null) {
+            index.put(key, new Block[] {block});
+        } else if (blocks[blocks.length - 1] != block) {
+            // 以新陣列替換，讀取端不會看到寫到一半的陣列
+            Block[] grown = Arrays.copyOf(blocks, blocks.length + 1);
+            grown[blocks.length] = block;
+            index.put(key, grown);
+        }
+    }
+
+    Optional<Order> findById(String orderId) {
+        Ref ref = generation.byOrderId.get(orderId);
+        if (ref == null) {
+            return Optional.empty();
+        }
+        return Optional.of(copy(decode(ref.block(), true).orders().get(ref.row())));
+    }
+
+    /**
+     * @return 版本號，不存在時為 0
+     */
+    long getVersion(String orderId) {
+        Ref ref = generation.byOrderId.get(orderId);
+        return ref == null ? 0 : ref.version();
+    }
+
+    List<Order> findByPassengerId(String passengerId) {
+        return collect(generation.byPassengerId.get(passengerId), true,
+                order -> passengerId.equals(order.getPassengerId()));
+    }
+
+    List<Order> findByDriverId(String driverId) {
+        return collect(generation.byDriverId.get(driverId), true, order -> driverId.equals(order.getDriverId()));
+    }
+
+    /**
+     * 全部區塊中符合條件的訂單 (需解壓所有區塊，供管理端使用)
+     */
+    List<Order> findAll(Predicate<Order> filter) {
+        return collect(generation.blocks.toArray(new Block[0]), false, filter);
+    }
+
+    /**
+     * 版本號大於 since 的訂單 (只解壓含有較新版本的區塊)
+     */
+    List<Order> findChangedSince(long since) {
+        List<Order> changes = new ArrayList<>();
+        for (Block block : generation.blocks) {
+            if (block.maxVersion <= since) {
+                continue;
+            }
+            OrderBlockCodec.Decoded decoded = decode(block, false);
+            for (int row = 0; row < block.rows; row++) {
+                if (decoded.versions()[row] > since && isCurrent(block, row, decoded.orders().get(row))) {
+                    changes.add(copy(decoded.orders().get(row)));
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * 逐區塊走訪符合條件的訂單 (一次只解壓一個區塊，不放入快取)；
+     * 有乘客 / 司機條件時只走訪含其訂單的區塊
+     */
+    Iterator<Order> iterator(OrderFilter filter) {
+        Generation current = generation;
+        Iterator<Block> blocks;
+        if (filter.passengerId() != null) {
+            blocks = postings(current.byPassengerId, filter.passengerId());
+        } else if (filter.driverId() != null) {
+            blocks = postings(current.byDriverId, filter.driverId());
+        } else {
+            blocks = current.blocks.iterator();
+        }
+        return new Iterator<>() {
+            private Block block;
+            private OrderBlockCodec.Decoded decoded;
+            private int row;
+            private Order next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null) {
+                    if (block == null || row == block.rows) {
+                        if (!blocks.hasNext()) {
+                            return false;
+                        }
+                        block = blocks.next();
+                        decoded = decode(block, false);
+                        row = 0;
+                    }
+                    Order order = decoded.orders().get(row);
+                    if (isCurrent(block, row, order) && filter.matches(order)) {
+                        next = copy(order);
+                    }
+                    row++;
+                }
+                return true;
+            }
+
+            @Override
+            public Order next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Order order = next;
+                next = null;
+                return order;
+            }
+        };
+    }
+
+    private static Iterator<Block> postings(Map<String, Block[]> index, String key) {
+        Block[] blocks = index.get(key);
+        return blocks == null ? Collections.emptyIterator() : Arrays.asList(blocks).iterator();
+    }
+
+    private List<Order> collect(Block[] blocks, boolean cache, Predicate<Order> filter) {
+        if (blocks == null) {
+            return List.of();
+        }
+        List<Order> result = new ArrayList<>();
+        for (Block block : blocks) {
+            OrderBlockCodec.Decoded decoded = decode(block, cache);
+            for (int row = 0; row < block.rows; row++) {
+                Order order = decoded.orders().get(row);
+                if (isCurrent(block, row, order) && filter.test(order)) {
+                    result.add(copy(order));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 同一訂單重複歸檔時只取索引指向的最新一列
+     */
+    private boolean isCurrent(Block block, int row, Order order) {
+        Ref ref = generation.byOrderId.get(order.getOrderId());
+        return ref != null && ref.block() == block && ref.row() == row;
+    }
+
+    /**
+     * 解碼區塊 (快取內容共用，回傳給呼叫端前須以 copy 複製)
+     * 
+     * @param cache 是否放入快取；掃描全部區塊時不放入，避免擠掉常用區塊
+     */
+    private OrderBlockCodec.Decoded decode(Block block, boolean cache) {
+        OrderBlockCodec.Decoded decoded = decodedCache.get(block);
+        if (decoded == null) {
+            decoded = OrderBlockCodec.decode(block.data, block.rawLength);
+            if (cache) {
+                decodedCache.put(block, decoded);
+            }
+        }
+        return decoded;
+    }
+
+    private static Order copy(Order order) {
+        Order copy = order.toBuilder().build();
+        if (order.getPickupLocation() != null) {
+            copy.setPickupLocation(new Location(order.getPickupLocation().getX(), order.getPickupLocation().getY()));
+        }
+        if (order.getDropoffLocation() != null) {
+            copy.setDropoffLocation(new Location(order.getDropoffLocation().getX(), order.getDropoffLocation().getY()));
+        }
+        return copy;
+    }
+
+    void clear() {
+        generation = new Generation();
+        decodedCache.clear();
+    }
+
+    int count() {
+        return generation.byOrderId.size();
+    }
+
+    int blockCount() {
+        return generation.blocks.size();
+    }
+
+    long compressedBytes() {
+        return generation.compressedBytes;
+    }
+
+    long rawBytes() {
+        return generation.rawBytes;
+    }
+}
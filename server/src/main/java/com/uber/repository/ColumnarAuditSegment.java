@@ -0,0 +1,351 @@
+package com.uber.repository;
+
+import com.uber.model.AuditLog;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * 封存後的審計日誌區段 (欄式、不可變)
+ *
+ * - action / actorType / 狀態 / 失敗原因：區段內字典 + 2 bytes 代碼
+ * - orderId / actorId：共用字典的 int handle
+ * - 時間：相鄰兩列的奈秒差以 zigzag varint 編碼 (寫入大致依時間順序，多為 1–3 bytes)
+ * - id：UUID 以兩個 long 保存
+ * - 區段摘要：最早 / 最晚時間與 orderId 的 bloom filter，查詢時先以摘要略過整個區段
+ *
+ * 無法以上述格式還原的列 (時間為 null、id 不是標準 UUID、帶 metadata) 原物件保存於 irregular。
+ */
+final class ColumnarAuditSegment implements AuditSegment {
+
+    private static final char NULL_CODE = Character.MAX_VALUE;
+    private static final int BLOOM_BITS_PER_ORDER = 10;
+    private static final int BLOOM_HASHES = 3;
+
+    /**
+     * 區段內字典編碼的字串欄
+     */
+    private record SymbolColumn(String[] dictionary, char[] codes) {
+
+        static SymbolColumn encode(AuditLog[] logs, Function<AuditLog, String> column) {
+            Map<String, Character> dictionary = new HashMap<>();
+            List<String> entries = new ArrayList<>();
+            char[] codes = new char[logs.length];
+            for (int row = 0; row < logs.length; row++) {
+                String value = column.apply(logs[row]);
+                if (value == null) {
+                    codes[row] = NULL_CODE;
+                    continue;
+                }
+                Character code = dictionary.get(value);
+                if (code == null) {
+                    code = (char) entries.size();
+                    dictionary.put(value, code);
+                    entries.add(value);
+                }
+                codes[row] = code;
+            }
+            return new SymbolColumn(entries.toArray(new String[0]), codes);
+        }
+
+        String get(int row) {
+            char code = codes[row];
+            return code == NULL_CODE ? null : dictionary[code];
+        }
+
+        /**
+         * @return 字典代碼，區段內沒有此值時為 -1
+         */
+        int codeOf(String value) {
+            for (int code = 0; code < dictionary.length; code++) {
+                if (dictionary[code].equals(value)) {
+                    return code;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private final StringDictionary ids;
+    private final int rows;
+    private final long baseNanos;
+    private final byte[] timestampDeltas;
+    private final Instant minTimestamp;
+    private final Instant maxTimestamp;
+    private final long[] idHigh;
+    private final long[] idLow;
+    private final int[] orderIds;
+    private final int[] actorIds;
+    private final SymbolColumn action;
+    private final SymbolColumn actorType;
+    private final SymbolColumn previousState;
+    private final SymbolColumn newState;
+    private final SymbolColumn failureReason;
+    private final long[] success;
+    private final long[] orderBloom;
+    private final Map<Integer, AuditLog> irregular;
+
+    private ColumnarAuditSegment(StringDictionary ids, AuditLog[] logs) {
+        this.ids = ids;
+        this.rows = logs.length;
+        this.idHigh = new long[rows];
+        this.idLow = new long[rows];
+        this.orderIds = new int[rows];
+        this.actorIds = new int[rows];
+        this.success = new long[(rows + 63) / 64];
+        Map<Integer, AuditLog> irregularRows = new HashMap<>();
+        Set<Integer> distinctOrders = new HashSet<>();
+
+        ByteArrayOutputStream deltas = new ByteArrayOutputStream(rows * 3);
+        long base = 0;
+        long previous = 0;
+        boolean first = true;
+        Instant min = null;
+        Instant max = null;
+        for (int row = 0; row < rows; row++) {
+            AuditLog log = logs[row];
+            orderIds[row] = ids.intern(log.getOrderId());
+            actorIds[row] = ids.intern(log.getActorId());
+            distinctOrders.add(orderIds[row]);
+            if (log.isSuccess()) {
+                success[row >> 6] |= 1L << row;
+            }
+
+            Instant timestamp = log.getTimestamp();
+            if (timestamp != null) {
+                min = min == null || timestamp.isBefore(min) ? timestamp : min;
+                max = max == null || timestamp.isAfter(max) ? timestamp : max;
+            }
+            long nanos = previous;
+            boolean regular = log.getMetadata() == null && parseUuid(log.getId(), row);
+            try {
+                if (timestamp == null) {
+                    regular = false;
+                } else {
+                    nanos = Math.addExact(Math.multiplyExact(timestamp.getEpochSecond(), 1_000_000_000L),
+                            timestamp.getNano());
+                }
+            } catch (ArithmeticException e) {
+                regular = false;
+            }
+            if (!regular) {
+                irregularRows.put(row, log);
+                nanos = previous;
+            }
+            if (first) {
+                base = nanos;
+                previous = nanos;
+                first = false;
+            }
+            writeVarLong(deltas, zigzag(nanos - previous));
+            previous = nanos;
+        }
+        this.baseNanos = base;
+        this.timestampDeltas = deltas.toByteArray();
+        this.minTimestamp = min;
+        this.maxTimestamp = max;
+        this.action = SymbolColumn.encode(logs, AuditLog::getAction);
+        this.actorType = SymbolColumn.encode(logs, AuditLog::getActorType);
+        this.previousState = SymbolColumn.encode(logs, AuditLog::getPreviousState);
+        this.newState = SymbolColumn.encode(logs, AuditLog::getNewState);
+        this.failureReason = SymbolColumn.encode(logs, AuditLog::getFailureReason);
+        this.irregular = irregularRows.isEmpty() ? Map.of() : irregularRows;
+
+        this.orderBloom = new long[Math.max(1, (distinctOrders.size() * BLOOM_BITS_PER_ORDER + 63) / 64)];
+        for (int handle : distinctOrders) {
+            if (handle != StringDictionary.ABSENT) {
+                long bits = (long) orderBloom.length * 64;
+                for (int i = 0; i < BLOOM_HASHES; i++) {
+                    long bit = Math.floorMod(bloomHash(handle, i), bits);
+                    orderBloom[(int) (bit >> 6)] |= 1L << bit;
+                }
+            }
+        }
+    }
+
+    /**
+     * 將原物件區段編碼為欄式 (orderId / actorId 加入共用字典)
+     */
+    static ColumnarAuditSegment encode(AuditLog[] logs, StringDictionary ids) {
+        return new ColumnarAuditSegment(ids, logs);
+    }
+
+    private boolean parseUuid(String id, int row) {
+        if (id == null || id.length() != 36) {
+            return false;
+        }
+        try {
+            UUID uuid = UUID.fromString(id);
+            if (!uuid.toString().equals(id)) {
+                return false;
+            }
+            idHigh[row] = uuid.getMostSignificantBits();
+            idLow[row] = uuid.getLeastSignificantBits();
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public void slice(int from, int to, List<AuditLog> out) {
+        TimestampCursor cursor = new TimestampCursor();
+        for (int row = 0; row < to; row++) {
+            long nanos = cursor.next();
+            if (row >= from) {
+                out.add(decode(row, nanos));
+            }
+        }
+    }
+
+    @Override
+    public void find(AuditQuery query, List<AuditLog> out) {
+        if (!overlaps(query)) {
+            return;
+        }
+        int orderHandle = StringDictionary.ABSENT;
+        if (query.orderId() != null) {
+            orderHandle = ids.lookup(query.orderId());
+            if (orderHandle == StringDictionary.ABSENT || !mightContainOrder(orderHandle)) {
+                return;
+            }
+        }
+        int actionCode = -1;
+        if (query.action() != null) {
+            actionCode = action.codeOf(query.action());
+            if (actionCode < 0) {
+                return;
+            }
+        }
+        boolean timeFilter = query.from() != null || query.to() != null;
+        long fromNanos = query.from() == null ? Long.MIN_VALUE : toNanos(query.from(), Long.MIN_VALUE);
+        long toNanos = query.to() == null ? Long.MAX_VALUE : toNanos(query.to(), Long.MAX_VALUE);
+
+        TimestampCursor cursor = new TimestampCursor();
+        for (int row = 0; row < rows; row++) {
+            long nanos = cursor.next();
+            if (query.orderId() != null && orderIds[row] != orderHandle) {
+                continue;
+            }
+            if (actionCode >= 0 && action.codes()[row] != actionCode) {
+                continue;
+            }
+            AuditLog log = irregular.get(row);
+            if (log != null) {
+                if (query.matches(log)) {
+                    out.add(log);
+                }
+            } else if (!timeFilter || (nanos >= fromNanos && nanos < toNanos)) {
+                out.add(decode(row, nanos));
+            }
+        }
+    }
+
+    /**
+     * 查詢的時間範圍是否與區段最早 / 最晚時間重疊 (不重疊時整個區段略過)
+     */
+    private boolean overlaps(AuditQuery query) {
+        if (query.from() == null && query.to() == null) {
+            return true;
+        }
+        // 區段內全部列都沒有時間：不符合任何時間範圍
+        if (minTimestamp == null) {
+            return false;
+        }
+        return (query.to() == null || minTimestamp.isBefore(query.to()))
+                && (query.from() == null || !maxTimestamp.isBefore(query.from()));
+    }
+
+    private boolean mightContainOrder(int handle) {
+        long bits = (long) orderBloom.length * 64;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            long bit = Math.floorMod(bloomHash(handle, i), bits);
+            if ((orderBloom[(int) (bit >> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private AuditLog decode(int row, long nanos) {
+        AuditLog log = irregular.get(row);
+        if (log != null) {
+            return log;
+        }
+        return AuditLog.builder()
+                .id(new UUID(idHigh[row], idLow[row]).toString())
+                .timestamp(Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                        Math.floorMod(nanos, 1_000_000_000L)))
+                .orderId(ids.get(orderIds[row]))
+                .action(action.get(row))
+                .actorType(actorType.get(row))
+                .actorId(ids.get(actorIds[row]))
+                .previousState(previousState.get(row))
+                .newState(newState.get(row))
+                .success((success[row >> 6] & (1L << row)) != 0)
+                .failureReason(failureReason.get(row))
+                .build();
+    }
+
+    /**
+     * 依序還原各列時間 (奈秒)
+     */
+    private final class TimestampCursor {
+        private int position;
+        private long current = baseNanos;
+
+        long next() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = timestampDeltas[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            current += (value >>> 1) ^ -(value & 1);
+            return current;
+        }
+    }
+
+    private static long toNanos(Instant instant, long overflow) {
+        try {
+            return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+        } catch (ArithmeticException e) {
+            return overflow;
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long bloomHash(int handle, int i) {
+        long h = handle * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        long h2 = (handle + 0x632BE59BD9B4E019L) * 0xC2B2AE3D27D4EB4FL;
+        h2 ^= h2 >>> 29;
+        return h + i * (h2 | 1);
+    }
+}
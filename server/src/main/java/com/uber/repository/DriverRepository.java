@@ -5,6 +5,10 @@ import com.uber.model.DriverStatus;
 import com.uber.model.VehicleType;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -19,11 +23,79 @@ public class DriverRepository {
     
     private final Map<String, Driver> drivers = new ConcurrentHashMap<>();
     
+    // 集合修改計數，每次寫入遞增；寫入當下的值即為該筆資料的版本號 (供 ETag 使用)。
+    // 遞增與寫入版本表在 versionLock 內進行，且先寫入版本表再更新計數：
+    // 讀到計數 n 時，版本號不大於 n 的寫入都已出現在版本表
+    private final Object versionLock = new Object();
+    private volatile long modificationCount;
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    
+    // 最近一次清空時的修改計數，早於此值的增量查詢需重新載入
+    private volatile long resetSequence;
+    
     public Driver save(Driver driver) {
         drivers.put(driver.getDriverId(), driver);
+        synchronized (versionLock) {
+            long version = modificationCount + 1;
+            versions.put(driver.getDriverId(), version);
+            modificationCount = version;
+        }
         return driver;
     }
     
+    /**
+     * 批次寫入，整批共用同一個版本號，集合修改計數只遞增一次
+     */
+    public void saveAll(Collection<Driver> batch) {
+        for (Driver driver : batch) {
+            drivers.put(driver.getDriverId(), driver);
+        }
+        synchronized (versionLock) {
+            long version = modificationCount + 1;
+            for (Driver driver : batch) {
+                versions.put(driver.getDriverId(), version);
+            }
+            modificationCount = version;
+        }
+    }
+    
+    /**
+     * 取得單筆資料版本號，不存在時為 0
+     */
+    public long getVersion(String id) {
+        return versions.getOrDefault(id, 0L);
+    }
+    
+    /**
+     * 取得集合修改計數 (任何寫入都會改變)
+     */
+    public long getModificationCount() {
+        return modificationCount;
+    }
+    
+    /**
+     * 取得版本號大於 since 的資料 (供管理後台增量更新)
+     * 
+     * 先讀取修改計數再掃描版本表：計數只在版本表寫入後才更新，版本號不大於回傳 sequence 的寫入都會被掃描到；
+     * 掃描期間的新寫入可能重複出現在下一次查詢
+     */
+    public ChangeSet<Driver> findChangedSince(long since) {
+        long sequence = modificationCount;
+        if (since < resetSequence) {
+            return new ChangeSet<>(sequence, true, List.of());
+        }
+        List<Driver> changes = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : versions.entrySet()) {
+            if (entry.getValue() > since) {
+                Driver item = drivers.get(entry.getKey());
+                if (item != null) {
+                    changes.add(item);
+                }
+            }
+        }
+        return new ChangeSet<>(sequence, false, changes);
+    }
+    
     public Optional<Driver> findById(String driverId) {
         return Optional.ofNullable(drivers.get(driverId));
     }
@@ -32,6 +104,13 @@ public class DriverRepository {
         return List.copyOf(drivers.values());
     }
     
+    /**
+     * 逐筆走訪所有司機，不建立完整列表 (弱一致，走訪期間的修改不一定可見)
+     */
+    public Iterator<Driver> scan() {
+        return Collections.unmodifiableCollection(drivers.values()).iterator();
+    }
+    
     public List<Driver> findAvailableDrivers(VehicleType vehicleType) {
         return drivers.values().stream()
                 .filter(d -> d.getStatus() == DriverStatus.ONLINE)
@@ -48,6 +127,10 @@ public class DriverRepository {
     
     public void deleteAll() {
         drivers.clear();
+        synchronized (versionLock) {
+            versions.clear();
+            resetSequence = ++modificationCount;
+        }
     }
     
     public int count() {
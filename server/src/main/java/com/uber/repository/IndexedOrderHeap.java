@@ -0,0 +1,140 @@
+package com.uber.repository;
+
+import com.uber.model.Order;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 以 orderId 索引的二元最小堆 (key 較小者優先)
+ *
+ * 除了插入與取最小值，還可依 orderId 在 O(log n) 內更新 key (decrease / increase-key) 或移除任一筆，
+ * 訂單被接走或取消時不需重建整個堆。
+ * 非執行緒安全，由呼叫端同步。
+ */
+final class IndexedOrderHeap {
+
+    private Order[] orders = new Order[8];
+    private long[] keys = new long[8];
+    private int size;
+
+    // orderId -> 在陣列中的位置
+    private final Map<String, Integer> positions = new HashMap<>();
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    Order orderAt(int index) {
+        return orders[index];
+    }
+
+    long keyAt(int index) {
+        return keys[index];
+    }
+
+    /**
+     * 插入，或更新已存在訂單的 key 與物件 (依 key 變小或變大往上或往下調整)
+     */
+    void put(Order order, long key) {
+        Integer index = positions.get(order.getOrderId());
+        if (index == null) {
+            if (size == orders.length) {
+                orders = Arrays.copyOf(orders, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            orders[size] = order;
+            keys[size] = key;
+            positions.put(order.getOrderId(), size);
+            siftUp(size++);
+            return;
+        }
+        long previous = keys[index];
+        orders[index] = order;
+        keys[index] = key;
+        if (key < previous) {
+            siftUp(index);
+        } else if (key > previous) {
+            siftDown(index);
+        }
+    }
+
+    boolean remove(String orderId) {
+        Integer index = positions.remove(orderId);
+        if (index == null) {
+            return false;
+        }
+        int last = --size;
+        if (index != last) {
+            move(last, index);
+            orders[last] = null;
+            if (index > 0 && keys[index] < keys[parent(index)]) {
+                siftUp(index);
+            } else {
+                siftDown(index);
+            }
+        } else {
+            orders[last] = null;
+        }
+        return true;
+    }
+
+    static int parent(int index) {
+        return (index - 1) >>> 1;
+    }
+
+    static int left(int index) {
+        return 2 * index + 1;
+    }
+
+    private void siftUp(int index) {
+        Order order = orders[index];
+        long key = keys[index];
+        while (index > 0) {
+            int parent = parent(index);
+            if (keys[parent] <= key) {
+                break;
+            }
+            move(parent, index);
+            index = parent;
+        }
+        place(order, key, index);
+    }
+
+    private void siftDown(int index) {
+        Order order = orders[index];
+        long key = keys[index];
+        while (true) {
+            int child = left(index);
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            move(child, index);
+            index = child;
+        }
+        place(order, key, index);
+    }
+
+    private void move(int from, int to) {
+        orders[to] = orders[from];
+        keys[to] = keys[from];
+        positions.put(orders[to].getOrderId(), to);
+    }
+
+    private void place(Order order, long key, int index) {
+        orders[index] = order;
+        keys[index] = key;
+        positions.put(order.getOrderId(), index);
+    }
+}
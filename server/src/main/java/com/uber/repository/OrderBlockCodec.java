@@ -0,0 +1,322 @@
+package com.uber.repository;
+
+import com.uber.model.Location;
+import com.uber.model.Order;
+import com.uber.model.OrderStatus;
+import com.uber.model.VehicleType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 冷儲存區塊的欄式編碼
+ *
+ * 一個區塊依欄位逐欄寫出 (同欄的值相鄰，壓縮率較逐筆序列化高)，整塊再以 Deflate 壓縮：
+ * - 重複度高的字串欄 (乘客、司機、狀態、車種、取消者) 以區塊內字典 + 2 bytes 代碼表示
+ * - 可為 null 的欄位先寫出存在位元圖，只寫出有值的列
+ * - 時間以 epoch 秒 + 奈秒保存，解碼後與原值相同
+ */
+final class OrderBlockCodec {
+
+    // 區塊列數上限：查詢單筆需解壓整個區塊，不宜過大 (字典代碼以 short 表示)
+    static final int MAX_ROWS = 256;
+
+    private static final short NULL_CODE = -1;
+
+    private OrderBlockCodec() {
+    }
+
+    /**
+     * 編碼後的區塊 (data 為壓縮後內容)
+     */
+    record Encoded(byte[] data, int compressedLength, int rawLength) {
+    }
+
+    /**
+     * 解碼後的區塊 (versions 與 orders 依列對應)
+     */
+    record Decoded(List<Order> orders, long[] versions) {
+    }
+
+    static Encoded encode(List<Order> orders, long[] versions) {
+        int rows = orders.size();
+        if (rows == 0 || rows > MAX_ROWS || versions.length != rows) {
+            throw new IllegalArgumentException("block rows must be 1.." + MAX_ROWS);
+        }
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(rows * 128);
+        try (DataOutputStream out = new DataOutputStream(raw)) {
+            out.writeInt(rows);
+            for (int row = 0; row < rows; row++) {
+                out.writeLong(versions[row]);
+            }
+            for (Order order : orders) {
+                out.writeUTF(order.getOrderId());
+            }
+            writeDictionary(out, orders, Order::getPassengerId);
+            writeDictionary(out, orders, Order::getDriverId);
+            writeDictionary(out, orders, order -> order.getStatus() == null ? null : order.getStatus().name());
+            writeDictionary(out, orders, order -> order.getVehicleType() == null ? null : order.getVehicleType().name());
+            writeDictionary(out, orders, Order::getCancelledBy);
+            writeLocations(out, orders, Order::getPickupLocation);
+            writeLocations(out, orders, Order::getDropoffLocation);
+            writeDoubles(out, orders, Order::getEstimatedFare);
+            writeDoubles(out, orders, Order::getActualFare);
+            writeDoubles(out, orders, Order::getDistance);
+            writeDoubles(out, orders, Order::getCancelFee);
+            writePresence(out, orders, order -> order.getDuration() != null);
+            for (Order order : orders) {
+                if (order.getDuration() != null) {
+                    out.writeInt(order.getDuration());
+                }
+            }
+            writeInstants(out, orders, Order::getCreatedAt);
+            writeInstants(out, orders, Order::getAcceptedAt);
+            writeInstants(out, orders, Order::getStartedAt);
+            writeInstants(out, orders, Order::getCompletedAt);
+            writeInstants(out, orders, Order::getCancelledAt);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        byte[] input = raw.toByteArray();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            byte[] output = new byte[Math.max(64, input.length / 2)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == output.length) {
+                    output = Arrays.copyOf(output, output.length * 2);
+                }
+                length += deflater.deflate(output, length, output.length - length);
+            }
+            return new Encoded(output, length, input.length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * @param compressed 壓縮後內容 (可為 direct buffer；讀取不改變其 position)
+     */
+    static Decoded decode(ByteBuffer compressed, int rawLength) {
+        byte[] raw = new byte[rawLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed.duplicate());
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                length += inflater.inflate(raw, length, rawLength - length);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupted cold order block", e);
+        } finally {
+            inflater.end();
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw))) {
+            int rows = in.readInt();
+            long[] versions = new long[rows];
+            for (int row = 0; row < rows; row++) {
+                versions[row] = in.readLong();
+            }
+            List<Order> orders = new ArrayList<>(rows);
+            for (int row = 0; row < rows; row++) {
+                orders.add(Order.builder().orderId(in.readUTF()).build());
+            }
+            assign(orders, readDictionary(in, rows), Order::setPassengerId);
+            assign(orders, readDictionary(in, rows), Order::setDriverId);
+            assign(orders, readDictionary(in, rows),
+                    (order, value) -> order.setStatus(value == null ? null : OrderStatus.valueOf(value)));
+            assign(orders, readDictionary(in, rows),
+                    (order, value) -> order.setVehicleType(value == null ? null : VehicleType.valueOf(value)));
+            assign(orders, readDictionary(in, rows), Order::setCancelledBy);
+            assign(orders, readLocations(in, rows), Order::setPickupLocation);
+            assign(orders, readLocations(in, rows), Order::setDropoffLocation);
+            assign(orders, readDoubles(in, rows), Order::setEstimatedFare);
+            assign(orders, readDoubles(in, rows), Order::setActualFare);
+            assign(orders, readDoubles(in, rows), Order::setDistance);
+            assign(orders, readDoubles(in, rows), Order::setCancelFee);
+            boolean[] present = readPresence(in, rows);
+            for (int row = 0; row < rows; row++) {
+                if (present[row]) {
+                    orders.get(row).setDuration(in.readInt());
+                }
+            }
+            assign(orders, readInstants(in, rows), Order::setCreatedAt);
+            assign(orders, readInstants(in, rows), Order::setAcceptedAt);
+            assign(orders, readInstants(in, rows), Order::setStartedAt);
+            assign(orders, readInstants(in, rows), Order::setCompletedAt);
+            assign(orders, readInstants(in, rows), Order::setCancelledAt);
+            return new Decoded(orders, versions);
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupted cold order block", e);
+        }
+    }
+
+    private static <T> void assign(List<Order> orders, T[] values, BiConsumer<Order, T> setter) {
+        for (int row = 0; row < values.length; row++) {
+            setter.accept(orders.get(row), values[row]);
+        }
+    }
+
+    private static void writeDictionary(DataOutputStream out, List<Order> orders,
+                                        Function<Order, String> column) throws IOException {
+        Map<String, Short> dictionary = new HashMap<>();
+        List<String> entries = new ArrayList<>();
+        short[] codes = new short[orders.size()];
+        for (int row = 0; row < codes.length; row++) {
+            String value = column.apply(orders.get(row));
+            if (value == null) {
+                codes[row] = NULL_CODE;
+                continue;
+            }
+            Short code = dictionary.get(value);
+            if (code == null) {
+                code = (short) entries.size();
+                dictionary.put(value, code);
+                entries.add(value);
+            }
+            codes[row] = code;
+        }
+        out.writeShort(entries.size());
+        for (String entry : entries) {
+            out.writeUTF(entry);
+        }
+        for (short code : codes) {
+            out.writeShort(code);
+        }
+    }
+
+    private static String[] readDictionary(DataInputStream in, int rows) throws IOException {
+        String[] entries = new String[in.readUnsignedShort()];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = in.readUTF();
+        }
+        String[] values = new String[rows];
+        for (int row = 0; row < rows; row++) {
+            short code = in.readShort();
+            values[row] = code == NULL_CODE ? null : entries[code];
+        }
+        return values;
+    }
+
+    private static void writePresence(DataOutputStream out, List<Order> orders,
+                                      Predicate<Order> present) throws IOException {
+        byte[] bitmap = new byte[(orders.size() + 7) / 8];
+        for (int row = 0; row < orders.size(); row++) {
+            if (present.test(orders.get(row))) {
+                bitmap[row >> 3] |= (byte) (1 << (row & 7));
+            }
+        }
+        out.write(bitmap);
+    }
+
+    private static boolean[] readPresence(DataInputStream in, int rows) throws IOException {
+        byte[] bitmap = new byte[(rows + 7) / 8];
+        in.readFully(bitmap);
+        boolean[] present = new boolean[rows];
+        for (int row = 0; row < rows; row++) {
+            present[row] = (bitmap[row >> 3] & (1 << (row & 7))) != 0;
+        }
+        return present;
+    }
+
+    private static void writeLocations(DataOutputStream out, List<Order> orders,
+                                       Function<Order, Location> column) throws IOException {
+        writePresence(out, orders, order -> column.apply(order) != null);
+        writeColumn(out, orders, column, Location::getX);
+        writeColumn(out, orders, column, Location::getY);
+    }
+
+    private static void writeColumn(DataOutputStream out, List<Order> orders, Function<Order, Location> column,
+                                    ToDoubleFunction<Location> coordinate) throws IOException {
+        for (Order order : orders) {
+            Location location = column.apply(order);
+            if (location != null) {
+                out.writeDouble(coordinate.applyAsDouble(location));
+            }
+        }
+    }
+
+    private static Location[] readLocations(DataInputStream in, int rows) throws IOException {
+        boolean[] present = readPresence(in, rows);
+        Location[] locations = new Location[rows];
+        for (int row = 0; row < rows; row++) {
+            if (present[row]) {
+                locations[row] = new Location();
+                locations[row].setX(in.readDouble());
+            }
+        }
+        for (int row = 0; row < rows; row++) {
+            if (present[row]) {
+                locations[row].setY(in.readDouble());
+            }
+        }
+        return locations;
+    }
+
+    private static void writeDoubles(DataOutputStream out, List<Order> orders,
+                                     Function<Order, Double> column) throws IOException {
+        writePresence(out, orders, order -> column.apply(order) != null);
+        for (Order order : orders) {
+            Double value = column.apply(order);
+            if (value != null) {
+                out.writeDouble(value);
+            }
+        }
+    }
+
+    private static Double[] readDoubles(DataInputStream in, int rows) throws IOException {
+        boolean[] present = readPresence(in, rows);
+        Double[] values = new Double[rows];
+        for (int row = 0; row < rows; row++) {
+            if (present[row]) {
+                values[row] = in.readDouble();
+            }
+        }
+        return values;
+    }
+
+    private static void writeInstants(DataOutputStream out, List<Order> orders,
+                                      Function<Order, Instant> column) throws IOException {
+        writePresence(out, orders, order -> column.apply(order) != null);
+        for (Order order : orders) {
+            Instant value = column.apply(order);
+            if (value != null) {
+                out.writeLong(value.getEpochSecond());
+                out.writeInt(value.getNano());
+            }
+        }
+    }
+
+    private static Instant[] readInstants(DataInputStream in, int rows) throws IOException {
+        boolean[] present = readPresence(in, rows);
+        Instant[] values = new Instant[rows];
+        for (int row = 0; row < rows; row++) {
+            if (present[row]) {
+                values[row] = Instant.ofEpochSecond(in.readLong(), in.readInt());
+            }
+        }
+        return values;
+    }
+}
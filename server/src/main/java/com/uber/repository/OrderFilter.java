@@ -0,0 +1,35 @@
+package com.uber.repository;
+
+import com.uber.model.Order;
+import com.uber.model.OrderStatus;
+
+import java.time.Instant;
+
+/**
+ * 訂單掃描條件 (null 表示不篩選；建立時間範圍含 from、不含 to)
+ *
+ * 狀態、乘客與司機條件可交給儲存庫使用索引 (例如非結束狀態不掃描冷儲存)。
+ */
+public record OrderFilter(OrderStatus status, String passengerId, String driverId, Instant from, Instant to) {
+
+    public static final OrderFilter ALL = new OrderFilter(null, null, null, null, null);
+
+    public boolean matches(Order order) {
+        if (status != null && order.getStatus() != status) {
+            return false;
+        }
+        if (passengerId != null && !passengerId.equals(order.getPassengerId())) {
+            return false;
+        }
+        if (driverId != null && !driverId.equals(order.getDriverId())) {
+            return false;
+        }
+        if (from == null && to == null) {
+            return true;
+        }
+        Instant createdAt = order.getCreatedAt();
+        return createdAt != null
+                && (from == null || !createdAt.isBefore(from))
+                && (to == null || createdAt.isBefore(to));
+    }
+}
@@ -1,59 +1,334 @@
 package com.uber.repository;
 
+import com.uber.cluster.GridCell;
+import com.uber.model.Location;
 import com.uber.model.Order;
 import com.uber.model.OrderStatus;
+import com.uber.model.VehicleType;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * 訂單儲存庫 (In-Memory)
+ * 
+ * 分兩層：熱區 (orders) 保存進行中與剛結束的訂單；結束超過寬限期的 COMPLETED / CANCELLED 訂單
+ * 由 archiveFinishedBefore 移入壓縮的冷儲存 (見 ColdOrderStore)，熱區掃描 (待派訂單、配對) 不再經過歷史訂單。
+ * 查詢介面不變：依 ID / 乘客 / 司機 / 狀態查詢時兩層都會查，熱區優先。
+ * 待派訂單另以車種與格子分組的索引 (見 PendingOrderIndex) 供可接訂單排序。
  */
 @Repository
 public class OrderRepository {
     
     private final Map<String, Order> orders = new ConcurrentHashMap<>();
     
+    // 已結束訂單的冷儲存 (只會附加；寫入由 archiveFinishedBefore / deleteAll 同步)
+    private final ColdOrderStore coldStore = new ColdOrderStore();
+    
+    // 待派訂單索引 (每次寫入依訂單狀態更新)
+    private final PendingOrderIndex pendingIndex = new PendingOrderIndex();
+    
+    // 集合修改計數，每次寫入遞增；寫入當下的值即為該筆資料的版本號 (供 ETag 使用)。
+    // 遞增與寫入版本表在 versionLock 內進行，且先寫入版本表再更新計數：
+    // 讀到計數 n 時，版本號不大於 n 的寫入都已出現在版本表
+    private final Object versionLock = new Object();
+    private volatile long modificationCount;
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    
+    // 最近一次清空時的修改計數，早於此值的增量查詢需重新載入
+    private volatile long resetSequence;
+    
     public Order save(Order order) {
         orders.put(order.getOrderId(), order);
+        synchronized (versionLock) {
+            long version = modificationCount + 1;
+            versions.put(order.getOrderId(), version);
+            modificationCount = version;
+        }
+        pendingIndex.update(order);
         return order;
     }
     
+    /**
+     * 批次寫入，整批共用同一個版本號，集合修改計數只遞增一次
+     */
+    public void saveAll(Collection<Order> batch) {
+        for (Order order : batch) {
+            orders.put(order.getOrderId(), order);
+        }
+        synchronized (versionLock) {
+            long version = modificationCount + 1;
+            for (Order order : batch) {
+                versions.put(order.getOrderId(), version);
+            }
+            modificationCount = version;
+        }
+        for (Order order : batch) {
+            pendingIndex.update(order);
+        }
+    }
+    
+    /**
+     * 取得單筆資料版本號，不存在時為 0
+     */
+    public long getVersion(String id) {
+        Long version = versions.get(id);
+        return version != null ? version : coldStore.getVersion(id);
+    }
+    
+    /**
+     * 取得集合修改計數 (任何寫入都會改變)
+     */
+    public long getModificationCount() {
+        return modificationCount;
+    }
+    
+    /**
+     * 取得版本號大於 since 的資料 (供管理後台增量更新)
+     * 
+     * 先讀取修改計數再掃描版本表：計數只在版本表寫入後才更新，版本號不大於回傳 sequence 的寫入都會被掃描到；
+     * 掃描期間的新寫入可能重複出現在下一次查詢
+     */
+    public ChangeSet<Order> findChangedSince(long since) {
+        long sequence = modificationCount;
+        if (since < resetSequence) {
+            return new ChangeSet<>(sequence, true, List.of());
+        }
+        List<Order> changes = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : versions.entrySet()) {
+            if (entry.getValue() > since) {
+                Order item = orders.get(entry.getKey());
+                if (item != null) {
+                    changes.add(item);
+                }
+            }
+        }
+        return new ChangeSet<>(sequence, false, withCold(changes, coldStore.findChangedSince(since)));
+    }
+    
     public Optional<Order> findById(String orderId) {
-        return Optional.ofNullable(orders.get(orderId));
+        Order order = orders.get(orderId);
+        return order != null ? Optional.of(order) : coldStore.findById(orderId);
     }
     
+    /**
+     * 所有訂單 (含冷儲存，需解壓全部區塊)
+     */
     public List<Order> findAll() {
-        return List.copyOf(orders.values());
+        return withCold(new ArrayList<>(orders.values()), coldStore.findAll(order -> true));
     }
     
+    /**
+     * 依狀態查詢；只有 COMPLETED / CANCELLED 需要查冷儲存
+     */
     public List<Order> findByStatus(OrderStatus status) {
-        return orders.values().stream()
+        List<Order> hot = orders.values().stream()
                 .filter(o -> o.getStatus() == status)
                 .collect(Collectors.toList());
+        if (!isFinished(status)) {
+            return hot;
+        }
+        return withCold(hot, coldStore.findAll(order -> order.getStatus() == status));
+    }
+    
+    /**
+     * 依分數由小到大取得 radius 內指定車種的待派訂單，最多 limit 筆
+     * 
+     * 分數為「距離 − agingPerSecond × 等候秒數」，相同時 orderId 較小者優先；agingPerSecond 為 0 時只依距離
+     */
+    public List<Order> rankPending(Location from, VehicleType vehicleType, double radius,
+                                   double agingPerSecond, long nowMillis, int limit) {
+        return pendingIndex.rank(from, vehicleType, radius, agingPerSecond, nowMillis, limit);
+    }
+    
+    /**
+     * 上車地點落在 cells (以 cellSize 切分) 內的指定車種待派訂單 (叢集節點間查詢，不掃描全部訂單)
+     */
+    public List<Order> findPendingInCells(VehicleType vehicleType, Collection<GridCell> cells, double cellSize) {
+        return pendingIndex.inCells(vehicleType, cells, cellSize);
+    }
+    
+    /**
+     * 各車種最老待派訂單的建立時間 (epoch 毫秒)
+     */
+    public Map<VehicleType, Long> oldestPendingCreatedAt() {
+        return pendingIndex.oldestCreatedAt();
     }
     
     public List<Order> findByPassengerId(String passengerId) {
-        return orders.values().stream()
-                .filter(o -> o.getPassengerId().equals(passengerId))
+        if (passengerId == null) {
+            return new ArrayList<>();
+        }
+        List<Order> hot = orders.values().stream()
+                .filter(o -> passengerId.equals(o.getPassengerId()))
                 .collect(Collectors.toList());
+        return withCold(hot, coldStore.findByPassengerId(passengerId));
     }
     
     public List<Order> findByDriverId(String driverId) {
-        return orders.values().stream()
+        if (driverId == null) {
+            return new ArrayList<>();
+        }
+        List<Order> hot = orders.values().stream()
                 .filter(o -> driverId.equals(o.getDriverId()))
                 .collect(Collectors.toList());
+        return withCold(hot, coldStore.findByDriverId(driverId));
+    }
+    
+    /**
+     * 逐筆走訪符合條件的訂單 (匯出用)：先熱區再冷儲存，冷儲存一次只解壓一個區塊，
+     * 不建立完整列表；非結束狀態不掃描冷儲存
+     * 
+     * 與歸檔並行時，剛移入冷儲存的訂單可能被走訪兩次
+     */
+    public Iterator<Order> scan(OrderFilter filter) {
+        Iterator<Order> hot = orders.values().stream().filter(filter::matches).iterator();
+        if (filter.status() != null && !isFinished(filter.status())) {
+            return hot;
+        }
+        Iterator<Order> cold = coldStore.iterator(filter);
+        return new Iterator<>() {
+            private Order next;
+
+            @Override
+            public boolean hasNext() {
+                if (next != null || hot.hasNext()) {
+                    return true;
+                }
+                // 熱區已有的訂單 (歸檔寫入冷儲存後、自熱區移除前) 以熱區為準
+                while (cold.hasNext()) {
+                    Order order = cold.next();
+                    if (!orders.containsKey(order.getOrderId())) {
+                        next = order;
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public Order next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (next == null) {
+                    return hot.next();
+                }
+                Order order = next;
+                next = null;
+                return order;
+            }
+        };
+    }
+    
+    /**
+     * 合併熱區與冷儲存的查詢結果
+     * 
+     * 歸檔先寫入冷儲存再自熱區移除，先讀熱區再讀冷儲存時同一訂單可能兩邊都有：以熱區為準
+     */
+    private static List<Order> withCold(List<Order> hot, List<Order> cold) {
+        if (cold.isEmpty()) {
+            return hot;
+        }
+        Set<String> hotIds = new HashSet<>();
+        for (Order order : hot) {
+            hotIds.add(order.getOrderId());
+        }
+        for (Order order : cold) {
+            if (!hotIds.contains(order.getOrderId())) {
+                hot.add(order);
+            }
+        }
+        return hot;
+    }
+    
+    private static boolean isFinished(OrderStatus status) {
+        return status == OrderStatus.COMPLETED || status == OrderStatus.CANCELLED;
     }
     
-    public void deleteAll() {
+    /**
+     * 將結束時間 (completedAt / cancelledAt) 早於 cutoff 的訂單移入冷儲存
+     * 
+     * 先寫入冷儲存再自熱區移除；移除時訂單已被重新寫入 (不同物件) 則保留在熱區，
+     * 查詢以熱區為準，下次歸檔再覆蓋冷儲存的索引
+     * 
+     * @return 移入冷儲存的筆數
+     */
+    public synchronized int archiveFinishedBefore(Instant cutoff) {
+        List<Order> finished = new ArrayList<>();
+        for (Order order : orders.values()) {
+            Instant finishedAt = order.getStatus() == OrderStatus.COMPLETED ? order.getCompletedAt()
+                    : order.getStatus() == OrderStatus.CANCELLED ? order.getCancelledAt() : null;
+            if (finishedAt != null && finishedAt.isBefore(cutoff)) {
+                finished.add(order);
+            }
+        }
+        if (finished.isEmpty()) {
+            return 0;
+        }
+        long[] finishedVersions = new long[finished.size()];
+        for (int i = 0; i < finishedVersions.length; i++) {
+            finishedVersions[i] = versions.getOrDefault(finished.get(i).getOrderId(), 0L);
+        }
+        coldStore.append(finished, finishedVersions);
+        
+        int moved = 0;
+        for (int i = 0; i < finishedVersions.length; i++) {
+            String orderId = finished.get(i).getOrderId();
+            if (orders.remove(orderId, finished.get(i))) {
+                versions.remove(orderId, finishedVersions[i]);
+                moved++;
+            }
+        }
+        return moved;
+    }
+    
+    public synchronized void deleteAll() {
         orders.clear();
+        coldStore.clear();
+        pendingIndex.clear();
+        synchronized (versionLock) {
+            versions.clear();
+            resetSequence = ++modificationCount;
+        }
     }
     
+    /**
+     * 訂單總數 (熱區 + 冷儲存；歸檔進行中可能短暫重複計算)
+     */
     public int count() {
+        return orders.size() + coldStore.count();
+    }
+    
+    /**
+     * 熱區訂單數
+     */
+    public int countHot() {
         return orders.size();
     }
+    
+    /**
+     * 冷儲存訂單數
+     */
+    public int countCold() {
+        return coldStore.count();
+    }
+    
+    /**
+     * 冷儲存壓縮後大小 (heap 外)
+     */
+    public long getColdStoreBytes() {
+        return coldStore.compressedBytes();
+    }
 }
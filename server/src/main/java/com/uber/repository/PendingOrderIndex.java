@@ -0,0 +1,318 @@
+package com.uber.repository;
+
+import com.uber.cluster.GridCell;
+import com.uber.model.Location;
+import com.uber.model.Order;
+import com.uber.model.OrderStatus;
+import com.uber.model.VehicleType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 待派訂單索引：依車種與上車地點格子分組，每組一個以建立時間為 key 的 {@link IndexedOrderHeap}
+ *
+ * 可接訂單的排序分數為「距離 − agingPerSecond × 等候秒數」(越小越優先，相同時 orderId 較小者優先)。
+ * 所有待派訂單以相同速率變老，等候時間的排序即建立時間的排序，key 不需隨時間更新；
+ * 只有訂單寫入 (key 或格子改變)、接單或取消時以 O(log n) 調整所在的堆。
+ *
+ * 查詢時以各格子的下界 (司機到格子的最短距離 − 格子內最老訂單的等候加權) 做 best-first 走訪，
+ * 依分數由小到大逐筆產生結果，只需前幾筆時不必計算或排序其他訂單。
+ */
+final class PendingOrderIndex {
+
+    // 格子邊長 (座標單位)
+    static final double CELL_SIZE = 10.0;
+
+    // 浮點誤差：格子下界略為放寬，避免排在同分的訂單之後
+    private static final double BOUND_SLACK = 1e-9;
+
+    private record Slot(VehicleType vehicleType, GridCell cell) {
+    }
+
+    private final Map<VehicleType, Map<GridCell, IndexedOrderHeap>> heaps = new EnumMap<>(VehicleType.class);
+    private final Map<String, Slot> slots = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 依訂單目前狀態加入、更新或移除 (只索引有上車地點與車種的 PENDING 訂單)
+     */
+    void update(Order order) {
+        lock.writeLock().lock();
+        try {
+            Slot previous = slots.get(order.getOrderId());
+            Slot slot = order.getStatus() == OrderStatus.PENDING && order.getPickupLocation() != null
+                    && order.getVehicleType() != null
+                    ? new Slot(order.getVehicleType(), GridCell.of(order.getPickupLocation(), CELL_SIZE))
+                    : null;
+            if (previous != null && !previous.equals(slot)) {
+                removeFrom(previous, order.getOrderId());
+            }
+            if (slot == null) {
+                return;
+            }
+            slots.put(order.getOrderId(), slot);
+            heaps.computeIfAbsent(slot.vehicleType(), type -> new HashMap<>())
+                    .computeIfAbsent(slot.cell(), cell -> new IndexedOrderHeap())
+                    .put(order, key(order));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String orderId) {
+        lock.writeLock().lock();
+        try {
+            Slot previous = slots.get(orderId);
+            if (previous != null) {
+                removeFrom(previous, orderId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            heaps.clear();
+            slots.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeFrom(Slot slot, String orderId) {
+        slots.remove(orderId);
+        Map<GridCell, IndexedOrderHeap> cells = heaps.get(slot.vehicleType());
+        IndexedOrderHeap heap = cells.get(slot.cell());
+        heap.remove(orderId);
+        if (heap.isEmpty()) {
+            cells.remove(slot.cell());
+        }
+    }
+
+    /**
+     * 建立時間 (epoch 毫秒)；沒有建立時間的訂單視為剛建立
+     */
+    private static long key(Order order) {
+        return order.getCreatedAt() != null ? order.getCreatedAt().toEpochMilli() : Long.MAX_VALUE;
+    }
+
+    /**
+     * 依分數由小到大回傳 radius 內的待派訂單，最多 limit 筆
+     *
+     * @param agingPerSecond 每等候一秒相當於拉近的距離 (0 表示只依距離)
+     */
+    List<Order> rank(Location from, VehicleType vehicleType, double radius, double agingPerSecond,
+                     long nowMillis, int limit) {
+        lock.readLock().lock();
+        try {
+            Map<GridCell, IndexedOrderHeap> cells = heaps.get(vehicleType);
+            if (cells == null || limit <= 0) {
+                return new ArrayList<>();
+            }
+            Ranking ranking = new Ranking(from, radius, agingPerSecond, nowMillis);
+            if (radius == Double.POSITIVE_INFINITY) {
+                cells.forEach(ranking::addCell);
+            } else {
+                for (GridCell cell : GridCell.covering(from, radius, CELL_SIZE)) {
+                    IndexedOrderHeap heap = cells.get(cell);
+                    if (heap != null) {
+                        ranking.addCell(cell, heap);
+                    }
+                }
+            }
+            return ranking.take(limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 上車地點落在 cells (以 cellSize 切分，與索引的格子大小無關) 內的指定車種待派訂單，不排序
+     */
+    List<Order> inCells(VehicleType vehicleType, Collection<GridCell> cells, double cellSize) {
+        lock.readLock().lock();
+        try {
+            List<Order> orders = new ArrayList<>();
+            Map<GridCell, IndexedOrderHeap> indexed = heaps.get(vehicleType);
+            if (indexed == null) {
+                return orders;
+            }
+            Set<GridCell> wanted = new HashSet<>(cells);
+            Set<GridCell> scanned = new HashSet<>();
+            for (GridCell cell : wanted) {
+                // 與 cell 重疊的索引格子 (右上邊界可能多一格，由下方逐筆比對排除)
+                GridCell min = GridCell.of(new Location(cell.x() * cellSize, cell.y() * cellSize), CELL_SIZE);
+                GridCell max = GridCell.of(new Location((cell.x() + 1) * cellSize, (cell.y() + 1) * cellSize), CELL_SIZE);
+                for (int cx = min.x(); cx <= max.x(); cx++) {
+                    for (int cy = min.y(); cy <= max.y(); cy++) {
+                        GridCell indexCell = new GridCell(cx, cy);
+                        IndexedOrderHeap heap = indexed.get(indexCell);
+                        if (heap == null || !scanned.add(indexCell)) {
+                            continue;
+                        }
+                        for (int i = 0; i < heap.size(); i++) {
+                            Order order = heap.orderAt(i);
+                            if (wanted.contains(GridCell.of(order.getPickupLocation(), cellSize))) {
+                                orders.add(order);
+                            }
+                        }
+                    }
+                }
+            }
+            return orders;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 各車種最老待派訂單的建立時間 (epoch 毫秒)，無待派訂單的車種不列入
+     */
+    Map<VehicleType, Long> oldestCreatedAt() {
+        lock.readLock().lock();
+        try {
+            Map<VehicleType, Long> oldest = new EnumMap<>(VehicleType.class);
+            heaps.forEach((vehicleType, cells) -> {
+                for (IndexedOrderHeap heap : cells.values()) {
+                    long key = heap.keyAt(0);
+                    if (key != Long.MAX_VALUE) {
+                        oldest.merge(vehicleType, key, Math::min);
+                    }
+                }
+            });
+            return oldest;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 單次查詢的 best-first 走訪 (呼叫端持有讀鎖)
+     *
+     * 候選項目為已算出分數的訂單，或格子游標 (值為格子內尚未走訪訂單的分數下界)。
+     * 游標依堆的順序 (建立時間由早到晚) 走訪格子內的訂單而不修改堆：
+     * 取出一個位置後把它的兩個子節點加入游標自己的 frontier。
+     */
+    private static final class Ranking {
+
+        // 同值時先展開游標，再依 orderId 輸出訂單
+        private static final Comparator<Candidate> ORDER = Comparator
+                .comparingDouble(Candidate::value)
+                .thenComparing(candidate -> candidate.order() != null)
+                .thenComparing(candidate -> candidate.order() != null ? candidate.order().getOrderId() : "");
+
+        private final Location from;
+        private final double radius;
+        private final double agingPerSecond;
+        private final long nowMillis;
+        private final PriorityQueue<Candidate> queue = new PriorityQueue<>(ORDER);
+
+        Ranking(Location from, double radius, double agingPerSecond, long nowMillis) {
+            this.from = from;
+            this.radius = radius;
+            this.agingPerSecond = agingPerSecond;
+            this.nowMillis = nowMillis;
+        }
+
+        void addCell(GridCell cell, IndexedOrderHeap heap) {
+            double distance = Math.max(cellDistance(from, cell) - BOUND_SLACK, 0);
+            if (distance > radius || heap.isEmpty()) {
+                return;
+            }
+            Cursor cursor = new Cursor(heap, distance);
+            cursor.frontier.add(0);
+            queue.add(cursor.candidate());
+        }
+
+        List<Order> take(int limit) {
+            List<Order> result = new ArrayList<>();
+            while (result.size() < limit && !queue.isEmpty()) {
+                Candidate next = queue.poll();
+                if (next.order() != null) {
+                    result.add(next.order());
+                    continue;
+                }
+                Cursor cursor = next.cursor();
+                int index = cursor.frontier.poll();
+                int left = IndexedOrderHeap.left(index);
+                if (left < cursor.heap.size()) {
+                    cursor.frontier.add(left);
+                }
+                if (left + 1 < cursor.heap.size()) {
+                    cursor.frontier.add(left + 1);
+                }
+                Order order = cursor.heap.orderAt(index);
+                // 訂單物件可能已改為其他狀態、尚未寫回儲存庫
+                if (order.getStatus() == OrderStatus.PENDING) {
+                    double distance = from.distanceTo(order.getPickupLocation());
+                    if (distance <= radius) {
+                        queue.add(new Candidate(score(distance, cursor.heap.keyAt(index)), order, null));
+                    }
+                }
+                if (!cursor.frontier.isEmpty()) {
+                    queue.add(cursor.candidate());
+                }
+            }
+            return result;
+        }
+
+        private double score(double distance, long createdAtMillis) {
+            return distance - agingPerSecond * Math.max(nowMillis - createdAtMillis, 0) / 1000.0;
+        }
+
+        private final class Cursor {
+            private final IndexedOrderHeap heap;
+            private final double distance;
+            private final PriorityQueue<Integer> frontier;
+
+            Cursor(IndexedOrderHeap heap, double distance) {
+                this.heap = heap;
+                this.distance = distance;
+                this.frontier = new PriorityQueue<>(Comparator.comparingLong(heap::keyAt));
+            }
+
+            /**
+             * frontier 中最早建立的訂單等候最久，其分數下界即為格子內所有未走訪訂單的下界
+             */
+            Candidate candidate() {
+                return new Candidate(score(distance, heap.keyAt(frontier.peek())), null, this);
+            }
+        }
+
+        private record Candidate(double value, Order order, Cursor cursor) {
+        }
+    }
+
+    /**
+     * 點到格子 (矩形) 的最短距離，點在格子內時為 0
+     */
+    static double cellDistance(Location location, GridCell cell) {
+        double minX = cell.x() * CELL_SIZE;
+        double minY = cell.y() * CELL_SIZE;
+        double dx = Math.max(Math.max(minX - location.getX(), location.getX() - (minX + CELL_SIZE)), 0);
+        double dy = Math.max(Math.max(minY - location.getY(), location.getY() - (minY + CELL_SIZE)), 0);
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
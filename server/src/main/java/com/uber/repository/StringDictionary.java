@@ -0,0 +1,95 @@
+package com.uber.repository;
+
+import java.util.Arrays;
+
+/**
+ * 只增不減的字串字典：字串 ↔ int handle
+ *
+ * 以開放定址的 int 表索引字串陣列 (不像 HashMap 每個字串另有節點與 Integer 物件)。
+ * intern 由單一寫入端呼叫 (同步)；lookup / get 可並行：
+ * 讀取端查詢的字串來自已發布的區段，發布前已 intern 完成，一定查得到。
+ */
+final class StringDictionary {
+
+    static final int ABSENT = -1;
+
+    private static final int EMPTY = -1;
+
+    private volatile String[] values = new String[1024];
+
+    // slot → handle (EMPTY 表示空位)；使用率超過一半時加倍
+    private volatile int[] table = newTable(2048);
+
+    private int size;
+
+    synchronized int intern(String value) {
+        if (value == null) {
+            return ABSENT;
+        }
+        int handle = lookup(value);
+        if (handle != ABSENT) {
+            return handle;
+        }
+        String[] currentValues = values;
+        if (size == currentValues.length) {
+            currentValues = Arrays.copyOf(currentValues, currentValues.length * 2);
+        }
+        currentValues[size] = value;
+        values = currentValues;
+
+        int[] currentTable = table;
+        if ((size + 1) * 2 > currentTable.length) {
+            currentTable = newTable(currentTable.length * 2);
+            for (int existing = 0; existing < size; existing++) {
+                insert(currentTable, currentValues[existing], existing);
+            }
+        }
+        insert(currentTable, value, size);
+        table = currentTable;
+        return size++;
+    }
+
+    /**
+     * @return handle，不在字典中時為 {@link #ABSENT}
+     */
+    int lookup(String value) {
+        if (value == null) {
+            return ABSENT;
+        }
+        int[] currentTable = table;
+        String[] currentValues = values;
+        int mask = currentTable.length - 1;
+        for (int slot = spread(value.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            int handle = currentTable[slot];
+            if (handle == EMPTY) {
+                return ABSENT;
+            }
+            if (handle < currentValues.length && value.equals(currentValues[handle])) {
+                return handle;
+            }
+        }
+    }
+
+    String get(int handle) {
+        return handle == ABSENT ? null : values[handle];
+    }
+
+    private static void insert(int[] table, String value, int handle) {
+        int mask = table.length - 1;
+        int slot = spread(value.hashCode()) & mask;
+        while (table[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = handle;
+    }
+
+    private static int[] newTable(int capacity) {
+        int[] table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    private static int spread(int hash) {
+        return (hash ^ (hash >>> 16)) * 0x9E3779B9;
+    }
+}
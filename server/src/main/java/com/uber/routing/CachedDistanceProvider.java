@@ -0,0 +1,160 @@
+package com.uber.routing;
+
+import com.uber.model.Location;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 司機到上車點距離的快取 (配對與可接訂單查詢共用)
+ *
+ * 司機每秒輪詢、位置只移動數十公尺，同一組司機與訂單的距離會被重複計算。兩點各自量化到邊長 precision 的格子，
+ * 以 (司機格子, 上車點格子) 為 key 快取兩格中心點之間的距離；快取容量有上限，以 W-TinyLFU 淘汰。
+ *
+ * 量化後的距離可能略小於兩點的直線距離，回傳值取兩者較大者，維持 DistanceProvider「不小於直線距離」的保證。
+ * 直線距離的計算比查快取便宜，包裝 DistanceProvider.EUCLIDEAN 或容量為 0 時不快取，直接呼叫原本的實作。
+ */
+public class CachedDistanceProvider implements DistanceProvider {
+
+    private final DistanceProvider delegate;
+    private final double precision;
+    // 不快取時為 null
+    private final WTinyLfuCache<CellPair> cache;
+
+    public CachedDistanceProvider(DistanceProvider delegate, double precision, int maximumSize) {
+        if (!(precision > 0) || Double.isInfinite(precision)) {
+            throw new IllegalArgumentException("precision must be positive");
+        }
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("maximumSize must not be negative");
+        }
+        this.delegate = delegate;
+        this.precision = precision;
+        this.cache = maximumSize > 0 && !delegate.isEuclidean() ? new WTinyLfuCache<>(maximumSize) : null;
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    @Override
+    public double distance(Location from, Location to) {
+        if (cache == null) {
+            return delegate.distance(from, to);
+        }
+        if (from.getX() == to.getX() && from.getY() == to.getY()) {
+            return 0;
+        }
+        CellPair key = new CellPair(cell(from), cell(to));
+        double distance = cache.get(key);
+        if (Double.isNaN(distance)) {
+            distance = delegate.distance(centroid(key.from()), centroid(key.to()));
+            cache.put(key, distance);
+        }
+        return Math.max(distance, from.distanceTo(to));
+    }
+
+    /**
+     * 未命中的格子組合合併為一次多對多查詢
+     */
+    @Override
+    public double[][] matrix(List<Location> sources, List<Location> targets) {
+        if (cache == null) {
+            return delegate.matrix(sources, targets);
+        }
+        double[][] result = new double[sources.size()][targets.size()];
+        long[] targetCells = new long[targets.size()];
+        for (int j = 0; j < targetCells.length; j++) {
+            targetCells[j] = cell(targets.get(j));
+        }
+        // 未命中的起點 / 終點格子 -> 在多對多查詢中的索引
+        Map<Long, Integer> missedSources = new LinkedHashMap<>();
+        Map<Long, Integer> missedTargets = new LinkedHashMap<>();
+        for (int i = 0; i < result.length; i++) {
+            long sourceCell = cell(sources.get(i));
+            for (int j = 0; j < targetCells.length; j++) {
+                result[i][j] = cache.get(new CellPair(sourceCell, targetCells[j]));
+                if (Double.isNaN(result[i][j])) {
+                    missedSources.putIfAbsent(sourceCell, missedSources.size());
+                    missedTargets.putIfAbsent(targetCells[j], missedTargets.size());
+                }
+            }
+        }
+        if (!missedSources.isEmpty()) {
+            List<Location> centroidSources = new ArrayList<>(missedSources.size());
+            missedSources.keySet().forEach(cell -> centroidSources.add(centroid(cell)));
+            List<Location> centroidTargets = new ArrayList<>(missedTargets.size());
+            missedTargets.keySet().forEach(cell -> centroidTargets.add(centroid(cell)));
+            double[][] computed = delegate.matrix(centroidSources, centroidTargets);
+            for (int i = 0; i < result.length; i++) {
+                long sourceCell = cell(sources.get(i));
+                for (int j = 0; j < targetCells.length; j++) {
+                    if (Double.isNaN(result[i][j])) {
+                        result[i][j] = computed[missedSources.get(sourceCell)][missedTargets.get(targetCells[j])];
+                        cache.put(new CellPair(sourceCell, targetCells[j]), result[i][j]);
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < result.length; i++) {
+            Location from = sources.get(i);
+            for (int j = 0; j < targetCells.length; j++) {
+                Location to = targets.get(j);
+                result[i][j] = from.getX() == to.getX() && from.getY() == to.getY()
+                        ? 0
+                        : Math.max(result[i][j], from.distanceTo(to));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isEuclidean() {
+        return delegate.isEuclidean();
+    }
+
+    public long hitCount() {
+        return cache != null ? cache.hitCount() : 0;
+    }
+
+    public long missCount() {
+        return cache != null ? cache.missCount() : 0;
+    }
+
+    public long evictionCount() {
+        return cache != null ? cache.evictionCount() : 0;
+    }
+
+    public int size() {
+        return cache != null ? cache.size() : 0;
+    }
+
+    public int maximumSize() {
+        return cache != null ? cache.maximumSize() : 0;
+    }
+
+    /**
+     * 格子座標 (x, y) 合併為一個 long
+     */
+    private long cell(Location location) {
+        long x = (int) Math.floor(location.getX() / precision);
+        long y = (int) Math.floor(location.getY() / precision);
+        return x << 32 | (y & 0xffffffffL);
+    }
+
+    private Location centroid(long cell) {
+        return new Location(((int) (cell >> 32) + 0.5) * precision, ((int) cell + 0.5) * precision);
+    }
+
+    private record CellPair(long from, long to) {
+
+        // 預設的 record 雜湊在格子座標上碰撞多 (x ^ y 相同即碰撞)，頻率估計依此雜湊
+        @Override
+        public int hashCode() {
+            long h = (from * 0x9e3779b97f4a7c15L + to) * 0xbf58476d1ce4e5b9L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
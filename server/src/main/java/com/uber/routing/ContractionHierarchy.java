@@ -0,0 +1,549 @@
+package com.uber.routing;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 路網的收縮階層 (Contraction Hierarchies)
+ *
+ * 前處理依重要性由低到高逐一收縮節點：移除節點 v 時，若鄰居 u → v → x 之間沒有不經過 v
+ * 且不更長的路徑 (見證路徑)，加入捷徑 u → x。收縮順序以
+ * 「2 × (新增捷徑數 − 移除的邊數) + 已收縮的鄰居數 + 層級」估計，只在取出時重新計算 (lazy update)；
+ * 收縮後立即重算所有鄰居在路網核心 (度數數十) 的成本過高，格狀路網上前處理時間約為六倍，捷徑數相同。
+ *
+ * 查詢只沿「往較晚收縮的節點」的邊搜尋：起點往上的前向搜尋與終點往上的後向搜尋在最短路徑上
+ * 最晚收縮的節點相遇，兩側的最小 key 都不小於目前最佳值時停止；已可由較高節點以更短距離到達的節點
+ * 不再展開 (stall-on-demand)。
+ *
+ * 多對多查詢 (bucket)：先自每個終點做完整的往上後向搜尋，將 (終點, 距離) 記在走訪到的節點上，
+ * 再自每個起點做往上前向搜尋，走訪到的節點上的記錄即為可能的最短路徑。
+ *
+ * 建立後不可變；查詢的暫存陣列以物件池重複使用，可同時由多個執行緒查詢。
+ */
+final class ContractionHierarchy {
+
+    // 見證搜尋最多確定的節點數：超過時視為沒有見證路徑並加入捷徑 (結果仍正確，只是捷徑較多)
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+    // 估計收縮順序時的見證搜尋上限 (較小以縮短前處理時間)
+    private static final int SIMULATE_SETTLE_LIMIT = 60;
+
+    private final int nodeCount;
+    // 往上前向邊：u → v 且 v 較晚收縮
+    private final int[] upFirst;
+    private final int[] upHead;
+    private final double[] upLength;
+    // 往上後向邊：原圖 v → u 且 v 較晚收縮，記在 u 上 (後向搜尋自 u 走到 v)
+    private final int[] downFirst;
+    private final int[] downHead;
+    private final double[] downLength;
+    private final int shortcuts;
+
+    private final ConcurrentLinkedQueue<Workspace> workspaces = new ConcurrentLinkedQueue<>();
+
+    private ContractionHierarchy(int nodeCount, Edges up, Edges down, int shortcuts) {
+        this.nodeCount = nodeCount;
+        this.upFirst = up.first(nodeCount);
+        this.upHead = up.heads;
+        this.upLength = up.lengths;
+        this.downFirst = down.first(nodeCount);
+        this.downHead = down.heads;
+        this.downLength = down.lengths;
+        this.shortcuts = shortcuts;
+    }
+
+    static ContractionHierarchy build(RoadGraph graph) {
+        return new Contraction(graph).run();
+    }
+
+    int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * 前處理新增的捷徑數
+     */
+    int shortcutCount() {
+        return shortcuts;
+    }
+
+    /**
+     * 兩節點間的最短路徑長度，無法到達時為 Double.POSITIVE_INFINITY
+     */
+    double distance(int source, int target) {
+        if (source == target) {
+            return 0;
+        }
+        Workspace w = acquire();
+        try {
+            w.reserveStamps(2);
+            int forwardStamp = w.nextStamp();
+            int backwardStamp = w.nextStamp();
+            w.set(source, 0, forwardStamp, w.forwardDist, w.forwardStamps);
+            w.forward.put(source, 0);
+            w.set(target, 0, backwardStamp, w.backwardDist, w.backwardStamps);
+            w.backward.put(target, 0);
+
+            double best = Double.POSITIVE_INFINITY;
+            while (true) {
+                double forwardKey = w.forward.minKey();
+                double backwardKey = w.backward.minKey();
+                if (Math.min(forwardKey, backwardKey) >= best) {
+                    break;
+                }
+                if (forwardKey <= backwardKey) {
+                    int u = w.forward.poll();
+                    double d = w.forwardDist[u];
+                    if (w.backwardStamps[u] == backwardStamp) {
+                        best = Math.min(best, d + w.backwardDist[u]);
+                    }
+                    if (stalled(u, d, downFirst, downHead, downLength, forwardStamp, w.forwardDist, w.forwardStamps)) {
+                        continue;
+                    }
+                    relax(w.forward, u, d, upFirst, upHead, upLength, forwardStamp, w.forwardDist, w.forwardStamps);
+                } else {
+                    int u = w.backward.poll();
+                    double d = w.backwardDist[u];
+                    if (w.forwardStamps[u] == forwardStamp) {
+                        best = Math.min(best, d + w.forwardDist[u]);
+                    }
+                    if (stalled(u, d, upFirst, upHead, upLength, backwardStamp, w.backwardDist, w.backwardStamps)) {
+                        continue;
+                    }
+                    relax(w.backward, u, d, downFirst, downHead, downLength,
+                            backwardStamp, w.backwardDist, w.backwardStamps);
+                }
+            }
+            return best;
+        } finally {
+            w.forward.clear();
+            w.backward.clear();
+            release(w);
+        }
+    }
+
+    /**
+     * 多對多最短路徑長度：result[i][j] 為 sources[i] 到 targets[j]
+     */
+    double[][] distances(int[] sources, int[] targets) {
+        double[][] result = new double[sources.length][targets.length];
+        for (double[] row : result) {
+            Arrays.fill(row, Double.POSITIVE_INFINITY);
+        }
+        if (sources.length == 0 || targets.length == 0) {
+            return result;
+        }
+        Workspace w = acquire();
+        try {
+            w.reserveStamps(1L + sources.length + targets.length);
+            int bucketStamp = w.nextStamp();
+            w.bucketSize = 0;
+            for (int j = 0; j < targets.length; j++) {
+                int stamp = w.nextStamp();
+                w.set(targets[j], 0, stamp, w.backwardDist, w.backwardStamps);
+                w.backward.put(targets[j], 0);
+                while (!w.backward.isEmpty()) {
+                    int u = w.backward.poll();
+                    double d = w.backwardDist[u];
+                    if (stalled(u, d, upFirst, upHead, upLength, stamp, w.backwardDist, w.backwardStamps)) {
+                        continue;
+                    }
+                    w.addBucketEntry(u, j, d, bucketStamp);
+                    relax(w.backward, u, d, downFirst, downHead, downLength, stamp, w.backwardDist, w.backwardStamps);
+                }
+            }
+            for (int i = 0; i < sources.length; i++) {
+                double[] row = result[i];
+                int stamp = w.nextStamp();
+                w.set(sources[i], 0, stamp, w.forwardDist, w.forwardStamps);
+                w.forward.put(sources[i], 0);
+                while (!w.forward.isEmpty()) {
+                    int u = w.forward.poll();
+                    double d = w.forwardDist[u];
+                    if (stalled(u, d, downFirst, downHead, downLength, stamp, w.forwardDist, w.forwardStamps)) {
+                        continue;
+                    }
+                    if (w.bucketStamps[u] == bucketStamp) {
+                        for (int e = w.bucketHead[u]; e >= 0; e = w.bucketNext[e]) {
+                            int j = w.bucketTarget[e];
+                            row[j] = Math.min(row[j], d + w.bucketDist[e]);
+                        }
+                    }
+                    relax(w.forward, u, d, upFirst, upHead, upLength, stamp, w.forwardDist, w.forwardStamps);
+                }
+            }
+            return result;
+        } finally {
+            w.forward.clear();
+            w.backward.clear();
+            release(w);
+        }
+    }
+
+    /**
+     * stall-on-demand：若已有較晚收縮的節點 x 經由反向的邊以更短距離到達 u，
+     * 則 u 不在最短路徑上 (最短路徑會經過更高的 x)，不需往上展開
+     */
+    private static boolean stalled(int u, double d, int[] first, int[] head, double[] length,
+                                   int stamp, double[] dist, int[] stamps) {
+        for (int e = first[u]; e < first[u + 1]; e++) {
+            int x = head[e];
+            if (stamps[x] == stamp && dist[x] + length[e] < d) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void relax(NodeQueue queue, int u, double d, int[] first, int[] head, double[] length,
+                              int stamp, double[] dist, int[] stamps) {
+        for (int e = first[u]; e < first[u + 1]; e++) {
+            int v = head[e];
+            double candidate = d + length[e];
+            if (stamps[v] != stamp || candidate < dist[v]) {
+                stamps[v] = stamp;
+                dist[v] = candidate;
+                queue.put(v, candidate);
+            }
+        }
+    }
+
+    private Workspace acquire() {
+        Workspace w = workspaces.poll();
+        return w != null ? w : new Workspace(nodeCount);
+    }
+
+    private void release(Workspace w) {
+        workspaces.offer(w);
+    }
+
+    /**
+     * 單次查詢的暫存 (距離以 stamp 標示是否屬於本次搜尋，不需逐次清空)
+     */
+    private static final class Workspace {
+        final NodeQueue forward;
+        final NodeQueue backward;
+        final double[] forwardDist;
+        final double[] backwardDist;
+        final int[] forwardStamps;
+        final int[] backwardStamps;
+        int stamp;
+
+        // 多對多的 bucket：節點 -> (終點, 距離) 串列
+        final int[] bucketHead;
+        final int[] bucketStamps;
+        int[] bucketNext = new int[256];
+        int[] bucketTarget = new int[256];
+        double[] bucketDist = new double[256];
+        int bucketSize;
+
+        Workspace(int nodeCount) {
+            forward = new NodeQueue(nodeCount);
+            backward = new NodeQueue(nodeCount);
+            forwardDist = new double[nodeCount];
+            backwardDist = new double[nodeCount];
+            forwardStamps = new int[nodeCount];
+            backwardStamps = new int[nodeCount];
+            bucketHead = new int[nodeCount];
+            bucketStamps = new int[nodeCount];
+        }
+
+        /**
+         * 本次查詢將使用 count 個 stamp：剩餘不足時重設所有標記 (查詢進行中不會重設)
+         */
+        void reserveStamps(long count) {
+            if (stamp + count >= Integer.MAX_VALUE) {
+                Arrays.fill(forwardStamps, 0);
+                Arrays.fill(backwardStamps, 0);
+                Arrays.fill(bucketStamps, 0);
+                stamp = 0;
+            }
+        }
+
+        int nextStamp() {
+            return ++stamp;
+        }
+
+        void set(int node, double distance, int stamp, double[] dist, int[] stamps) {
+            dist[node] = distance;
+            stamps[node] = stamp;
+        }
+
+        void addBucketEntry(int node, int target, double distance, int stamp) {
+            if (bucketSize == bucketNext.length) {
+                bucketNext = Arrays.copyOf(bucketNext, bucketSize * 2);
+                bucketTarget = Arrays.copyOf(bucketTarget, bucketSize * 2);
+                bucketDist = Arrays.copyOf(bucketDist, bucketSize * 2);
+            }
+            bucketNext[bucketSize] = bucketStamps[node] == stamp ? bucketHead[node] : -1;
+            bucketTarget[bucketSize] = target;
+            bucketDist[bucketSize] = distance;
+            bucketHead[node] = bucketSize++;
+            bucketStamps[node] = stamp;
+        }
+    }
+
+    /**
+     * 依來源節點分組前的邊 (收縮過程中累積，結束後轉為 CSR)
+     */
+    private static final class Edges {
+        int[] tails = new int[1024];
+        int[] heads = new int[1024];
+        double[] lengths = new double[1024];
+        int size;
+
+        void add(int tail, int head, double length) {
+            if (size == tails.length) {
+                tails = Arrays.copyOf(tails, size * 2);
+                heads = Arrays.copyOf(heads, size * 2);
+                lengths = Arrays.copyOf(lengths, size * 2);
+            }
+            tails[size] = tail;
+            heads[size] = head;
+            lengths[size] = length;
+            size++;
+        }
+
+        /**
+         * 依 tail 排序 heads / lengths，回傳各節點的起始位置
+         */
+        int[] first(int nodeCount) {
+            int[] first = new int[nodeCount + 1];
+            for (int i = 0; i < size; i++) {
+                first[tails[i] + 1]++;
+            }
+            for (int v = 0; v < nodeCount; v++) {
+                first[v + 1] += first[v];
+            }
+            int[] next = Arrays.copyOf(first, nodeCount);
+            int[] sortedHeads = new int[size];
+            double[] sortedLengths = new double[size];
+            for (int i = 0; i < size; i++) {
+                int slot = next[tails[i]]++;
+                sortedHeads[slot] = heads[i];
+                sortedLengths[slot] = lengths[i];
+            }
+            heads = sortedHeads;
+            lengths = sortedLengths;
+            tails = null;
+            return first;
+        }
+    }
+
+    /**
+     * 收縮過程中尚未收縮節點之間的鄰接串列 (同一對節點只保留最短的邊)
+     */
+    private static final class Adjacency {
+        int[] nodes = new int[4];
+        double[] lengths = new double[4];
+        int size;
+
+        int indexOf(int node) {
+            for (int i = 0; i < size; i++) {
+                if (nodes[i] == node) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        void putMin(int node, double length) {
+            int index = indexOf(node);
+            if (index >= 0) {
+                lengths[index] = Math.min(lengths[index], length);
+                return;
+            }
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                lengths = Arrays.copyOf(lengths, size * 2);
+            }
+            nodes[size] = node;
+            lengths[size] = length;
+            size++;
+        }
+
+        void remove(int node) {
+            int index = indexOf(node);
+            if (index >= 0) {
+                size--;
+                nodes[index] = nodes[size];
+                lengths[index] = lengths[size];
+            }
+        }
+    }
+
+    /**
+     * 前處理 (單執行緒)
+     */
+    private static final class Contraction {
+        private final int n;
+        private final Adjacency[] out;
+        private final Adjacency[] in;
+        private final int[] deletedNeighbors;
+        // 層級：已收縮鄰居的最大層級 + 1，使收縮順序在各區域間平均展開
+        private final int[] level;
+
+        // 見證搜尋
+        private final NodeQueue witnessQueue;
+        private final double[] witnessDist;
+        private final int[] witnessStamps;
+        private int witnessStamp;
+
+        private final Edges up = new Edges();
+        private final Edges down = new Edges();
+        private int shortcuts;
+
+        Contraction(RoadGraph graph) {
+            n = graph.nodeCount();
+            out = new Adjacency[n];
+            in = new Adjacency[n];
+            for (int v = 0; v < n; v++) {
+                out[v] = new Adjacency();
+                in[v] = new Adjacency();
+            }
+            for (int v = 0; v < n; v++) {
+                for (int e = graph.firstArc(v); e < graph.firstArc(v + 1); e++) {
+                    int head = graph.arcHead(e);
+                    out[v].putMin(head, graph.arcLength(e));
+                    in[head].putMin(v, graph.arcLength(e));
+                }
+            }
+            deletedNeighbors = new int[n];
+            level = new int[n];
+            witnessQueue = new NodeQueue(n);
+            witnessDist = new double[n];
+            witnessStamps = new int[n];
+        }
+
+        ContractionHierarchy run() {
+            NodeQueue order = new NodeQueue(n);
+            for (int v = 0; v < n; v++) {
+                order.put(v, priority(v));
+            }
+            while (!order.isEmpty()) {
+                int v = order.poll();
+                // lazy update：重新計算後不再是最小者時放回
+                double current = priority(v);
+                if (current > order.minKey()) {
+                    order.put(v, current);
+                    continue;
+                }
+                contract(v);
+                for (int i = 0; i < out[v].size; i++) {
+                    touch(v, out[v].nodes[i]);
+                }
+                for (int i = 0; i < in[v].size; i++) {
+                    touch(v, in[v].nodes[i]);
+                }
+            }
+            return new ContractionHierarchy(n, up, down, shortcuts);
+        }
+
+        /**
+         * 鄰居 v 已收縮：只更新計數，優先值在取出時重新計算
+         */
+        private void touch(int v, int neighbor) {
+            deletedNeighbors[neighbor]++;
+            level[neighbor] = Math.max(level[neighbor], level[v] + 1);
+        }
+
+        private double priority(int v) {
+            int added = shortcuts(v, false, SIMULATE_SETTLE_LIMIT);
+            return 2.0 * (added - (in[v].size + out[v].size)) + deletedNeighbors[v] + level[v];
+        }
+
+        /**
+         * 收縮 v：記錄 v 往上的邊、加入必要的捷徑，並自鄰居的鄰接串列移除 v
+         */
+        private void contract(int v) {
+            for (int i = 0; i < out[v].size; i++) {
+                up.add(v, out[v].nodes[i], out[v].lengths[i]);
+            }
+            for (int i = 0; i < in[v].size; i++) {
+                down.add(v, in[v].nodes[i], in[v].lengths[i]);
+            }
+            shortcuts += shortcuts(v, true, WITNESS_SETTLE_LIMIT);
+            for (int i = 0; i < out[v].size; i++) {
+                in[out[v].nodes[i]].remove(v);
+            }
+            for (int i = 0; i < in[v].size; i++) {
+                out[in[v].nodes[i]].remove(v);
+            }
+        }
+
+        /**
+         * 收縮 v 需要的捷徑數 (apply 時實際加入)
+         */
+        private int shortcuts(int v, boolean apply, int settleLimit) {
+            Adjacency incoming = in[v];
+            Adjacency outgoing = out[v];
+            int count = 0;
+            for (int i = 0; i < incoming.size; i++) {
+                int u = incoming.nodes[i];
+                double toV = incoming.lengths[i];
+                double maxVia = -1;
+                for (int k = 0; k < outgoing.size; k++) {
+                    if (outgoing.nodes[k] != u) {
+                        maxVia = Math.max(maxVia, toV + outgoing.lengths[k]);
+                    }
+                }
+                if (maxVia < 0) {
+                    continue;
+                }
+                int stamp = witnessSearch(u, v, maxVia, settleLimit);
+                for (int k = 0; k < outgoing.size; k++) {
+                    int x = outgoing.nodes[k];
+                    if (x == u) {
+                        continue;
+                    }
+                    double via = toV + outgoing.lengths[k];
+                    if (witnessStamps[x] == stamp && witnessDist[x] <= via) {
+                        continue;
+                    }
+                    count++;
+                    if (apply) {
+                        out[u].putMin(x, via);
+                        in[x].putMin(u, via);
+                    }
+                }
+            }
+            return count;
+        }
+
+        /**
+         * 自 u 出發、不經過 v 的 Dijkstra，距離超過 maxDistance 或確定 settleLimit 個節點後停止
+         *
+         * @return 本次搜尋的 stamp (witnessStamps 等於此值的節點距離有效)
+         */
+        private int witnessSearch(int u, int v, double maxDistance, int settleLimit) {
+            int stamp = ++witnessStamp;
+            witnessQueue.clear();
+            witnessDist[u] = 0;
+            witnessStamps[u] = stamp;
+            witnessQueue.put(u, 0);
+            int settled = 0;
+            while (!witnessQueue.isEmpty() && settled < settleLimit) {
+                if (witnessQueue.minKey() > maxDistance) {
+                    break;
+                }
+                int w = witnessQueue.poll();
+                settled++;
+                double d = witnessDist[w];
+                Adjacency adjacency = out[w];
+                for (int i = 0; i < adjacency.size; i++) {
+                    int x = adjacency.nodes[i];
+                    if (x == v) {
+                        continue;
+                    }
+                    double candidate = d + adjacency.lengths[i];
+                    if (witnessStamps[x] != stamp || candidate < witnessDist[x]) {
+                        witnessStamps[x] = stamp;
+                        witnessDist[x] = candidate;
+                        witnessQueue.put(x, candidate);
+                    }
+                }
+            }
+            witnessQueue.clear();
+            return stamp;
+        }
+    }
+}
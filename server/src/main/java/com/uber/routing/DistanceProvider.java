@@ -0,0 +1,41 @@
+package com.uber.routing;
+
+import com.uber.model.Location;
+
+import java.util.List;
+
+/**
+ * 兩點間的行駛距離 (配對、可接訂單排序與車資共用)
+ *
+ * 實作須保證結果不小於兩點的直線距離：呼叫端以直線距離作為下界先篩選候選、
+ * 依直線距離由近到遠計算，直線距離已超過目前最佳值時即停止。
+ * 無法到達時回傳 Double.POSITIVE_INFINITY。
+ */
+public interface DistanceProvider {
+
+    /** 直線距離 (預設) */
+    DistanceProvider EUCLIDEAN = Location::distanceTo;
+
+    double distance(Location from, Location to);
+
+    /**
+     * 多對多距離：result[i][j] 為 sources[i] 到 targets[j]
+     */
+    default double[][] matrix(List<Location> sources, List<Location> targets) {
+        double[][] result = new double[sources.size()][targets.size()];
+        for (int i = 0; i < result.length; i++) {
+            Location from = sources.get(i);
+            for (int j = 0; j < result[i].length; j++) {
+                result[i][j] = distance(from, targets.get(j));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 是否即為直線距離 (呼叫端可略過下界剪枝與重新排序)
+     */
+    default boolean isEuclidean() {
+        return this == EUCLIDEAN;
+    }
+}
@@ -0,0 +1,77 @@
+package com.uber.routing;
+
+/**
+ * TinyLFU 的頻率估計 (count-min sketch，4-bit 計數器)
+ *
+ * 每個 long 存 16 個 4-bit 計數器；每個 key 以 4 個雜湊各取一個計數器，估計值為其中最小者 (上限 15)。
+ * 累計次數達 sampleSize (容量的 3 倍) 時所有計數器減半，近期的存取頻率權重較高。
+ * 非執行緒安全 (由 WTinyLfuCache 的分段鎖保護)。
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    // 累計次數達容量的幾倍時減半 (常見的設定為 10 倍)：司機移動後舊格子組合的 key 數秒內就不再出現，
+    // 減半得太慢時這些過期的高頻項目會一直擠掉新的 key
+    private static final int SAMPLE_FACTOR = 3;
+
+    private final long[] table;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int capacity) {
+        int length = Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1;
+        table = new long[length];
+        sampleSize = SAMPLE_FACTOR * Math.max(capacity, 16);
+    }
+
+    int frequency(int hash) {
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long h = mix(hash, i);
+            frequency = Math.min(frequency, (int) ((table[slot(h)] >>> shift(h)) & 15));
+        }
+        return frequency;
+    }
+
+    void increment(int hash) {
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long h = mix(hash, i);
+            int slot = slot(h);
+            int shift = shift(h);
+            if (((table[slot] >>> shift) & 15) < 15) {
+                table[slot] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * 所有計數器減半
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private static long mix(int hash, int i) {
+        long h = (hash + SEEDS[i]) * 0x9e3779b97f4a7c15L;
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        return h ^ (h >>> 31);
+    }
+
+    private int slot(long h) {
+        return (int) h & (table.length - 1);
+    }
+
+    private static int shift(long h) {
+        return (int) (h >>> 60) << 2;
+    }
+}
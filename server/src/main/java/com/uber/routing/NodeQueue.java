@@ -0,0 +1,126 @@
+package com.uber.routing;
+
+import java.util.Arrays;
+
+/**
+ * 以節點編號索引的二元最小堆 (Dijkstra 與收縮順序共用)
+ *
+ * 位置陣列依節點數配置一次，clear 只重設本輪放入過的節點，重複使用時不需重新配置或清空整個陣列。
+ * 非執行緒安全。
+ */
+final class NodeQueue {
+
+    private final int[] positions;
+    private int[] nodes = new int[64];
+    private double[] keys = new double[64];
+    private int size;
+
+    NodeQueue(int nodeCount) {
+        positions = new int[nodeCount];
+        Arrays.fill(positions, -1);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    double minKey() {
+        return size > 0 ? keys[0] : Double.POSITIVE_INFINITY;
+    }
+
+    boolean contains(int node) {
+        return positions[node] >= 0;
+    }
+
+    /**
+     * 插入或更新 key (變小往上、變大往下調整)
+     */
+    void put(int node, double key) {
+        int index = positions[node];
+        if (index < 0) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            index = size++;
+            nodes[index] = node;
+            keys[index] = key;
+            positions[node] = index;
+            siftUp(index);
+            return;
+        }
+        double previous = keys[index];
+        keys[index] = key;
+        if (key < previous) {
+            siftUp(index);
+        } else if (key > previous) {
+            siftDown(index);
+        }
+    }
+
+    int poll() {
+        int node = nodes[0];
+        positions[node] = -1;
+        size--;
+        if (size > 0) {
+            nodes[0] = nodes[size];
+            keys[0] = keys[size];
+            positions[nodes[0]] = 0;
+            siftDown(0);
+        }
+        return node;
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[nodes[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int index) {
+        int node = nodes[index];
+        double key = keys[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            nodes[index] = nodes[parent];
+            keys[index] = keys[parent];
+            positions[nodes[index]] = index;
+            index = parent;
+        }
+        nodes[index] = node;
+        keys[index] = key;
+        positions[node] = index;
+    }
+
+    private void siftDown(int index) {
+        int node = nodes[index];
+        double key = keys[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            nodes[index] = nodes[child];
+            keys[index] = keys[child];
+            positions[nodes[index]] = index;
+            index = child;
+        }
+        nodes[index] = node;
+        keys[index] = key;
+        positions[node] = index;
+    }
+}
@@ -0,0 +1,301 @@
+package com.uber.routing;
+
+import com.uber.cluster.GridCell;
+import com.uber.model.Location;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 路網圖：節點座標與有向路段 (以 CSR 陣列保存，載入後不可變)
+ *
+ * 檔案格式 (UTF-8 文字，每行一筆，# 開頭為註解；座標與長度單位與 Location 相同)：
+ * <pre>
+ * n &lt;x&gt; &lt;y&gt;                  節點，依出現順序編號 0, 1, 2 ...
+ * e &lt;from&gt; &lt;to&gt; [length]     雙向路段
+ * a &lt;from&gt; &lt;to&gt; [length]     單向路段 (from → to)
+ * </pre>
+ * 一般由 OSM 路網 (已投影為平面座標) 轉出。省略長度時為兩端點的直線距離；
+ * 長度小於直線距離時以直線距離計 (座標誤差)，確保路網距離不小於直線距離。
+ */
+public final class RoadGraph {
+
+    private final double[] xs;
+    private final double[] ys;
+    // 節點 v 的出邊為 arcHead / arcLength 的 [firstArc[v], firstArc[v + 1])
+    private final int[] firstArc;
+    private final int[] arcHead;
+    private final double[] arcLength;
+
+    // 最近節點查詢：格子 -> 格子內的節點
+    private final double cellSize;
+    private final Map<GridCell, int[]> cells;
+    private final int maxRing;
+    private final double minX, minY, maxX, maxY;
+
+    private RoadGraph(double[] xs, double[] ys, int[] firstArc, int[] arcHead, double[] arcLength) {
+        this.xs = xs;
+        this.ys = ys;
+        this.firstArc = firstArc;
+        this.arcHead = arcHead;
+        this.arcLength = arcLength;
+
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int v = 0; v < xs.length; v++) {
+            minX = Math.min(minX, xs[v]);
+            maxX = Math.max(maxX, xs[v]);
+            minY = Math.min(minY, ys[v]);
+            maxY = Math.max(maxY, ys[v]);
+        }
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        // 平均每格約 2 個節點
+        double extent = Math.max(maxX - minX, maxY - minY);
+        this.cellSize = extent > 0 ? Math.max(extent / Math.sqrt(xs.length / 2.0), 1e-6) : 1.0;
+        this.maxRing = (int) Math.ceil(extent / cellSize) + 1;
+
+        Map<GridCell, int[]> grouped = new HashMap<>();
+        for (int v = 0; v < xs.length; v++) {
+            grouped.merge(cell(xs[v], ys[v]), new int[]{v}, (existing, single) -> {
+                int[] grown = Arrays.copyOf(existing, existing.length + 1);
+                grown[existing.length] = single[0];
+                return grown;
+            });
+        }
+        this.cells = grouped;
+    }
+
+    public int nodeCount() {
+        return xs.length;
+    }
+
+    public int arcCount() {
+        return arcHead.length;
+    }
+
+    public Location location(int node) {
+        return new Location(xs[node], ys[node]);
+    }
+
+    /**
+     * 節點 node 的出邊編號為 [firstArc(node), firstArc(node + 1))
+     */
+    public int firstArc(int node) {
+        return firstArc[node];
+    }
+
+    public int arcHead(int arc) {
+        return arcHead[arc];
+    }
+
+    public double arcLength(int arc) {
+        return arcLength[arc];
+    }
+
+    /**
+     * 直線距離最近的節點 (依格子由內往外逐圈搜尋；路網範圍外的點逐一比較所有節點)
+     */
+    public int nearestNode(Location location) {
+        double x = location.getX();
+        double y = location.getY();
+        if (x < minX - cellSize || x > maxX + cellSize || y < minY - cellSize || y > maxY + cellSize) {
+            return nearestNodeScan(x, y);
+        }
+        GridCell center = cell(x, y);
+        int best = -1;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // 第 ring 圈的格子與 location 至少相距 (ring - 1) 個格子
+            if ((ring - 1) * cellSize > bestDistance) {
+                break;
+            }
+            for (int dx = -ring; dx <= ring; dx++) {
+                for (int dy = -ring; dy <= ring; dy++) {
+                    if (Math.abs(dx) != ring && Math.abs(dy) != ring) {
+                        continue;
+                    }
+                    int[] nodes = cells.get(new GridCell(center.x() + dx, center.y() + dy));
+                    if (nodes == null) {
+                        continue;
+                    }
+                    for (int v : nodes) {
+                        double distance = distance(v, x, y);
+                        if (distance < bestDistance || (distance == bestDistance && v < best)) {
+                            best = v;
+                            bestDistance = distance;
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private int nearestNodeScan(double x, double y) {
+        int best = 0;
+        double bestDistance = distance(0, x, y);
+        for (int v = 1; v < xs.length; v++) {
+            double distance = distance(v, x, y);
+            if (distance < bestDistance) {
+                best = v;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    private double distance(int node, double x, double y) {
+        double dx = xs[node] - x;
+        double dy = ys[node] - y;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private GridCell cell(double x, double y) {
+        return new GridCell((int) Math.floor(x / cellSize), (int) Math.floor(y / cellSize));
+    }
+
+    /**
+     * 自檔案載入 (格式見類別說明)
+     */
+    public static RoadGraph load(Path file) throws IOException {
+        Builder builder = builder();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\\s+");
+                try {
+                    switch (fields[0]) {
+                        case "n" -> {
+                            requireFields(fields, 3, 3);
+                            builder.addNode(Double.parseDouble(fields[1]), Double.parseDouble(fields[2]));
+                        }
+                        case "e", "a" -> {
+                            requireFields(fields, 3, 4);
+                            int from = Integer.parseInt(fields[1]);
+                            int to = Integer.parseInt(fields[2]);
+                            double length = fields.length == 4 ? Double.parseDouble(fields[3]) : 0;
+                            if (fields[0].equals("e")) {
+                                builder.addRoad(from, to, length);
+                            } else {
+                                builder.addOneWay(from, to, length);
+                            }
+                        }
+                        default -> throw new IllegalArgumentException("unknown record type: " + fields[0]);
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(file + ":" + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static void requireFields(String[] fields, int min, int max) {
+        if (fields.length < min || fields.length > max) {
+            throw new IllegalArgumentException("expected " + (min - 1) + (max > min ? "-" + (max - 1) : "")
+                    + " values");
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private double[] xs = new double[16];
+        private double[] ys = new double[16];
+        private int nodes;
+        private int[] tails = new int[16];
+        private int[] heads = new int[16];
+        private double[] lengths = new double[16];
+        private int arcs;
+
+        /**
+         * @return 節點編號
+         */
+        public int addNode(double x, double y) {
+            if (!Double.isFinite(x) || !Double.isFinite(y)) {
+                throw new IllegalArgumentException("node coordinates must be finite");
+            }
+            if (nodes == xs.length) {
+                xs = Arrays.copyOf(xs, nodes * 2);
+                ys = Arrays.copyOf(ys, nodes * 2);
+            }
+            xs[nodes] = x;
+            ys[nodes] = y;
+            return nodes++;
+        }
+
+        /**
+         * 雙向路段；length ≤ 0 時為直線距離
+         */
+        public Builder addRoad(int a, int b, double length) {
+            addOneWay(a, b, length);
+            return addOneWay(b, a, length);
+        }
+
+        /**
+         * 單向路段；length ≤ 0 時為直線距離
+         */
+        public Builder addOneWay(int from, int to, double length) {
+            if (from < 0 || from >= nodes || to < 0 || to >= nodes) {
+                throw new IllegalArgumentException("unknown node: " + (from < 0 || from >= nodes ? from : to));
+            }
+            if (Double.isNaN(length) || length == Double.POSITIVE_INFINITY) {
+                throw new IllegalArgumentException("length must be finite");
+            }
+            if (from == to) {
+                return this;
+            }
+            if (arcs == heads.length) {
+                tails = Arrays.copyOf(tails, arcs * 2);
+                heads = Arrays.copyOf(heads, arcs * 2);
+                lengths = Arrays.copyOf(lengths, arcs * 2);
+            }
+            double dx = xs[from] - xs[to];
+            double dy = ys[from] - ys[to];
+            tails[arcs] = from;
+            heads[arcs] = to;
+            lengths[arcs] = Math.max(length, Math.sqrt(dx * dx + dy * dy));
+            arcs++;
+            return this;
+        }
+
+        public RoadGraph build() {
+            if (nodes == 0) {
+                throw new IllegalArgumentException("road graph has no nodes");
+            }
+            int[] firstArc = new int[nodes + 1];
+            for (int i = 0; i < arcs; i++) {
+                firstArc[tails[i] + 1]++;
+            }
+            for (int v = 0; v < nodes; v++) {
+                firstArc[v + 1] += firstArc[v];
+            }
+            int[] next = Arrays.copyOf(firstArc, nodes);
+            int[] arcHead = new int[arcs];
+            double[] arcLength = new double[arcs];
+            for (int i = 0; i < arcs; i++) {
+                int slot = next[tails[i]]++;
+                arcHead[slot] = heads[i];
+                arcLength[slot] = lengths[i];
+            }
+            return new RoadGraph(Arrays.copyOf(xs, nodes), Arrays.copyOf(ys, nodes), firstArc, arcHead, arcLength);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.uber.routing;
+
+import com.uber.model.Location;
+
+import java.util.List;
+
+/**
+ * 路網距離：兩點各自對應到最近的路網節點，距離為「起點到節點 + 節點間最短路徑 + 節點到終點」
+ *
+ * 節點間最短路徑以收縮階層查詢 (單次數微秒)，多對多以 bucket 查詢一次算出。
+ * 路段長度不小於兩端點的直線距離，由三角不等式，結果不小於兩點的直線距離。
+ */
+public class RoadNetworkDistance implements DistanceProvider {
+
+    private final RoadGraph graph;
+    private final ContractionHierarchy hierarchy;
+
+    public RoadNetworkDistance(RoadGraph graph) {
+        this.graph = graph;
+        this.hierarchy = ContractionHierarchy.build(graph);
+    }
+
+    public RoadGraph graph() {
+        return graph;
+    }
+
+    /**
+     * 前處理新增的捷徑數
+     */
+    public int shortcutCount() {
+        return hierarchy.shortcutCount();
+    }
+
+    @Override
+    public double distance(Location from, Location to) {
+        if (from.getX() == to.getX() && from.getY() == to.getY()) {
+            return 0;
+        }
+        int source = graph.nearestNode(from);
+        int target = graph.nearestNode(to);
+        double road = hierarchy.distance(source, target);
+        return road + from.distanceTo(graph.location(source)) + graph.location(target).distanceTo(to);
+    }
+
+    @Override
+    public double[][] matrix(List<Location> sources, List<Location> targets) {
+        int[] sourceNodes = new int[sources.size()];
+        double[] sourceOffsets = new double[sources.size()];
+        for (int i = 0; i < sourceNodes.length; i++) {
+            sourceNodes[i] = graph.nearestNode(sources.get(i));
+            sourceOffsets[i] = sources.get(i).distanceTo(graph.location(sourceNodes[i]));
+        }
+        int[] targetNodes = new int[targets.size()];
+        double[] targetOffsets = new double[targets.size()];
+        for (int j = 0; j < targetNodes.length; j++) {
+            targetNodes[j] = graph.nearestNode(targets.get(j));
+            targetOffsets[j] = targets.get(j).distanceTo(graph.location(targetNodes[j]));
+        }
+        double[][] result = hierarchy.distances(sourceNodes, targetNodes);
+        for (int i = 0; i < result.length; i++) {
+            Location from = sources.get(i);
+            for (int j = 0; j < result[i].length; j++) {
+                Location to = targets.get(j);
+                result[i][j] = from.getX() == to.getX() && from.getY() == to.getY()
+                        ? 0
+                        : result[i][j] + sourceOffsets[i] + targetOffsets[j];
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,43 @@
+package com.uber.routing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 距離計算設定 (預設直線距離)
+ * 
+ * distanceProvider 為精確距離 (車資使用)；cachedDistanceProvider 在其前加上司機到上車點距離的快取，
+ * 由配對與可接訂單排序以 @Qualifier 指定使用
+ */
+@Configuration
+@EnableConfigurationProperties(RoutingProperties.class)
+@Slf4j
+public class RoutingConfig {
+    
+    @Bean
+    @Primary
+    public DistanceProvider distanceProvider(RoutingProperties properties) throws IOException {
+        if (properties.getGraphFile() == null || properties.getGraphFile().isBlank()) {
+            return DistanceProvider.EUCLIDEAN;
+        }
+        long start = System.nanoTime();
+        RoadGraph graph = RoadGraph.load(Path.of(properties.getGraphFile()));
+        RoadNetworkDistance distance = new RoadNetworkDistance(graph);
+        log.info("Road graph {} loaded: {} nodes, {} arcs, {} shortcuts in {} ms", properties.getGraphFile(),
+                graph.nodeCount(), graph.arcCount(), distance.shortcutCount(), (System.nanoTime() - start) / 1_000_000);
+        return distance;
+    }
+    
+    @Bean
+    public CachedDistanceProvider cachedDistanceProvider(DistanceProvider distanceProvider,
+                                                         RoutingProperties properties) {
+        RoutingProperties.Cache cache = properties.getCache();
+        return new CachedDistanceProvider(distanceProvider, cache.getPrecision(), cache.getMaximumSize());
+    }
+}
@@ -0,0 +1,33 @@
+package com.uber.routing;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 距離計算設定 (dispatch.routing.*)
+ * 
+ * 未設定 graph-file (預設) 時使用直線距離；設定後啟動時載入路網並建立收縮階層，
+ * 配對、可接訂單與車資改用路網距離
+ */
+@Data
+@ConfigurationProperties(prefix = "dispatch.routing")
+public class RoutingProperties {
+    
+    // 路網檔案路徑 (格式見 RoadGraph)
+    private String graphFile = "";
+    
+    // 司機到上車點距離的快取 (只在使用路網距離時生效)
+    private Cache cache = new Cache(0.05, 100_000);
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cache {
+        // 量化格子邊長 (km)：兩點各自以所在格子的中心點計算距離
+        private double precision;
+        // 最多快取的 (司機格子, 上車點格子) 組合數，0 表示不快取
+        private int maximumSize;
+    }
+}
@@ -0,0 +1,325 @@
+package com.uber.routing;
+
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 有上限的 W-TinyLFU 快取 (值為 double)
+ *
+ * 新項目先進入 LRU 的 window；擠出 window 的項目成為候選，與主區 probation 最久未用的項目
+ * 比較頻率估計 (FrequencySketch)，頻率較高者留下。主區為 segmented LRU：probation 再次命中後升到 protected
+ * (主區的 80%)，protected 滿時最久未用者降回 probation。一次性的掃描 (大量只出現一次的 key) 只會在 window
+ * 與 probation 間流動，不會擠掉常用的項目；純 LRU 在同樣情況下會被整批換掉。
+ *
+ * window 初始為容量的 1%，每 sampleSize 次存取依整個快取的命中率以 hill climbing 調整：
+ * 司機移動後舊格子的 key 不再出現、近期的 key 才會重複，這類以近期性為主的存取在 window 很小時
+ * 會因頻率門檻拒絕新 key 而命中率低於 LRU，調大 window 後接近 LRU。
+ *
+ * 依 key 的雜湊分為數個區段，各區段以自己的鎖保護 (讀取也需調整 LRU 順序)，多執行緒同時存取時只在同區段上競爭。
+ */
+final class WTinyLfuCache<K> {
+
+    private static final byte WINDOW = 0;
+    private static final byte PROBATION = 1;
+    private static final byte PROTECTED = 2;
+
+    private static final double INITIAL_WINDOW = 0.01;
+    private static final double MAXIMUM_WINDOW = 1.0;
+    // 調整 window 比例的初始步幅與每次的衰減
+    private static final double STEP = 0.0625;
+    private static final double STEP_DECAY = 0.98;
+    // 命中率變化超過此值時步幅恢復為初始值 (存取模式改變)
+    private static final double RESTART_THRESHOLD = 0.05;
+
+    private final Segment<K>[] segments;
+    private final int mask;
+    private final int maximumSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // hill climbing：每 sampleSize 次存取比較整個快取的命中率，往命中率上升的方向調整所有區段的 window 比例
+    private final int sampleSize;
+    private final AtomicInteger sampleCount = new AtomicInteger();
+    // 以下僅於 synchronized (this) 時存取
+    private long sampledHits;
+    private long sampledMisses;
+    private double previousHitRate;
+    private double windowFraction = INITIAL_WINDOW;
+    private double stepSize = STEP;
+
+    WTinyLfuCache(int maximumSize) {
+        this(maximumSize, Math.min(16, Integer.highestOneBit(Math.max(1, maximumSize / 1024))));
+    }
+
+    @SuppressWarnings("unchecked")
+    WTinyLfuCache(int maximumSize, int segmentCount) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        if (Integer.bitCount(segmentCount) != 1 || segmentCount > maximumSize) {
+            throw new IllegalArgumentException("segmentCount must be a power of two not above maximumSize");
+        }
+        this.maximumSize = maximumSize;
+        this.sampleSize = Math.max(maximumSize, 1024);
+        this.segments = new Segment[segmentCount];
+        this.mask = segmentCount - 1;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(maximumSize / segmentCount);
+        }
+    }
+
+    /**
+     * 取得快取的值，不存在時回傳 Double.NaN (並記錄一次存取，供之後的 put 比較頻率)
+     */
+    double get(K key) {
+        int hash = spread(key.hashCode());
+        double value = segments[hash & mask].get(key, hash);
+        if (Double.isNaN(value)) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        if (sampleCount.incrementAndGet() >= sampleSize) {
+            climb();
+        }
+        return value;
+    }
+
+    private synchronized void climb() {
+        if (sampleCount.get() < sampleSize) {
+            return;
+        }
+        sampleCount.set(0);
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long sampled = hitCount - sampledHits + missCount - sampledMisses;
+        double hitRate = sampled > 0 ? (double) (hitCount - sampledHits) / sampled : 0;
+        sampledHits = hitCount;
+        sampledMisses = missCount;
+
+        double change = hitRate - previousHitRate;
+        // 命中率下降時反向調整
+        double amount = change >= 0 ? stepSize : -stepSize;
+        stepSize = Math.abs(change) >= RESTART_THRESHOLD ? Math.copySign(STEP, amount) : amount * STEP_DECAY;
+        windowFraction = Math.max(INITIAL_WINDOW, Math.min(MAXIMUM_WINDOW, windowFraction + amount));
+        previousHitRate = hitRate;
+        for (Segment<K> segment : segments) {
+            segment.resize(windowFraction);
+        }
+    }
+
+    /**
+     * 目前 window 佔容量的比例
+     */
+    synchronized double windowFraction() {
+        return windowFraction;
+    }
+
+    void put(K key, double value) {
+        int hash = spread(key.hashCode());
+        int evicted = segments[hash & mask].put(key, value, hash);
+        if (evicted > 0) {
+            evictions.add(evicted);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment<K> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    int maximumSize() {
+        return maximumSize;
+    }
+
+    long hitCount() {
+        return hits.sum();
+    }
+
+    long missCount() {
+        return misses.sum();
+    }
+
+    long evictionCount() {
+        return evictions.sum();
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Node<K> {
+        final K key;
+        final int hash;
+        double value;
+        byte queue;
+        Node<K> prev;
+        Node<K> next;
+
+        Node(K key, int hash, double value) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+        }
+    }
+
+    /**
+     * 雙向鏈結的 LRU 順序 (first 為最久未用)
+     */
+    private static final class AccessOrder<K> {
+        Node<K> first;
+        Node<K> last;
+        int size;
+
+        void addLast(Node<K> node) {
+            node.prev = last;
+            node.next = null;
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+            size++;
+        }
+
+        void remove(Node<K> node) {
+            if (node.prev == null) {
+                first = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                last = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        void moveToLast(Node<K> node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+    }
+
+    private static final class Segment<K> {
+        private final int maximum;
+        private int windowMaximum;
+        private int protectedMaximum;
+        private final HashMap<K, Node<K>> map;
+        private final FrequencySketch sketch;
+        private final AccessOrder<K> window = new AccessOrder<>();
+        private final AccessOrder<K> probation = new AccessOrder<>();
+        private final AccessOrder<K> protect = new AccessOrder<>();
+
+        Segment(int maximum) {
+            this.maximum = maximum;
+            this.map = new HashMap<>();
+            this.sketch = new FrequencySketch(maximum);
+            resize(INITIAL_WINDOW);
+        }
+
+        /**
+         * 調整 window 佔容量的比例 (主區至少保留一個位置)；window 超出的部分在下次放入時移到主區
+         */
+        synchronized void resize(double windowFraction) {
+            windowMaximum = Math.max(1, Math.min(maximum - 1, (int) Math.round(maximum * windowFraction)));
+            protectedMaximum = (maximum - windowMaximum) * 4 / 5;
+            demoteProtected();
+        }
+
+        synchronized int size() {
+            return map.size();
+        }
+
+        synchronized double get(K key, int hash) {
+            sketch.increment(hash);
+            Node<K> node = map.get(key);
+            if (node == null) {
+                return Double.NaN;
+            }
+            switch (node.queue) {
+                case WINDOW -> window.moveToLast(node);
+                case PROBATION -> {
+                    probation.remove(node);
+                    node.queue = PROTECTED;
+                    protect.addLast(node);
+                    demoteProtected();
+                }
+                default -> protect.moveToLast(node);
+            }
+            return node.value;
+        }
+
+        /**
+         * @return 淘汰的項目數
+         */
+        synchronized int put(K key, double value, int hash) {
+            Node<K> existing = map.get(key);
+            if (existing != null) {
+                existing.value = value;
+                return 0;
+            }
+            Node<K> node = new Node<>(key, hash, value);
+            map.put(key, node);
+            node.queue = WINDOW;
+            window.addLast(node);
+            // window 縮小後可能一次移出多個；只有最後移出的與主區比較頻率，其餘視為主區項目
+            Node<K> candidate = null;
+            while (window.size > windowMaximum) {
+                candidate = window.first;
+                window.remove(candidate);
+                candidate.queue = PROBATION;
+                probation.addLast(candidate);
+            }
+            int evicted = 0;
+            while (map.size() > maximum) {
+                evict(candidate);
+                if (candidate != null && !map.containsKey(candidate.key)) {
+                    candidate = null;
+                }
+                evicted++;
+            }
+            return evicted;
+        }
+
+        /**
+         * 候選與主區最久未用的項目比較頻率，相同時保留原有項目；沒有候選 (window 剛放大) 時淘汰主區最久未用的項目
+         */
+        private void evict(Node<K> candidate) {
+            Node<K> victim = candidate == null || probation.first != candidate ? probation.first : candidate.next;
+            if (victim == null) {
+                victim = protect.first != null ? protect.first : window.first;
+            }
+            Node<K> evicted = candidate != null && candidate != victim
+                    && sketch.frequency(candidate.hash) <= sketch.frequency(victim.hash) ? candidate : victim;
+            switch (evicted.queue) {
+                case WINDOW -> window.remove(evicted);
+                case PROBATION -> probation.remove(evicted);
+                default -> protect.remove(evicted);
+            }
+            map.remove(evicted.key);
+        }
+
+        private void demoteProtected() {
+            while (protect.size > protectedMaximum) {
+                Node<K> demoted = protect.first;
+                protect.remove(demoted);
+                demoted.queue = PROBATION;
+                probation.addLast(demoted);
+            }
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package com.uber.service;
 
+import com.uber.jfr.AuditFlushEvent;
+import com.uber.metrics.DispatchMetrics;
 import com.uber.model.AuditLog;
+import com.uber.model.Order;
 import com.uber.repository.AuditLogRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -19,12 +25,46 @@ public class AuditService {
     
     private final AuditLogRepository auditLogRepository;
     
+    private DispatchMetrics metrics = DispatchMetrics.DISABLED;
+    
+    @Autowired(required = false)
+    public void setMetrics(DispatchMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
     /**
      * 記錄成功操作
      */
     public void logSuccess(String orderId, String action, String actorType, 
                           String actorId, String previousState, String newState) {
-        AuditLog log = AuditLog.builder()
+        AuditFlushEvent event = new AuditFlushEvent();
+        event.begin();
+        long start = metrics.start();
+        auditLogRepository.save(buildSuccess(orderId, action, actorType, actorId, previousState, newState));
+        metrics.auditAppend().recordSince(start);
+        commit(event, action, 1, true);
+    }
+    
+    /**
+     * 批次記錄訂單建立 (一次寫入)
+     */
+    public void logOrdersCreated(List<Order> orders) {
+        List<AuditLog> batch = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            batch.add(buildSuccess(order.getOrderId(), "CREATE", "PASSENGER",
+                    order.getPassengerId(), null, "PENDING"));
+        }
+        AuditFlushEvent event = new AuditFlushEvent();
+        event.begin();
+        long start = metrics.start();
+        auditLogRepository.saveAll(batch);
+        metrics.auditAppend().recordSince(start);
+        commit(event, "CREATE", batch.size(), true);
+    }
+    
+    private AuditLog buildSuccess(String orderId, String action, String actorType,
+                                  String actorId, String previousState, String newState) {
+        return AuditLog.builder()
                 .id(UUID.randomUUID().toString())
                 .timestamp(Instant.now())
                 .orderId(orderId)
@@ -35,8 +75,6 @@ public class AuditService {
                 .newState(newState)
                 .success(true)
                 .build();
-        
-        auditLogRepository.save(log);
     }
     
     /**
@@ -57,7 +95,21 @@ public class AuditService {
                 .failureReason(failureReason)
                 .build();
         
+        AuditFlushEvent event = new AuditFlushEvent();
+        event.begin();
+        long start = metrics.start();
         auditLogRepository.save(log);
+        metrics.auditAppend().recordSince(start);
+        commit(event, action, 1, false);
+    }
+    
+    private static void commit(AuditFlushEvent event, String action, int batchSize, boolean success) {
+        if (event.shouldCommit()) {
+            event.setAction(action);
+            event.setBatchSize(batchSize);
+            event.setSuccess(success);
+            event.commit();
+        }
     }
     
     public List<AuditLog> getLogsByOrderId(String orderId) {
@@ -68,9 +120,42 @@ public class AuditService {
         return auditLogRepository.findAll();
     }
     
+    /**
+     * 依條件查詢審計日誌 (null 表示不篩選；時間範圍含 from、不含 to)
+     */
+    public List<AuditLog> findLogs(String orderId, String action, Instant from, Instant to) {
+        return auditLogRepository.find(orderId, action, from, to);
+    }
+    
+    /**
+     * 逐筆走訪寫入序號 [since, until) 內符合條件的審計日誌 (匯出用)
+     */
+    public Iterator<AuditLog> exportLogs(String orderId, String action, Instant from, Instant to,
+                                         int since, int until) {
+        return auditLogRepository.scan(orderId, action, from, to, since, until);
+    }
+    
     public Map<String, Long> getAcceptStats(String orderId) {
         long success = auditLogRepository.countSuccessByOrderIdAndAction(orderId, "ACCEPT");
         long failure = auditLogRepository.countFailureByOrderIdAndAction(orderId, "ACCEPT");
         return Map.of("success", success, "failure", failure);
     }
+    
+    /**
+     * 取得審計日誌修改計數 (供 ETag 使用)
+     */
+    public long getModificationCount() {
+        return auditLogRepository.getModificationCount();
+    }
+    
+    /**
+     * 依寫入順序取得自 offset 起最多 limit 筆審計日誌
+     */
+    public List<AuditLog> getLogsFrom(int offset, int limit) {
+        return auditLogRepository.findFrom(offset, limit);
+    }
+    
+    public int getLogCount() {
+        return auditLogRepository.count();
+    }
 }
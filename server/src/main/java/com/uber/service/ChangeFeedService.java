@@ -0,0 +1,110 @@
+package com.uber.service;
+
+import com.uber.model.ChangeEvent;
+import com.uber.model.ChangeEvent.EntityType;
+import com.uber.model.Driver;
+import com.uber.model.Order;
+import com.uber.repository.ChangeLogRepository;
+import com.uber.repository.ChangeSet;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 變更事件服務 (change data capture)
+ * 
+ * OrderService / DriverService 於每次狀態轉換後呼叫，事件保存寫入日誌當下的快照，
+ * 消費端以 since 序號增量同步，不需重新讀取全部狀態。
+ * 快照在指定序號的鎖內建立，同一實體的最後一筆事件即為其目前狀態 (修改本身不需互斥)
+ */
+@Service
+@RequiredArgsConstructor
+public class ChangeFeedService {
+    
+    private final ChangeLogRepository changeLogRepository;
+    
+    /**
+     * 記錄訂單變更
+     */
+    public void orderChanged(Order order, String action) {
+        changeLogRepository.append(() -> orderEvent(order, action, Instant.now()));
+    }
+    
+    /**
+     * 批次記錄訂單變更 (bulk 匯入，一次寫入)
+     */
+    public void ordersChanged(List<Order> orders, String action) {
+        Instant now = Instant.now();
+        changeLogRepository.appendAll(orders, order -> orderEvent(order, action, now));
+    }
+    
+    /**
+     * 記錄司機變更
+     */
+    public void driverChanged(Driver driver, String action) {
+        changeLogRepository.append(() -> driverEvent(driver, action, Instant.now()));
+    }
+    
+    /**
+     * 批次記錄司機變更
+     */
+    public void driversChanged(List<Driver> drivers, String action) {
+        Instant now = Instant.now();
+        changeLogRepository.appendAll(drivers, driver -> driverEvent(driver, action, now));
+    }
+    
+    /**
+     * 寫入主節點複製來的事件 (保留原序號與時間)
+     */
+    public void replicate(ChangeEvent event) {
+        changeLogRepository.appendReplicated(event);
+    }
+    
+    /**
+     * 載入快照後自 sequence 起接續複製
+     */
+    public void restartAt(long sequence) {
+        changeLogRepository.restartAt(sequence);
+    }
+    
+    /**
+     * 取得序號大於 since 的事件 (最多 limit 筆)
+     */
+    public ChangeSet<ChangeEvent> getChangesSince(long since, int limit) {
+        return changeLogRepository.findSince(since, limit);
+    }
+    
+    /**
+     * 等待 since 之後的新事件，逾時回傳 false
+     */
+    public boolean awaitChangesAfter(long since, long timeoutMillis) throws InterruptedException {
+        return changeLogRepository.awaitAfter(since, timeoutMillis);
+    }
+    
+    public long getLastSequence() {
+        return changeLogRepository.getLastSequence();
+    }
+    
+    // 實體物件會被後續轉換修改，事件保存淺層複本
+    private static ChangeEvent orderEvent(Order order, String action, Instant timestamp) {
+        return ChangeEvent.builder()
+                .timestamp(timestamp)
+                .entityType(EntityType.ORDER)
+                .entityId(order.getOrderId())
+                .action(action)
+                .order(order.toBuilder().build())
+                .build();
+    }
+    
+    private static ChangeEvent driverEvent(Driver driver, String action, Instant timestamp) {
+        return ChangeEvent.builder()
+                .timestamp(timestamp)
+                .entityType(EntityType.DRIVER)
+                .entityId(driver.getDriverId())
+                .action(action)
+                .driver(driver.toBuilder().build())
+                .build();
+    }
+}
@@ -1,15 +1,24 @@
 package com.uber.service;
 
+import com.uber.cluster.DispatchCluster;
+import com.uber.dto.RegisterDriverRequest;
 import com.uber.exception.BusinessException;
+import com.uber.jfr.OfferQueryEvent;
+import com.uber.metrics.DispatchMetrics;
 import com.uber.model.*;
+import com.uber.offers.OfferLeases;
+import com.uber.offers.OfferRanking;
+import com.uber.repository.ChangeSet;
 import com.uber.repository.DriverRepository;
 import com.uber.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,6 +32,38 @@ public class DriverService {
     
     private final DriverRepository driverRepository;
     private final OrderRepository orderRepository;
+    private final ChangeFeedService changeFeedService;
+    
+    // 叢集模式下由 ClusterConfig 注入
+    private DispatchCluster dispatchCluster = DispatchCluster.STANDALONE;
+    
+    private DispatchMetrics metrics = DispatchMetrics.DISABLED;
+    
+    // 開啟訂單保留時由 OfferLeaseConfig 注入
+    private OfferLeases offerLeases = OfferLeases.DISABLED;
+    
+    // 由 OfferRankingConfig 注入；以 new 建立 (單元測試) 時只依距離排序
+    private OfferRanking offerRanking = OfferRanking.DISTANCE;
+    
+    @Autowired(required = false)
+    public void setDispatchCluster(DispatchCluster dispatchCluster) {
+        this.dispatchCluster = dispatchCluster;
+    }
+    
+    @Autowired(required = false)
+    public void setMetrics(DispatchMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    @Autowired(required = false)
+    public void setOfferLeases(OfferLeases offerLeases) {
+        this.offerLeases = offerLeases;
+    }
+    
+    @Autowired(required = false)
+    public void setOfferRanking(OfferRanking offerRanking) {
+        this.offerRanking = offerRanking;
+    }
     
     /**
      * 司機上線
@@ -40,7 +81,10 @@ public class DriverService {
         driver.setLastUpdatedAt(Instant.now());
         
         driverRepository.save(driver);
-        log.info("Driver {} is now online at ({}, {})", driverId, location.getX(), location.getY());
+        changeFeedService.driverChanged(driver, "ONLINE");
+        if (log.isDebugEnabled()) {
+            log.debug("Driver {} is now online at ({}, {})", driverId, location.getX(), location.getY());
+        }
         return driver;
     }
     
@@ -59,7 +103,8 @@ public class DriverService {
         driver.setLastUpdatedAt(Instant.now());
         
         driverRepository.save(driver);
-        log.info("Driver {} is now offline", driverId);
+        changeFeedService.driverChanged(driver, "OFFLINE");
+        log.debug("Driver {} is now offline", driverId);
         return driver;
     }
     
@@ -74,6 +119,7 @@ public class DriverService {
         driver.setLastUpdatedAt(Instant.now());
         
         driverRepository.save(driver);
+        changeFeedService.driverChanged(driver, "LOCATION");
         return driver;
     }
     
@@ -85,10 +131,33 @@ public class DriverService {
      * 2. 車種符合司機車種
      * 
      * 排序規則:
-     * 1. 距離最近優先
-     * 2. 距離相同則 orderId 較小者優先 (tie-break)
+     * 1. 距離最近優先 (設定 dispatch.offers.ranking.aging-per-second 時以等候時間加權，見 {@link OfferRanking})
+     * 2. 分數相同則 orderId 較小者優先 (tie-break)
+     * 
+     * 叢集模式下只取搜尋半徑內的訂單，並向鄰近格子的其他擁有者查詢後合併
+     * 
+     * 開啟訂單保留時只回傳依上述排序為此司機保留成功的訂單 (見 {@link OfferLeases})
      */
     public List<Order> getOffers(String driverId) {
+        return getOffers(driverId, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * 取得排序最前面的 limit 筆可接訂單 (本機待派訂單依序產生，不排序其餘訂單)
+     */
+    public List<Order> getOffers(String driverId, int limit) {
+        OfferQueryEvent event = new OfferQueryEvent();
+        event.begin();
+        long start = metrics.start();
+        try {
+            return findOffers(driverId, limit, event);
+        } finally {
+            metrics.offerQuery().recordSince(start);
+            event.commit();
+        }
+    }
+    
+    private List<Order> findOffers(String driverId, int limit, OfferQueryEvent event) {
         Driver driver = driverRepository.findById(driverId)
                 .orElseThrow(() -> new BusinessException("DRIVER_NOT_FOUND", "司機不存在"));
         
@@ -103,12 +172,31 @@ public class DriverService {
         Location driverLocation = driver.getLocation();
         VehicleType driverVehicleType = driver.getVehicleType();
         
-        return orderRepository.findByStatus(OrderStatus.PENDING).stream()
-                .filter(order -> order.getVehicleType() == driverVehicleType)
-                .sorted(Comparator
-                        .comparingDouble((Order o) -> driverLocation.distanceTo(o.getPickupLocation()))
-                        .thenComparing(Order::getOrderId))
-                .collect(Collectors.toList());
+        double radius = dispatchCluster.matchRadius();
+        long now = System.currentTimeMillis();
+        // 保留模式下排序較前的訂單可能已保留給其他司機，需要完整排序再依序保留
+        int rankLimit = offerLeases.isEnabled() ? Integer.MAX_VALUE : limit;
+        List<Order> offers = offerRanking.rank(orderRepository, driverLocation, driverVehicleType,
+                radius, now, rankLimit);
+        List<Order> remote = dispatchCluster.remotePendingOrders(driverLocation, driverVehicleType);
+        int scanned = offers.size() + remote.size();
+        if (!remote.isEmpty()) {
+            List<Order> matching = remote.stream()
+                    .filter(order -> order.getVehicleType() == driverVehicleType)
+                    .filter(order -> driverLocation.distanceTo(order.getPickupLocation()) <= radius)
+                    .collect(Collectors.toList());
+            offers = offerRanking.merge(offers, matching, driverLocation, radius, now, rankLimit);
+        }
+        metrics.offerScanned().record(scanned);
+        
+        offers = offerLeases.reserve(driverId, offers, limit);
+        if (event.isEnabled()) {
+            event.setDriverId(driverId);
+            event.setRadius(radius);
+            event.setScanned(scanned);
+            event.setOffered(offers.size());
+        }
+        return offers;
     }
     
     /**
@@ -126,12 +214,45 @@ public class DriverService {
         return driverRepository.findAll();
     }
     
+    /**
+     * 逐筆走訪所有司機 (管理後台分頁用，不建立完整列表)
+     */
+    public Iterator<Driver> scanDrivers() {
+        return driverRepository.scan();
+    }
+    
     /**
      * 註冊/更新司機資料
      */
     public Driver registerDriver(String driverId, String name, String phone, 
                                  String vehiclePlate, VehicleType vehicleType) {
-        Driver driver = Driver.builder()
+        Driver driver = buildDriver(driverId, name, phone, vehiclePlate, vehicleType);
+        
+        driverRepository.save(driver);
+        changeFeedService.driverChanged(driver, "REGISTER");
+        log.info("Driver registered: {}", driverId);
+        return driver;
+    }
+    
+    /**
+     * 批次註冊/更新司機資料 (bulk 匯入，一次寫入)
+     */
+    public List<Driver> registerDrivers(List<RegisterDriverRequest> requests) {
+        List<Driver> drivers = new ArrayList<>(requests.size());
+        for (RegisterDriverRequest request : requests) {
+            drivers.add(buildDriver(request.getDriverId(), request.getName(), request.getPhone(),
+                    request.getVehiclePlate(), request.getVehicleType()));
+        }
+        
+        driverRepository.saveAll(drivers);
+        changeFeedService.driversChanged(drivers, "REGISTER");
+        log.info("Bulk registered {} drivers", drivers.size());
+        return drivers;
+    }
+    
+    private Driver buildDriver(String driverId, String name, String phone,
+                               String vehiclePlate, VehicleType vehicleType) {
+        return Driver.builder()
                 .driverId(driverId)
                 .name(name)
                 .phone(phone)
@@ -141,9 +262,75 @@ public class DriverService {
                 .busy(false)
                 .lastUpdatedAt(Instant.now())
                 .build();
-        
-        driverRepository.save(driver);
-        log.info("Driver registered: {}", driverId);
-        return driver;
+    }
+    
+    /**
+     * 取得司機版本號 (供 ETag 使用)，不存在時為 0
+     */
+    public long getDriverVersion(String driverId) {
+        return driverRepository.getVersion(driverId);
+    }
+    
+    /**
+     * 取得司機集合修改計數 (供 ETag 使用)
+     */
+    public long getDriversModificationCount() {
+        return driverRepository.getModificationCount();
+    }
+    
+    /**
+     * 是否為叢集模式 (可接訂單另含其他節點的待派訂單，本機的版本號無法反映其變動)
+     */
+    public boolean isClustered() {
+        return dispatchCluster != DispatchCluster.STANDALONE;
+    }
+    
+    /**
+     * 是否開啟訂單保留 (可接訂單列表另隨保留狀態而變)
+     */
+    public boolean isOfferLeaseEnabled() {
+        return offerLeases.isEnabled();
+    }
+    
+    /**
+     * 取得訂單保留的取得 / 釋放次數 (供 ETag 使用)
+     */
+    public long getOfferLeaseChanges() {
+        return offerLeases.changes();
+    }
+    
+    /**
+     * 取得訂單保留的期間分段 (供 ETag 使用)
+     */
+    public long getOfferLeasePeriod() {
+        return offerLeases.period();
+    }
+    
+    /**
+     * 是否依等候時間加權排序 (可接訂單的順序另隨時間而變)
+     */
+    public boolean isOfferAgingEnabled() {
+        return offerRanking.agingPerSecond() > 0;
+    }
+    
+    /**
+     * 等候加權排序的時間分段 (秒，供 ETag 使用)：同一秒內的輪詢視為相同排序
+     */
+    public long getOfferRankingVersion() {
+        return System.currentTimeMillis() / 1000;
+    }
+    
+    /**
+     * 取得訂單集合修改計數 (可接訂單列表隨任何訂單異動而變)
+     */
+    public long getOrdersModificationCount() {
+        return orderRepository.getModificationCount();
+    }
+    
+    /**
+     * 取得版本號大於 since 的司機 (管理後台增量更新)
+     */
+    public ChangeSet<Driver> getDriverChanges(long since) {
+        return driverRepository.findChangedSince(since);
     }
 }
@@ -1,11 +1,16 @@
 package com.uber.service;
 
+import com.uber.model.FareQuote;
+import com.uber.model.Location;
 import com.uber.model.RatePlan;
 import com.uber.model.VehicleType;
+import com.uber.routing.DistanceProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
 import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -15,8 +20,34 @@ import java.util.Map;
 @Service
 public class FareService {
     
+    private static final VehicleType[] VEHICLE_TYPES = VehicleType.values();
+    
+    // 報價快取容量 (最近查詢的路線)
+    private static final int QUOTE_CACHE_SIZE = 1024;
+    
     private final Map<VehicleType, RatePlan> ratePlans = new EnumMap<>(VehicleType.class);
     
+    // 依 VehicleType.ordinal() 排列的費率係數，費率變更時整組替換
+    private volatile FareCoefficients coefficients;
+    
+    // 費率版本，係數替換時遞增 (僅於 synchronized (quoteCache) 時存取)
+    private long coefficientGeneration;
+    
+    // LRU 報價快取: 路線 -> 各車種預估車資
+    private final Map<RouteKey, FareQuote> quoteCache = new LinkedHashMap<>(QUOTE_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<RouteKey, FareQuote> eldest) {
+            return size() > QUOTE_CACHE_SIZE;
+        }
+    };
+    
+    private DistanceProvider distanceProvider = DistanceProvider.EUCLIDEAN;
+    
+    @Autowired(required = false)
+    public void setDistanceProvider(DistanceProvider distanceProvider) {
+        this.distanceProvider = distanceProvider;
+    }
+    
     @PostConstruct
     public void initRatePlans() {
         // 初始化預設費率
@@ -46,6 +77,8 @@ public class FareService {
                 .minFare(150.0)
                 .cancelFee(60.0)
                 .build());
+        
+        rebuildCoefficients();
     }
     
     /**
@@ -88,13 +121,110 @@ public class FareService {
     public RatePlan updateRatePlan(VehicleType vehicleType, RatePlan newPlan) {
         newPlan.setVehicleType(vehicleType);
         ratePlans.put(vehicleType, newPlan);
+        rebuildCoefficients();
         return newPlan;
     }
     
+    /**
+     * 費率版本 (每次費率變更遞增；熱備援據此判斷是否需要重送費率)
+     */
+    public long getRatePlanVersion() {
+        synchronized (quoteCache) {
+            return coefficientGeneration;
+        }
+    }
+    
     /**
      * 取得指定車種費率
      */
     public RatePlan getRatePlan(VehicleType vehicleType) {
         return ratePlans.get(vehicleType);
     }
+    
+    /**
+     * 計費距離：路網距離，上下車點在路網上無法互通時以直線距離計
+     */
+    public double routeDistance(Location pickup, Location dropoff) {
+        double distance = distanceProvider.distance(pickup, dropoff);
+        return distance != Double.POSITIVE_INFINITY ? distance : pickup.distanceTo(dropoff);
+    }
+    
+    /**
+     * 路線報價 (不建立訂單、不觸發派單)
+     * 
+     * 一次算出所有車種的預估車資，結果與 calculateEstimatedFare 一致；
+     * 最近查詢的路線以 LRU 快取保存，費率變更時清除；
+     * 計算期間費率已變更時不放入快取 (避免清除後又寫回以舊費率計算的報價)
+     */
+    public FareQuote quoteRoute(Location pickup, Location dropoff) {
+        RouteKey key = new RouteKey(pickup.getX(), pickup.getY(), dropoff.getX(), dropoff.getY());
+        long generation;
+        synchronized (quoteCache) {
+            FareQuote cached = quoteCache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            generation = coefficientGeneration;
+        }
+        
+        double distance = routeDistance(pickup, dropoff);
+        double[] fares = quoteAllVehicleTypes(distance);
+        
+        Map<VehicleType, Double> estimates = new EnumMap<>(VehicleType.class);
+        for (int i = 0; i < fares.length; i++) {
+            estimates.put(VEHICLE_TYPES[i], fares[i]);
+        }
+        FareQuote quote = new FareQuote(distance, estimates);
+        
+        synchronized (quoteCache) {
+            if (generation == coefficientGeneration) {
+                quoteCache.put(key, quote);
+            }
+        }
+        return quote;
+    }
+    
+    /**
+     * 以係數陣列一次計算所有車種的預估車資
+     * 
+     * @return 依 VehicleType.ordinal() 排列的預估車資
+     */
+    public double[] quoteAllVehicleTypes(double distance) {
+        FareCoefficients c = coefficients;
+        double[] baseFare = c.baseFare();
+        double[] perKmRate = c.perKmRate();
+        double[] minFare = c.minFare();
+        double[] fares = new double[baseFare.length];
+        for (int i = 0; i < fares.length; i++) {
+            fares[i] = Math.max(baseFare[i] + distance * perKmRate[i], minFare[i]);
+        }
+        return fares;
+    }
+    
+    /**
+     * 重建係數陣列並清除報價快取
+     */
+    private void rebuildCoefficients() {
+        int n = VEHICLE_TYPES.length;
+        double[] baseFare = new double[n];
+        double[] perKmRate = new double[n];
+        double[] minFare = new double[n];
+        for (RatePlan plan : ratePlans.values()) {
+            int i = plan.getVehicleType().ordinal();
+            baseFare[i] = plan.getBaseFare();
+            perKmRate[i] = plan.getPerKmRate();
+            minFare[i] = plan.getMinFare();
+        }
+        synchronized (quoteCache) {
+            coefficients = new FareCoefficients(baseFare, perKmRate, minFare);
+            coefficientGeneration++;
+            quoteCache.clear();
+        }
+    }
+    
+    private record FareCoefficients(double[] baseFare, double[] perKmRate, double[] minFare) {
+    }
+    
+    private record RouteKey(double pickupX, double pickupY, double dropoffX, double dropoffY) {
+    }
 }
@@ -1,15 +1,26 @@
 package com.uber.service;
 
+import com.uber.jfr.MatchingEvent;
+import com.uber.metrics.DispatchMetrics;
 import com.uber.model.*;
 import com.uber.repository.DriverRepository;
 import com.uber.repository.OrderRepository;
+import com.uber.routing.DistanceProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -22,8 +33,11 @@ import java.util.stream.Collectors;
  * 配對規則：
  * 1. 司機必須為 ONLINE 且非 Busy
  * 2. 車種必須匹配
- * 3. 距離最近優先
+ * 3. 距離最近優先 (距離由 DistanceProvider 計算，預設為直線距離)
  * 4. 距離相同時，ID 較小者優先 (tie-break)
+ * 
+ * 使用路網距離時，直線距離為其下界：先以直線距離篩選搜尋半徑內的候選，
+ * 再依直線距離由近到遠計算路網距離，直線距離已超過目前最佳路網距離時停止
  */
 @Service
 @RequiredArgsConstructor
@@ -36,6 +50,22 @@ public class MatchingService {
     // 預設搜尋半徑 (可由管理員配置)
     private double searchRadius = 10.0; // km
     
+    private DispatchMetrics metrics = DispatchMetrics.DISABLED;
+    private DistanceProvider distanceProvider = DistanceProvider.EUCLIDEAN;
+    
+    @Autowired(required = false)
+    public void setMetrics(DispatchMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    /**
+     * 司機到上車點的距離 (Spring 注入經快取的實作)
+     */
+    @Autowired(required = false)
+    public void setDistanceProvider(@Qualifier("cachedDistanceProvider") DistanceProvider distanceProvider) {
+        this.distanceProvider = distanceProvider;
+    }
+    
     /**
      * 為指定訂單找到最佳匹配司機
      * 
@@ -43,6 +73,18 @@ public class MatchingService {
      * @return 最佳匹配的司機，若無則返回 empty
      */
     public Optional<Driver> findBestDriver(Order order) {
+        MatchingEvent event = new MatchingEvent();
+        event.begin();
+        long start = metrics.start();
+        try {
+            return doFindBestDriver(order, event);
+        } finally {
+            metrics.matching().recordSince(start);
+            event.commit();
+        }
+    }
+    
+    private Optional<Driver> doFindBestDriver(Order order, MatchingEvent event) {
         if (order == null || order.getPickupLocation() == null) {
             return Optional.empty();
         }
@@ -50,7 +92,15 @@ public class MatchingService {
         Location pickupLocation = order.getPickupLocation();
         VehicleType requiredType = order.getVehicleType();
         
-        List<DriverCandidate> candidates = driverRepository.findAll().stream()
+        List<Driver> drivers = driverRepository.findAll();
+        metrics.matchingScanned().record(drivers.size());
+        if (event.isEnabled()) {
+            event.setOrderId(order.getOrderId());
+            event.setVehicleType(String.valueOf(requiredType));
+            event.setRadius(searchRadius);
+            event.setScanned(drivers.size());
+        }
+        List<DriverCandidate> candidates = drivers.stream()
                 // 篩選條件: ONLINE 且非 Busy
                 .filter(driver -> driver.getStatus() == DriverStatus.ONLINE)
                 .filter(driver -> !driver.isBusy())
@@ -58,32 +108,122 @@ public class MatchingService {
                 .filter(driver -> driver.getVehicleType() == requiredType)
                 // 檢查是否有位置資訊
                 .filter(driver -> driver.getLocation() != null)
-                // 計算距離並建立候選者
+                // 計算直線距離並建立候選者
                 .map(driver -> new DriverCandidate(
                         driver, 
                         driver.getLocation().distanceTo(pickupLocation)))
-                // 過濾搜尋半徑範圍內的司機
+                // 過濾搜尋半徑範圍內的司機 (直線距離為下界，超過者路網距離必定也超過)
                 .filter(candidate -> candidate.distance <= searchRadius)
                 .collect(Collectors.toList());
+        event.setCandidates(candidates.size());
         
-        if (candidates.isEmpty()) {
-            log.info("No matching driver found for order {} with vehicle type {}", 
+        // 排序: 距離優先，相同距離時 ID 較小者優先
+        candidates.sort(CANDIDATE_ORDER);
+        
+        DriverCandidate best = candidates.isEmpty() ? null
+                : distanceProvider.isEuclidean() ? candidates.get(0)
+                : nearestByRoad(candidates, pickupLocation);
+        if (best == null) {
+            log.debug("No matching driver found for order {} with vehicle type {}", 
                     order.getOrderId(), requiredType);
             return Optional.empty();
         }
         
-        // 排序: 距離優先，相同距離時 ID 較小者優先
-        candidates.sort(Comparator
-                .comparingDouble((DriverCandidate c) -> c.distance)
-                .thenComparing(c -> c.driver.getDriverId()));
-        
-        Driver bestDriver = candidates.get(0).driver;
-        log.info("Best driver found for order {}: {} (distance: {})", 
-                order.getOrderId(), bestDriver.getDriverId(), candidates.get(0).distance);
+        Driver bestDriver = best.driver;
+        event.setDriverId(bestDriver.getDriverId());
+        if (log.isDebugEnabled()) {
+            log.debug("Best driver found for order {}: {} (distance: {})", 
+                    order.getOrderId(), bestDriver.getDriverId(), best.distance);
+        }
         
         return Optional.of(bestDriver);
     }
     
+    /**
+     * 依直線距離由近到遠計算路網距離，回傳路網距離最近且在搜尋半徑內的候選 (無則 null)
+     * 
+     * @param candidates 已依直線距離排序的候選
+     */
+    private DriverCandidate nearestByRoad(List<DriverCandidate> candidates, Location pickupLocation) {
+        DriverCandidate best = null;
+        for (DriverCandidate candidate : candidates) {
+            // 其餘候選的路網距離不小於直線距離，已不可能更近
+            if (best != null && candidate.distance > best.distance) {
+                break;
+            }
+            double distance = distanceProvider.distance(candidate.driver.getLocation(), pickupLocation);
+            if (distance > searchRadius) {
+                continue;
+            }
+            DriverCandidate road = new DriverCandidate(candidate.driver, distance);
+            if (best == null || CANDIDATE_ORDER.compare(road, best) < 0) {
+                best = road;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * 批次配對：一次為多筆訂單各指派一位司機 (每位司機最多一筆)
+     * 
+     * 各車種以一次多對多距離查詢算出候選司機到所有上車點的距離，
+     * 再依距離由近到遠 (相同時 driverId、orderId 較小者優先) 逐一指派尚未指派的訂單與司機
+     * 
+     * @return orderId -> 司機，依指派順序；未配對到的訂單不列入
+     */
+    public Map<String, Driver> findBestDrivers(List<Order> orders) {
+        Map<VehicleType, List<Order>> ordersByType = new EnumMap<>(VehicleType.class);
+        for (Order order : orders) {
+            if (order != null && order.getPickupLocation() != null && order.getVehicleType() != null) {
+                ordersByType.computeIfAbsent(order.getVehicleType(), type -> new ArrayList<>()).add(order);
+            }
+        }
+        Map<VehicleType, List<Driver>> driversByType = new EnumMap<>(VehicleType.class);
+        for (Driver driver : getAvailableDrivers(null)) {
+            if (driver.getLocation() != null && ordersByType.containsKey(driver.getVehicleType())) {
+                driversByType.computeIfAbsent(driver.getVehicleType(), type -> new ArrayList<>()).add(driver);
+            }
+        }
+        
+        Map<String, Driver> assignments = new LinkedHashMap<>();
+        ordersByType.forEach((vehicleType, typeOrders) -> {
+            List<Driver> typeDrivers = driversByType.getOrDefault(vehicleType, List.of());
+            // 直線距離超過搜尋半徑的司機不列入矩陣
+            List<Driver> nearby = typeDrivers.stream()
+                    .filter(driver -> typeOrders.stream().anyMatch(order ->
+                            driver.getLocation().distanceTo(order.getPickupLocation()) <= searchRadius))
+                    .collect(Collectors.toList());
+            if (nearby.isEmpty()) {
+                return;
+            }
+            double[][] distances = distanceProvider.matrix(
+                    nearby.stream().map(Driver::getLocation).collect(Collectors.toList()),
+                    typeOrders.stream().map(Order::getPickupLocation).collect(Collectors.toList()));
+            
+            List<Pairing> pairings = new ArrayList<>();
+            for (int i = 0; i < nearby.size(); i++) {
+                for (int j = 0; j < typeOrders.size(); j++) {
+                    if (distances[i][j] <= searchRadius) {
+                        pairings.add(new Pairing(nearby.get(i), typeOrders.get(j), distances[i][j]));
+                    }
+                }
+            }
+            pairings.sort(Comparator
+                    .comparingDouble(Pairing::distance)
+                    .thenComparing(pairing -> pairing.driver().getDriverId())
+                    .thenComparing(pairing -> pairing.order().getOrderId()));
+            
+            Set<String> assignedDrivers = new HashSet<>();
+            for (Pairing pairing : pairings) {
+                if (!assignments.containsKey(pairing.order().getOrderId())
+                        && assignedDrivers.add(pairing.driver().getDriverId())) {
+                    assignments.put(pairing.order().getOrderId(), pairing.driver());
+                }
+            }
+        });
+        return assignments;
+    }
+    
     /**
      * 取得司機可接的訂單列表
      * 
@@ -106,19 +246,31 @@ public class MatchingService {
         Location driverLocation = driver.getLocation();
         VehicleType driverVehicleType = driver.getVehicleType();
         
-        return orderRepository.findByStatus(OrderStatus.PENDING).stream()
+        List<Order> nearby = orderRepository.findByStatus(OrderStatus.PENDING).stream()
                 // 過濾車種匹配的訂單
                 .filter(order -> order.getVehicleType() == driverVehicleType)
                 // 過濾有上車點的訂單
                 .filter(order -> order.getPickupLocation() != null)
+                // 過濾直線距離範圍內的訂單 (路網距離的下界)
+                .filter(order -> driverLocation.distanceTo(order.getPickupLocation()) <= searchRadius)
+                .collect(Collectors.toList());
+        
+        // 一次計算司機到所有上車點的距離
+        double[] distances = distanceProvider.matrix(List.of(driverLocation),
+                nearby.stream().map(Order::getPickupLocation).collect(Collectors.toList()))[0];
+        Map<String, Double> distanceById = new LinkedHashMap<>();
+        for (int i = 0; i < distances.length; i++) {
+            if (distances[i] <= searchRadius) {
+                distanceById.put(nearby.get(i).getOrderId(), distances[i]);
+            }
+        }
+        
+        return nearby.stream()
                 // 過濾距離範圍內的訂單
-                .filter(order -> {
-                    double distance = driverLocation.distanceTo(order.getPickupLocation());
-                    return distance <= searchRadius;
-                })
+                .filter(order -> distanceById.containsKey(order.getOrderId()))
                 // 按距離排序
                 .sorted(Comparator
-                        .comparingDouble((Order o) -> driverLocation.distanceTo(o.getPickupLocation()))
+                        .comparingDouble((Order o) -> distanceById.get(o.getOrderId()))
                         .thenComparing(Order::getOrderId))
                 .collect(Collectors.toList());
     }
@@ -165,7 +317,15 @@ public class MatchingService {
             order.getPickupLocation() == null || driver.getLocation() == null) {
             return Double.MAX_VALUE;
         }
-        return driver.getLocation().distanceTo(order.getPickupLocation());
+        return distanceProvider.distance(driver.getLocation(), order.getPickupLocation());
+    }
+    
+    // 距離優先，相同距離時 ID 較小者優先
+    private static final Comparator<DriverCandidate> CANDIDATE_ORDER = Comparator
+            .comparingDouble((DriverCandidate c) -> c.distance)
+            .thenComparing(c -> c.driver.getDriverId());
+    
+    private record Pairing(Driver driver, Order order, double distance) {
     }
     
     /**
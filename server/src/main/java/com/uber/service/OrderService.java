@@ -1,16 +1,39 @@
 package com.uber.service;
 
+import com.uber.cluster.ClaimOutcome;
+import com.uber.cluster.DispatchCluster;
+import com.uber.cluster.DriverClaim;
+import com.uber.cluster.GridCell;
+import com.uber.dto.CreateOrderRequest;
 import com.uber.exception.BusinessException;
+import com.uber.jfr.AcceptLockEvent;
+import com.uber.jfr.OrderTransitionEvent;
+import com.uber.logging.LogSampler;
+import com.uber.metrics.DispatchMetrics;
 import com.uber.model.*;
+import com.uber.offers.OfferLeases;
+import com.uber.repository.ChangeSet;
 import com.uber.repository.DriverRepository;
+import com.uber.repository.OrderFilter;
 import com.uber.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 /**
  * 訂單服務 - 核心業務邏輯
@@ -26,25 +49,149 @@ public class OrderService {
     private final DriverRepository driverRepository;
     private final AuditService auditService;
     private final FareService fareService;
+    private final ChangeFeedService changeFeedService;
+    
+    // 冪等重送的日誌取樣：每種轉移每秒最多記錄 10 筆
+    private static final LogSampler repeatLogSampler = new LogSampler(10);
     
     // 用於 accept 操作的鎖
     private final ReentrantLock acceptLock = new ReentrantLock();
     
+    // 遠端接單結束 (不論成敗) 時通知等待中的重送請求
+    private final Condition claimSettled = acceptLock.newCondition();
+    
+    // 以下狀態僅於持有 acceptLock 時存取
+    // 訂單端：正在進行兩階段接單的訂單 (orderId -> 司機與 fencing token)
+    private final Map<String, InFlightClaim> reservingOrders = new HashMap<>();
+    // 訂單端：fencing token 產生器 (以啟動時間起算，重啟後仍遞增)
+    private long lastClaimToken = System.currentTimeMillis() * 1000;
+    // 司機端：遠端訂單的司機保留 (driverId -> 租約)，commit 後保留至行程結束以辨識過期的 abort
+    private final Map<String, LeasedClaim> driverClaims = new HashMap<>();
+    // 司機端：已放棄的 (orderId -> token)，較舊 token 的延遲保留請求一律拒絕
+    private final Map<String, Fence> fences = new HashMap<>();
+    
+    // 叢集模式下由 ClusterConfig 注入；單機模式所有司機都在本機
+    private DispatchCluster dispatchCluster = DispatchCluster.STANDALONE;
+    
+    // 熱路徑指標；以 new 建立 (單元測試) 時不記錄
+    private DispatchMetrics metrics = DispatchMetrics.DISABLED;
+    
+    // 開啟訂單保留時由 OfferLeaseConfig 注入 (與 DriverService 共用)
+    private OfferLeases offerLeases = OfferLeases.DISABLED;
+    
+    @Autowired(required = false)
+    public void setDispatchCluster(DispatchCluster dispatchCluster) {
+        this.dispatchCluster = dispatchCluster;
+    }
+    
+    @Autowired(required = false)
+    public void setMetrics(DispatchMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    @Autowired(required = false)
+    public void setOfferLeases(OfferLeases offerLeases) {
+        this.offerLeases = offerLeases;
+    }
+    
+    /**
+     * 狀態轉移的計時與 JFR 事件
+     * 
+     * 未錄製時事件不會逃逸，JIT 後不配置也不查詢轉移前狀態
+     * 
+     * @param orderId 轉移前的訂單 (建立訂單時為 null)
+     */
+    private Order transition(String transition, String orderId, Supplier<Order> action) {
+        OrderTransitionEvent event = new OrderTransitionEvent();
+        boolean recording = event.isEnabled();
+        if (recording) {
+            event.setTransition(transition);
+            event.setOrderId(orderId);
+            if (orderId != null) {
+                orderRepository.findById(orderId).ifPresent(order -> event.setFromStatus(order.getStatus().name()));
+            }
+            event.begin();
+        }
+        long start = metrics.start();
+        try {
+            Order order = action.get();
+            if (recording) {
+                event.setOrderId(order.getOrderId());
+                event.setToStatus(order.getStatus().name());
+            }
+            return order;
+        } catch (BusinessException e) {
+            event.setFailure(e.getCode());
+            throw e;
+        } finally {
+            metrics.transition(transition).recordSince(start);
+            if (recording) {
+                event.commit();
+            }
+        }
+    }
+    
     /**
      * 建立叫車請求
      */
     public Order createOrder(String passengerId, Location pickup, 
                             Location dropoff, VehicleType vehicleType) {
+        return transition("create", null, () -> doCreateOrder(passengerId, pickup, dropoff, vehicleType));
+    }
+    
+    private Order doCreateOrder(String passengerId, Location pickup,
+                                Location dropoff, VehicleType vehicleType) {
+        checkNewOrder(pickup, dropoff).throwIfInvalid();
+        
+        Order order = buildPendingOrder(passengerId, pickup, dropoff, vehicleType);
+        orderRepository.save(order);
+        
+        auditService.logSuccess(order.getOrderId(), "CREATE", "PASSENGER", 
+                passengerId, null, "PENDING");
+        changeFeedService.orderChanged(order, "CREATE");
+        
+        log.debug("Order created: {}", order.getOrderId());
+        return order;
+    }
+    
+    /**
+     * 批次建立叫車請求 (bulk 匯入)
+     * 
+     * 呼叫端需先以 checkNewOrder 過濾無效請求；訂單與審計日誌各以一次批次寫入
+     */
+    public List<Order> createOrders(List<CreateOrderRequest> requests) {
+        List<Order> orders = new ArrayList<>(requests.size());
+        for (CreateOrderRequest request : requests) {
+            orders.add(buildPendingOrder(request.getPassengerId(), request.getPickupLocation(),
+                    request.getDropoffLocation(), request.getVehicleType()));
+        }
+        
+        orderRepository.saveAll(orders);
+        auditService.logOrdersCreated(orders);
+        changeFeedService.ordersChanged(orders, "CREATE");
+        
+        log.info("Bulk created {} orders", orders.size());
+        return orders;
+    }
+    
+    /**
+     * 檢查新訂單的業務規則 (不拋例外)
+     */
+    public ValidationResult checkNewOrder(Location pickup, Location dropoff) {
         // 驗證上下車點不可相同
         if (pickup.getX() == dropoff.getX() && pickup.getY() == dropoff.getY()) {
-            throw new BusinessException("INVALID_REQUEST", "上車地點與下車地點不可相同");
+            return ValidationResult.SAME_PICKUP_DROPOFF;
         }
-        
-        double distance = pickup.distanceTo(dropoff);
+        return ValidationResult.OK;
+    }
+    
+    private Order buildPendingOrder(String passengerId, Location pickup,
+                                    Location dropoff, VehicleType vehicleType) {
+        double distance = fareService.routeDistance(pickup, dropoff);
         double estimatedFare = fareService.calculateEstimatedFare(vehicleType, distance);
         
-        Order order = Order.builder()
-                .orderId(UUID.randomUUID().toString())
+        return Order.builder()
+                .orderId(dispatchCluster.newOrderId(pickup))
                 .passengerId(passengerId)
                 .status(OrderStatus.PENDING)
                 .vehicleType(vehicleType)
@@ -54,98 +201,455 @@ public class OrderService {
                 .distance(distance)
                 .createdAt(Instant.now())
                 .build();
-        
-        orderRepository.save(order);
-        
-        auditService.logSuccess(order.getOrderId(), "CREATE", "PASSENGER", 
-                passengerId, null, "PENDING");
-        
-        log.info("Order created: {}", order.getOrderId());
-        return order;
     }
     
     /**
      * 接受訂單 (H2: 併發安全)
      * 
      * 使用 ReentrantLock 確保同一時間只有一位司機能成功接單
+     * 
+     * 開啟訂單保留時，保留給其他司機的訂單在取鎖前即以 OFFER_LEASED 拒絕
      */
     public Order acceptOrder(String orderId, String driverId) {
+        return transition("accept", orderId, () -> doAcceptOrder(orderId, driverId));
+    }
+    
+    private Order doAcceptOrder(String orderId, String driverId) {
+        ValidationResult leaseResult = offerLeases.check(orderId, driverId);
+        if (!leaseResult.isValid()) {
+            metrics.acceptConflicts().increment(leaseResult.getCode());
+            auditService.logFailure(orderId, "ACCEPT", "DRIVER", 
+                    driverId, "PENDING", leaseResult.getCode());
+            throw leaseResult.toException();
+        }
+        if (dispatchCluster.isRemoteDriver(driverId)) {
+            return acceptWithRemoteDriver(orderId, driverId);
+        }
+        
+        AcceptLockEvent lockEvent = new AcceptLockEvent();
+        boolean timed = metrics.isEnabled() || lockEvent.isEnabled();
+        long waitStart = timed ? System.nanoTime() : 0;
+        Order order;
+        boolean repeated;
         acceptLock.lock();
+        long holdStart = timed ? System.nanoTime() : 0;
+        lockEvent.begin();
+        metrics.acceptLockWait().record(holdStart - waitStart);
         try {
-            Order order = orderRepository.findById(orderId)
-                    .orElseThrow(() -> new BusinessException("ORDER_NOT_FOUND", "訂單不存在"));
-            
-            // H4: 冪等性 - 若同一司機已接此單，直接回傳成功
-            if (order.getStatus() == OrderStatus.ACCEPTED && 
-                driverId.equals(order.getDriverId())) {
-                log.info("Idempotent accept - order already accepted by same driver");
-                return order;
-            }
-            
-            // 檢查狀態是否為 PENDING
-            if (order.getStatus() != OrderStatus.PENDING) {
-                String reason = order.getStatus() == OrderStatus.ACCEPTED 
-                        ? "ORDER_ALREADY_ACCEPTED" : "INVALID_STATE";
-                String message = order.getStatus() == OrderStatus.ACCEPTED 
-                        ? "此訂單已被其他司機接受" : "訂單狀態不允許接單操作";
+            order = findAcceptableOrder(orderId, driverId);
+            repeated = order.getStatus() == OrderStatus.ACCEPTED;
+            if (!repeated) {
+                // 檢查司機狀態
+                Driver driver = driverRepository.findById(driverId)
+                        .orElseThrow(ValidationResult.DRIVER_NOT_FOUND::toException);
                 
-                auditService.logFailure(orderId, "ACCEPT", "DRIVER", 
-                        driverId, order.getStatus().name(), reason);
-                
-                if (order.getStatus() == OrderStatus.ACCEPTED) {
-                    throw new BusinessException(reason, message, 409);
-                } else {
-                    throw new BusinessException(reason, message);
+                ValidationResult driverResult = ValidationService.checkDriverCanAccept(driver, false);
+                if (!driverResult.isValid()) {
+                    metrics.acceptConflicts().increment(driverResult.getCode());
+                    auditService.logFailure(orderId, "ACCEPT", "DRIVER", 
+                            driverId, "PENDING", driverResult.getCode());
+                    throw driverResult.toException();
                 }
+                
+                // 執行接單並更新司機狀態
+                markAccepted(order, driverId);
+                assignDriver(driver, orderId);
             }
-            
-            // 檢查司機狀態
-            Driver driver = driverRepository.findById(driverId)
-                    .orElseThrow(() -> new BusinessException("DRIVER_NOT_FOUND", "司機不存在"));
-            
-            if (driver.getStatus() != DriverStatus.ONLINE) {
+        } finally {
+            acceptLock.unlock();
+            metrics.acceptLockHold().recordSince(holdStart);
+            if (lockEvent.shouldCommit()) {
+                lockEvent.setOrderId(orderId);
+                lockEvent.setDriverId(driverId);
+                lockEvent.setWaitTime(holdStart - waitStart);
+                lockEvent.commit();
+            }
+        }
+        logAccepted(order, repeated);
+        return order;
+    }
+    
+    /**
+     * 司機在其他節點時的接單：兩階段保留 (fenced claim)
+     * 
+     * 1. 本機標記訂單保留中並發出遞增的 fencing token
+     * 2. 於司機所屬節點以租約保留司機 (reserve)
+     * 3. 確認保留 (commit) 後才將訂單設為 ACCEPTED；任一步失敗則放棄 (abort)
+     * 
+     * RPC 期間不持有 acceptLock (兩節點互相保留對方司機時持鎖會互等至逾時)，
+     * 保留中的訂單對其他司機視為已被接走。abort 未送達時，司機所屬節點於租約逾期後
+     * 以 resolveClaim 向本節點查詢裁決，不會讓司機永久卡在保留狀態。
+     */
+    private Order acceptWithRemoteDriver(String orderId, String driverId) {
+        long token = 0;
+        Order repeated = null;
+        acceptLock.lock();
+        try {
+            Order order = findAcceptableOrder(orderId, driverId);
+            if (order.getStatus() == OrderStatus.ACCEPTED) {
+                repeated = order;
+            } else {
+                token = ++lastClaimToken;
+                reservingOrders.put(orderId, new InFlightClaim(driverId, token));
+            }
+        } finally {
+            acceptLock.unlock();
+        }
+        if (repeated != null) {
+            logAccepted(repeated, true);
+            return repeated;
+        }
+        
+        // RPC 例外視為節點不可用：仍須回到下方清除保留中標記並 abort，否則同單的重送會一直等待
+        ValidationResult result;
+        try {
+            result = dispatchCluster.reserveDriver(driverId, orderId, token);
+            if (result.isValid()) {
+                result = dispatchCluster.commitDriver(driverId, orderId, token);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Remote claim of driver {} for order {} failed: {}", driverId, orderId, e.toString());
+            result = ValidationResult.NODE_UNAVAILABLE;
+        }
+        
+        acceptLock.lock();
+        boolean abort = !result.isValid();
+        Order accepted;
+        try {
+            reservingOrders.remove(orderId);
+            claimSettled.signalAll();
+            if (!result.isValid()) {
+                metrics.acceptConflicts().increment(result.getCode());
                 auditService.logFailure(orderId, "ACCEPT", "DRIVER", 
-                        driverId, "PENDING", "DRIVER_OFFLINE");
-                throw new BusinessException("DRIVER_OFFLINE", "司機不在線");
+                        driverId, "PENDING", result.getCode());
+                throw result.toException();
             }
             
-            if (driver.isBusy()) {
+            // 保留期間訂單可能已被乘客取消：歸還司機
+            Order order = orderRepository.findById(orderId)
+                    .orElseThrow(ValidationResult.ORDER_NOT_FOUND::toException);
+            if (order.getStatus() != OrderStatus.PENDING) {
+                abort = true;
                 auditService.logFailure(orderId, "ACCEPT", "DRIVER", 
-                        driverId, "PENDING", "DRIVER_BUSY");
-                throw new BusinessException("DRIVER_BUSY", "司機正在忙碌");
+                        driverId, order.getStatus().name(), ValidationResult.ORDER_NOT_ACCEPTABLE.getCode());
+                throw ValidationResult.ORDER_NOT_ACCEPTABLE.toException();
             }
-            
-            // 執行接單
-            order.setStatus(OrderStatus.ACCEPTED);
-            order.setDriverId(driverId);
-            order.setAcceptedAt(Instant.now());
-            orderRepository.save(order);
-            
-            // 更新司機狀態
-            driver.setBusy(true);
-            driver.setCurrentOrderId(orderId);
-            driverRepository.save(driver);
-            
-            auditService.logSuccess(orderId, "ACCEPT", "DRIVER", 
-                    driverId, "PENDING", "ACCEPTED");
-            
-            log.info("Order {} accepted by driver {}", orderId, driverId);
+            accepted = markAccepted(order, driverId);
+        } finally {
+            acceptLock.unlock();
+            if (abort && result != ValidationResult.DRIVER_BUSY && result != ValidationResult.DRIVER_OFFLINE
+                    && result != ValidationResult.DRIVER_NOT_FOUND) {
+                // 司機可能已被保留 (或已 commit)：以 token 放棄，不影響較新的接單
+                dispatchCluster.abortDriver(driverId, orderId, token);
+            }
+        }
+        logAccepted(accepted, false);
+        return accepted;
+    }
+    
+    /**
+     * 取得可接的訂單 (呼叫端持有 acceptLock)
+     * 
+     * @return PENDING 訂單，或同一司機已接的 ACCEPTED 訂單 (H4: 冪等)
+     */
+    private Order findAcceptableOrder(String orderId, String driverId) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(ValidationResult.ORDER_NOT_FOUND::toException);
+        
+        // H4: 冪等性 - 若同一司機已接此單，直接回傳成功
+        if (order.getStatus() == OrderStatus.ACCEPTED && 
+            driverId.equals(order.getDriverId())) {
+            metrics.idempotentRepeats().increment("accept");
             return order;
+        }
+        
+        // 同一司機的重送請求等待進行中的接單結束後再判斷 (H4)
+        InFlightClaim inFlight = reservingOrders.get(orderId);
+        if (inFlight != null && inFlight.driverId().equals(driverId)) {
+            awaitClaimSettled(orderId);
+            return findAcceptableOrder(orderId, driverId);
+        }
+        
+        // 檢查狀態是否為 PENDING (搶單失敗為常態，使用預先建立的結果與例外)；保留中的訂單視為已被接走
+        if (order.getStatus() != OrderStatus.PENDING || inFlight != null) {
+            ValidationResult result = order.getStatus() == OrderStatus.ACCEPTED || inFlight != null
+                    ? ValidationResult.ORDER_ALREADY_ACCEPTED : ValidationResult.ORDER_NOT_ACCEPTABLE;
+            
+            metrics.acceptConflicts().increment(result.getCode());
+            auditService.logFailure(orderId, "ACCEPT", "DRIVER", 
+                    driverId, order.getStatus().name(), result.getCode());
+            throw result.toException();
+        }
+        return order;
+    }
+    
+    /**
+     * 等待進行中的遠端接單結束 (呼叫端持有 acceptLock)，最長一個租約
+     */
+    private void awaitClaimSettled(String orderId) {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(dispatchCluster.claimLeaseMillis());
+        try {
+            while (reservingOrders.containsKey(orderId) && remaining > 0) {
+                remaining = claimSettled.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (reservingOrders.containsKey(orderId)) {
+            throw ValidationResult.NODE_UNAVAILABLE.toException();
+        }
+    }
+    
+    /**
+     * 執行接單 (呼叫端持有 acceptLock 且已確認訂單為 PENDING、司機可接單)
+     */
+    private Order markAccepted(Order order, String driverId) {
+        order.setStatus(OrderStatus.ACCEPTED);
+        order.setDriverId(driverId);
+        order.setAcceptedAt(Instant.now());
+        orderRepository.save(order);
+        if (order.getCreatedAt() != null) {
+            metrics.acceptWait().record(Duration.between(order.getCreatedAt(), order.getAcceptedAt()).toNanos());
+        }
+        offerLeases.accepted(order.getOrderId(), driverId);
+        
+        auditService.logSuccess(order.getOrderId(), "ACCEPT", "DRIVER", 
+                driverId, "PENDING", "ACCEPTED");
+        changeFeedService.orderChanged(order, "ACCEPT");
+        return order;
+    }
+    
+    /**
+     * 接單結果的診斷日誌 (釋放 acceptLock 後呼叫；審計紀錄已於鎖內寫入儲存庫)
+     */
+    private void logAccepted(Order order, boolean repeated) {
+        if (repeated) {
+            logRepeat("accept", order.getOrderId());
+        } else {
+            log.debug("Order {} accepted by driver {}", order.getOrderId(), order.getDriverId());
+        }
+    }
+    
+    /**
+     * H4 冪等重送的取樣日誌 (高頻的重試風暴不會淹沒日誌；筆數見 dispatch_idempotent_repeats_total)
+     */
+    private void logRepeat(String transition, String orderId) {
+        long suppressed = repeatLogSampler.tryAcquire(transition);
+        if (suppressed != LogSampler.SUPPRESSED) {
+            log.info("Idempotent {} for order {} ({} similar suppressed)", transition, orderId, suppressed);
+        }
+    }
+    
+    private void assignDriver(Driver driver, String orderId) {
+        driver.setBusy(true);
+        driver.setCurrentOrderId(orderId);
+        driverRepository.save(driver);
+        changeFeedService.driverChanged(driver, "ASSIGN");
+    }
+    
+    /**
+     * 以租約保留本機司機 (叢集模式下由訂單所屬節點呼叫，兩階段接單的第一階段)
+     * 
+     * 與本機接單共用 acceptLock，同一司機不會同時被兩筆訂單指派。
+     * 同一訂單以相同或較新的 token 重送時冪等並延長租約；已放棄或較舊的 token 回應 CLAIM_FENCED。
+     */
+    public void reserveDriver(String driverId, String orderId, long token, long leaseMillis) {
+        acceptLock.lock();
+        try {
+            Driver driver = driverRepository.findById(driverId)
+                    .orElseThrow(ValidationResult.DRIVER_NOT_FOUND::toException);
+            Fence fence = fences.get(orderId);
+            if (fence != null && token <= fence.token()) {
+                throw ValidationResult.CLAIM_FENCED.toException();
+            }
             
+            long expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseMillis);
+            LeasedClaim existing = driverClaims.get(driverId);
+            if (existing != null && existing.claim.orderId().equals(orderId)) {
+                if (existing.committed) {
+                    // 已 commit，重送的保留直接成功
+                    return;
+                }
+                if (token < existing.claim.token()) {
+                    throw ValidationResult.CLAIM_FENCED.toException();
+                }
+                driverClaims.put(driverId, new LeasedClaim(new DriverClaim(driverId, orderId, token), expiresAt));
+                return;
+            }
+            ValidationService.checkDriverCanAccept(driver, false).throwIfInvalid();
+            assignDriver(driver, orderId);
+            driverClaims.put(driverId, new LeasedClaim(new DriverClaim(driverId, orderId, token), expiresAt));
+        } finally {
+            acceptLock.unlock();
+        }
+    }
+    
+    /**
+     * 將司機保留轉為正式指派 (兩階段接單的第二階段；重送冪等)
+     */
+    public void commitDriver(String driverId, String orderId, long token) {
+        acceptLock.lock();
+        try {
+            LeasedClaim existing = driverClaims.get(driverId);
+            if (existing == null || !existing.claim.orderId().equals(orderId) || existing.claim.token() != token) {
+                throw ValidationResult.CLAIM_FENCED.toException();
+            }
+            existing.committed = true;
         } finally {
             acceptLock.unlock();
         }
     }
     
+    /**
+     * 放棄司機保留：token 不小於目前保留時釋放司機，並封鎖此 token 之前的延遲保留請求
+     * 
+     * 已 commit 的指派也會以此釋放 (訂單端在 commit 後發現訂單已取消)；較舊 token 的延遲 abort 不影響較新的保留
+     */
+    public void abortDriver(String driverId, String orderId, long token, long leaseMillis) {
+        acceptLock.lock();
+        try {
+            fenceOrder(orderId, token, leaseMillis);
+            LeasedClaim existing = driverClaims.get(driverId);
+            if (existing != null && existing.claim.orderId().equals(orderId) && existing.claim.token() <= token) {
+                driverClaims.remove(driverId);
+                releaseLocalDriver(driverId, orderId);
+            }
+        } finally {
+            acceptLock.unlock();
+        }
+    }
+    
+    /**
+     * 裁決司機所屬節點送來的逾期保留 (本節點為訂單所屬節點)
+     */
+    public ClaimOutcome resolveClaim(String orderId, String driverId, long token) {
+        acceptLock.lock();
+        try {
+            InFlightClaim inFlight = reservingOrders.get(orderId);
+            if (inFlight != null && inFlight.driverId().equals(driverId) && inFlight.token() == token) {
+                return ClaimOutcome.IN_FLIGHT;
+            }
+            return orderRepository.findById(orderId)
+                    .filter(order -> driverId.equals(order.getDriverId()))
+                    .filter(order -> order.getStatus() == OrderStatus.ACCEPTED
+                            || order.getStatus() == OrderStatus.ONGOING)
+                    .map(order -> ClaimOutcome.COMMITTED)
+                    .orElse(ClaimOutcome.ABORTED);
+        } finally {
+            acceptLock.unlock();
+        }
+    }
+    
+    /**
+     * 取得租約已逾期、待向訂單所屬節點查詢裁決的司機保留，並清除過期的 fence
+     */
+    public List<DriverClaim> getExpiredDriverClaims() {
+        acceptLock.lock();
+        try {
+            long now = System.nanoTime();
+            fences.values().removeIf(fence -> now - fence.expiresAt() > 0);
+            List<DriverClaim> expired = new ArrayList<>();
+            for (LeasedClaim leased : driverClaims.values()) {
+                if (!leased.committed && now - leased.expiresAt > 0) {
+                    expired.add(leased.claim);
+                }
+            }
+            return expired;
+        } finally {
+            acceptLock.unlock();
+        }
+    }
+    
+    /**
+     * 套用逾期保留的裁決 (保留已被更新或移除時忽略)
+     * 
+     * @param orphanTimeoutMillis 訂單所屬節點無法連線時，逾期後最多維持保留的時間
+     */
+    public void settleDriverClaim(DriverClaim claim, ClaimOutcome outcome, long leaseMillis, long orphanTimeoutMillis) {
+        acceptLock.lock();
+        try {
+            LeasedClaim existing = driverClaims.get(claim.driverId());
+            if (existing == null || existing.committed || !existing.claim.equals(claim)) {
+                return;
+            }
+            long now = System.nanoTime();
+            switch (outcome) {
+                case COMMITTED -> existing.committed = true;
+                case IN_FLIGHT -> existing.expiresAt = now + TimeUnit.MILLISECONDS.toNanos(leaseMillis);
+                case ABORTED -> {
+                    driverClaims.remove(claim.driverId());
+                    fenceOrder(claim.orderId(), claim.token(), leaseMillis);
+                    releaseLocalDriver(claim.driverId(), claim.orderId());
+                }
+                case UNKNOWN -> {
+                    if (now - existing.expiresAt > TimeUnit.MILLISECONDS.toNanos(orphanTimeoutMillis)) {
+                        log.warn("Releasing orphaned claim {}/{} for driver {}", claim.orderId(), claim.token(), claim.driverId());
+                        driverClaims.remove(claim.driverId());
+                        fenceOrder(claim.orderId(), claim.token(), orphanTimeoutMillis);
+                        releaseLocalDriver(claim.driverId(), claim.orderId());
+                    }
+                }
+            }
+        } finally {
+            acceptLock.unlock();
+        }
+    }
+    
+    private void fenceOrder(String orderId, long token, long ttlMillis) {
+        Fence existing = fences.get(orderId);
+        long expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(ttlMillis, 1000));
+        if (existing == null || existing.token() < token) {
+            fences.put(orderId, new Fence(token, expiresAt));
+        }
+    }
+    
+    /**
+     * 釋放司機 (僅當司機目前的訂單為 orderId)
+     */
+    public void releaseDriver(String driverId, String orderId) {
+        if (dispatchCluster.isRemoteDriver(driverId)) {
+            dispatchCluster.releaseDriver(driverId, orderId);
+            return;
+        }
+        acceptLock.lock();
+        try {
+            LeasedClaim existing = driverClaims.get(driverId);
+            if (existing != null && existing.claim.orderId().equals(orderId)) {
+                driverClaims.remove(driverId);
+            }
+            releaseLocalDriver(driverId, orderId);
+        } finally {
+            acceptLock.unlock();
+        }
+    }
+    
+    private void releaseLocalDriver(String driverId, String orderId) {
+        driverRepository.findById(driverId).ifPresent(driver -> {
+            if (driver.getCurrentOrderId() != null && !orderId.equals(driver.getCurrentOrderId())) {
+                return;
+            }
+            driver.setBusy(false);
+            driver.setCurrentOrderId(null);
+            driverRepository.save(driver);
+            changeFeedService.driverChanged(driver, "RELEASE");
+        });
+    }
+    
     /**
      * 開始行程
      */
     public Order startTrip(String orderId, String driverId) {
+        return transition("start", orderId, () -> doStartTrip(orderId, driverId));
+    }
+    
+    private Order doStartTrip(String orderId, String driverId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new BusinessException("ORDER_NOT_FOUND", "訂單不存在"));
         
         // H4: 冪等性
         if (order.getStatus() == OrderStatus.ONGOING) {
+            metrics.idempotentRepeats().increment("start");
+            logRepeat("start", orderId);
             return order;
         }
         
@@ -163,8 +667,9 @@ public class OrderService {
         
         auditService.logSuccess(orderId, "START", "DRIVER", 
                 driverId, "ACCEPTED", "ONGOING");
+        changeFeedService.orderChanged(order, "START");
         
-        log.info("Trip started for order {}", orderId);
+        log.debug("Trip started for order {}", orderId);
         return order;
     }
     
@@ -172,11 +677,17 @@ public class OrderService {
      * 完成行程
      */
     public Order completeTrip(String orderId, String driverId) {
+        return transition("complete", orderId, () -> doCompleteTrip(orderId, driverId));
+    }
+    
+    private Order doCompleteTrip(String orderId, String driverId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new BusinessException("ORDER_NOT_FOUND", "訂單不存在"));
         
         // H4: 冪等性
         if (order.getStatus() == OrderStatus.COMPLETED) {
+            metrics.idempotentRepeats().increment("complete");
+            logRepeat("complete", orderId);
             return order;
         }
         
@@ -205,17 +716,17 @@ public class OrderService {
         order.setActualFare(fare);
         orderRepository.save(order);
         
+        changeFeedService.orderChanged(order, "COMPLETE");
+        
         // 釋放司機
-        driverRepository.findById(driverId).ifPresent(driver -> {
-            driver.setBusy(false);
-            driver.setCurrentOrderId(null);
-            driverRepository.save(driver);
-        });
+        releaseDriver(driverId, orderId);
         
         auditService.logSuccess(orderId, "COMPLETE", "DRIVER", 
                 driverId, "ONGOING", "COMPLETED");
         
-        log.info("Trip completed for order {}, fare: {}", orderId, fare);
+        if (log.isDebugEnabled()) {
+            log.debug("Trip completed for order {}, fare: {}", orderId, fare);
+        }
         return order;
     }
     
@@ -223,11 +734,17 @@ public class OrderService {
      * 取消訂單
      */
     public Order cancelOrder(String orderId, String cancelledBy) {
+        return transition("cancel", orderId, () -> doCancelOrder(orderId, cancelledBy));
+    }
+    
+    private Order doCancelOrder(String orderId, String cancelledBy) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new BusinessException("ORDER_NOT_FOUND", "訂單不存在"));
         
         // H4: 冪等性
         if (order.getStatus() == OrderStatus.CANCELLED) {
+            metrics.idempotentRepeats().increment("cancel");
+            logRepeat("cancel", orderId);
             return order;
         }
         
@@ -250,11 +767,7 @@ public class OrderService {
             
             // 釋放司機
             if (order.getDriverId() != null) {
-                driverRepository.findById(order.getDriverId()).ifPresent(driver -> {
-                    driver.setBusy(false);
-                    driver.setCurrentOrderId(null);
-                    driverRepository.save(driver);
-                });
+                releaseDriver(order.getDriverId(), orderId);
             }
         }
         
@@ -263,11 +776,13 @@ public class OrderService {
         order.setCancelledBy(cancelledBy);
         order.setCancelFee(cancelFee);
         orderRepository.save(order);
+        offerLeases.release(orderId);
         
         auditService.logSuccess(orderId, "CANCEL", "PASSENGER", 
                 cancelledBy, previousState, "CANCELLED");
+        changeFeedService.orderChanged(order, "CANCEL");
         
-        log.info("Order {} cancelled", orderId);
+        log.debug("Order {} cancelled", orderId);
         return order;
     }
     
@@ -279,17 +794,102 @@ public class OrderService {
                 .orElseThrow(() -> new BusinessException("ORDER_NOT_FOUND", "訂單不存在"));
     }
     
+    /**
+     * 批次查詢訂單 (依輸入順序回傳，不存在的 ID 略過)
+     */
+    public List<Order> getOrders(Collection<String> orderIds) {
+        List<Order> orders = new ArrayList<>(orderIds.size());
+        for (String orderId : orderIds) {
+            orderRepository.findById(orderId).ifPresent(orders::add);
+        }
+        return orders;
+    }
+    
+    /**
+     * 乘客的歷史訂單 (含冷儲存)，依建立時間由新到舊，最多 limit 筆
+     */
+    public List<Order> getPassengerHistory(String passengerId, int limit) {
+        return newestFirst(orderRepository.findByPassengerId(passengerId), limit);
+    }
+    
+    /**
+     * 司機的歷史訂單 (含冷儲存)，依建立時間由新到舊，最多 limit 筆
+     */
+    public List<Order> getDriverHistory(String driverId, int limit) {
+        return newestFirst(orderRepository.findByDriverId(driverId), limit);
+    }
+    
+    private static List<Order> newestFirst(List<Order> orders, int limit) {
+        return orders.stream()
+                .sorted(Comparator.comparing(Order::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparing(Order::getOrderId))
+                .limit(limit)
+                .toList();
+    }
+    
     /**
      * 取得所有待派單訂單
      */
-    public java.util.List<Order> getPendingOrders() {
+    public List<Order> getPendingOrders() {
         return orderRepository.findByStatus(OrderStatus.PENDING);
     }
     
+    /**
+     * 取得上車地點在指定格子內的待派訂單 (叢集節點間查詢)
+     */
+    public List<Order> getPendingOrders(VehicleType vehicleType, Collection<GridCell> cells, double cellSize) {
+        return orderRepository.findPendingInCells(vehicleType, cells, cellSize);
+    }
+    
     /**
      * 取得所有訂單
      */
-    public java.util.List<Order> getAllOrders() {
+    public List<Order> getAllOrders() {
         return orderRepository.findAll();
     }
+    
+    /**
+     * 逐筆走訪符合條件的訂單 (匯出與管理後台分頁用，含冷儲存；不建立完整列表)
+     */
+    public Iterator<Order> exportOrders(OrderFilter filter) {
+        return orderRepository.scan(filter);
+    }
+    
+    /**
+     * 取得訂單版本號 (供 ETag 使用)，不存在時為 0
+     */
+    public long getOrderVersion(String orderId) {
+        return orderRepository.getVersion(orderId);
+    }
+    
+    /**
+     * 取得訂單集合修改計數 (供 ETag 使用)
+     */
+    public long getOrdersModificationCount() {
+        return orderRepository.getModificationCount();
+    }
+    
+    /**
+     * 取得版本號大於 since 的訂單 (管理後台增量更新)
+     */
+    public ChangeSet<Order> getOrderChanges(long since) {
+        return orderRepository.findChangedSince(since);
+    }
+    
+    private record InFlightClaim(String driverId, long token) {
+    }
+    
+    private record Fence(long token, long expiresAt) {
+    }
+    
+    private static final class LeasedClaim {
+        private final DriverClaim claim;
+        private long expiresAt;
+        private boolean committed;
+        
+        private LeasedClaim(DriverClaim claim, long expiresAt) {
+            this.claim = claim;
+            this.expiresAt = expiresAt;
+        }
+    }
 }
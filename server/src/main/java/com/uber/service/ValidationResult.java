@@ -0,0 +1,97 @@
+package com.uber.service;
+
+import com.uber.exception.StacklessBusinessException;
+import lombok.Getter;
+
+/**
+ * 驗證結果
+ * 
+ * 所有結果皆為預先建立的常數，熱路徑 (如搶單) 判斷時不配置任何物件；
+ * 需要中止請求時以 throwIfInvalid() 拋出預先建立的 StacklessBusinessException。
+ */
+@Getter
+public final class ValidationResult {
+    
+    public static final ValidationResult OK = new ValidationResult(null, null, 200);
+    
+    public static final ValidationResult SAME_PICKUP_DROPOFF =
+            new ValidationResult("INVALID_REQUEST", "上車地點與下車地點不可相同", 400);
+    
+    public static final ValidationResult ORDER_NOT_FOUND =
+            new ValidationResult("ORDER_NOT_FOUND", "訂單不存在", 400);
+    public static final ValidationResult ORDER_ALREADY_ACCEPTED =
+            new ValidationResult("ORDER_ALREADY_ACCEPTED", "此訂單已被其他司機接受", 409);
+    public static final ValidationResult ORDER_NOT_ACCEPTABLE =
+            new ValidationResult("INVALID_STATE", "訂單狀態不允許接單操作", 400);
+    public static final ValidationResult OFFER_LEASED =
+            new ValidationResult("OFFER_LEASED", "此訂單目前保留給其他司機", 409);
+    public static final ValidationResult ORDER_EXPIRED =
+            new ValidationResult("ORDER_EXPIRED", "訂單已過期", 400);
+    
+    public static final ValidationResult DRIVER_NOT_FOUND =
+            new ValidationResult("DRIVER_NOT_FOUND", "司機不存在", 400);
+    public static final ValidationResult DRIVER_OFFLINE =
+            new ValidationResult("DRIVER_OFFLINE", "司機不在線", 400);
+    public static final ValidationResult DRIVER_BUSY =
+            new ValidationResult("DRIVER_BUSY", "司機正在忙碌", 400);
+    public static final ValidationResult DRIVER_LOCATION_MISSING =
+            new ValidationResult("INVALID_STATE", "司機位置未設定", 400);
+    
+    public static final ValidationResult CLAIM_FENCED =
+            new ValidationResult("CLAIM_FENCED", "接單保留已失效", 409);
+    public static final ValidationResult NODE_UNAVAILABLE =
+            new ValidationResult("NODE_UNAVAILABLE", "叢集節點暫時無法連線", 503);
+    
+    private final String code;
+    private final String message;
+    private final int httpStatus;
+    
+    @Getter(lombok.AccessLevel.NONE)
+    private final StacklessBusinessException exception;
+    
+    private ValidationResult(String code, String message, int httpStatus) {
+        this.code = code;
+        this.message = message;
+        this.httpStatus = httpStatus;
+        this.exception = code != null ? new StacklessBusinessException(code, message, httpStatus) : null;
+    }
+    
+    /**
+     * 依錯誤碼取得司機相關的驗證結果 (叢集節點間回應轉換用)，未知錯誤碼視為節點無法連線
+     */
+    public static ValidationResult ofDriverCode(String code) {
+        if (code == null) {
+            return NODE_UNAVAILABLE;
+        }
+        return switch (code) {
+            case "DRIVER_NOT_FOUND" -> DRIVER_NOT_FOUND;
+            case "DRIVER_OFFLINE" -> DRIVER_OFFLINE;
+            case "DRIVER_BUSY" -> DRIVER_BUSY;
+            case "CLAIM_FENCED" -> CLAIM_FENCED;
+            default -> NODE_UNAVAILABLE;
+        };
+    }
+    
+    public boolean isValid() {
+        return this == OK;
+    }
+    
+    /**
+     * 取得對應的例外 (預先建立，不含 stack trace)
+     */
+    public StacklessBusinessException toException() {
+        if (exception == null) {
+            throw new IllegalStateException("驗證成功的結果沒有對應的例外");
+        }
+        return exception;
+    }
+    
+    /**
+     * 驗證失敗時拋出對應的例外
+     */
+    public void throwIfInvalid() {
+        if (exception != null) {
+            throw exception;
+        }
+    }
+}
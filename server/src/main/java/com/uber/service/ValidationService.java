@@ -172,47 +172,70 @@ public class ValidationService {
      * 驗證訂單可接單條件
      */
     public void validateOrderAcceptable(Order order) {
+        checkOrderAcceptable(order).throwIfInvalid();
+    }
+    
+    /**
+     * 檢查訂單可接單條件 (不拋例外，回傳預先建立的結果)
+     */
+    public ValidationResult checkOrderAcceptable(Order order) {
         if (order == null) {
-            throw new BusinessException("ORDER_NOT_FOUND", "訂單不存在");
+            return ValidationResult.ORDER_NOT_FOUND;
         }
         
         if (order.getStatus() != OrderStatus.PENDING) {
-            if (order.getStatus() == OrderStatus.ACCEPTED) {
-                throw new BusinessException("ORDER_ALREADY_ACCEPTED", 
-                    "此訂單已被其他司機接受", 409);
-            }
-            throw new BusinessException("INVALID_STATE", "訂單狀態不允許接單操作");
+            return order.getStatus() == OrderStatus.ACCEPTED
+                    ? ValidationResult.ORDER_ALREADY_ACCEPTED
+                    : ValidationResult.ORDER_NOT_ACCEPTABLE;
         }
         
         // 檢查訂單是否過期（超過30分鐘）
         if (order.getCreatedAt() != null) {
             long minutesOld = ChronoUnit.MINUTES.between(order.getCreatedAt(), Instant.now());
             if (minutesOld > 30) {
-                throw new BusinessException("ORDER_EXPIRED", "訂單已過期");
+                return ValidationResult.ORDER_EXPIRED;
             }
         }
+        
+        return ValidationResult.OK;
     }
     
     /**
      * 驗證司機可接單條件
      */
     public void validateDriverCanAccept(Driver driver) {
+        checkDriverCanAccept(driver).throwIfInvalid();
+    }
+    
+    /**
+     * 檢查司機可接單條件 (不拋例外，回傳預先建立的結果)
+     */
+    public ValidationResult checkDriverCanAccept(Driver driver) {
+        return checkDriverCanAccept(driver, true);
+    }
+    
+    /**
+     * 檢查司機可接單條件；接單路徑 (OrderService) 不要求位置資訊，requireLocation 為 false
+     */
+    public static ValidationResult checkDriverCanAccept(Driver driver, boolean requireLocation) {
         if (driver == null) {
-            throw new BusinessException("DRIVER_NOT_FOUND", "司機不存在");
+            return ValidationResult.DRIVER_NOT_FOUND;
         }
         
         if (driver.getStatus() != DriverStatus.ONLINE) {
-            throw new BusinessException("DRIVER_OFFLINE", "司機不在線");
+            return ValidationResult.DRIVER_OFFLINE;
         }
         
         if (driver.isBusy()) {
-            throw new BusinessException("DRIVER_BUSY", "司機正在忙碌");
+            return ValidationResult.DRIVER_BUSY;
         }
         
         // 驗證司機位置
-        if (driver.getLocation() == null) {
-            throw new BusinessException("INVALID_STATE", "司機位置未設定");
+        if (requireLocation && driver.getLocation() == null) {
+            return ValidationResult.DRIVER_LOCATION_MISSING;
         }
+        
+        return ValidationResult.OK;
     }
     
     /**
@@ -0,0 +1,49 @@
+package com.uber.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * 啟動最佳化設定
+ * 
+ * 各項功能由 dispatch.startup.* 個別開啟，預設不建立任何 bean
+ */
+@Configuration
+@EnableConfigurationProperties(StartupProperties.class)
+public class StartupConfig {
+    
+    // 只服務管理後台 / 備援節點的 controller，不在乘客與司機的請求路徑上
+    static final List<String> ADMIN_BEANS = List.of("adminController", "changeController", "replicationController",
+            "flightRecordingController");
+    
+    @Bean
+    @ConditionalOnProperty(prefix = "dispatch.startup", name = "lazy-admin", havingValue = "true")
+    public static BeanFactoryPostProcessor lazyAdminBeans() {
+        return beanFactory -> {
+            for (String name : ADMIN_BEANS) {
+                if (beanFactory.containsBeanDefinition(name)) {
+                    beanFactory.getBeanDefinition(name).setLazyInit(true);
+                }
+            }
+        };
+    }
+    
+    @Bean
+    @ConditionalOnProperty(prefix = "dispatch.startup", name = "warm-up", havingValue = "true")
+    public StartupWarmup startupWarmup(ObjectMapper objectMapper, Validator validator) {
+        return new StartupWarmup(objectMapper, validator);
+    }
+    
+    @Bean
+    @ConditionalOnProperty(prefix = "dispatch.startup", name = "training-run", havingValue = "true")
+    public TrainingRun trainingRun(ObjectMapper objectMapper) {
+        return new TrainingRun(objectMapper);
+    }
+}
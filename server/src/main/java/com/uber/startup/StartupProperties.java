@@ -0,0 +1,24 @@
+package com.uber.startup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 啟動最佳化設定 (dispatch.startup.*)
+ * 
+ * 預設全部關閉；application-startup.yml (--spring.profiles.active=startup) 開啟 lazy-admin 與 warm-up，
+ * training-run 僅用於產生 AppCDS 封存的訓練執行
+ */
+@Data
+@ConfigurationProperties(prefix = "dispatch.startup")
+public class StartupProperties {
+    
+    // 管理端專用 controller 延遲到第一次請求才建立
+    private boolean lazyAdmin;
+    
+    // 啟動完成後於背景執行緒預先建立 JSON 序列化器與驗證中繼資料
+    private boolean warmUp;
+    
+    // 啟動後重播 IntegrationFlowTest 的流程再結束程序 (搭配 -XX:ArchiveClassesAtExit)
+    private boolean trainingRun;
+}
@@ -0,0 +1,82 @@
+package com.uber.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uber.dto.AcceptOrderRequest;
+import com.uber.dto.ApiResponse;
+import com.uber.dto.CancelOrderRequest;
+import com.uber.dto.CreateOrderRequest;
+import com.uber.dto.DriverOnlineRequest;
+import com.uber.dto.RegisterDriverRequest;
+import com.uber.dto.response.DriverResponse;
+import com.uber.dto.response.OfferListResponse;
+import com.uber.dto.response.OrderResponse;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 啟動後預熱
+ * 
+ * Jackson 的 (反) 序列化器 (含 Blackbird 產生的存取器) 與 Hibernate Validator 的 bean 中繼資料
+ * 都在第一次用到該型別時才建立，成本落在第一筆請求上。
+ * 啟動完成 (已開始接受請求) 後於背景執行緒預先建立乘客 / 司機路徑上的型別，不延後就緒時間；
+ * 與第一筆請求同時建立同一型別時由 Jackson / Validator 的快取處理，結果一致
+ */
+@Slf4j
+public class StartupWarmup implements ApplicationListener<ApplicationReadyEvent> {
+    
+    static final List<Class<?>> REQUEST_TYPES = List.of(
+            CreateOrderRequest.class, AcceptOrderRequest.class, CancelOrderRequest.class,
+            RegisterDriverRequest.class, DriverOnlineRequest.class);
+    
+    static final List<Class<?>> RESPONSE_TYPES = List.of(
+            ApiResponse.class, ApiResponse.ErrorInfo.class, OrderResponse.class,
+            DriverResponse.class, OfferListResponse.class);
+    
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final CompletableFuture<Long> completion = new CompletableFuture<>();
+    
+    public StartupWarmup(ObjectMapper objectMapper, Validator validator) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+    
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        Thread thread = new Thread(this::warmUp, "startup-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    void warmUp() {
+        long start = System.nanoTime();
+        try {
+            for (Class<?> type : REQUEST_TYPES) {
+                objectMapper.readerFor(type);
+                validator.getConstraintsForClass(type);
+            }
+            for (Class<?> type : RESPONSE_TYPES) {
+                objectMapper.writerFor(type);
+            }
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            log.info("Startup warm-up finished in {} ms", elapsedMillis);
+            completion.complete(elapsedMillis);
+        } catch (RuntimeException e) {
+            // 預熱失敗不影響服務，第一筆請求照常建立
+            log.warn("Startup warm-up failed", e);
+            completion.completeExceptionally(e);
+        }
+    }
+    
+    /**
+     * 預熱完成 (值為耗時毫秒)
+     */
+    public CompletableFuture<Long> completion() {
+        return completion;
+    }
+}
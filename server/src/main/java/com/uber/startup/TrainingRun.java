@@ -0,0 +1,135 @@
+package com.uber.startup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uber.dto.CreateOrderRequest;
+import com.uber.dto.DriverOnlineRequest;
+import com.uber.dto.RegisterDriverRequest;
+import com.uber.model.VehicleType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+/**
+ * AppCDS 訓練執行
+ * 
+ * 啟動完成後經由本機 HTTP 重播 IntegrationFlowTest 的三條流程 (IT-FLOW-01 ~ 03) 與客戶端輪詢，
+ * 讓請求路徑 (Tomcat、MVC、Jackson、Validator、服務層) 的類別都被載入，再結束程序；
+ * JVM 以 -XX:ArchiveClassesAtExit 啟動時於結束時寫出動態 CDS 封存。
+ * 
+ * 必須以正式部署相同的 classpath 執行 (CDS 只接受相同或前綴相同的 classpath)，
+ * 因此不能直接以測試程式 (MockMvc) 產生封存
+ */
+@Slf4j
+public class TrainingRun implements ApplicationListener<ApplicationReadyEvent> {
+    
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    
+    public TrainingRun(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        int port = ((WebServerApplicationContext) event.getApplicationContext()).getWebServer().getPort();
+        int exitCode = 0;
+        try {
+            int requests = replay("http://localhost:" + port);
+            log.info("Training run replayed {} requests", requests);
+        } catch (IOException | IllegalStateException e) {
+            log.error("Training run failed", e);
+            exitCode = 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(event.getApplicationContext(), () -> code));
+    }
+    
+    /**
+     * 重播訓練流程，回傳送出的請求數；任一請求非 2xx 時拋出 IllegalStateException
+     */
+    int replay(String baseUrl) throws IOException, InterruptedException {
+        Replay replay = new Replay(baseUrl);
+        String driverId = "training-driver-" + System.nanoTime();
+        
+        // IT-FLOW-01: 建立訂單 -> 司機接單 -> 開始行程 -> 完成行程
+        String orderId = replay.createOrder("training-passenger-1");
+        replay.send("POST", "/api/drivers", RegisterDriverRequest.builder()
+                .driverId(driverId)
+                .name("Training")
+                .phone("0912345678")
+                .vehiclePlate("TRN-0001")
+                .vehicleType(VehicleType.STANDARD)
+                .build());
+        replay.send("PUT", "/api/drivers/" + driverId + "/online", DriverOnlineRequest.builder()
+                .x(25.035)
+                .y(121.560)
+                .build());
+        replay.send("GET", "/api/drivers/" + driverId + "/offers", null);
+        replay.send("PUT", "/api/orders/" + orderId + "/accept", Map.of("driverId", driverId));
+        replay.send("GET", "/api/orders/" + orderId, null);
+        replay.send("PUT", "/api/orders/" + orderId + "/start", Map.of("driverId", driverId));
+        replay.send("PUT", "/api/orders/" + orderId + "/complete", Map.of("driverId", driverId));
+        
+        // IT-FLOW-02: 建立訂單 -> 乘客取消
+        String cancelled = replay.createOrder("training-passenger-2");
+        replay.send("PUT", "/api/orders/" + cancelled + "/cancel", Map.of("cancelledBy", "training-passenger-2"));
+        
+        // IT-FLOW-03: 建立訂單 -> 司機接單 -> 乘客取消 (收取取消費)
+        String accepted = replay.createOrder("training-passenger-3");
+        replay.send("PUT", "/api/orders/" + accepted + "/accept", Map.of("driverId", driverId));
+        replay.send("PUT", "/api/orders/" + accepted + "/cancel", Map.of("cancelledBy", "training-passenger-3"));
+        
+        return replay.requests;
+    }
+    
+    private final class Replay {
+        
+        private final String baseUrl;
+        private int requests;
+        
+        Replay(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+        
+        String createOrder(String passengerId) throws IOException, InterruptedException {
+            JsonNode body = send("POST", "/api/orders", CreateOrderRequest.builder()
+                    .passengerId(passengerId)
+                    .pickupX(25.033)
+                    .pickupY(121.565)
+                    .dropoffX(25.042)
+                    .dropoffY(121.520)
+                    .vehicleType(VehicleType.STANDARD)
+                    .build());
+            return body.path("data").path("orderId").asText();
+        }
+        
+        JsonNode send(String method, String path, Object body) throws IOException, InterruptedException {
+            HttpRequest.BodyPublisher publisher = body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .method(method, publisher)
+                    .build();
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            requests++;
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException(method + " " + path + " -> " + response.statusCode());
+            }
+            return objectMapper.readTree(response.body());
+        }
+    }
+}
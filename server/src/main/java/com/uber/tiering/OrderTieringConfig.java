@@ -0,0 +1,22 @@
+package com.uber.tiering;
+
+import com.uber.repository.OrderRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 訂單分層設定 (預設開啟；關閉時所有訂單留在熱區)
+ */
+@Configuration
+@EnableConfigurationProperties(OrderTieringProperties.class)
+public class OrderTieringConfig {
+    
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "dispatch.orders.tiering", name = "enabled", havingValue = "true",
+            matchIfMissing = true)
+    public OrderTieringTask orderTieringTask(OrderRepository orderRepository, OrderTieringProperties properties) {
+        return new OrderTieringTask(orderRepository, properties);
+    }
+}
@@ -0,0 +1,21 @@
+package com.uber.tiering;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 訂單分層設定 (dispatch.orders.tiering.*)
+ * 
+ * 結束 (COMPLETED / CANCELLED) 超過 grace-millis 的訂單每 interval-millis 移入冷儲存一次
+ */
+@Data
+@ConfigurationProperties(prefix = "dispatch.orders.tiering")
+public class OrderTieringProperties {
+    
+    private boolean enabled = true;
+    
+    // 寬限期：剛結束的訂單仍可能被乘客 / 司機輪詢，留在熱區
+    private long graceMillis = 300_000;
+    
+    private long intervalMillis = 30_000;
+}
@@ -0,0 +1,49 @@
+package com.uber.tiering;
+
+import com.uber.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 定期將結束超過寬限期的訂單移入冷儲存
+ */
+@Slf4j
+public class OrderTieringTask implements AutoCloseable {
+    
+    private final OrderRepository orderRepository;
+    private final OrderTieringProperties properties;
+    private final ScheduledExecutorService scheduler;
+    
+    public OrderTieringTask(OrderRepository orderRepository, OrderTieringProperties properties) {
+        this.orderRepository = orderRepository;
+        this.properties = properties;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-tiering");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getIntervalMillis();
+        scheduler.scheduleWithFixedDelay(this::archive, interval, interval, TimeUnit.MILLISECONDS);
+    }
+    
+    void archive() {
+        try {
+            int moved = orderRepository.archiveFinishedBefore(Instant.now().minusMillis(properties.getGraceMillis()));
+            if (moved > 0 && log.isDebugEnabled()) {
+                log.debug("Archived {} finished orders (hot: {}, cold: {}, cold bytes: {})", moved,
+                        orderRepository.countHot(), orderRepository.countCold(), orderRepository.getColdStoreBytes());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Order archiving failed", e);
+        }
+    }
+    
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
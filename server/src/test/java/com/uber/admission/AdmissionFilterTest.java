@@ -0,0 +1,95 @@
+package com.uber.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AdmissionFilter 測試 - 端點分類與過載時的 503 回應
+ */
+@DisplayName("AdmissionFilter 測試")
+class AdmissionFilterTest {
+
+    private AdmissionControl admissionControl;
+    private AdmissionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setAccept(new AdmissionProperties.Budget(1, 1, 1, 1000));
+        admissionControl = new AdmissionControl(properties);
+        filter = new AdmissionFilter(admissionControl, new ObjectMapper().registerModule(new JavaTimeModule()), 2);
+    }
+
+    @Nested
+    @DisplayName("端點分類")
+    class ClassificationTests {
+
+        @Test
+        @DisplayName("搶單、可接訂單、位置更新與管理端各自分類")
+        void testLimitedEndpoints() {
+            assertEquals(EndpointClass.ACCEPT, EndpointClass.of("PUT", "/api/orders/o1/accept"));
+            assertEquals(EndpointClass.OFFERS, EndpointClass.of("GET", "/api/drivers/d1/offers"));
+            assertEquals(EndpointClass.LOCATION, EndpointClass.of("PUT", "/api/drivers/d1/location"));
+            assertEquals(EndpointClass.ADMIN, EndpointClass.of("GET", "/api/admin/orders"));
+            assertEquals(EndpointClass.ADMIN, EndpointClass.of("GET", "/api/changes"));
+        }
+
+        @Test
+        @DisplayName("關鍵狀態轉移與長連線不受限")
+        void testUnlimitedEndpoints() {
+            assertNull(EndpointClass.of("POST", "/api/orders"));
+            assertNull(EndpointClass.of("PUT", "/api/orders/o1/complete"));
+            assertNull(EndpointClass.of("PUT", "/api/orders/o1/cancel"));
+            assertNull(EndpointClass.of("PUT", "/api/orders/o1/start"));
+            assertNull(EndpointClass.of("PUT", "/api/drivers/d1/online"));
+            assertNull(EndpointClass.of("GET", "/api/changes/stream"));
+        }
+    }
+
+    @Test
+    @DisplayName("超過額度時回應 503 OVERLOADED 與 Retry-After，不進入後續處理")
+    void testRejectsWhenOverBudget() throws Exception {
+        assertTrue(admissionControl.limiter(EndpointClass.ACCEPT).tryAcquire());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("PUT", "/api/orders/o1/accept"), response, chain);
+
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("\"OVERLOADED\""));
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    @DisplayName("額度內的請求通過並於完成後歸還額度")
+    void testReleasesAfterRequest() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("PUT", "/api/orders/o1/accept"), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(0, admissionControl.limiter(EndpointClass.ACCEPT).getInFlight());
+    }
+
+    @Test
+    @DisplayName("其他類別額度用盡不影響不受限的請求")
+    void testUnlimitedPassesWhenAcceptExhausted() throws Exception {
+        assertTrue(admissionControl.limiter(EndpointClass.ACCEPT).tryAcquire());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("PUT", "/api/orders/o1/cancel"), response, chain);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+    }
+}
@@ -0,0 +1,109 @@
+package com.uber.admission;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AimdLimiter 測試 - 允入、拒絕與上限調整
+ */
+@DisplayName("AimdLimiter 測試")
+class AimdLimiterTest {
+
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    @DisplayName("使用中的請求達上限時立即拒絕，歸還後可再取得")
+    void testRejectsAtLimit() {
+        AimdLimiter limiter = new AimdLimiter(2, 1, 4, THRESHOLD, 0.5);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.getRejected());
+
+        limiter.release(FAST);
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("處理時間超過門檻時乘法遞減，不低於下限")
+    void testMultiplicativeDecrease() {
+        AtomicLong clock = new AtomicLong();
+        AimdLimiter limiter = new AimdLimiter(8, 2, 16, THRESHOLD, 0.5, clock::get);
+
+        limiter.tryAcquire();
+        limiter.release(SLOW);
+        assertEquals(4, limiter.getLimit());
+
+        for (int i = 0; i < 5; i++) {
+            clock.addAndGet(THRESHOLD);
+            limiter.tryAcquire();
+            limiter.release(SLOW);
+        }
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("同一個門檻時間內的一波慢請求只遞減一次")
+    void testSingleDecreasePerWindow() {
+        AtomicLong clock = new AtomicLong();
+        AimdLimiter limiter = new AimdLimiter(16, 1, 16, THRESHOLD, 0.5, clock::get);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+        }
+        for (int i = 0; i < 10; i++) {
+            clock.addAndGet(FAST);
+            limiter.release(SLOW);
+        }
+        assertEquals(8, limiter.getLimit());
+
+        clock.addAndGet(THRESHOLD);
+        limiter.tryAcquire();
+        limiter.release(SLOW);
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("使用量達上限一半以上且延遲正常時加法遞增，不超過上限")
+    void testAdditiveIncreaseWhenUtilized() {
+        AimdLimiter limiter = new AimdLimiter(2, 1, 3, THRESHOLD, 0.5);
+
+        limiter.tryAcquire();
+        limiter.release(FAST);
+        assertEquals(3, limiter.getLimit());
+
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.release(FAST);
+        limiter.release(FAST);
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("使用量低時不增加上限")
+    void testNoIncreaseWhenIdle() {
+        AimdLimiter limiter = new AimdLimiter(10, 1, 100, THRESHOLD, 0.5);
+
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST);
+        }
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("參數不合法時拋出 IllegalArgumentException")
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new AimdLimiter(1, 2, 4, THRESHOLD, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new AimdLimiter(2, 1, 4, THRESHOLD, 1.0));
+    }
+}
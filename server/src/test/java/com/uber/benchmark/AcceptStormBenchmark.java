@@ -0,0 +1,123 @@
+package com.uber.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.uber.exception.BusinessException;
+import com.uber.model.Location;
+import com.uber.model.VehicleType;
+import com.uber.repository.AuditLogRepository;
+import com.uber.repository.ChangeLogRepository;
+import com.uber.repository.DriverRepository;
+import com.uber.repository.OrderRepository;
+import com.uber.service.AuditService;
+import com.uber.service.ChangeFeedService;
+import com.uber.service.DriverService;
+import com.uber.service.FareService;
+import com.uber.service.OrderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 搶單風暴吞吐量基準測試 (手動執行，不屬於 mvn test)
+ * 
+ * 情境: 每輪建立 ORDERS 筆訂單與 DRIVERS 位司機，所有執行緒同時對每筆訂單搶單；
+ * 每筆訂單僅 1 人成功，其餘收到 ORDER_ALREADY_ACCEPTED / DRIVER_BUSY。
+ * 
+ * 執行:
+ *   mvn test-compile
+ *   java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *        com.uber.benchmark.AcceptStormBenchmark
+ */
+public class AcceptStormBenchmark {
+    
+    private static final int THREADS = 16;
+    private static final int DRIVERS = 64;
+    private static final int ORDERS = 2_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+    
+    public static void main(String[] args) throws Exception {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            runRound();
+        }
+        
+        long attempts = 0;
+        long nanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long[] result = runRound();
+            attempts += result[0];
+            nanos += result[1];
+        }
+        
+        System.out.printf("accept attempts: %d, elapsed: %.1f ms, throughput: %.0f accepts/s%n",
+                attempts, nanos / 1e6, attempts / (nanos / 1e9));
+    }
+    
+    /**
+     * @return {嘗試次數, 耗時 (ns)}
+     */
+    private static long[] runRound() throws InterruptedException {
+        OrderRepository orderRepository = new OrderRepository();
+        DriverRepository driverRepository = new DriverRepository();
+        AuditService auditService = new AuditService(new AuditLogRepository());
+        FareService fareService = new FareService();
+        fareService.initRatePlans();
+        ChangeFeedService changeFeedService = new ChangeFeedService(new ChangeLogRepository());
+        OrderService orderService = new OrderService(orderRepository, driverRepository, auditService, fareService, changeFeedService);
+        DriverService driverService = new DriverService(driverRepository, orderRepository, changeFeedService);
+        
+        List<String> orderIds = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            orderIds.add(orderService.createOrder("passenger-" + i,
+                    new Location(i % 100, i / 100), new Location(i % 100 + 1, i / 100 + 1),
+                    VehicleType.STANDARD).getOrderId());
+        }
+        for (int i = 0; i < DRIVERS; i++) {
+            String driverId = "driver-" + i;
+            driverService.registerDriver(driverId, "Driver " + i, "0900000000", "ABC-" + i, VehicleType.STANDARD);
+            driverService.goOnline(driverId, new Location(i, i));
+        }
+        
+        LongAdder attempts = new LongAdder();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < ORDERS; i++) {
+                        String driverId = "driver-" + ((thread + i) % DRIVERS);
+                        try {
+                            orderService.acceptOrder(orderIds.get(i), driverId);
+                        } catch (BusinessException expected) {
+                            // 搶單失敗
+                        }
+                        attempts.increment();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        
+        return new long[] {attempts.sum(), elapsed};
+    }
+}
@@ -0,0 +1,149 @@
+package com.uber.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uber.RideDispatchApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 過載時關鍵轉移延遲基準測試 (手動執行，不屬於 mvn test)
+ *
+ * 情境: SURGE_CLIENTS 個並行客戶端 (超過 Tomcat 預設 200 條工作執行緒) 不斷輪詢可接訂單並搶單，
+ * 收到 503 時依 Retry-After 等待；同時由 1 個探測客戶端重複「建立訂單 → 乘客取消」，
+ * 量測取消請求的 p50 / p99。
+ * 分別以允入控制開啟與關閉各跑一次。
+ *
+ * 執行:
+ *   mvn test-compile
+ *   java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *        com.uber.benchmark.AdmissionOverloadBenchmark
+ */
+public class AdmissionOverloadBenchmark {
+
+    private static final int SURGE_CLIENTS = 400;
+    private static final int PENDING_ORDERS = 2_000;
+    private static final long WARMUP_MILLIS = 5_000;
+    private static final long MEASURE_MILLIS = 15_000;
+
+    private static final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        for (boolean admission : new boolean[] {false, true}) {
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(RideDispatchApplication.class)
+                    .run("--server.port=0", "--logging.level.root=ERROR", "--logging.level.com.uber=ERROR",
+                            "--dispatch.admission.enabled=" + admission)) {
+                String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+                run(baseUrl, admission);
+            }
+        }
+    }
+
+    private static void run(String baseUrl, boolean admission) throws Exception {
+        List<String> orderIds = new ArrayList<>();
+        for (int i = 0; i < PENDING_ORDERS; i++) {
+            orderIds.add(createOrder(baseUrl, "surge-passenger-" + i));
+        }
+        for (int i = 0; i < SURGE_CLIENTS; i++) {
+            String driverId = "surge-driver-" + i;
+            send(baseUrl, "POST", "/api/drivers", "{\"driverId\":\"" + driverId + "\",\"name\":\"D\","
+                    + "\"phone\":\"0912345678\",\"vehiclePlate\":\"SRG-" + i + "\",\"vehicleType\":\"STANDARD\"}");
+            send(baseUrl, "PUT", "/api/drivers/" + driverId + "/online", "{\"x\":25.03,\"y\":121.56}");
+        }
+
+        LongAdder served = new LongAdder();
+        LongAdder shed = new LongAdder();
+        long end = System.currentTimeMillis() + WARMUP_MILLIS + MEASURE_MILLIS;
+        try (ExecutorService surge = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < SURGE_CLIENTS; i++) {
+                String driverId = "surge-driver-" + i;
+                surge.submit(() -> {
+                    while (System.currentTimeMillis() < end) {
+                        count(send(baseUrl, "GET", "/api/drivers/" + driverId + "/offers", null), served, shed);
+                        String orderId = orderIds.get(ThreadLocalRandom.current().nextInt(orderIds.size()));
+                        count(send(baseUrl, "PUT", "/api/orders/" + orderId + "/accept",
+                                "{\"driverId\":\"" + driverId + "\"}"), served, shed);
+                    }
+                    return null;
+                });
+            }
+
+            Thread.sleep(WARMUP_MILLIS);
+            served.reset();
+            shed.reset();
+            List<Long> cancelMicros = new ArrayList<>();
+            int probe = 0;
+            while (System.currentTimeMillis() < end) {
+                String orderId = createOrder(baseUrl, "probe-passenger-" + probe);
+                long start = System.nanoTime();
+                int status = send(baseUrl, "PUT", "/api/orders/" + orderId + "/cancel",
+                        "{\"cancelledBy\":\"probe-passenger-" + probe + "\"}").statusCode();
+                if (status == 200) {
+                    cancelMicros.add(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                }
+                probe++;
+            }
+            surge.shutdown();
+            surge.awaitTermination(30, TimeUnit.SECONDS);
+
+            Collections.sort(cancelMicros);
+            System.out.printf("admission: %-5s cancels: %d, cancel p50: %.1f ms, p99: %.1f ms, "
+                            + "surge served: %.0f/s, shed (503): %.0f/s%n",
+                    admission, cancelMicros.size(), percentile(cancelMicros, 50) / 1e3,
+                    percentile(cancelMicros, 99) / 1e3, served.sum() / (MEASURE_MILLIS / 1e3),
+                    shed.sum() / (MEASURE_MILLIS / 1e3));
+        }
+    }
+
+    /**
+     * 503 時依 Retry-After 等待後再送 (與客戶端行為一致)
+     */
+    private static void count(HttpResponse<byte[]> response, LongAdder served, LongAdder shed)
+            throws InterruptedException {
+        if (response.statusCode() == 503) {
+            shed.increment();
+            long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+            Thread.sleep(TimeUnit.SECONDS.toMillis(retryAfter));
+        } else {
+            served.increment();
+        }
+    }
+
+    private static String createOrder(String baseUrl, String passengerId) throws Exception {
+        HttpResponse<byte[]> response = send(baseUrl, "POST", "/api/orders", "{\"passengerId\":\"" + passengerId
+                + "\",\"pickupX\":25.033,\"pickupY\":121.565,\"dropoffX\":25.042,\"dropoffY\":121.520,"
+                + "\"vehicleType\":\"STANDARD\"}");
+        return objectMapper.readTree(response.body()).path("data").path("orderId").asText();
+    }
+
+    private static HttpResponse<byte[]> send(String baseUrl, String method, String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        return sorted.get(Math.min(sorted.size() - 1, sorted.size() * percentile / 100));
+    }
+}
@@ -0,0 +1,136 @@
+package com.uber.benchmark;
+
+import com.uber.model.AuditLog;
+import com.uber.repository.AuditLogRepository;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * 審計日誌欄式封存基準測試 (手動執行，不屬於 mvn test)
+ *
+ * 以 ENTRIES 筆模擬派單流程的審計日誌 (每筆訂單 CREATE → ACCEPT → START → COMPLETE，
+ * 約 5% 搶單失敗)，比較原物件清單與封存後儲存庫的 heap 使用量，
+ * 以及依訂單 / 時間範圍查詢時整段略過區段與逐筆掃描的耗時。
+ *
+ * 執行:
+ *   mvn test-compile
+ *   java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *        com.uber.benchmark.AuditMemoryBenchmark
+ */
+public class AuditMemoryBenchmark {
+
+    private static final int ENTRIES = 1_000_000;
+    private static final int PASSENGERS = 20_000;
+    private static final int DRIVERS = 5_000;
+    private static final int QUERIES = 200;
+
+    public static void main(String[] args) {
+        long baseline = usedHeap();
+        List<AuditLog> logs = generate();
+        long listBytes = usedHeap() - baseline;
+        System.out.printf("objects:   %,d entries, heap %,d MB (%.0f bytes/entry)%n",
+                logs.size(), listBytes >> 20, (double) listBytes / logs.size());
+
+        // 依訂單 / 時間範圍逐筆掃描 (原本的查詢方式)
+        Random random = new Random(42);
+        long start = System.nanoTime();
+        int found = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            String orderId = logs.get(random.nextInt(logs.size())).getOrderId();
+            for (AuditLog log : logs) {
+                if (orderId.equals(log.getOrderId())) {
+                    found++;
+                }
+            }
+        }
+        double scanByOrder = (System.nanoTime() - start) / 1e3 / QUERIES;
+        Instant from = logs.get(logs.size() / 2).getTimestamp();
+        Instant to = from.plusSeconds(60);
+        start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            for (AuditLog log : logs) {
+                if (!log.getTimestamp().isBefore(from) && log.getTimestamp().isBefore(to)) {
+                    found++;
+                }
+            }
+        }
+        double scanByTime = (System.nanoTime() - start) / 1e3 / QUERIES;
+        System.out.printf("scan:      by order %.0f µs, by 1-minute range %.0f µs%n", scanByOrder, scanByTime);
+
+        AuditLogRepository repository = new AuditLogRepository();
+        repository.saveAll(logs);
+        repository.sealPending();
+        List<String> orderIds = new ArrayList<>(QUERIES);
+        for (int i = 0; i < QUERIES; i++) {
+            orderIds.add(logs.get(random.nextInt(logs.size())).getOrderId());
+        }
+        logs = null;
+        long repositoryBytes = usedHeap() - baseline;
+        System.out.printf("columnar:  %,d entries, heap %,d MB (%.0f bytes/entry)%n",
+                repository.count(), repositoryBytes >> 20, (double) repositoryBytes / repository.count());
+
+        start = System.nanoTime();
+        for (String orderId : orderIds) {
+            found += repository.findByOrderId(orderId).size();
+        }
+        double byOrder = (System.nanoTime() - start) / 1e3 / QUERIES;
+        start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            found += repository.find(null, null, from, to).size();
+        }
+        double byTime = (System.nanoTime() - start) / 1e3 / QUERIES;
+        start = System.nanoTime();
+        repository.findAll();
+        double fullMillis = (System.nanoTime() - start) / 1e6;
+        System.out.printf("query:     by order %.0f µs, by 1-minute range %.0f µs, full decode %.0f ms (%d)%n",
+                byOrder, byTime, fullMillis, found);
+    }
+
+    private static List<AuditLog> generate() {
+        String[] actions = {"CREATE", "ACCEPT", "START", "COMPLETE"};
+        String[] previous = {null, "PENDING", "ACCEPTED", "ONGOING"};
+        String[] next = {"PENDING", "ACCEPTED", "ONGOING", "COMPLETED"};
+        Random random = new Random(7);
+        List<AuditLog> logs = new ArrayList<>(ENTRIES);
+        Instant now = Instant.parse("2024-01-01T00:00:00Z");
+        String orderId = null;
+        String passengerId = null;
+        String driverId = null;
+        for (int i = 0; i < ENTRIES; i++) {
+            int step = i % 4;
+            if (step == 0) {
+                orderId = UUID.randomUUID().toString();
+                passengerId = "passenger-" + random.nextInt(PASSENGERS);
+                driverId = "driver-" + random.nextInt(DRIVERS);
+            }
+            // 約每 3 ms 一筆 (Instant.now 的精度為微秒)
+            now = now.plusNanos(1_000 * (1 + random.nextInt(5_000)));
+            boolean failed = step == 1 && random.nextInt(20) == 0;
+            logs.add(AuditLog.builder()
+                    .id(UUID.randomUUID().toString())
+                    .timestamp(now)
+                    .orderId(orderId)
+                    .action(actions[step])
+                    .actorType(step == 0 ? "PASSENGER" : "DRIVER")
+                    .actorId(step == 0 ? passengerId : driverId)
+                    .previousState(previous[step])
+                    .newState(failed ? previous[step] : next[step])
+                    .success(!failed)
+                    .failureReason(failed ? "ORDER_ALREADY_ACCEPTED" : null)
+                    .build());
+        }
+        return logs;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
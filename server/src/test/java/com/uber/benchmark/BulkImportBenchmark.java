@@ -0,0 +1,105 @@
+package com.uber.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.uber.controller.DriverController;
+import com.uber.controller.OrderController;
+import com.uber.repository.AuditLogRepository;
+import com.uber.repository.ChangeLogRepository;
+import com.uber.repository.DriverRepository;
+import com.uber.repository.OrderRepository;
+import com.uber.service.AuditService;
+import com.uber.service.ChangeFeedService;
+import com.uber.service.DriverService;
+import com.uber.service.FareService;
+import com.uber.service.OrderService;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * NDJSON 批次匯入吞吐量基準測試 (手動執行，不屬於 mvn test)
+ * 
+ * 直接呼叫 bulk 端點，量測每秒可建立的訂單數與註冊的司機數。
+ */
+public class BulkImportBenchmark {
+    
+    private static final int ROWS = 200_000;
+    private static final int ROUNDS = 5;
+    
+    public static void main(String[] args) throws Exception {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .registerModule(new BlackbirdModule());
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        
+        byte[] orders = orderLines();
+        byte[] drivers = driverLines();
+        
+        for (int round = 1; round <= ROUNDS; round++) {
+            OrderRepository orderRepository = new OrderRepository();
+            DriverRepository driverRepository = new DriverRepository();
+            AuditService auditService = new AuditService(new AuditLogRepository());
+            FareService fareService = new FareService();
+            fareService.initRatePlans();
+            ChangeFeedService changeFeedService = new ChangeFeedService(new ChangeLogRepository());
+            OrderService orderService = new OrderService(orderRepository, driverRepository, auditService, fareService, changeFeedService);
+            DriverService driverService = new DriverService(driverRepository, orderRepository, changeFeedService);
+            
+            OrderController orderController = new OrderController(orderService, fareService, objectMapper, validator);
+            DriverController driverController = new DriverController(driverService, objectMapper, validator);
+            
+            long start = System.nanoTime();
+            orderController.createOrders(request(orders), new MockHttpServletResponse());
+            long orderNanos = System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            driverController.registerDrivers(request(drivers), new MockHttpServletResponse());
+            long driverNanos = System.nanoTime() - start;
+            
+            System.out.printf("round %d: orders %,.0f/s (%d stored), drivers %,.0f/s (%d stored)%n", round,
+                    ROWS / (orderNanos / 1e9), orderRepository.findAll().size(),
+                    ROWS / (driverNanos / 1e9), driverRepository.findAll().size());
+        }
+    }
+    
+    private static MockHttpServletRequest request(byte[] body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/bulk");
+        request.setContentType("application/x-ndjson");
+        request.setContent(body);
+        return request;
+    }
+    
+    private static byte[] orderLines() {
+        StringBuilder sb = new StringBuilder(ROWS * 128);
+        for (int i = 0; i < ROWS; i++) {
+            sb.append("{\"passengerId\":\"passenger-").append(i)
+                    .append("\",\"pickupX\":").append(i % 100)
+                    .append(",\"pickupY\":").append(i % 37)
+                    .append(",\"dropoffX\":").append(i % 100 + 5)
+                    .append(",\"dropoffY\":").append(i % 41)
+                    .append(",\"vehicleType\":\"STANDARD\"}\n");
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private static byte[] driverLines() {
+        StringBuilder sb = new StringBuilder(ROWS * 112);
+        for (int i = 0; i < ROWS; i++) {
+            sb.append("{\"driverId\":\"driver-").append(i)
+                    .append("\",\"name\":\"Driver ").append(i)
+                    .append("\",\"phone\":\"0900000000\",\"vehiclePlate\":\"ABC-").append(i)
+                    .append("\",\"vehicleType\":\"PREMIUM\"}\n");
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
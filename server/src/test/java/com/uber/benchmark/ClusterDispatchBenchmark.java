@@ -0,0 +1,146 @@
+package com.uber.benchmark;
+
+import com.uber.cluster.CellOwnership;
+import com.uber.cluster.GridCell;
+import com.uber.cluster.LocalCluster;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 叢集派單吞吐量基準測試 (手動執行，不屬於 mvn test)
+ *
+ * 情境: 於同一 JVM 啟動 1..MAX_NODES 個節點，每個節點 THREADS_PER_NODE 條執行緒
+ * 各自以「建立訂單 → 接單 → 開始 → 完成」循環打該節點擁有的格子與司機，
+ * 量測總完成行程數/秒。另以 CROSS_NODE_PERCENT 比例讓訂單落在其他節點的格子，
+ * 模擬跨格接單 (保留司機 RPC)。
+ *
+ * 注意: 所有節點共用同一台機器的 CPU，核心數少時無法呈現線性擴展，
+ * 數字應與相同核心數下的單節點結果比較。
+ *
+ * 執行:
+ *   mvn test-compile
+ *   java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *        com.uber.benchmark.ClusterDispatchBenchmark
+ */
+public class ClusterDispatchBenchmark {
+
+    private static final int MAX_NODES = 4;
+    private static final int THREADS_PER_NODE = 4;
+    private static final int CROSS_NODE_PERCENT = 10;
+    private static final long WARMUP_MILLIS = 5_000;
+    private static final long MEASURE_MILLIS = 10_000;
+
+    private static final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    public static void main(String[] args) throws Exception {
+        for (int nodes = 1; nodes <= MAX_NODES; nodes *= 2) {
+            try (LocalCluster cluster = LocalCluster.start(nodes, "logging.level.com.uber=ERROR")) {
+                run(cluster, WARMUP_MILLIS);
+                long trips = run(cluster, MEASURE_MILLIS);
+                System.out.printf("nodes: %d, trips: %d, throughput: %.0f trips/s%n",
+                        nodes, trips, trips / (MEASURE_MILLIS / 1e3));
+            }
+        }
+    }
+
+    /**
+     * @return 期間內完成的行程數
+     */
+    private static long run(LocalCluster cluster, long millis) throws Exception {
+        CellOwnership ownership = cluster.ownership();
+        List<String> nodeIds = cluster.nodeIds();
+        ExecutorService executor = Executors.newFixedThreadPool(nodeIds.size() * THREADS_PER_NODE);
+        long deadline = System.currentTimeMillis() + millis;
+
+        List<Future<Long>> results = new ArrayList<>();
+        int worker = 0;
+        for (String nodeId : nodeIds) {
+            List<GridCell> localCells = cellsOwnedBy(ownership, nodeId, true);
+            List<GridCell> remoteCells = cellsOwnedBy(ownership, nodeId, false);
+            for (int t = 0; t < THREADS_PER_NODE; t++) {
+                String driverId = driverOwnedBy(ownership, nodeId, "bench-" + nodeId + "-" + t + "-" + System.nanoTime() + "-");
+                int seed = worker++;
+                results.add(executor.submit(() ->
+                        loop(cluster.url(nodeId), driverId, localCells, remoteCells, seed, deadline)));
+            }
+        }
+
+        long trips = 0;
+        for (Future<Long> result : results) {
+            trips += result.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        return trips;
+    }
+
+    private static long loop(String baseUrl, String driverId, List<GridCell> localCells, List<GridCell> remoteCells,
+                             int seed, long deadline) throws Exception {
+        GridCell home = localCells.get(seed % localCells.size());
+        double x = home.x() * 10.0 + 5;
+        double y = home.y() * 10.0 + 5;
+        send(baseUrl, "PUT", "/api/drivers/" + driverId + "/online", "{\"x\":" + x + ",\"y\":" + y + "}");
+
+        long trips = 0;
+        for (long i = 0; System.currentTimeMillis() < deadline; i++) {
+            boolean crossNode = !remoteCells.isEmpty() && i % 100 < CROSS_NODE_PERCENT;
+            GridCell cell = crossNode ? remoteCells.get((int) (i % remoteCells.size())) : home;
+            String order = send(baseUrl, "POST", "/api/orders", String.format(
+                    "{\"passengerId\":\"%s-p%d\",\"pickupX\":%.1f,\"pickupY\":%.1f,\"dropoffX\":%.1f,\"dropoffY\":%.1f,\"vehicleType\":\"STANDARD\"}",
+                    driverId, i, cell.x() * 10.0 + 5, cell.y() * 10.0 + 5, cell.x() * 10.0 + 8, cell.y() * 10.0 + 8));
+            String orderId = extractOrderId(order);
+            String body = "{\"driverId\":\"" + driverId + "\"}";
+            send(baseUrl, "PUT", "/api/orders/" + orderId + "/accept", body);
+            send(baseUrl, "PUT", "/api/orders/" + orderId + "/start", body);
+            send(baseUrl, "PUT", "/api/orders/" + orderId + "/complete", body);
+            trips++;
+        }
+        return trips;
+    }
+
+    private static List<GridCell> cellsOwnedBy(CellOwnership ownership, String nodeId, boolean owned) {
+        List<GridCell> cells = new ArrayList<>();
+        for (int cx = 0; cx < 20; cx++) {
+            for (int cy = 0; cy < 20; cy++) {
+                GridCell cell = new GridCell(cx, cy);
+                if (nodeId.equals(ownership.ownerOfCell(cell)) == owned) {
+                    cells.add(cell);
+                }
+            }
+        }
+        return cells;
+    }
+
+    private static String driverOwnedBy(CellOwnership ownership, String nodeId, String prefix) {
+        for (int i = 0; ; i++) {
+            if (nodeId.equals(ownership.ownerOfDriver(prefix + i))) {
+                return prefix + i;
+            }
+        }
+    }
+
+    private static String extractOrderId(String json) {
+        int start = json.indexOf("\"orderId\":\"") + 11;
+        return json.substring(start, json.indexOf('"', start));
+    }
+
+    private static String send(String baseUrl, String method, String path, String body) throws Exception {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(method + " " + path + " -> " + response.statusCode() + " " + response.body());
+        }
+        return response.body();
+    }
+}
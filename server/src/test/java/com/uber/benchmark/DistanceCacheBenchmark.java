@@ -0,0 +1,170 @@
+package com.uber.benchmark;
+
+import com.uber.model.Location;
+import com.uber.routing.CachedDistanceProvider;
+import com.uber.routing.DistanceProvider;
+import com.uber.routing.RoadNetworkDistance;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 司機到上車點距離快取基準測試 (手動執行，不屬於 mvn test)
+ *
+ * 使用 RoutingBenchmark 的城市路網 (9 萬節點)。DRIVERS 位司機每秒移動 10 m (偶爾轉向)，
+ * 待派訂單 ORDERS 筆、每秒替換 REPLACED 筆；每位司機每秒輪詢一次，計算到 RADIUS 內 (直線距離) 訂單的路網距離
+ * (與可接訂單查詢相同，一個司機對多筆訂單的多對多查詢)，共 SECONDS 秒：
+ * 1. 不快取與快取 (各量化精度) 的總時間、命中率，以及與精確距離的平均 / 最大誤差 (抽樣)
+ * 2. 快取容量不足時 W-TinyLFU 與 LRU (以相同的 key 序列重播) 的命中率 (SECONDS × 5 秒)
+ *
+ * 執行:
+ *   mvn test-compile
+ *   java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *        com.uber.benchmark.DistanceCacheBenchmark
+ */
+public class DistanceCacheBenchmark {
+
+    private static final int DRIVERS = 500;
+    private static final int ORDERS = 400;
+    private static final int REPLACED = 10;
+    private static final int SECONDS = 30;
+    private static final double RADIUS = 3.0;
+    private static final double SPEED = 0.01;
+    private static final double EXTENT = 29.9;
+    // 抽樣比較精確距離的輪詢比例
+    private static final int ERROR_SAMPLE_EVERY = 10;
+
+    public static void main(String[] args) {
+        RoadNetworkDistance road = new RoadNetworkDistance(RoutingBenchmark.city(new Random(42)));
+        // 暖機
+        run(road, road, 0);
+
+        long start = System.nanoTime();
+        run(road, road, 0);
+        double exactMillis = (System.nanoTime() - start) / 1e6;
+        System.out.printf("no cache: %,.0f ms%n", exactMillis);
+
+        for (double precision : new double[]{0.02, 0.05, 0.1}) {
+            CachedDistanceProvider cached = new CachedDistanceProvider(road, precision, 100_000);
+            start = System.nanoTime();
+            double[] error = run(cached, road, 0);
+            double millis = (System.nanoTime() - start) / 1e6;
+            System.out.printf("precision %.2f km: %,.0f ms (%.1fx), hit ratio %.1f%%, %,d entries, "
+                            + "error mean %.3f km / max %.3f km%n", precision, millis, exactMillis / millis,
+                    100.0 * cached.hitCount() / (cached.hitCount() + cached.missCount()), cached.size(),
+                    error[0], error[1]);
+        }
+
+        for (int capacity : new int[]{5_000, 20_000}) {
+            CachedDistanceProvider cached = new CachedDistanceProvider(road, 0.05, capacity);
+            List<long[]> trace = new ArrayList<>();
+            // 模擬較長時間，包含 window 調整後的命中率
+            run(cached, null, 0.05, trace, SECONDS * 5);
+            System.out.printf("capacity %,d: W-TinyLFU hit ratio %.1f%%, LRU %.1f%%%n", capacity,
+                    100.0 * cached.hitCount() / (cached.hitCount() + cached.missCount()),
+                    100.0 * lruHits(trace, capacity) / trace.size());
+        }
+    }
+
+    private static double[] run(DistanceProvider provider, DistanceProvider exact, double precision) {
+        return run(provider, exact, precision, null, SECONDS);
+    }
+
+    /**
+     * 模擬輪詢；exact 不為 null 時抽樣比較誤差，trace 不為 null 時記錄 (司機格子, 上車點格子) 序列
+     *
+     * @return {平均誤差, 最大誤差}
+     */
+    private static double[] run(DistanceProvider provider, DistanceProvider exact, double precision,
+                                List<long[]> trace, int seconds) {
+        Random random = new Random(7);
+        Location[] drivers = new Location[DRIVERS];
+        double[] headings = new double[DRIVERS];
+        for (int i = 0; i < DRIVERS; i++) {
+            drivers[i] = randomLocation(random);
+            headings[i] = random.nextDouble() * 2 * Math.PI;
+        }
+        List<Location> orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            orders.add(randomLocation(random));
+        }
+
+        double errorSum = 0;
+        double errorMax = 0;
+        long compared = 0;
+        long polls = 0;
+        for (int second = 0; second < seconds; second++) {
+            for (int i = 0; i < REPLACED; i++) {
+                orders.set(random.nextInt(ORDERS), randomLocation(random));
+            }
+            for (int d = 0; d < DRIVERS; d++) {
+                if (random.nextDouble() < 0.1) {
+                    headings[d] = random.nextDouble() * 2 * Math.PI;
+                }
+                drivers[d] = new Location(
+                        clamp(drivers[d].getX() + SPEED * Math.cos(headings[d])),
+                        clamp(drivers[d].getY() + SPEED * Math.sin(headings[d])));
+                List<Location> nearby = new ArrayList<>();
+                for (Location pickup : orders) {
+                    if (drivers[d].distanceTo(pickup) <= RADIUS) {
+                        nearby.add(pickup);
+                    }
+                }
+                if (nearby.isEmpty()) {
+                    continue;
+                }
+                double[] row = provider.matrix(List.of(drivers[d]), nearby)[0];
+                if (trace != null) {
+                    for (Location pickup : nearby) {
+                        trace.add(new long[]{cell(drivers[d], precision), cell(pickup, precision)});
+                    }
+                }
+                if (exact != null && provider != exact && polls++ % ERROR_SAMPLE_EVERY == 0) {
+                    double[] expected = exact.matrix(List.of(drivers[d]), nearby)[0];
+                    for (int j = 0; j < row.length; j++) {
+                        if (expected[j] != Double.POSITIVE_INFINITY && row[j] != Double.POSITIVE_INFINITY) {
+                            double error = Math.abs(row[j] - expected[j]);
+                            errorSum += error;
+                            errorMax = Math.max(errorMax, error);
+                            compared++;
+                        }
+                    }
+                }
+            }
+        }
+        return new double[]{compared > 0 ? errorSum / compared : 0, errorMax};
+    }
+
+    private static long lruHits(List<long[]> trace, int capacity) {
+        Map<List<Long>, Boolean> lru = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Long>, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+        long hits = 0;
+        for (long[] key : trace) {
+            if (lru.put(List.of(key[0], key[1]), Boolean.TRUE) != null) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    private static long cell(Location location, double precision) {
+        long x = (int) Math.floor(location.getX() / precision);
+        long y = (int) Math.floor(location.getY() / precision);
+        return x << 32 | (y & 0xffffffffL);
+    }
+
+    private static double clamp(double value) {
+        return Math.max(0, Math.min(EXTENT, value));
+    }
+
+    private static Location randomLocation(Random random) {
+        return new Location(random.nextDouble() * EXTENT, random.nextDouble() * EXTENT);
+    }
+}
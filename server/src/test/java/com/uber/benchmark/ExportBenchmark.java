@@ -0,0 +1,237 @@
+package com.uber.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.uber.controller.AdminController;
+import com.uber.model.AuditLog;
+import com.uber.model.Location;
+import com.uber.model.Order;
+import com.uber.model.OrderStatus;
+import com.uber.model.VehicleType;
+import com.uber.repository.AuditLogRepository;
+import com.uber.repository.ChangeLogRepository;
+import com.uber.repository.DriverRepository;
+import com.uber.repository.OrderRepository;
+import com.uber.service.AuditService;
+import com.uber.service.ChangeFeedService;
+import com.uber.service.DriverService;
+import com.uber.service.FareService;
+import com.uber.service.OrderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.reflect.Constructor;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+/**
+ * 匯出端點基準測試 (手動執行，不屬於 mvn test)
+ *
+ * 1. 訂單：以管理端列表逐頁 (每頁 PAGE_SIZE 筆) 取完全部訂單，與一次串流匯出比較
+ * 2. 審計日誌：兩種資料量的串流匯出耗時與匯出期間 old generation 最高增量 (確認線性時間、固定記憶體；
+ *    串流匯出的暫存物件在 young generation 即被回收，建立完整列表時才會晉升到 old generation)
+ *
+ * 回應寫入空輸出串流並計算位元組數。
+ *
+ * 執行:
+ *   mvn test-compile
+ *   java -Xmx3g -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *        com.uber.benchmark.ExportBenchmark
+ */
+public class ExportBenchmark {
+
+    private static final int ORDERS = 100_000;
+    private static final int PAGE_SIZE = 500;
+    private static final int[] AUDIT_ENTRIES = {1_000_000, 4_000_000};
+
+    public static void main(String[] args) throws Exception {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .registerModule(new BlackbirdModule());
+        OrderRepository orderRepository = new OrderRepository();
+        AuditLogRepository auditLogRepository = new AuditLogRepository();
+        DriverRepository driverRepository = new DriverRepository();
+        AuditService auditService = new AuditService(auditLogRepository);
+        FareService fareService = new FareService();
+        fareService.initRatePlans();
+        ChangeFeedService changeFeedService = new ChangeFeedService(new ChangeLogRepository());
+        OrderService orderService = new OrderService(orderRepository, driverRepository, auditService, fareService,
+                changeFeedService);
+        DriverService driverService = new DriverService(driverRepository, orderRepository, changeFeedService);
+        AdminController admin = newController(AdminController.class,
+                orderService, driverService, auditService, fareService, objectMapper);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        // 訂單：九成已歸檔
+        Instant old = Instant.now().minusSeconds(3600);
+        for (int i = 0; i < ORDERS; i++) {
+            orderRepository.save(order(i, i % 10 == 0 ? OrderStatus.PENDING : OrderStatus.COMPLETED, old));
+        }
+        orderRepository.archiveFinishedBefore(Instant.now());
+
+        measure("orders paged (size " + PAGE_SIZE + ")", () -> {
+            long bytes = 0;
+            for (int page = 0; page * PAGE_SIZE < ORDERS; page++) {
+                int current = page;
+                bytes += write(() -> admin.getAllOrders(null, current, PAGE_SIZE, null, null));
+            }
+            return bytes;
+        });
+        measure("orders export ndjson", () -> write(() -> admin.exportOrders(null, null, null, null, null, null, request)));
+        measure("orders export csv", () -> write(() -> admin.exportOrders("csv", null, null, null, null, null, request)));
+
+        int written = 0;
+        for (int entries : AUDIT_ENTRIES) {
+            List<AuditLog> batch = new ArrayList<>(10_000);
+            for (; written < entries; written++) {
+                batch.add(auditLog(written, old));
+                if (batch.size() == 10_000) {
+                    auditLogRepository.saveAll(batch);
+                    batch.clear();
+                }
+            }
+            auditLogRepository.saveAll(batch);
+            auditLogRepository.sealPending();
+            measure(String.format("audit export ndjson (%,d)", entries),
+                    () -> write(() -> admin.exportAuditLogs(null, null, null, null, null, 0, request)));
+            measure(String.format("audit export csv (%,d)", entries),
+                    () -> write(() -> admin.exportAuditLogs("csv", null, null, null, null, 0, request)));
+        }
+    }
+
+    private static void measure(String name, Callable<Long> export) throws Exception {
+        export.call();
+        HeapSampler sampler = new HeapSampler();
+        long start = System.nanoTime();
+        long bytes = export.call();
+        double millis = (System.nanoTime() - start) / 1e6;
+        long peak = sampler.stop();
+        System.out.printf("%-32s %,8.0f ms  %,6d MB written  peak old gen +%,d MB%n",
+                name, millis, bytes >> 20, peak >> 20);
+    }
+
+    private static long write(Callable<ResponseEntity<StreamingResponseBody>> call) throws Exception {
+        long[] count = {0};
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) {
+                count[0]++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                count[0] += len;
+            }
+        };
+        call.call().getBody().writeTo(out);
+        return count[0];
+    }
+
+    /**
+     * 匯出期間每 5 ms 取樣 old generation 使用量，回傳相對開始時的最高增量
+     */
+    private static final class HeapSampler {
+        private final long baseline;
+        private volatile boolean running = true;
+        private volatile long peak;
+        private final Thread thread;
+
+        HeapSampler() {
+            System.gc();
+            baseline = usedHeap();
+            thread = new Thread(() -> {
+                while (running) {
+                    peak = Math.max(peak, usedHeap() - baseline);
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        long stop() throws InterruptedException {
+            running = false;
+            thread.join();
+            return peak;
+        }
+
+        private static long usedHeap() {
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP
+                        && (pool.getName().contains("Old Gen") || pool.getName().contains("Tenured"))) {
+                    return pool.getUsage().getUsed();
+                }
+            }
+            return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        }
+    }
+
+    private static Order order(int i, OrderStatus status, Instant finishedAt) {
+        return Order.builder()
+                .orderId(UUID.randomUUID().toString())
+                .passengerId("passenger-" + i % 20_000)
+                .driverId(status == OrderStatus.PENDING ? null : "driver-" + i % 5_000)
+                .status(status)
+                .vehicleType(VehicleType.STANDARD)
+                .pickupLocation(new Location(25.0 + (i % 1000) * 0.0001, 121.5))
+                .dropoffLocation(new Location(25.1, 121.4 + (i % 991) * 0.0001))
+                .estimatedFare(100.0 + i % 300)
+                .actualFare(status == OrderStatus.COMPLETED ? 110.0 + i % 290 : null)
+                .distance(1.0 + (i % 200) * 0.1)
+                .createdAt(finishedAt.minusSeconds(1800).plusMillis(i))
+                .completedAt(status == OrderStatus.COMPLETED ? finishedAt : null)
+                .build();
+    }
+
+    private static AuditLog auditLog(int i, Instant base) {
+        return AuditLog.builder()
+                .id(UUID.randomUUID().toString())
+                .timestamp(base.plusMillis(i))
+                .orderId("order-" + i / 4)
+                .action(i % 4 == 0 ? "CREATE" : "ACCEPT")
+                .actorType(i % 4 == 0 ? "PASSENGER" : "DRIVER")
+                .actorId(i % 4 == 0 ? "passenger-" + i % 20_000 : "driver-" + i % 5_000)
+                .previousState(i % 4 == 0 ? null : "PENDING")
+                .newState(i % 4 == 0 ? "PENDING" : "ACCEPTED")
+                .success(true)
+                .build();
+    }
+
+    /**
+     * 依建構子參數型別注入相依物件
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T newController(Class<T> type, Object... deps) throws Exception {
+        Constructor<?> constructor = type.getConstructors()[0];
+        Class<?>[] paramTypes = constructor.getParameterTypes();
+        Object[] args = new Object[paramTypes.length];
+        for (int i = 0; i < paramTypes.length; i++) {
+            for (Object dep : deps) {
+                if (paramTypes[i].isInstance(dep)) {
+                    args[i] = dep;
+                    break;
+                }
+            }
+        }
+        return (T) constructor.newInstance(args);
+    }
+}
@@ -0,0 +1,271 @@
+package com.uber.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uber.RideDispatchApplication;
+import com.uber.metrics.DispatchMetrics;
+import com.uber.model.*;
+import com.uber.repository.AuditLogRepository;
+import com.uber.repository.ChangeLogRepository;
+import com.uber.repository.DriverRepository;
+import com.uber.repository.OrderRepository;
+import com.uber.service.AuditService;
+import com.uber.service.ChangeFeedService;
+import com.uber.service.DriverService;
+import com.uber.service.FareService;
+import com.uber.service.OrderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+
+/**
+ * 指標埋點開銷基準測試 (手動執行，不屬於 mvn test)
+ * 
+ * 完整流程 (建立訂單 → 查詢可接訂單 → 接單 → 開始 → 完成) 分別以指標關閉與開啟執行，
+ * 交錯多輪取中位數，輸出每個流程的時間與差異：
+ * 1. 服務層：直接呼叫服務 (無 HTTP、無序列化)，得到埋點本身的絕對成本
+ * 2. HTTP 層：每個請求在 Filter 與訊息轉換器中的記錄 (端點計時、狀態計數、序列化計時)
+ * 3. HTTP：兩個同時啟動的伺服器 (dispatch.metrics.enabled=false / true)
+ * 一個 HTTP 流程約 1.5 ms，兩台設定相同的伺服器直接比較即有約 ±7% 的差異 (單核心)，
+ * 遠大於 1% 目標，因此以 (服務層差異 + 5 × HTTP 層成本) / HTTP 流程時間 作為開銷；直接比較的結果僅供參考。
+ * 日誌調為 WARN。
+ * 
+ * 執行:
+ *   mvn test-compile
+ *   java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *        com.uber.benchmark.MetricsOverheadBenchmark
+ */
+public class MetricsOverheadBenchmark {
+    
+    private static final int FLOWS = 2_000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = 30;
+    private static final int DRIVERS = 32;
+    private static final int BACKLOG = 16;
+    private static final int REQUEST_ITERATIONS = 2_000_000;
+    private static final int HTTP_FLOWS = 100;
+    private static final int HTTP_WARMUP_ROUNDS = 20;
+    private static final int HTTP_ROUNDS = 40;
+    
+    private static long blackhole;
+    
+    private static final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    
+    public static void main(String[] args) throws Exception {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        
+        double serviceCost = runServices();
+        double requestCost = runRequestLayer();
+        double httpFlow = runHttp();
+        double flowCost = serviceCost + 5 * requestCost;
+        System.out.printf("overhead: %.2f µs/flow = %.3f%% of an HTTP flow%n", flowCost / 1e3, flowCost / httpFlow * 100);
+    }
+    
+    /**
+     * @return 開啟指標後每個流程增加的奈秒數
+     */
+    private static double runServices() {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            run(DispatchMetrics.DISABLED);
+            run(new DispatchMetrics(true));
+        }
+        
+        double[] disabled = new double[ROUNDS];
+        double[] enabled = new double[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            // 交錯執行，避免 GC 與 JIT 狀態偏向其中一方
+            if (round % 2 == 0) {
+                disabled[round] = run(DispatchMetrics.DISABLED);
+                enabled[round] = run(new DispatchMetrics(true));
+            } else {
+                enabled[round] = run(new DispatchMetrics(true));
+                disabled[round] = run(DispatchMetrics.DISABLED);
+            }
+        }
+        
+        double baseline = median(disabled);
+        double instrumented = median(enabled);
+        System.out.printf("service: metrics disabled %.2f µs/flow, enabled %.2f µs/flow, "
+                        + "overhead %+.2f µs (%+.2f%%) (blackhole %d)%n",
+                baseline / 1e3, instrumented / 1e3, (instrumented - baseline) / 1e3,
+                (instrumented - baseline) / baseline * 100, blackhole);
+        return instrumented - baseline;
+    }
+    
+    /**
+     * RequestMetricsFilter 與 TimedJsonMessageConverter 每個請求執行的記錄
+     * 
+     * @return 每個請求的奈秒數
+     */
+    private static double runRequestLayer() {
+        DispatchMetrics metrics = new DispatchMetrics(true);
+        String endpoint = "PUT /api/orders/{orderId}/accept";
+        double[] rounds = new double[ROUNDS];
+        for (int round = -WARMUP_ROUNDS; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < REQUEST_ITERATIONS; i++) {
+                long requestStart = metrics.start();
+                long serializationStart = metrics.start();
+                metrics.serialization().recordSince(serializationStart);
+                metrics.httpRequest(endpoint).recordSince(requestStart);
+                metrics.httpResponses().increment(endpoint, Integer.toString(200 + (i & 1)));
+            }
+            if (round >= 0) {
+                rounds[round] = (double) (System.nanoTime() - start) / REQUEST_ITERATIONS;
+            }
+        }
+        double perRequest = median(rounds);
+        System.out.printf("request: %.0f ns/request%n", perRequest);
+        return perRequest;
+    }
+    
+    /**
+     * @return 指標關閉時每個 HTTP 流程的奈秒數
+     */
+    private static double runHttp() throws Exception {
+        String[] properties = {"--server.port=0", "--logging.level.root=WARN", "--logging.level.com.uber=WARN",
+                "--dispatch.admission.enabled=false"};
+        try (ConfigurableApplicationContext off = start(properties, false);
+             ConfigurableApplicationContext on = start(properties, true)) {
+            String offUrl = baseUrl(off);
+            String onUrl = baseUrl(on);
+            registerDrivers(offUrl);
+            registerDrivers(onUrl);
+            
+            for (int round = 0; round < HTTP_WARMUP_ROUNDS; round++) {
+                runHttp(offUrl, round);
+                runHttp(onUrl, round);
+            }
+            double[] disabled = new double[HTTP_ROUNDS];
+            double[] enabled = new double[HTTP_ROUNDS];
+            for (int round = 0; round < HTTP_ROUNDS; round++) {
+                if (round % 2 == 0) {
+                    disabled[round] = runHttp(offUrl, HTTP_WARMUP_ROUNDS + round);
+                    enabled[round] = runHttp(onUrl, HTTP_WARMUP_ROUNDS + round);
+                } else {
+                    enabled[round] = runHttp(onUrl, HTTP_WARMUP_ROUNDS + round);
+                    disabled[round] = runHttp(offUrl, HTTP_WARMUP_ROUNDS + round);
+                }
+            }
+            
+            double baseline = median(disabled);
+            double instrumented = median(enabled);
+            System.out.printf("http:    metrics disabled %.1f µs/flow, enabled %.1f µs/flow, overhead %+.2f%%%n",
+                    baseline / 1e3, instrumented / 1e3, (instrumented - baseline) / baseline * 100);
+            return baseline;
+        }
+    }
+    
+    private static ConfigurableApplicationContext start(String[] properties, boolean metrics) {
+        String[] args = Arrays.copyOf(properties, properties.length + 1);
+        args[properties.length] = "--dispatch.metrics.enabled=" + metrics;
+        return new SpringApplicationBuilder(RideDispatchApplication.class).run(args);
+    }
+    
+    private static String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+    
+    private static void registerDrivers(String baseUrl) throws Exception {
+        for (int i = 0; i < DRIVERS; i++) {
+            String driverId = "driver-" + i;
+            send(baseUrl, "POST", "/api/drivers", "{\"driverId\":\"" + driverId + "\",\"name\":\"D\","
+                    + "\"phone\":\"0912345678\",\"vehiclePlate\":\"BEN-" + i + "\",\"vehicleType\":\"STANDARD\"}");
+            send(baseUrl, "PUT", "/api/drivers/" + driverId + "/online", "{\"x\":25.03,\"y\":121.56}");
+        }
+    }
+    
+    /**
+     * @return 每個流程的平均奈秒數
+     */
+    private static double runHttp(String baseUrl, int round) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < HTTP_FLOWS; i++) {
+            String driverId = "driver-" + (i % DRIVERS);
+            String driverBody = "{\"driverId\":\"" + driverId + "\"}";
+            HttpResponse<byte[]> created = send(baseUrl, "POST", "/api/orders", "{\"passengerId\":\"passenger-"
+                    + round + "-" + i + "\",\"pickupX\":25.033,\"pickupY\":121.565,\"dropoffX\":25.042,"
+                    + "\"dropoffY\":121.520,\"vehicleType\":\"STANDARD\"}");
+            String orderId = objectMapper.readTree(created.body()).path("data").path("orderId").asText();
+            send(baseUrl, "GET", "/api/drivers/" + driverId + "/offers", null);
+            send(baseUrl, "PUT", "/api/orders/" + orderId + "/accept", driverBody);
+            send(baseUrl, "PUT", "/api/orders/" + orderId + "/start", driverBody);
+            send(baseUrl, "PUT", "/api/orders/" + orderId + "/complete", driverBody);
+        }
+        return (double) (System.nanoTime() - start) / HTTP_FLOWS;
+    }
+    
+    private static HttpResponse<byte[]> send(String baseUrl, String method, String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(method + " " + path + " -> " + response.statusCode());
+        }
+        return response;
+    }
+    
+    /**
+     * @return 每個流程的平均奈秒數
+     */
+    private static double run(DispatchMetrics metrics) {
+        OrderRepository orderRepository = new OrderRepository();
+        DriverRepository driverRepository = new DriverRepository();
+        AuditService auditService = new AuditService(new AuditLogRepository());
+        auditService.setMetrics(metrics);
+        FareService fareService = new FareService();
+        fareService.initRatePlans();
+        ChangeFeedService changeFeedService = new ChangeFeedService(new ChangeLogRepository());
+        OrderService orderService = new OrderService(orderRepository, driverRepository, auditService, fareService,
+                changeFeedService);
+        orderService.setMetrics(metrics);
+        DriverService driverService = new DriverService(driverRepository, orderRepository, changeFeedService);
+        driverService.setMetrics(metrics);
+        
+        for (int i = 0; i < DRIVERS; i++) {
+            driverRepository.save(Driver.builder()
+                    .driverId("driver-" + i)
+                    .status(DriverStatus.ONLINE)
+                    .vehicleType(VehicleType.STANDARD)
+                    .location(new Location(25.03, 121.56))
+                    .build());
+        }
+        // 維持固定數量的待派訂單，讓查詢可接訂單有東西可掃
+        for (int i = 0; i < BACKLOG; i++) {
+            orderService.createOrder("backlog-" + i, new Location(25.0 + i * 1e-3, 121.5),
+                    new Location(25.1, 121.6), VehicleType.STANDARD);
+        }
+        
+        Location pickup = new Location(25.033, 121.565);
+        Location dropoff = new Location(25.042, 121.520);
+        long start = System.nanoTime();
+        for (int i = 0; i < FLOWS; i++) {
+            String driverId = "driver-" + (i % DRIVERS);
+            Order order = orderService.createOrder("passenger-" + i, pickup, dropoff, VehicleType.STANDARD);
+            blackhole += driverService.getOffers(driverId).size();
+            orderService.acceptOrder(order.getOrderId(), driverId);
+            orderService.startTrip(order.getOrderId(), driverId);
+            orderService.completeTrip(order.getOrderId(), driverId);
+        }
+        return (double) (System.nanoTime() - start) / FLOWS;
+    }
+    
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,118 @@
+package com.uber.benchmark;
+
+import com.uber.model.Location;
+import com.uber.model.Order;
+import com.uber.model.OrderStatus;
+import com.uber.model.VehicleType;
+import com.uber.repository.OrderRepository;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 訂單分層基準測試 (手動執行，不屬於 mvn test)
+ *
+ * 建立 FINISHED 筆已結束訂單與 PENDING 筆待派訂單，比較歸檔前後的 heap 使用量、
+ * 待派訂單掃描 (配對 / 可接訂單的熱路徑) 時間，以及歸檔後依 ID / 乘客查詢歷史的時間。
+ *
+ * 執行:
+ *   mvn test-compile
+ *   java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *        com.uber.benchmark.OrderTieringBenchmark
+ */
+public class OrderTieringBenchmark {
+
+    private static final int FINISHED = 500_000;
+    private static final int PENDING = 2_000;
+    private static final int PASSENGERS = 20_000;
+    private static final int SCANS = 200;
+    private static final int LOOKUPS = 20_000;
+
+    public static void main(String[] args) {
+        OrderRepository repository = new OrderRepository();
+        Instant finishedAt = Instant.now().minusSeconds(3600);
+        String[] orderIds = new String[FINISHED];
+        for (int i = 0; i < FINISHED; i++) {
+            orderIds[i] = UUID.randomUUID().toString();
+            repository.save(order(orderIds[i], i, i % 10 == 0 ? OrderStatus.CANCELLED : OrderStatus.COMPLETED,
+                    finishedAt));
+        }
+        for (int i = 0; i < PENDING; i++) {
+            repository.save(order(UUID.randomUUID().toString(), i, OrderStatus.PENDING, null));
+        }
+
+        long heapBefore = usedHeap();
+        double scanBefore = scanMicros(repository);
+        System.out.printf("hot only:  heap %,d MB, pending scan %.0f µs%n", heapBefore >> 20, scanBefore);
+
+        long start = System.nanoTime();
+        int moved = repository.archiveFinishedBefore(Instant.now());
+        double archiveMillis = (System.nanoTime() - start) / 1e6;
+
+        long heapAfter = usedHeap();
+        double scanAfter = scanMicros(repository);
+        System.out.printf("archived:  %,d orders in %.0f ms, heap %,d MB, cold store %,d MB off-heap, "
+                        + "pending scan %.0f µs%n", moved, archiveMillis, heapAfter >> 20,
+                repository.getColdStoreBytes() >> 20, scanAfter);
+
+        // 歷史查詢：隨機 ID / 乘客 (冷快取以外需解壓整個區塊)
+        java.util.Random random = new java.util.Random(42);
+        start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            repository.findById(orderIds[random.nextInt(FINISHED)]).orElseThrow();
+        }
+        double byIdMicros = (System.nanoTime() - start) / 1e3 / LOOKUPS;
+        start = System.nanoTime();
+        int found = 0;
+        for (int i = 0; i < LOOKUPS / 10; i++) {
+            found += repository.findByPassengerId("passenger-" + random.nextInt(PASSENGERS)).size();
+        }
+        double byPassengerMicros = (System.nanoTime() - start) / 1e3 / (LOOKUPS / 10);
+        System.out.printf("cold lookup by id %.1f µs, by passenger %.0f µs (%.1f orders each)%n",
+                byIdMicros, byPassengerMicros, found / (LOOKUPS / 10.0));
+    }
+
+    private static Order order(String orderId, int i, OrderStatus status, Instant finishedAt) {
+        return Order.builder()
+                .orderId(orderId)
+                .passengerId("passenger-" + (i % PASSENGERS))
+                .driverId(status == OrderStatus.PENDING ? null : "driver-" + (i % 5_000))
+                .status(status)
+                .vehicleType(VehicleType.values()[i % VehicleType.values().length])
+                .pickupLocation(new Location(25.0 + (i % 1000) * 0.0001, 121.5 + (i % 997) * 0.0001))
+                .dropoffLocation(new Location(25.1 - (i % 1000) * 0.0001, 121.4 + (i % 991) * 0.0001))
+                .estimatedFare(100.0 + i % 300)
+                .actualFare(status == OrderStatus.COMPLETED ? 110.0 + i % 290 : null)
+                .distance(1.0 + (i % 200) * 0.1)
+                .duration(status == OrderStatus.COMPLETED ? 5 + i % 40 : null)
+                .createdAt(Instant.now().minusSeconds(7200))
+                .acceptedAt(status == OrderStatus.PENDING ? null : Instant.now().minusSeconds(7000))
+                .startedAt(status == OrderStatus.COMPLETED ? Instant.now().minusSeconds(6000) : null)
+                .completedAt(status == OrderStatus.COMPLETED ? finishedAt : null)
+                .cancelledAt(status == OrderStatus.CANCELLED ? finishedAt : null)
+                .cancelledBy(status == OrderStatus.CANCELLED ? "passenger-" + (i % PASSENGERS) : null)
+                .cancelFee(status == OrderStatus.CANCELLED ? 30.0 : null)
+                .build();
+    }
+
+    private static double scanMicros(OrderRepository repository) {
+        for (int i = 0; i < SCANS / 4; i++) {
+            repository.findByStatus(OrderStatus.PENDING);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < SCANS; i++) {
+            if (repository.findByStatus(OrderStatus.PENDING).size() != PENDING) {
+                throw new IllegalStateException("unexpected pending count");
+            }
+        }
+        return (System.nanoTime() - start) / 1e3 / SCANS;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
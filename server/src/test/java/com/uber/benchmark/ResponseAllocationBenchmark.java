@@ -0,0 +1,129 @@
+package com.uber.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.uber.controller.AdminController;
+import com.uber.controller.DriverController;
+import com.uber.controller.OrderController;
+import com.uber.model.Location;
+import com.uber.model.VehicleType;
+import com.uber.repository.AuditLogRepository;
+import com.uber.repository.ChangeLogRepository;
+import com.uber.repository.DriverRepository;
+import com.uber.repository.OrderRepository;
+import com.uber.service.AuditService;
+import com.uber.service.ChangeFeedService;
+import com.uber.service.DriverService;
+import com.uber.service.FareService;
+import com.uber.service.OrderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Constructor;
+import java.util.concurrent.Callable;
+
+/**
+ * 每次請求的記憶體配置量基準測試 (手動執行，不屬於 mvn test)
+ * 
+ * 直接呼叫 controller 方法並將回應序列化到空輸出串流，
+ * 以 com.sun.management.ThreadMXBean 量測每次請求在目前執行緒配置的位元組數。
+ */
+public class ResponseAllocationBenchmark {
+    
+    private static final int OFFERS = 50;
+    private static final int ADMIN_ROWS = 100_000;
+    private static final int ITERATIONS = 2_000;
+    
+    private static final com.sun.management.ThreadMXBean THREAD_MX =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    
+    public static void main(String[] args) throws Exception {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .registerModule(new BlackbirdModule());
+        OrderRepository orderRepository = new OrderRepository();
+        DriverRepository driverRepository = new DriverRepository();
+        AuditService auditService = new AuditService(new AuditLogRepository());
+        FareService fareService = new FareService();
+        fareService.initRatePlans();
+        ChangeFeedService changeFeedService = new ChangeFeedService(new ChangeLogRepository());
+        OrderService orderService = new OrderService(orderRepository, driverRepository, auditService, fareService, changeFeedService);
+        DriverService driverService = new DriverService(driverRepository, orderRepository, changeFeedService);
+        
+        Object[] deps = {orderService, driverService, auditService, fareService, objectMapper};
+        OrderController orderController = newController(OrderController.class, deps);
+        DriverController driverController = newController(DriverController.class, deps);
+        AdminController adminController = newController(AdminController.class, deps);
+        
+        String orderId = null;
+        for (int i = 0; i < OFFERS; i++) {
+            orderId = orderService.createOrder("passenger-" + i, new Location(i, i),
+                    new Location(i + 1, i + 2), VehicleType.STANDARD).getOrderId();
+        }
+        for (int i = 0; i < ADMIN_ROWS; i++) {
+            driverService.registerDriver("driver-" + i, "Driver " + i, "0900000000", "ABC-" + i, VehicleType.STANDARD);
+        }
+        driverService.goOnline("driver-0", new Location(0, 0));
+        
+        String polledOrderId = orderId;
+        report("GET /api/orders/{id}", objectMapper, ITERATIONS,
+                () -> orderController.getOrder(polledOrderId, null));
+        report("GET /api/drivers/{id}/offers (" + OFFERS + " offers)", objectMapper, ITERATIONS,
+                () -> driverController.getOffers("driver-0", null, null));
+        report("GET /api/admin/drivers (" + ADMIN_ROWS + " rows)", objectMapper, 20,
+                () -> adminController.getAllDrivers(null, 0, null, null, null));
+    }
+    
+    private static void report(String name, ObjectMapper objectMapper, int iterations,
+                               Callable<ResponseEntity<?>> call) throws Exception {
+        // 暖身
+        for (int i = 0; i < iterations; i++) {
+            write(objectMapper, call.call());
+        }
+        
+        long threadId = Thread.currentThread().threadId();
+        long before = THREAD_MX.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            write(objectMapper, call.call());
+        }
+        long allocated = THREAD_MX.getThreadAllocatedBytes(threadId) - before;
+        
+        System.out.printf("%-45s %,12d bytes/request%n", name, allocated / iterations);
+    }
+    
+    private static void write(ObjectMapper objectMapper, ResponseEntity<?> response) throws Exception {
+        Object body = response.getBody();
+        if (body instanceof StreamingResponseBody streaming) {
+            streaming.writeTo(OutputStream.nullOutputStream());
+        } else {
+            objectMapper.writeValue(OutputStream.nullOutputStream(), body);
+        }
+    }
+    
+    /**
+     * 依建構子參數型別注入相依物件 (controller 建構子隨版本不同)
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T newController(Class<T> type, Object... deps) throws Exception {
+        Constructor<?> constructor = type.getConstructors()[0];
+        Class<?>[] paramTypes = constructor.getParameterTypes();
+        Object[] args = new Object[paramTypes.length];
+        for (int i = 0; i < paramTypes.length; i++) {
+            for (Object dep : deps) {
+                if (paramTypes[i].isInstance(dep)) {
+                    args[i] = dep;
+                    break;
+                }
+            }
+        }
+        return (T) constructor.newInstance(args);
+    }
+}
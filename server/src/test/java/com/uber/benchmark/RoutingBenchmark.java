@@ -0,0 +1,270 @@
+package com.uber.benchmark;
+
+import com.uber.model.Driver;
+import com.uber.model.DriverStatus;
+import com.uber.model.Location;
+import com.uber.model.Order;
+import com.uber.model.OrderStatus;
+import com.uber.model.VehicleType;
+import com.uber.repository.DriverRepository;
+import com.uber.repository.OrderRepository;
+import com.uber.routing.RoadGraph;
+import com.uber.routing.RoadNetworkDistance;
+import com.uber.service.MatchingService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 路網距離基準測試 (手動執行，不屬於 mvn test)
+ *
+ * 以 SIZE × SIZE 的格狀路網 (間距 0.1 km) 模擬城市：每 1 km 一條完整的雙向幹道，
+ * 其餘巷道 20% 缺口、20% 單向；x = 15 km 處有河流，每 5 km 一座橋：
+ * 1. 收縮階層前處理時間與捷徑數
+ * 2. 點對點查詢：收縮階層與原圖 Dijkstra (到達終點即停止) 的平均時間
+ * 3. 多對多 100 × 100：bucket 查詢與逐一點對點查詢
+ * 4. 配對：每筆訂單實際計算路網距離的司機數 (直線距離下界剪枝) 與半徑內候選數；
+ *    與直線距離配對相比，選到不同司機的比例與司機到上車點的平均行駛距離
+ *
+ * 執行:
+ *   mvn test-compile
+ *   java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *        com.uber.benchmark.RoutingBenchmark
+ */
+public class RoutingBenchmark {
+
+    private static final int SIZE = 300;
+    private static final double SPACING = 0.1;
+    private static final double RIVER_X = 15.0;
+    private static final double BRIDGE_EVERY = 5.0;
+    // 幹道間距 (格數)
+    private static final int ARTERIAL_EVERY = 10;
+    private static final int PAIRS = 2_000;
+    private static final int MATRIX = 100;
+    private static final int DRIVERS = 3_000;
+    private static final int ORDERS = 1_000;
+
+    public static void main(String[] args) {
+        RoadGraph graph = city(new Random(42));
+        long start = System.nanoTime();
+        RoadNetworkDistance road = new RoadNetworkDistance(graph);
+        System.out.printf("graph: %,d nodes, %,d arcs; contraction %,d ms, %,d shortcuts%n",
+                graph.nodeCount(), graph.arcCount(), (System.nanoTime() - start) / 1_000_000, road.shortcutCount());
+
+        pointToPoint(graph, road);
+        manyToMany(road);
+        matching(road);
+    }
+
+    private static void pointToPoint(RoadGraph graph, RoadNetworkDistance road) {
+        Random random = new Random(1);
+        int[] sources = random.ints(PAIRS, 0, graph.nodeCount()).toArray();
+        int[] targets = random.ints(PAIRS, 0, graph.nodeCount()).toArray();
+        int unreachable = 0;
+        // 暖機
+        for (int i = 0; i < PAIRS; i++) {
+            road.distance(graph.location(sources[i]), graph.location(targets[i]));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < PAIRS; i++) {
+            if (road.distance(graph.location(sources[i]), graph.location(targets[i])) == Double.POSITIVE_INFINITY) {
+                unreachable++;
+            }
+        }
+        double chMicros = (System.nanoTime() - start) / 1e3 / PAIRS;
+
+        int dijkstraPairs = PAIRS / 10;
+        start = System.nanoTime();
+        for (int i = 0; i < dijkstraPairs; i++) {
+            dijkstra(graph, sources[i], targets[i]);
+        }
+        double dijkstraMicros = (System.nanoTime() - start) / 1e3 / dijkstraPairs;
+        System.out.printf("point-to-point: contraction hierarchy %.1f µs, dijkstra %,.0f µs (%.0fx), %d unreachable%n",
+                chMicros, dijkstraMicros, dijkstraMicros / chMicros, unreachable);
+    }
+
+    private static void manyToMany(RoadNetworkDistance road) {
+        Random random = new Random(2);
+        List<Location> sources = new ArrayList<>();
+        List<Location> targets = new ArrayList<>();
+        for (int i = 0; i < MATRIX; i++) {
+            sources.add(randomLocation(random));
+            targets.add(randomLocation(random));
+        }
+        road.matrix(sources, targets);
+        long start = System.nanoTime();
+        double[][] matrix = road.matrix(sources, targets);
+        double matrixMillis = (System.nanoTime() - start) / 1e6;
+
+        start = System.nanoTime();
+        double maxError = 0;
+        for (int i = 0; i < MATRIX; i++) {
+            for (int j = 0; j < MATRIX; j++) {
+                double single = road.distance(sources.get(i), targets.get(j));
+                if (single != matrix[i][j]) {
+                    maxError = Math.max(maxError, Math.abs(single - matrix[i][j]));
+                }
+            }
+        }
+        double pairwiseMillis = (System.nanoTime() - start) / 1e6;
+        System.out.printf("many-to-many %dx%d: bucket %.1f ms, pairwise %.1f ms (max diff %.1e)%n",
+                MATRIX, MATRIX, matrixMillis, pairwiseMillis, maxError);
+    }
+
+    private static void matching(RoadNetworkDistance road) {
+        Random random = new Random(3);
+        DriverRepository driverRepository = new DriverRepository();
+        for (int i = 0; i < DRIVERS; i++) {
+            driverRepository.save(Driver.builder()
+                    .driverId(String.format("driver-%05d", i))
+                    .status(DriverStatus.ONLINE)
+                    .vehicleType(VehicleType.STANDARD)
+                    .location(randomLocation(random))
+                    .build());
+        }
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            orders.add(Order.builder()
+                    .orderId(String.format("order-%05d", i))
+                    .status(OrderStatus.PENDING)
+                    .vehicleType(VehicleType.STANDARD)
+                    .pickupLocation(randomLocation(random))
+                    .build());
+        }
+
+        MatchingService straight = new MatchingService(driverRepository, new OrderRepository());
+        MatchingService byRoad = new MatchingService(driverRepository, new OrderRepository());
+        LongAdder roadCalls = new LongAdder();
+        byRoad.setDistanceProvider((from, to) -> {
+            roadCalls.increment();
+            return road.distance(from, to);
+        });
+
+        long candidates = 0;
+        int differ = 0;
+        int roadMatched = 0;
+        int comparable = 0;
+        int straightUnreachable = 0;
+        double straightPickup = 0;
+        double roadPickup = 0;
+        long roadNanos = 0;
+        for (Order order : orders) {
+            Location pickup = order.getPickupLocation();
+            candidates += driverRepository.findAll().stream()
+                    .filter(driver -> driver.getLocation().distanceTo(pickup) <= byRoad.getSearchRadius())
+                    .count();
+            Optional<Driver> euclidean = straight.findBestDriver(order);
+            long start = System.nanoTime();
+            Optional<Driver> matched = byRoad.findBestDriver(order);
+            roadNanos += System.nanoTime() - start;
+            if (euclidean.isPresent() && matched.isPresent()) {
+                roadMatched++;
+                // 直線配對可能選到單向路段無法到達上車點的司機
+                double straightDrive = road.distance(euclidean.get().getLocation(), pickup);
+                if (straightDrive == Double.POSITIVE_INFINITY) {
+                    straightUnreachable++;
+                } else {
+                    straightPickup += straightDrive;
+                    roadPickup += road.distance(matched.get().getLocation(), pickup);
+                    comparable++;
+                }
+                if (!euclidean.get().getDriverId().equals(matched.get().getDriverId())) {
+                    differ++;
+                }
+            }
+        }
+        System.out.printf("matching (%,d drivers): %.0f candidates in radius, %.1f road distances per order, "
+                        + "%.0f µs per match%n", DRIVERS, (double) candidates / ORDERS,
+                roadCalls.doubleValue() / ORDERS, roadNanos / 1e3 / ORDERS);
+        System.out.printf("  road vs straight-line matching: %.1f%% different driver, "
+                        + "avg pickup drive %.2f km -> %.2f km, %d straight-line matches unreachable%n",
+                100.0 * differ / roadMatched, straightPickup / comparable, roadPickup / comparable,
+                straightUnreachable);
+
+        byRoad.setDistanceProvider(road);
+        long start = System.nanoTime();
+        int assigned = byRoad.findBestDrivers(orders.subList(0, 200)).size();
+        System.out.printf("batch matching 200 orders: %d assigned in %.1f ms%n",
+                assigned, (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * 格狀路網；河流兩岸只在橋的位置相連
+     */
+    static RoadGraph city(Random random) {
+        RoadGraph.Builder builder = RoadGraph.builder();
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                builder.addNode(x * SPACING + random.nextDouble() * 0.02, y * SPACING + random.nextDouble() * 0.02);
+            }
+        }
+        int riverColumn = (int) (RIVER_X / SPACING);
+        int bridgeEvery = (int) (BRIDGE_EVERY / SPACING);
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                int node = x * SIZE + y;
+                if (x + 1 < SIZE && (x != riverColumn || y % bridgeEvery == 0)) {
+                    connect(builder, random, node, node + SIZE, y % ARTERIAL_EVERY == 0);
+                }
+                if (y + 1 < SIZE) {
+                    connect(builder, random, node, node + 1, x % ARTERIAL_EVERY == 0);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * 幹道完整雙向；巷道 20% 缺口、各 10% 為兩個方向的單向
+     */
+    private static void connect(RoadGraph.Builder builder, Random random, int a, int b, boolean arterial) {
+        double roll = random.nextDouble();
+        if (arterial || roll >= 0.4) {
+            builder.addRoad(a, b, 0);
+        } else if (roll >= 0.3) {
+            builder.addOneWay(a, b, 0);
+        } else if (roll >= 0.2) {
+            builder.addOneWay(b, a, 0);
+        }
+    }
+
+    private static Location randomLocation(Random random) {
+        double extent = (SIZE - 1) * SPACING;
+        return new Location(random.nextDouble() * extent, random.nextDouble() * extent);
+    }
+
+    /**
+     * 原圖 Dijkstra，確定終點後停止
+     */
+    private static double dijkstra(RoadGraph graph, int source, int target) {
+        double[] dist = new double[graph.nodeCount()];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[source] = 0;
+        PriorityQueue<double[]> queue = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        queue.add(new double[]{0, source});
+        while (!queue.isEmpty()) {
+            double[] entry = queue.poll();
+            int u = (int) entry[1];
+            if (u == target) {
+                return entry[0];
+            }
+            if (entry[0] > dist[u]) {
+                continue;
+            }
+            for (int e = graph.firstArc(u); e < graph.firstArc(u + 1); e++) {
+                int v = graph.arcHead(e);
+                double candidate = dist[u] + graph.arcLength(e);
+                if (candidate < dist[v]) {
+                    dist[v] = candidate;
+                    queue.add(new double[]{candidate, v});
+                }
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+}
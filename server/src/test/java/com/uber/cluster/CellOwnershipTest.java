@@ -0,0 +1,133 @@
+package com.uber.cluster;
+
+import com.uber.model.Location;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 一致性雜湊與格子擁有權測試
+ */
+@DisplayName("叢集擁有權測試")
+class CellOwnershipTest {
+
+    private static ClusterProperties properties(String localNode, String... nodeIds) {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setEnabled(true);
+        properties.setNodeId(localNode);
+        for (String nodeId : nodeIds) {
+            properties.getNodes().put(nodeId, "http://localhost/" + nodeId);
+        }
+        return properties;
+    }
+
+    @Nested
+    @DisplayName("ConsistentHashRing")
+    class RingTests {
+
+        @Test
+        @DisplayName("鍵值平均分配到各節點")
+        void testEvenDistribution() {
+            ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c"), 128);
+            Map<String, Integer> counts = new HashMap<>();
+            for (int i = 0; i < 30_000; i++) {
+                counts.merge(ring.ownerOf("cell:" + i), 1, Integer::sum);
+            }
+
+            assertEquals(3, counts.size());
+            counts.values().forEach(count -> assertTrue(count > 7_000 && count < 13_000, "count=" + count));
+        }
+
+        @Test
+        @DisplayName("新增節點時只有約 1/N 的鍵值移動，且只移到新節點")
+        void testMinimalMovementOnAddNode() {
+            ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), 128);
+            ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b", "c", "d"), 128);
+
+            int moved = 0;
+            for (int i = 0; i < 20_000; i++) {
+                String key = "cell:" + i;
+                String owner = after.ownerOf(key);
+                if (!owner.equals(before.ownerOf(key))) {
+                    moved++;
+                    assertEquals("d", owner);
+                }
+            }
+            assertTrue(moved > 3_000 && moved < 7_000, "moved=" + moved);
+        }
+    }
+
+    @Nested
+    @DisplayName("GridCell")
+    class GridCellTests {
+
+        @Test
+        @DisplayName("負座標向下取整，鍵值可還原")
+        void testNegativeCoordinates() {
+            GridCell cell = GridCell.of(new Location(-0.5, 19.9), 10.0);
+
+            assertEquals(new GridCell(-1, 1), cell);
+            assertEquals("-1_1", cell.key());
+            assertEquals(cell, GridCell.parse(cell.key()));
+        }
+
+        @Test
+        @DisplayName("半徑內的格子包含跨邊界的鄰格")
+        void testCovering() {
+            List<GridCell> cells = GridCell.covering(new Location(9.0, 5.0), 2.0, 10.0);
+
+            assertEquals(List.of(new GridCell(0, 0), new GridCell(1, 0)), cells);
+        }
+    }
+
+    @Nested
+    @DisplayName("CellOwnership")
+    class OwnershipTests {
+
+        @Test
+        @DisplayName("訂單 ID 前綴決定擁有者，與上車點格子一致")
+        void testOrderOwnerFromIdPrefix() {
+            CellOwnership ownership = new CellOwnership(properties("a", "a", "b", "c"));
+            Location pickup = new Location(-35.0, 72.0);
+
+            String orderId = ownership.orderIdPrefix(pickup) + "550e8400-e29b-41d4-a716-446655440000";
+
+            assertTrue(orderId.startsWith("c-4_7-"));
+            assertEquals(ownership.ownerOfLocation(pickup), ownership.ownerOfOrder(orderId));
+        }
+
+        @Test
+        @DisplayName("不帶格子前綴的訂單 ID 視為本機")
+        void testPlainOrderIdIsLocal() {
+            CellOwnership ownership = new CellOwnership(properties("b", "a", "b"));
+
+            assertEquals("b", ownership.ownerOfOrder("550e8400-e29b-41d4-a716-446655440000"));
+        }
+
+        @Test
+        @DisplayName("各節點對同一鍵值的擁有者判斷一致")
+        void testOwnershipAgreesAcrossNodes() {
+            CellOwnership onA = new CellOwnership(properties("a", "a", "b", "c"));
+            CellOwnership onC = new CellOwnership(properties("c", "a", "b", "c"));
+
+            for (int i = 0; i < 100; i++) {
+                Location location = new Location(i * 7.3, -i * 3.1);
+                assertEquals(onA.ownerOfLocation(location), onC.ownerOfLocation(location));
+                assertEquals(onA.ownerOfDriver("driver-" + i), onC.ownerOfDriver("driver-" + i));
+            }
+        }
+
+        @Test
+        @DisplayName("nodes 未包含本節點時拒絕啟動")
+        void testLocalNodeMustBeListed() {
+            assertThrows(IllegalArgumentException.class, () -> new CellOwnership(properties("x", "a", "b")));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.uber.cluster;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 注入延遲的 TCP 轉送 (測試用)
+ * 
+ * 節點間請求經此轉送到目標節點，每段送往目標的資料先延遲 delayMillis，模擬網路延遲或暫時性分割
+ */
+public final class DelayProxy implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final int targetPort;
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+    private volatile long delayMillis;
+
+    public DelayProxy(int targetPort) throws IOException {
+        this.targetPort = targetPort;
+        this.serverSocket = new ServerSocket(0);
+        Thread.ofVirtual().name("delay-proxy-" + serverSocket.getLocalPort()).start(this::acceptLoop);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public void setDelayMillis(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                Socket target = new Socket();
+                target.connect(new InetSocketAddress("localhost", targetPort));
+                sockets.add(client);
+                sockets.add(target);
+                Thread.ofVirtual().start(() -> pump(client, target, true));
+                Thread.ofVirtual().start(() -> pump(target, client, false));
+            } catch (IOException e) {
+                // 目標節點已停止或 proxy 已關閉：丟棄此連線
+            }
+        }
+    }
+
+    private void pump(Socket from, Socket to, boolean delayed) {
+        byte[] buffer = new byte[8192];
+        try (InputStream in = from.getInputStream(); OutputStream out = to.getOutputStream()) {
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                long delay = delayMillis;
+                if (delayed && delay > 0) {
+                    Thread.sleep(delay);
+                }
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+        } catch (IOException | InterruptedException e) {
+            // 連線中斷
+        } finally {
+            closeQuietly(from);
+            closeQuietly(to);
+        }
+    }
+
+    private void closeQuietly(Socket socket) {
+        sockets.remove(socket);
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // 已關閉
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+            // 已關閉
+        }
+        sockets.forEach(this::closeQuietly);
+    }
+}
@@ -0,0 +1,142 @@
+package com.uber.cluster;
+
+import com.uber.RideDispatchApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 在同一個 JVM 內以不同 port 啟動多個叢集節點 (測試與基準測試用)
+ */
+public final class LocalCluster implements AutoCloseable {
+
+    private final Map<String, String> urls;
+    // 節點間請求使用的位址 (經 DelayProxy 時為 proxy 位址)
+    private final Map<String, String> peerUrls = new LinkedHashMap<>();
+    private final Map<String, DelayProxy> proxies = new LinkedHashMap<>();
+    private final Map<String, ConfigurableApplicationContext> contexts = new LinkedHashMap<>();
+
+    private LocalCluster(Map<String, String> urls) {
+        this.urls = urls;
+    }
+
+    /**
+     * 啟動 size 個節點 (node-1 ... node-N)，extraProperties 為各節點共用的額外設定 (key=value)
+     */
+    public static LocalCluster start(int size, String... extraProperties) throws IOException {
+        return start(size, false, extraProperties);
+    }
+
+    /**
+     * 同 start，但節點間請求經 DelayProxy 轉送，可以 proxy(nodeId) 注入送往該節點的延遲
+     */
+    public static LocalCluster startWithProxies(int size, String... extraProperties) throws IOException {
+        return start(size, true, extraProperties);
+    }
+
+    private static LocalCluster start(int size, boolean proxied, String... extraProperties) throws IOException {
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (int i = 1; i <= size; i++) {
+            urls.put("node-" + i, "http://localhost:" + freePort());
+        }
+
+        LocalCluster cluster = new LocalCluster(urls);
+        try {
+            for (Map.Entry<String, String> entry : urls.entrySet()) {
+                if (proxied) {
+                    DelayProxy proxy = new DelayProxy(port(entry.getValue()));
+                    cluster.proxies.put(entry.getKey(), proxy);
+                    cluster.peerUrls.put(entry.getKey(), "http://localhost:" + proxy.getPort());
+                } else {
+                    cluster.peerUrls.put(entry.getKey(), entry.getValue());
+                }
+            }
+
+            for (String nodeId : urls.keySet()) {
+                // 以命令列參數傳入，優先於 application.yml；extraProperties 可覆寫預設值
+                Map<String, String> properties = new LinkedHashMap<>();
+                properties.put("server.port", String.valueOf(port(urls.get(nodeId))));
+                properties.put("dispatch.cluster.enabled", "true");
+                properties.put("dispatch.cluster.node-id", nodeId);
+                properties.put("spring.main.banner-mode", "off");
+                properties.put("spring.jmx.enabled", "false");
+                properties.put("logging.level.root", "WARN");
+                properties.put("logging.level.com.uber", "WARN");
+                cluster.peerUrls.forEach((id, url) -> properties.put("dispatch.cluster.nodes." + id, url));
+                for (String property : extraProperties) {
+                    int separator = property.indexOf('=');
+                    properties.put(property.substring(0, separator), property.substring(separator + 1));
+                }
+
+                cluster.contexts.put(nodeId, new SpringApplicationBuilder(RideDispatchApplication.class)
+                        .run(properties.entrySet().stream()
+                                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                                .toArray(String[]::new)));
+            }
+        } catch (RuntimeException | IOException e) {
+            cluster.close();
+            throw e;
+        }
+        return cluster;
+    }
+
+    public List<String> nodeIds() {
+        return List.copyOf(urls.keySet());
+    }
+
+    public String url(String nodeId) {
+        return urls.get(nodeId);
+    }
+
+    public <T> T bean(String nodeId, Class<T> type) {
+        return contexts.get(nodeId).getBean(type);
+    }
+
+    public DelayProxy proxy(String nodeId) {
+        return proxies.get(nodeId);
+    }
+
+    /**
+     * 擁有權判斷 (各節點一致，取任一執行中節點的實例)
+     */
+    public CellOwnership ownership() {
+        return bean(contexts.keySet().iterator().next(), CellOwnership.class);
+    }
+
+    /**
+     * 停止節點 (模擬節點失效)，其他節點之後對它的請求皆連線失敗
+     */
+    public void stop(String nodeId) {
+        ConfigurableApplicationContext context = contexts.remove(nodeId);
+        if (context != null) {
+            context.close();
+        }
+        DelayProxy proxy = proxies.remove(nodeId);
+        if (proxy != null) {
+            proxy.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        contexts.values().forEach(ConfigurableApplicationContext::close);
+        contexts.clear();
+        proxies.values().forEach(DelayProxy::close);
+        proxies.clear();
+    }
+
+    private static int port(String url) {
+        return Integer.parseInt(url.substring(url.lastIndexOf(':') + 1));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.uber.config;
+
+import com.uber.dto.ApiResponse;
+import com.uber.dto.CreateOrderRequest;
+import com.uber.dto.response.OrderResponse;
+import com.uber.dto.response.ReplicationSnapshot;
+import com.uber.model.ChangeEvent;
+import com.uber.model.Order;
+import com.uber.model.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DispatchRuntimeHints 測試 - 原生映像所需的 Jackson 綁定反射提示
+ */
+@DisplayName("DispatchRuntimeHints 測試")
+class DispatchRuntimeHintsTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new DispatchRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("ApiResponse 與巢狀 ErrorInfo 可反射建構與存取")
+    void testApiResponseRegistered() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ApiResponse.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ApiResponse.ErrorInfo.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(ApiResponse.class.getMethod("getData")).test(hints));
+    }
+
+    @Test
+    @DisplayName("Lombok 實體含 setter 可供反序列化")
+    void testModelSettersRegistered() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(Order.class.getMethod("setStatus", OrderStatus.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ChangeEvent.EntityType.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(CreateOrderRequest.class).test(hints));
+    }
+
+    @Test
+    @DisplayName("回應 record 註冊 accessor 與標準建構子")
+    void testResponseRecordsRegistered() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(OrderResponse.class.getMethod("orderId")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ReplicationSnapshot.class).test(hints));
+    }
+}
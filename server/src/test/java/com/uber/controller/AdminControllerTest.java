@@ -3,6 +3,8 @@ package com.uber.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.uber.dto.*;
 import com.uber.model.*;
+import com.uber.repository.ChangeSet;
+import com.uber.repository.OrderFilter;
 import com.uber.service.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,11 +15,19 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.context.aot.DisabledInAotMode;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -29,6 +39,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Issue #17: 驗證 AdminController REST API 完整性
  */
 @WebMvcTest(AdminController.class)
+@DisabledInAotMode
 class AdminControllerTest {
 
     @Autowired
@@ -49,6 +60,23 @@ class AdminControllerTest {
     @MockitoBean
     private FareService fareService;
 
+    /**
+     * 列表端點以 StreamingResponseBody 輸出，需經 async dispatch 取得回應內容
+     */
+    private ResultActions performStreaming(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
+    private void stubOrders(Order... orders) {
+        when(orderService.exportOrders(any(OrderFilter.class))).thenAnswer(invocation -> {
+            OrderFilter filter = invocation.getArgument(0);
+            return Arrays.stream(orders).filter(filter::matches).iterator();
+        });
+    }
+
     private Order sampleOrder;
     private Driver sampleDriver;
     private AuditLog sampleAuditLog;
@@ -114,9 +142,9 @@ class AdminControllerTest {
         @Test
         @DisplayName("成功取得所有訂單含分頁資訊")
         void getAllOrders_Success() throws Exception {
-            when(orderService.getAllOrders()).thenReturn(List.of(sampleOrder));
+            stubOrders(sampleOrder);
 
-            mockMvc.perform(get("/api/admin/orders"))
+            performStreaming(get("/api/admin/orders"))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.success").value(true))
                     .andExpect(jsonPath("$.data.orders").isArray())
@@ -135,9 +163,9 @@ class AdminControllerTest {
                     .vehicleType(VehicleType.STANDARD)
                     .build();
 
-            when(orderService.getAllOrders()).thenReturn(List.of(sampleOrder, pendingOrder));
+            stubOrders(sampleOrder, pendingOrder);
 
-            mockMvc.perform(get("/api/admin/orders")
+            performStreaming(get("/api/admin/orders")
                             .param("status", "COMPLETED"))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.success").value(true))
@@ -147,9 +175,9 @@ class AdminControllerTest {
         @Test
         @DisplayName("無效狀態參數時忽略篩選")
         void getAllOrders_WithInvalidStatus() throws Exception {
-            when(orderService.getAllOrders()).thenReturn(List.of(sampleOrder));
+            stubOrders(sampleOrder);
 
-            mockMvc.perform(get("/api/admin/orders")
+            performStreaming(get("/api/admin/orders")
                             .param("status", "INVALID_STATUS"))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.success").value(true))
@@ -159,9 +187,9 @@ class AdminControllerTest {
         @Test
         @DisplayName("空字串狀態參數時忽略篩選")
         void getAllOrders_WithEmptyStatus() throws Exception {
-            when(orderService.getAllOrders()).thenReturn(List.of(sampleOrder));
+            stubOrders(sampleOrder);
 
-            mockMvc.perform(get("/api/admin/orders")
+            performStreaming(get("/api/admin/orders")
                             .param("status", ""))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.success").value(true))
@@ -171,9 +199,9 @@ class AdminControllerTest {
         @Test
         @DisplayName("訂單列表為空時分頁正確")
         void getAllOrders_EmptyList() throws Exception {
-            when(orderService.getAllOrders()).thenReturn(List.of());
+            stubOrders();
 
-            mockMvc.perform(get("/api/admin/orders"))
+            performStreaming(get("/api/admin/orders"))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.success").value(true))
                     .andExpect(jsonPath("$.data.orders").isEmpty())
@@ -184,9 +212,9 @@ class AdminControllerTest {
         @Test
         @DisplayName("分頁超出範圍時回傳空列表")
         void getAllOrders_PageOutOfBounds() throws Exception {
-            when(orderService.getAllOrders()).thenReturn(List.of(sampleOrder));
+            stubOrders(sampleOrder);
 
-            mockMvc.perform(get("/api/admin/orders")
+            performStreaming(get("/api/admin/orders")
                             .param("page", "10")
                             .param("size", "20"))
                     .andExpect(status().isOk())
@@ -198,9 +226,9 @@ class AdminControllerTest {
         @Test
         @DisplayName("支援分頁")
         void getAllOrders_WithPagination() throws Exception {
-            when(orderService.getAllOrders()).thenReturn(List.of(sampleOrder));
+            stubOrders(sampleOrder);
 
-            mockMvc.perform(get("/api/admin/orders")
+            performStreaming(get("/api/admin/orders")
                             .param("page", "0")
                             .param("size", "10"))
                     .andExpect(status().isOk())
@@ -208,6 +236,34 @@ class AdminControllerTest {
                     .andExpect(jsonPath("$.data.pagination.page").value(0))
                     .andExpect(jsonPath("$.data.pagination.size").value(10));
         }
+
+        @Test
+        @DisplayName("分頁依建立時間新到舊，第二頁只回傳該頁訂單")
+        void getAllOrders_SecondPageNewestFirst() throws Exception {
+            Instant base = Instant.parse("2024-01-01T00:00:00Z");
+            List<Order> orders = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                orders.add(Order.builder()
+                        .orderId("order-" + i)
+                        .status(OrderStatus.COMPLETED)
+                        .vehicleType(VehicleType.STANDARD)
+                        .createdAt(base.plusSeconds((i * 3) % 7))
+                        .build());
+            }
+            stubOrders(orders.toArray(Order[]::new));
+
+            // 建立時間秒數：order-0=0, 1=3, 2=6, 3=2, 4=5, 5=1, 6=4 → 新到舊為 2,4,6,1,3,5,0
+            performStreaming(get("/api/admin/orders")
+                            .param("page", "1")
+                            .param("size", "3"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.orders.length()").value(3))
+                    .andExpect(jsonPath("$.data.orders[0].orderId").value("order-1"))
+                    .andExpect(jsonPath("$.data.orders[1].orderId").value("order-3"))
+                    .andExpect(jsonPath("$.data.orders[2].orderId").value("order-5"))
+                    .andExpect(jsonPath("$.data.pagination.totalElements").value(7))
+                    .andExpect(jsonPath("$.data.pagination.totalPages").value(3));
+        }
     }
 
     @Nested
@@ -289,9 +345,9 @@ class AdminControllerTest {
         @Test
         @DisplayName("成功取得所有司機")
         void getAllDrivers_Success() throws Exception {
-            when(driverService.getAllDrivers()).thenReturn(List.of(sampleDriver));
+            when(driverService.scanDrivers()).thenAnswer(invocation -> List.of(sampleDriver).iterator());
 
-            mockMvc.perform(get("/api/admin/drivers"))
+            performStreaming(get("/api/admin/drivers"))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.success").value(true))
                     .andExpect(jsonPath("$.data.drivers").isArray())
@@ -318,9 +374,9 @@ class AdminControllerTest {
                     .lastUpdatedAt(Instant.now())
                     .build();
 
-            when(driverService.getAllDrivers()).thenReturn(List.of(onlineDriver, offlineDriver));
+            when(driverService.scanDrivers()).thenAnswer(invocation -> List.of(onlineDriver, offlineDriver).iterator());
 
-            mockMvc.perform(get("/api/admin/drivers")
+            performStreaming(get("/api/admin/drivers")
                             .param("status", "ONLINE"))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.success").value(true))
@@ -330,9 +386,9 @@ class AdminControllerTest {
         @Test
         @DisplayName("無效狀態參數時忽略篩選")
         void getAllDrivers_WithInvalidStatus() throws Exception {
-            when(driverService.getAllDrivers()).thenReturn(List.of(sampleDriver));
+            when(driverService.scanDrivers()).thenAnswer(invocation -> List.of(sampleDriver).iterator());
 
-            mockMvc.perform(get("/api/admin/drivers")
+            performStreaming(get("/api/admin/drivers")
                             .param("status", "INVALID_STATUS"))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.success").value(true))
@@ -342,9 +398,9 @@ class AdminControllerTest {
         @Test
         @DisplayName("空字串狀態參數時忽略篩選")
         void getAllDrivers_WithEmptyStatus() throws Exception {
-            when(driverService.getAllDrivers()).thenReturn(List.of(sampleDriver));
+            when(driverService.scanDrivers()).thenAnswer(invocation -> List.of(sampleDriver).iterator());
 
-            mockMvc.perform(get("/api/admin/drivers")
+            performStreaming(get("/api/admin/drivers")
                             .param("status", ""))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.success").value(true))
@@ -363,9 +419,9 @@ class AdminControllerTest {
                     .lastUpdatedAt(Instant.now())
                     .build();
 
-            when(driverService.getAllDrivers()).thenReturn(List.of(minimalDriver));
+            when(driverService.scanDrivers()).thenAnswer(invocation -> List.of(minimalDriver).iterator());
 
-            mockMvc.perform(get("/api/admin/drivers"))
+            performStreaming(get("/api/admin/drivers"))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.success").value(true))
                     .andExpect(jsonPath("$.data.drivers[0].phone").doesNotExist())
@@ -382,9 +438,9 @@ class AdminControllerTest {
         @Test
         @DisplayName("成功取得所有 Audit Log")
         void getAuditLogs_Success() throws Exception {
-            when(auditService.getAllLogs()).thenReturn(List.of(sampleAuditLog));
+            when(auditService.findLogs(null, null, null, null)).thenReturn(List.of(sampleAuditLog));
 
-            mockMvc.perform(get("/api/admin/audit-logs"))
+            performStreaming(get("/api/admin/audit-logs"))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.success").value(true))
                     .andExpect(jsonPath("$.data.logs").isArray())
@@ -396,9 +452,9 @@ class AdminControllerTest {
         @Test
         @DisplayName("支援 orderId 篩選")
         void getAuditLogs_WithOrderIdFilter() throws Exception {
-            when(auditService.getLogsByOrderId("order-123")).thenReturn(List.of(sampleAuditLog));
+            when(auditService.findLogs("order-123", null, null, null)).thenReturn(List.of(sampleAuditLog));
 
-            mockMvc.perform(get("/api/admin/audit-logs")
+            performStreaming(get("/api/admin/audit-logs")
                             .param("orderId", "order-123"))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.success").value(true))
@@ -408,9 +464,9 @@ class AdminControllerTest {
         @Test
         @DisplayName("空字串 orderId 時查詢所有 log")
         void getAuditLogs_WithEmptyOrderId() throws Exception {
-            when(auditService.getAllLogs()).thenReturn(List.of(sampleAuditLog));
+            when(auditService.findLogs(null, null, null, null)).thenReturn(List.of(sampleAuditLog));
 
-            mockMvc.perform(get("/api/admin/audit-logs")
+            performStreaming(get("/api/admin/audit-logs")
                             .param("orderId", ""))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.success").value(true))
@@ -420,16 +476,10 @@ class AdminControllerTest {
         @Test
         @DisplayName("支援 action 篩選")
         void getAuditLogs_WithActionFilter() throws Exception {
-            AuditLog createLog = AuditLog.builder()
-                    .id("audit-002")
-                    .action("CREATE")
-                    .orderId("order-123")
-                    .build();
-
-            when(auditService.getAllLogs()).thenReturn(List.of(sampleAuditLog, createLog));
+            when(auditService.findLogs(null, "ACCEPT", null, null)).thenReturn(List.of(sampleAuditLog));
 
-            mockMvc.perform(get("/api/admin/audit-logs")
-                            .param("action", "ACCEPT"))
+            performStreaming(get("/api/admin/audit-logs")
+                            .param("action", "accept"))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.success").value(true))
                     .andExpect(jsonPath("$.data.count").value(1));
@@ -438,9 +488,9 @@ class AdminControllerTest {
         @Test
         @DisplayName("空字串 action 時不篩選")
         void getAuditLogs_WithEmptyAction() throws Exception {
-            when(auditService.getAllLogs()).thenReturn(List.of(sampleAuditLog));
+            when(auditService.findLogs(null, null, null, null)).thenReturn(List.of(sampleAuditLog));
 
-            mockMvc.perform(get("/api/admin/audit-logs")
+            performStreaming(get("/api/admin/audit-logs")
                             .param("action", ""))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.success").value(true))
@@ -463,13 +513,125 @@ class AdminControllerTest {
                     .failureReason("Order already accepted")
                     .build();
 
-            when(auditService.getAllLogs()).thenReturn(List.of(failedLog));
+            when(auditService.findLogs(null, null, null, null)).thenReturn(List.of(failedLog));
 
-            mockMvc.perform(get("/api/admin/audit-logs"))
+            performStreaming(get("/api/admin/audit-logs"))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.success").value(true))
                     .andExpect(jsonPath("$.data.logs[0].failureReason").value("Order already accepted"));
         }
+
+        @Test
+        @DisplayName("支援時間範圍篩選")
+        void getAuditLogs_WithTimeRange() throws Exception {
+            Instant from = Instant.parse("2024-01-01T00:00:00Z");
+            Instant to = Instant.parse("2024-01-02T00:00:00Z");
+            when(auditService.findLogs("order-123", "ACCEPT", from, to)).thenReturn(List.of(sampleAuditLog));
+
+            performStreaming(get("/api/admin/audit-logs")
+                            .param("orderId", "order-123")
+                            .param("action", "ACCEPT")
+                            .param("from", "2024-01-01T00:00:00Z")
+                            .param("to", "2024-01-02T00:00:00Z"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.count").value(1));
+        }
+
+        @Test
+        @DisplayName("時間格式錯誤時回傳 INVALID_REQUEST")
+        void getAuditLogs_InvalidTime() throws Exception {
+            mockMvc.perform(get("/api/admin/audit-logs")
+                            .param("from", "yesterday"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.success").value(false))
+                    .andExpect(jsonPath("$.error.code").value("INVALID_REQUEST"));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/admin/export/* - 匯出")
+    class ExportTests {
+
+        @Test
+        @DisplayName("訂單匯出為 NDJSON，每行一筆且條件傳給服務")
+        void exportOrders_Ndjson() throws Exception {
+            Order second = sampleOrder.toBuilder().orderId("order-456").build();
+            when(orderService.exportOrders(new OrderFilter(OrderStatus.COMPLETED, "passenger-001", null, null, null)))
+                    .thenReturn(List.of(sampleOrder, second).iterator());
+
+            String body = performStreaming(get("/api/admin/export/orders")
+                            .param("status", "completed")
+                            .param("passengerId", "passenger-001"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/x-ndjson"))
+                    .andExpect(header().string("Content-Disposition", containsString("orders.ndjson")))
+                    .andReturn().getResponse().getContentAsString();
+
+            String[] lines = body.split("\n");
+            assertEquals(2, lines.length);
+            assertEquals("order-123", objectMapper.readTree(lines[0]).get("orderId").asText());
+            assertEquals(25.5, objectMapper.readTree(lines[0]).get("pickupLocation").get("x").asDouble());
+            assertEquals("order-456", objectMapper.readTree(lines[1]).get("orderId").asText());
+        }
+
+        @Test
+        @DisplayName("訂單匯出為 CSV，含標題列")
+        void exportOrders_Csv() throws Exception {
+            when(orderService.exportOrders(OrderFilter.ALL)).thenReturn(List.of(sampleOrder).iterator());
+
+            String body = performStreaming(get("/api/admin/export/orders").param("format", "csv"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                    .andReturn().getResponse().getContentAsString();
+
+            String[] lines = body.split("\r\n");
+            assertEquals(2, lines.length);
+            assertTrue(lines[0].startsWith("orderId,status,passengerId,driverId,vehicleType,pickupX,pickupY"));
+            assertTrue(lines[1].startsWith("order-123,COMPLETED,passenger-001,driver-456,STANDARD,25.5,30.2,"));
+        }
+
+        @Test
+        @DisplayName("Audit Log 匯出為 CSV，特殊字元加引號，回傳續傳序號")
+        void exportAuditLogs_Csv() throws Exception {
+            sampleAuditLog.setSuccess(false);
+            sampleAuditLog.setFailureReason("busy, \"retry\"");
+            when(auditService.getLogCount()).thenReturn(42);
+            when(auditService.exportLogs("order-123", "ACCEPT", null, null, 10, 42))
+                    .thenReturn(List.of(sampleAuditLog).iterator());
+
+            String body = performStreaming(get("/api/admin/export/audit-logs")
+                            .param("format", "CSV")
+                            .param("orderId", "order-123")
+                            .param("action", "accept")
+                            .param("since", "10"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(AdminController.EXPORT_SEQUENCE_HEADER, "42"))
+                    .andReturn().getResponse().getContentAsString();
+
+            String[] lines = body.split("\r\n");
+            assertEquals("id,timestamp,orderId,action,actorType,actorId,previousState,newState,success,failureReason",
+                    lines[0]);
+            assertTrue(lines[1].endsWith(",false,\"busy, \"\"retry\"\"\""));
+        }
+
+        @Test
+        @DisplayName("匯出放寬非同步逾時")
+        void export_ExtendsAsyncTimeout() throws Exception {
+            when(orderService.exportOrders(OrderFilter.ALL)).thenReturn(List.<Order>of().iterator());
+
+            MvcResult result = mockMvc.perform(get("/api/admin/export/orders"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            assertEquals(ExportRows.TIMEOUT_MILLIS, result.getRequest().getAsyncContext().getTimeout());
+        }
+
+        @Test
+        @DisplayName("不支援的格式回傳 INVALID_REQUEST")
+        void export_InvalidFormat() throws Exception {
+            mockMvc.perform(get("/api/admin/export/orders").param("format", "xml"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error.code").value("INVALID_REQUEST"));
+        }
     }
 
     @Nested
@@ -562,4 +724,130 @@ class AdminControllerTest {
                     .andExpect(jsonPath("$.data.generatedAt").exists());
         }
     }
+
+    @Nested
+    @DisplayName("列表端點條件查詢 (ETag)")
+    class ConditionalGetTests {
+
+        @Test
+        @DisplayName("司機列表未變動時回傳 304")
+        void getAllDrivers_NotModified() throws Exception {
+            when(driverService.getDriversModificationCount()).thenReturn(8L);
+
+            mockMvc.perform(get("/api/admin/drivers")
+                            .header("If-None-Match", "\"drivers-8\""))
+                    .andExpect(status().isNotModified());
+
+            verify(driverService, never()).getAllDrivers();
+        }
+
+        @Test
+        @DisplayName("訂單列表回應帶有 ETag")
+        void getAllOrders_ReturnsETag() throws Exception {
+            when(orderService.getOrdersModificationCount()).thenReturn(42L);
+            stubOrders(sampleOrder);
+
+            performStreaming(get("/api/admin/orders"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "W/\"orders-42\""))
+                    .andExpect(jsonPath("$.data.orders[0].orderId").value("order-123"));
+        }
+    }
+
+    @Nested
+    @DisplayName("列表端點增量查詢 (since)")
+    class IncrementalTests {
+
+        @Test
+        @DisplayName("訂單增量查詢回傳變更列與新序號")
+        void getOrders_SinceReturnsChanges() throws Exception {
+            when(orderService.getOrdersModificationCount()).thenReturn(12L);
+            when(orderService.getOrderChanges(10L))
+                    .thenReturn(new ChangeSet<>(12L, false, List.of(sampleOrder)));
+
+            performStreaming(get("/api/admin/orders").param("since", "10").param("status", "PENDING"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.changes[0].orderId").value("order-123"))
+                    .andExpect(jsonPath("$.data.changes[0].status").value("COMPLETED"))
+                    .andExpect(jsonPath("$.data.sequence").value(12))
+                    .andExpect(jsonPath("$.data.reset").value(false));
+
+            verify(orderService, never()).getAllOrders();
+        }
+
+        @Test
+        @DisplayName("since 早於清空時要求重新載入")
+        void getDrivers_SinceBeforeReset() throws Exception {
+            when(driverService.getDriverChanges(3L)).thenReturn(new ChangeSet<>(20L, true, List.of()));
+
+            performStreaming(get("/api/admin/drivers").param("since", "3"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.changes").isEmpty())
+                    .andExpect(jsonPath("$.data.reset").value(true));
+        }
+
+        @Test
+        @DisplayName("訂單快照依建立時間新到舊排序並帶序號")
+        void getOrders_SnapshotNewestFirst() throws Exception {
+            Order newer = Order.builder()
+                    .orderId("order-new")
+                    .status(OrderStatus.PENDING)
+                    .createdAt(Instant.now())
+                    .build();
+            when(orderService.getOrdersModificationCount()).thenReturn(7L);
+            stubOrders(sampleOrder, newer);
+
+            performStreaming(get("/api/admin/orders"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.orders[0].orderId").value("order-new"))
+                    .andExpect(jsonPath("$.data.orders[1].orderId").value("order-123"))
+                    .andExpect(jsonPath("$.data.sequence").value(7));
+        }
+
+        @Test
+        @DisplayName("司機列表帶 size 時分頁")
+        void getDrivers_Paged() throws Exception {
+            Driver other = Driver.builder()
+                    .driverId("driver-001")
+                    .name("李小華")
+                    .status(DriverStatus.ONLINE)
+                    .vehicleType(VehicleType.STANDARD)
+                    .lastUpdatedAt(Instant.now())
+                    .build();
+            when(driverService.scanDrivers()).thenAnswer(invocation -> List.of(sampleDriver, other).iterator());
+
+            performStreaming(get("/api/admin/drivers").param("page", "1").param("size", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.drivers[0].driverId").value("driver-456"))
+                    .andExpect(jsonPath("$.data.count").value(1))
+                    .andExpect(jsonPath("$.data.totalElements").value(2));
+        }
+
+        @Test
+        @DisplayName("審計日誌自 offset 起讀取並回傳下一個序號")
+        void getAuditLogs_SinceOffset() throws Exception {
+            when(auditService.getLogCount()).thenReturn(5);
+            when(auditService.getLogsFrom(3, 2)).thenReturn(List.of(sampleAuditLog));
+
+            performStreaming(get("/api/admin/audit-logs").param("since", "3").param("limit", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.logs[0].id").value("audit-001"))
+                    .andExpect(jsonPath("$.data.sequence").value(4))
+                    .andExpect(jsonPath("$.data.hasMore").value(true))
+                    .andExpect(jsonPath("$.data.reset").value(false));
+        }
+
+        @Test
+        @DisplayName("審計日誌 offset 超過總數時要求重新載入")
+        void getAuditLogs_SinceBeyondEnd() throws Exception {
+            when(auditService.getLogCount()).thenReturn(2);
+
+            performStreaming(get("/api/admin/audit-logs").param("since", "9"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.sequence").value(0))
+                    .andExpect(jsonPath("$.data.reset").value(true));
+
+            verify(auditService, never()).getLogsFrom(anyInt(), anyInt());
+        }
+    }
 }
@@ -0,0 +1,194 @@
+package com.uber.controller;
+
+import com.uber.model.*;
+import com.uber.repository.ChangeSet;
+import com.uber.service.ChangeFeedService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.context.aot.DisabledInAotMode;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * ChangeController 測試 - 增量查詢與 SSE 串流
+ */
+@WebMvcTest(ChangeController.class)
+@DisabledInAotMode
+class ChangeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ChangeFeedService changeFeedService;
+
+    private ChangeEvent orderEvent;
+    private ChangeEvent driverEvent;
+
+    /**
+     * 變更端點以 StreamingResponseBody 輸出，需經 async dispatch 取得回應內容
+     */
+    private ResultActions performStreaming(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
+    @BeforeEach
+    void setUp() {
+        orderEvent = ChangeEvent.builder()
+                .sequence(11)
+                .timestamp(Instant.now())
+                .entityType(ChangeEvent.EntityType.ORDER)
+                .entityId("order-1")
+                .action("ACCEPT")
+                .order(Order.builder()
+                        .orderId("order-1")
+                        .passengerId("passenger-1")
+                        .driverId("driver-1")
+                        .status(OrderStatus.ACCEPTED)
+                        .vehicleType(VehicleType.STANDARD)
+                        .build())
+                .build();
+        driverEvent = ChangeEvent.builder()
+                .sequence(12)
+                .timestamp(Instant.now())
+                .entityType(ChangeEvent.EntityType.DRIVER)
+                .entityId("driver-1")
+                .action("ASSIGN")
+                .driver(Driver.builder()
+                        .driverId("driver-1")
+                        .status(DriverStatus.ONLINE)
+                        .busy(true)
+                        .currentOrderId("order-1")
+                        .build())
+                .build();
+    }
+
+    @Nested
+    @DisplayName("GET /api/changes")
+    class GetChangesTests {
+
+        @Test
+        @DisplayName("回傳 since 之後的事件與續查序號")
+        void getChanges_Success() throws Exception {
+            when(changeFeedService.getChangesSince(10, 1000))
+                    .thenReturn(new ChangeSet<>(12, false, List.of(orderEvent, driverEvent)));
+            when(changeFeedService.getLastSequence()).thenReturn(12L);
+
+            performStreaming(get("/api/changes").param("since", "10"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.success").value(true))
+                    .andExpect(jsonPath("$.data.changes.length()").value(2))
+                    .andExpect(jsonPath("$.data.changes[0].sequence").value(11))
+                    .andExpect(jsonPath("$.data.changes[0].type").value("ORDER"))
+                    .andExpect(jsonPath("$.data.changes[0].order.status").value("ACCEPTED"))
+                    .andExpect(jsonPath("$.data.changes[0].driver").doesNotExist())
+                    .andExpect(jsonPath("$.data.changes[1].driver.busy").value(true))
+                    .andExpect(jsonPath("$.data.sequence").value(12))
+                    .andExpect(jsonPath("$.data.reset").value(false))
+                    .andExpect(jsonPath("$.data.hasMore").value(false));
+        }
+
+        @Test
+        @DisplayName("達到 limit 時 hasMore 為 true")
+        void getChanges_HasMore() throws Exception {
+            when(changeFeedService.getChangesSince(10, 1))
+                    .thenReturn(new ChangeSet<>(11, false, List.of(orderEvent)));
+            when(changeFeedService.getLastSequence()).thenReturn(12L);
+
+            performStreaming(get("/api/changes").param("since", "10").param("limit", "1"))
+                    .andExpect(jsonPath("$.data.sequence").value(11))
+                    .andExpect(jsonPath("$.data.hasMore").value(true));
+        }
+
+        @Test
+        @DisplayName("since 已失效時回傳 reset")
+        void getChanges_Reset() throws Exception {
+            when(changeFeedService.getChangesSince(1, 1000))
+                    .thenReturn(new ChangeSet<>(90_000, true, List.of()));
+            when(changeFeedService.getLastSequence()).thenReturn(90_000L);
+
+            performStreaming(get("/api/changes").param("since", "1"))
+                    .andExpect(jsonPath("$.data.changes.length()").value(0))
+                    .andExpect(jsonPath("$.data.reset").value(true))
+                    .andExpect(jsonPath("$.data.hasMore").value(false));
+        }
+
+        @Test
+        @DisplayName("limit 超出範圍回傳 400")
+        void getChanges_InvalidLimit() throws Exception {
+            mockMvc.perform(get("/api/changes").param("limit", "0"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error.code").value("INVALID_REQUEST"));
+
+            verify(changeFeedService, never()).getChangesSince(anyLong(), anyInt());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/changes/stream")
+    class StreamTests {
+
+        @Test
+        @DisplayName("以 SSE 格式送出積壓事件，id 為序號")
+        void stream_Backlog() throws Exception {
+            when(changeFeedService.getChangesSince(eq(10L), anyInt()))
+                    .thenReturn(new ChangeSet<>(12, false, List.of(orderEvent, driverEvent)));
+            when(changeFeedService.getChangesSince(eq(12L), anyInt()))
+                    .thenReturn(new ChangeSet<>(12, false, List.of()));
+
+            performStreaming(get("/api/changes/stream").param("since", "10").param("wait", "0"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Type", containsString("text/event-stream")))
+                    .andExpect(content().string(containsString("id: 11\nevent: change\ndata: {")))
+                    .andExpect(content().string(containsString("id: 12\nevent: change\n")))
+                    .andExpect(content().string(not(containsString("event: reset"))));
+        }
+
+        @Test
+        @DisplayName("Last-Event-ID 優先於 since")
+        void stream_ResumesFromLastEventId() throws Exception {
+            when(changeFeedService.getChangesSince(eq(11L), anyInt()))
+                    .thenReturn(new ChangeSet<>(12, false, List.of(driverEvent)));
+
+            performStreaming(get("/api/changes/stream")
+                    .param("since", "0").param("wait", "0")
+                    .header("Last-Event-ID", "11"))
+                    .andExpect(content().string(containsString("id: 12\n")))
+                    .andExpect(content().string(not(containsString("id: 11\n"))));
+
+            verify(changeFeedService, never()).getChangesSince(eq(0L), anyInt());
+        }
+
+        @Test
+        @DisplayName("since 已失效時送出 reset 事件後結束")
+        void stream_Reset() throws Exception {
+            when(changeFeedService.getChangesSince(eq(1L), anyInt()))
+                    .thenReturn(new ChangeSet<>(90_000, true, List.of()));
+
+            performStreaming(get("/api/changes/stream").param("since", "1"))
+                    .andExpect(content().string(containsString("event: reset\ndata: {\"sequence\":90000}")));
+
+            verify(changeFeedService, never()).awaitChangesAfter(anyLong(), anyLong());
+        }
+    }
+}
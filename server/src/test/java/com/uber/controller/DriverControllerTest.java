@@ -13,6 +13,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.context.aot.DisabledInAotMode;
 
 import java.time.Instant;
 import java.util.List;
@@ -28,6 +29,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Issue #16: 驗證 DriverController REST API 完整性
  */
 @WebMvcTest(DriverController.class)
+@DisabledInAotMode
 class DriverControllerTest {
 
     @Autowired
@@ -197,6 +199,84 @@ class DriverControllerTest {
                     .andExpect(jsonPath("$.data.count").value(1));
         }
 
+        @Test
+        @DisplayName("ETag 未變時回傳 304 且不查詢訂單")
+        void getOffers_NotModified() throws Exception {
+            when(driverService.getDriverVersion("driver-456")).thenReturn(3L);
+            when(driverService.getOrdersModificationCount()).thenReturn(57L);
+
+            mockMvc.perform(get("/api/drivers/driver-456/offers")
+                            .header("If-None-Match", "\"offers-3-57\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", "W/\"offers-3-57\""));
+
+            verify(driverService, never()).getOffers(anyString());
+        }
+
+        @Test
+        @DisplayName("叢集模式不回傳 ETag 也不回應 304 (列表含其他節點的訂單)")
+        void getOffers_ClusteredNotConditional() throws Exception {
+            when(driverService.isClustered()).thenReturn(true);
+            when(driverService.getDriverVersion("driver-456")).thenReturn(3L);
+            when(driverService.getOrdersModificationCount()).thenReturn(57L);
+            when(driverService.getOffers("driver-456")).thenReturn(List.of());
+
+            mockMvc.perform(get("/api/drivers/driver-456/offers")
+                            .header("If-None-Match", "\"offers-3-57\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("ETag"));
+        }
+
+        @Test
+        @DisplayName("開啟訂單保留時 ETag 另含保留變更次數與期間分段")
+        void getOffers_LeaseVersionInETag() throws Exception {
+            when(driverService.getDriverVersion("driver-456")).thenReturn(3L);
+            when(driverService.getOrdersModificationCount()).thenReturn(57L);
+            when(driverService.isOfferLeaseEnabled()).thenReturn(true);
+            when(driverService.getOfferLeaseChanges()).thenReturn(9L);
+            when(driverService.getOfferLeasePeriod()).thenReturn(4L);
+            when(driverService.getOffers("driver-456")).thenReturn(List.of());
+
+            mockMvc.perform(get("/api/drivers/driver-456/offers")
+                            .header("If-None-Match", "\"offers-3-57\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "W/\"offers-3-57-9-4\""));
+        }
+
+        @Test
+        @DisplayName("開啟等候加權排序時 ETag 另含秒數分段")
+        void getOffers_RankingVersionInETag() throws Exception {
+            when(driverService.getDriverVersion("driver-456")).thenReturn(3L);
+            when(driverService.getOrdersModificationCount()).thenReturn(57L);
+            when(driverService.isOfferAgingEnabled()).thenReturn(true);
+            when(driverService.getOfferRankingVersion()).thenReturn(1700000000L);
+            when(driverService.getOffers("driver-456")).thenReturn(List.of());
+
+            mockMvc.perform(get("/api/drivers/driver-456/offers"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "W/\"offers-3-57-1700000000\""));
+        }
+
+        @Test
+        @DisplayName("limit 只取前幾筆")
+        void getOffers_Limit() throws Exception {
+            when(driverService.getOffers("driver-456", 2)).thenReturn(List.of());
+
+            mockMvc.perform(get("/api/drivers/driver-456/offers").param("limit", "2"))
+                    .andExpect(status().isOk());
+
+            verify(driverService).getOffers("driver-456", 2);
+            verify(driverService, never()).getOffers(anyString());
+        }
+
+        @Test
+        @DisplayName("limit 小於 1 回傳 400")
+        void getOffers_InvalidLimit() throws Exception {
+            mockMvc.perform(get("/api/drivers/driver-456/offers").param("limit", "0"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.success").value(false));
+        }
+
         @Test
         @DisplayName("無訂單時回傳空列表")
         void getOffers_Empty() throws Exception {
@@ -325,4 +405,47 @@ class DriverControllerTest {
                     .andExpect(jsonPath("$.data.count").value(1));
         }
     }
+
+    @Nested
+    @DisplayName("POST /api/drivers/bulk - 批次註冊司機 (NDJSON)")
+    class BulkRegisterDriverTests {
+
+        @Test
+        @DisplayName("批次註冊回傳每行的 driverId 或錯誤")
+        void bulkRegister_PerLineResults() throws Exception {
+            when(driverService.registerDrivers(anyList())).thenAnswer(inv -> {
+                List<RegisterDriverRequest> batch = inv.getArgument(0);
+                return batch.stream()
+                        .map(r -> Driver.builder().driverId(r.getDriverId()).build())
+                        .toList();
+            });
+
+            String body = "{\"driverId\":\"d1\",\"name\":\"A\",\"vehicleType\":\"STANDARD\"}\n"
+                    + "{\"driverId\":\"d2\",\"name\":\"\",\"vehicleType\":\"STANDARD\"}\n"
+                    + "{\"driverId\":\"d3\",\"name\":\"C\",\"vehicleType\":\"ROCKET\"}\n";
+
+            mockMvc.perform(post("/api/drivers/bulk")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content(body))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(
+                            "{\"line\":1,\"success\":true,\"id\":\"d1\"}\n"
+                            + "{\"line\":2,\"success\":false,\"error\":{\"code\":\"VALIDATION_ERROR\",\"message\":\"姓名不可為空\"}}\n"
+                            + "{\"line\":3,\"success\":false,\"error\":{\"code\":\"INVALID_JSON\",\"message\":\"無法解析 JSON\"}}\n"));
+        }
+
+        @Test
+        @DisplayName("批次寫入失敗時該批每行皆回報錯誤")
+        void bulkRegister_BatchFailure() throws Exception {
+            when(driverService.registerDrivers(anyList()))
+                    .thenThrow(new com.uber.exception.BusinessException("INTERNAL_ERROR", "寫入失敗"));
+
+            mockMvc.perform(post("/api/drivers/bulk")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content("{\"driverId\":\"d1\",\"name\":\"A\",\"vehicleType\":\"STANDARD\"}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.success").value(false))
+                    .andExpect(jsonPath("$.error.code").value("INTERNAL_ERROR"));
+        }
+    }
 }
@@ -13,9 +13,13 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.context.aot.DisabledInAotMode;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -27,6 +31,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Issue #15: 驗證 OrderController REST API 完整性
  */
 @WebMvcTest(OrderController.class)
+@DisabledInAotMode
 class OrderControllerTest {
 
     @Autowired
@@ -109,6 +114,72 @@ class OrderControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /api/orders?ids= - 批次查詢訂單")
+    class GetOrdersBatchTests {
+
+        @Test
+        @DisplayName("回傳存在的訂單並列出不存在的 ID")
+        void getOrders_FoundAndMissing() throws Exception {
+            when(orderService.getOrders(anyCollection())).thenReturn(List.of(sampleOrder));
+
+            mockMvc.perform(get("/api/orders").param("ids", "order-123,order-missing,order-123"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.count").value(1))
+                    .andExpect(jsonPath("$.data.orders[0].orderId").value("order-123"))
+                    .andExpect(jsonPath("$.data.notFound[0]").value("order-missing"))
+                    .andExpect(jsonPath("$.data.notFound.length()").value(1));
+
+            // 重複的 ID 只查詢一次
+            verify(orderService).getOrders(argThat(ids -> ids.size() == 2));
+        }
+
+        @Test
+        @DisplayName("超過上限回傳 400")
+        void getOrders_TooManyIds() throws Exception {
+            String ids = String.join(",", java.util.stream.IntStream.range(0, 101)
+                    .mapToObj(i -> "order-" + i).toList());
+
+            mockMvc.perform(get("/api/orders").param("ids", ids))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error.code").value("INVALID_REQUEST"));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/orders?passengerId= / driverId= - 歷史訂單")
+    class HistoryTests {
+
+        @Test
+        @DisplayName("依乘客查詢並帶入筆數上限")
+        void getPassengerHistory() throws Exception {
+            when(orderService.getPassengerHistory("passenger-001", 20)).thenReturn(List.of(sampleOrder));
+
+            mockMvc.perform(get("/api/orders").param("passengerId", "passenger-001").param("limit", "20"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.count").value(1))
+                    .andExpect(jsonPath("$.data.orders[0].orderId").value("order-123"));
+        }
+
+        @Test
+        @DisplayName("依司機查詢，預設 50 筆")
+        void getDriverHistory() throws Exception {
+            when(orderService.getDriverHistory("driver-001", 50)).thenReturn(List.of());
+
+            mockMvc.perform(get("/api/orders").param("driverId", "driver-001"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.count").value(0));
+        }
+
+        @Test
+        @DisplayName("limit 超過上限回傳 400")
+        void getHistory_InvalidLimit() throws Exception {
+            mockMvc.perform(get("/api/orders").param("passengerId", "passenger-001").param("limit", "201"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error.code").value("INVALID_REQUEST"));
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/orders/{orderId} - 查詢訂單")
     class GetOrderTests {
@@ -232,6 +303,32 @@ class OrderControllerTest {
                     .andExpect(jsonPath("$.data.cancelledBy").value("passenger-001"))
                     .andExpect(jsonPath("$.data.cancelFee").value(0.0));
         }
+
+        @Test
+        @DisplayName("If-None-Match 符合時回傳 304")
+        void getOrder_NotModified() throws Exception {
+            when(orderService.getOrderVersion("order-123")).thenReturn(12L);
+
+            mockMvc.perform(get("/api/orders/order-123")
+                            .header("If-None-Match", "W/\"order-12\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", "W/\"order-12\""));
+
+            verify(orderService, never()).getOrder(anyString());
+        }
+
+        @Test
+        @DisplayName("版本已變時回傳 200 與新 ETag")
+        void getOrder_Modified() throws Exception {
+            when(orderService.getOrderVersion("order-123")).thenReturn(13L);
+            when(orderService.getOrder("order-123")).thenReturn(sampleOrder);
+
+            mockMvc.perform(get("/api/orders/order-123")
+                            .header("If-None-Match", "\"order-12\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "W/\"order-13\""))
+                    .andExpect(jsonPath("$.data.orderId").value("order-123"));
+        }
     }
 
     @Nested
@@ -369,4 +466,112 @@ class OrderControllerTest {
                     .andExpect(jsonPath("$.data.cancelFee").value(0.0));
         }
     }
+
+    @Nested
+    @DisplayName("POST /api/orders/quotes - 批次報價")
+    class QuoteFaresTests {
+
+        @Test
+        @DisplayName("成功報價回傳各車種預估車資且不建立訂單")
+        void quoteFares_Success() throws Exception {
+            when(fareService.quoteRoute(any(), any()))
+                    .thenReturn(new FareQuote(10.0, Map.of(
+                            VehicleType.STANDARD, 200.0,
+                            VehicleType.PREMIUM, 330.0,
+                            VehicleType.XL, 400.0)));
+
+            FareQuoteRequest request = FareQuoteRequest.builder()
+                    .routes(List.of(
+                            FareQuoteRequest.Route.builder()
+                                    .pickupX(0.0).pickupY(0.0)
+                                    .dropoffX(6.0).dropoffY(8.0)
+                                    .vehicleType(VehicleType.PREMIUM)
+                                    .build(),
+                            FareQuoteRequest.Route.builder()
+                                    .pickupX(1.0).pickupY(1.0)
+                                    .dropoffX(7.0).dropoffY(9.0)
+                                    .build()))
+                    .build();
+
+            mockMvc.perform(post("/api/orders/quotes")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.success").value(true))
+                    .andExpect(jsonPath("$.data.count").value(2))
+                    .andExpect(jsonPath("$.data.quotes[0].estimatedFare").value(330.0))
+                    .andExpect(jsonPath("$.data.quotes[0].estimates.XL").value(400.0))
+                    .andExpect(jsonPath("$.data.quotes[1].estimates.STANDARD").value(200.0));
+
+            verifyNoInteractions(orderService);
+        }
+
+        @Test
+        @DisplayName("空路線回傳 400 Bad Request")
+        void quoteFares_EmptyRoutes() throws Exception {
+            FareQuoteRequest request = FareQuoteRequest.builder()
+                    .routes(List.of())
+                    .build();
+
+            mockMvc.perform(post("/api/orders/quotes")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/orders/bulk - 批次建立訂單 (NDJSON)")
+    class BulkCreateOrderTests {
+
+        @Test
+        @DisplayName("逐行回傳結果，無效行不影響其他行")
+        void bulkCreate_PerLineResults() throws Exception {
+            when(orderService.checkNewOrder(any(), any())).thenAnswer(inv ->
+                    inv.getArgument(0).equals(inv.getArgument(1))
+                            ? ValidationResult.SAME_PICKUP_DROPOFF : ValidationResult.OK);
+            when(orderService.createOrders(anyList())).thenAnswer(inv -> {
+                List<CreateOrderRequest> batch = inv.getArgument(0);
+                return batch.stream()
+                        .map(r -> Order.builder().orderId("order-" + r.getPassengerId()).build())
+                        .toList();
+            });
+
+            String body = String.join("\n",
+                    "{\"passengerId\":\"p1\",\"pickupX\":0,\"pickupY\":0,\"dropoffX\":3,\"dropoffY\":4,\"vehicleType\":\"STANDARD\"}",
+                    "{not json",
+                    "",
+                    "{\"pickupX\":0,\"pickupY\":0,\"dropoffX\":3,\"dropoffY\":4,\"vehicleType\":\"STANDARD\"}",
+                    "{\"passengerId\":\"p4\",\"pickupX\":1,\"pickupY\":1,\"dropoffX\":1,\"dropoffY\":1,\"vehicleType\":\"STANDARD\"}",
+                    "{\"passengerId\":\"p5\",\"pickupX\":1,\"pickupY\":1,\"dropoffX\":2,\"dropoffY\":2,\"vehicleType\":\"PREMIUM\"}");
+
+            String response = mockMvc.perform(post("/api/orders/bulk")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content(body))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
+
+            List<Map<?, ?>> results = response.lines()
+                    .<Map<?, ?>>map(this::readMap)
+                    .toList();
+            assertEquals(5, results.size());
+            assertEquals(Map.of("line", 1, "success", true, "id", "order-p1"), results.get(0));
+            assertEquals("INVALID_JSON", ((Map<?, ?>) results.get(1).get("error")).get("code"));
+            assertEquals(4, results.get(2).get("line"));
+            assertEquals("VALIDATION_ERROR", ((Map<?, ?>) results.get(2).get("error")).get("code"));
+            assertEquals("INVALID_REQUEST", ((Map<?, ?>) results.get(3).get("error")).get("code"));
+            assertEquals("order-p5", results.get(4).get("id"));
+            // 有效資料以單一批次寫入
+            verify(orderService, times(1)).createOrders(argThat(batch -> batch.size() == 2));
+        }
+
+        private Map<?, ?> readMap(String line) {
+            try {
+                return objectMapper.readValue(line, Map.class);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
 }
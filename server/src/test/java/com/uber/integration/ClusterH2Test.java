@@ -0,0 +1,339 @@
+package com.uber.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uber.cluster.CellOwnership;
+import com.uber.cluster.GridCell;
+import com.uber.cluster.LocalCluster;
+import com.uber.model.Driver;
+import com.uber.model.Order;
+import com.uber.model.OrderStatus;
+import com.uber.repository.DriverRepository;
+import com.uber.repository.OrderRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.aot.DisabledInAotMode;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 叢集模式 H2 搶單測試 - 兩階段保留 (fenced claim)
+ *
+ * 節點於 localhost 以不同 port 啟動，節點間請求經 DelayProxy 轉送以注入延遲；
+ * 訂單與司機分屬不同節點時，仍須確保每筆訂單只有 1 位司機、每位司機只有 1 筆訂單
+ */
+@DisabledInAotMode
+@DisplayName("叢集模式 H2 搶單測試")
+class ClusterH2Test {
+
+    private static final String[] PROPERTIES = {
+            "dispatch.cluster.request-timeout-millis=400",
+            "dispatch.cluster.claim-lease-millis=600",
+            "dispatch.cluster.claim-orphan-timeout-millis=1500"
+    };
+
+    private static LocalCluster cluster;
+    private static CellOwnership ownership;
+    private static final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final AtomicInteger sequence = new AtomicInteger();
+
+    @BeforeAll
+    static void startCluster() throws Exception {
+        cluster = LocalCluster.startWithProxies(2, PROPERTIES);
+        ownership = cluster.ownership();
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        cluster.close();
+    }
+
+    @AfterEach
+    void clearDelays() {
+        cluster.nodeIds().forEach(nodeId -> cluster.proxy(nodeId).setDelayMillis(0));
+    }
+
+    @Test
+    @DisplayName("CT-H2 (叢集): 兩節點各 5 位司機經不同節點同時搶單，僅 1 人成功")
+    void testConcurrentAcceptAcrossNodes() throws Exception {
+        String orderId = createOrder(cluster, cellOwnedBy("node-2"));
+        List<String> drivers = new ArrayList<>();
+        drivers.addAll(onlineDrivers(cluster, "node-1", 5, cellOwnedBy("node-2")));
+        drivers.addAll(onlineDrivers(cluster, "node-2", 5, cellOwnedBy("node-2")));
+
+        ExecutorService executor = Executors.newFixedThreadPool(drivers.size());
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<java.util.concurrent.Future<HttpResponse<String>>> results = new ArrayList<>();
+        for (int i = 0; i < drivers.size(); i++) {
+            String driverId = drivers.get(i);
+            String viaNode = i % 2 == 0 ? "node-1" : "node-2";
+            results.add(executor.submit(() -> {
+                startLatch.await();
+                return accept(cluster, viaNode, orderId, driverId);
+            }));
+        }
+        startLatch.countDown();
+
+        int successCount = 0;
+        for (var result : results) {
+            HttpResponse<String> response = result.get(10, TimeUnit.SECONDS);
+            if (response.statusCode() == 200) {
+                successCount++;
+            } else {
+                assertEquals(409, response.statusCode(), response.body());
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, successCount);
+        Order order = cluster.bean("node-2", OrderRepository.class).findById(orderId).orElseThrow();
+        assertEquals(OrderStatus.ACCEPTED, order.getStatus());
+        awaitCondition(() -> busyDrivers(cluster, drivers).equals(List.of(order.getDriverId())));
+    }
+
+    @Test
+    @DisplayName("注入 50ms 延遲的搶單風暴：每筆訂單 1 位司機，每位忙碌司機對應 1 筆訂單")
+    void testAcceptStormWithDelays() throws Exception {
+        cluster.nodeIds().forEach(nodeId -> cluster.proxy(nodeId).setDelayMillis(50));
+        List<String> orders = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            orders.add(createOrder(cluster, cellOwnedBy(i % 2 == 0 ? "node-1" : "node-2")));
+        }
+        List<String> drivers = new ArrayList<>();
+        drivers.addAll(onlineDrivers(cluster, "node-1", 6, cellOwnedBy("node-1")));
+        drivers.addAll(onlineDrivers(cluster, "node-2", 6, cellOwnedBy("node-2")));
+
+        ExecutorService executor = Executors.newFixedThreadPool(drivers.size());
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch doneLatch = new CountDownLatch(drivers.size());
+        for (int i = 0; i < drivers.size(); i++) {
+            String driverId = drivers.get(i);
+            String viaNode = i % 2 == 0 ? "node-1" : "node-2";
+            List<String> attempts = new ArrayList<>(orders);
+            Collections.shuffle(attempts);
+            executor.submit(() -> {
+                try {
+                    startLatch.await();
+                    for (String orderId : attempts) {
+                        if (accept(cluster, viaNode, orderId, driverId).statusCode() == 200) {
+                            break;
+                        }
+                    }
+                } catch (Exception e) {
+                    // 個別請求失敗不影響不變量檢查
+                } finally {
+                    doneLatch.countDown();
+                }
+            });
+        }
+        startLatch.countDown();
+        assertTrue(doneLatch.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+        cluster.nodeIds().forEach(nodeId -> cluster.proxy(nodeId).setDelayMillis(0));
+
+        List<String> assignedDrivers = new ArrayList<>();
+        for (String orderId : orders) {
+            Order order = findOrder(cluster, orderId).orElseThrow();
+            if (order.getStatus() == OrderStatus.ACCEPTED) {
+                assignedDrivers.add(order.getDriverId());
+                Driver driver = findDriver(cluster, order.getDriverId()).orElseThrow();
+                assertEquals(orderId, driver.getCurrentOrderId());
+            }
+        }
+        assertFalse(assignedDrivers.isEmpty());
+        assertEquals(assignedDrivers.size(), assignedDrivers.stream().distinct().count());
+        // 失敗嘗試遺留的保留在租約逾期後皆已釋放
+        awaitCondition(() -> busyDrivers(cluster, drivers).stream().sorted().toList()
+                .equals(assignedDrivers.stream().sorted().toList()));
+    }
+
+    @Test
+    @DisplayName("保留請求延遲超過逾時：接單回應 503，司機於租約裁決後釋放並可再接單")
+    void testDelayedReserveIsAborted() throws Exception {
+        String driverId = onlineDrivers(cluster, "node-1", 1, cellOwnedBy("node-2")).get(0);
+        String orderId = createOrder(cluster, cellOwnedBy("node-2"));
+
+        cluster.proxy("node-1").setDelayMillis(700);
+        HttpResponse<String> response = accept(cluster, "node-2", orderId, driverId);
+        assertEquals(503, response.statusCode(), response.body());
+        assertEquals("NODE_UNAVAILABLE", errorCode(response));
+        assertEquals(OrderStatus.PENDING, findOrder(cluster, orderId).orElseThrow().getStatus());
+
+        cluster.proxy("node-1").setDelayMillis(0);
+        awaitCondition(() -> !findDriver(cluster, driverId).orElseThrow().isBusy());
+
+        assertEquals(200, accept(cluster, "node-2", orderId, driverId).statusCode());
+        assertEquals(orderId, findDriver(cluster, driverId).orElseThrow().getCurrentOrderId());
+    }
+
+    @Test
+    @DisplayName("H4 (叢集): 同一司機經不同節點重複接單皆成功")
+    void testIdempotentAcceptAcrossNodes() throws Exception {
+        String driverId = onlineDrivers(cluster, "node-1", 1, cellOwnedBy("node-2")).get(0);
+        String orderId = createOrder(cluster, cellOwnedBy("node-2"));
+
+        assertEquals(200, accept(cluster, "node-1", orderId, driverId).statusCode());
+        assertEquals(200, accept(cluster, "node-2", orderId, driverId).statusCode());
+
+        assertEquals(driverId, findOrder(cluster, orderId).orElseThrow().getDriverId());
+        assertEquals(orderId, findDriver(cluster, driverId).orElseThrow().getCurrentOrderId());
+    }
+
+    @Test
+    @DisplayName("Fencing: 同 token 重送冪等，較舊 token 與已放棄的 token 回應 CLAIM_FENCED")
+    void testFencingTokens() throws Exception {
+        String driverId = onlineDrivers(cluster, "node-1", 1, cellOwnedBy("node-1")).get(0);
+        String orderId = "c" + cellOwnedBy("node-2").key() + "-fenced-" + sequence.incrementAndGet();
+
+        assertEquals(200, claim(cluster, "node-1", "reserve", driverId, orderId, 10).statusCode());
+        assertEquals(200, claim(cluster, "node-1", "reserve", driverId, orderId, 10).statusCode());
+        assertEquals("CLAIM_FENCED", errorCode(claim(cluster, "node-1", "reserve", driverId, orderId, 5)));
+        assertEquals("CLAIM_FENCED", errorCode(claim(cluster, "node-1", "commit", driverId, orderId, 9)));
+
+        assertEquals(200, claim(cluster, "node-1", "abort", driverId, orderId, 10).statusCode());
+        assertFalse(findDriver(cluster, driverId).orElseThrow().isBusy());
+        assertEquals("CLAIM_FENCED", errorCode(claim(cluster, "node-1", "reserve", driverId, orderId, 10)));
+    }
+
+    @Test
+    @DisplayName("節點失效：司機節點停止時接單回應 503 訂單維持 PENDING；訂單節點停止時保留於 orphan-timeout 後釋放")
+    void testNodeFailures() throws Exception {
+        try (LocalCluster failing = LocalCluster.startWithProxies(3, PROPERTIES)) {
+            CellOwnership failingOwnership = failing.ownership();
+            GridCell node2Cell = cellOwnedBy(failingOwnership, "node-2");
+
+            // 訂單節點 (node-3) 於保留後、commit 前失效
+            String orphanDriver = onlineDrivers(failing, "node-1", 1, node2Cell).get(0);
+            String orphanOrder = "c" + cellOwnedBy(failingOwnership, "node-3").key() + "-orphan";
+            assertEquals(200, claim(failing, "node-1", "reserve", orphanDriver, orphanOrder, 1).statusCode());
+            failing.stop("node-3");
+            assertTrue(findDriver(failing, orphanDriver).orElseThrow().isBusy());
+            awaitCondition(() -> !findDriver(failing, orphanDriver).orElseThrow().isBusy());
+
+            // 司機節點 (node-1) 失效
+            String lostDriver = onlineDrivers(failing, "node-1", 1, node2Cell).get(0);
+            String standbyDriver = onlineDrivers(failing, "node-2", 1, node2Cell).get(0);
+            String orderId = createOrder(failing, node2Cell);
+            failing.stop("node-1");
+
+            HttpResponse<String> response = accept(failing, "node-2", orderId, lostDriver);
+            assertEquals(503, response.statusCode(), response.body());
+            assertEquals(OrderStatus.PENDING,
+                    failing.bean("node-2", OrderRepository.class).findById(orderId).orElseThrow().getStatus());
+            assertEquals(200, accept(failing, "node-2", orderId, standbyDriver).statusCode());
+        }
+    }
+
+    // ---------------------------------------------------------------- helpers
+
+    private static GridCell cellOwnedBy(String nodeId) {
+        return cellOwnedBy(ownership, nodeId);
+    }
+
+    private static GridCell cellOwnedBy(CellOwnership ownership, String nodeId) {
+        for (int cx = 0; ; cx++) {
+            GridCell cell = new GridCell(cx, 0);
+            if (nodeId.equals(ownership.ownerOfCell(cell))) {
+                return cell;
+            }
+        }
+    }
+
+    private static List<String> onlineDrivers(LocalCluster cluster, String homeNode, int count, GridCell near) throws Exception {
+        CellOwnership ownership = cluster.ownership();
+        List<String> drivers = new ArrayList<>();
+        while (drivers.size() < count) {
+            String driverId = "h2-driver-" + sequence.incrementAndGet();
+            if (!homeNode.equals(ownership.ownerOfDriver(driverId))) {
+                continue;
+            }
+            HttpResponse<String> response = send(cluster, homeNode, "PUT", "/api/drivers/" + driverId + "/online",
+                    Map.of("x", near.x() * 10.0 + 5, "y", near.y() * 10.0 + 5));
+            assertEquals(200, response.statusCode(), response.body());
+            drivers.add(driverId);
+        }
+        return drivers;
+    }
+
+    private static String createOrder(LocalCluster cluster, GridCell cell) throws Exception {
+        String viaNode = cluster.nodeIds().stream()
+                .filter(nodeId -> cluster.proxy(nodeId) != null)
+                .findFirst().orElseThrow();
+        HttpResponse<String> response = send(cluster, viaNode, "POST", "/api/orders", Map.of(
+                "passengerId", "h2-passenger-" + sequence.incrementAndGet(),
+                "pickupX", cell.x() * 10.0 + 5, "pickupY", cell.y() * 10.0 + 5,
+                "dropoffX", cell.x() * 10.0 + 8, "dropoffY", cell.y() * 10.0 + 8,
+                "vehicleType", "STANDARD"));
+        assertEquals(201, response.statusCode(), response.body());
+        return objectMapper.readTree(response.body()).path("data").path("orderId").asText();
+    }
+
+    private static HttpResponse<String> accept(LocalCluster cluster, String viaNode, String orderId, String driverId)
+            throws Exception {
+        return send(cluster, viaNode, "PUT", "/api/orders/" + orderId + "/accept", Map.of("driverId", driverId));
+    }
+
+    private static HttpResponse<String> claim(LocalCluster cluster, String nodeId, String action,
+                                              String driverId, String orderId, long token) throws Exception {
+        return send(cluster, nodeId, "POST", "/internal/cluster/drivers/" + driverId + "/" + action
+                + "?orderId=" + orderId + "&token=" + token + "&leaseMillis=600", null);
+    }
+
+    private static HttpResponse<String> send(LocalCluster cluster, String nodeId, String method, String path, Object body)
+            throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(cluster.url(nodeId) + path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(10))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String errorCode(HttpResponse<String> response) throws Exception {
+        JsonNode body = objectMapper.readTree(response.body());
+        return body.path("error").path("code").asText();
+    }
+
+    private static Optional<Order> findOrder(LocalCluster cluster, String orderId) {
+        return cluster.bean(cluster.ownership().ownerOfOrder(orderId), OrderRepository.class).findById(orderId);
+    }
+
+    private static Optional<Driver> findDriver(LocalCluster cluster, String driverId) {
+        return cluster.bean(cluster.ownership().ownerOfDriver(driverId), DriverRepository.class).findById(driverId);
+    }
+
+    private static List<String> busyDrivers(LocalCluster cluster, List<String> driverIds) {
+        return driverIds.stream()
+                .filter(driverId -> findDriver(cluster, driverId).map(Driver::isBusy).orElse(false))
+                .toList();
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met within 10s");
+            Thread.sleep(50);
+        }
+    }
+}
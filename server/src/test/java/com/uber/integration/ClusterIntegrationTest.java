@@ -0,0 +1,181 @@
+package com.uber.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uber.cluster.CellOwnership;
+import com.uber.cluster.GridCell;
+import com.uber.cluster.LocalCluster;
+import com.uber.model.DriverStatus;
+import com.uber.model.Location;
+import com.uber.model.OrderStatus;
+import com.uber.repository.DriverRepository;
+import com.uber.repository.OrderRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.aot.DisabledInAotMode;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 叢集模式整合測試 - 兩個節點於 localhost 以不同 port 啟動
+ *
+ * 所有請求都送往 node-1，驗證轉送、跨格配對與跨節點接單
+ */
+@DisabledInAotMode
+@DisplayName("叢集模式整合測試")
+class ClusterIntegrationTest {
+
+    private static LocalCluster cluster;
+    private static CellOwnership ownership;
+    private static final HttpClient http = HttpClient.newHttpClient();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    // node-1 擁有的格子 (borderCell) 與其右側由 node-2 擁有的格子
+    private static GridCell borderCell;
+
+    @BeforeAll
+    static void startCluster() throws Exception {
+        cluster = LocalCluster.start(2);
+        ownership = cluster.ownership();
+        for (int cx = 0; borderCell == null; cx++) {
+            if ("node-1".equals(ownership.ownerOfCell(new GridCell(cx, 0)))
+                    && "node-2".equals(ownership.ownerOfCell(new GridCell(cx + 1, 0)))) {
+                borderCell = new GridCell(cx, 0);
+            }
+        }
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        cluster.close();
+    }
+
+    private HttpResponse<String> send(String method, String path, Object body) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(cluster.url("node-1") + path))
+                .header("Content-Type", "application/json");
+        builder.method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        return http.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private JsonNode data(HttpResponse<String> response) throws Exception {
+        return objectMapper.readTree(response.body()).path("data");
+    }
+
+    private String createOrder(String passengerId, double pickupX, double pickupY) throws Exception {
+        HttpResponse<String> response = send("POST", "/api/orders", Map.of(
+                "passengerId", passengerId,
+                "pickupX", pickupX, "pickupY", pickupY,
+                "dropoffX", pickupX + 5, "dropoffY", pickupY + 5,
+                "vehicleType", "STANDARD"));
+        assertEquals(201, response.statusCode(), response.body());
+        return data(response).path("orderId").asText();
+    }
+
+    private String driverOwnedBy(String nodeId, String prefix) {
+        for (int i = 0; ; i++) {
+            if (nodeId.equals(ownership.ownerOfDriver(prefix + i))) {
+                return prefix + i;
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("訂單建立於上車點格子的擁有者，經任一節點皆可查詢")
+    void testOrderRoutedToCellOwner() throws Exception {
+        double x = (borderCell.x() + 1) * 10.0 + 3;
+        String orderId = createOrder("cluster-passenger-1", x, 4);
+
+        assertTrue(orderId.startsWith("c" + (borderCell.x() + 1) + "_0-"));
+        assertTrue(cluster.bean("node-2", OrderRepository.class).findById(orderId).isPresent());
+        assertTrue(cluster.bean("node-1", OrderRepository.class).findById(orderId).isEmpty());
+
+        HttpResponse<String> response = send("GET", "/api/orders/" + orderId, null);
+        assertEquals(200, response.statusCode());
+        assertEquals("PENDING", data(response).path("status").asText());
+    }
+
+    @Test
+    @DisplayName("跨格配對：司機取得鄰格訂單，跨節點接單與完成後釋放司機")
+    void testCrossBorderMatchAndAccept() throws Exception {
+        String driverId = driverOwnedBy("node-1", "cluster-driver-");
+        double borderX = (borderCell.x() + 1) * 10.0;
+        assertEquals(200, send("PUT", "/api/drivers/" + driverId + "/online",
+                Map.of("x", borderX - 1, "y", 5)).statusCode());
+        String orderId = createOrder("cluster-passenger-2", borderX + 1, 5);
+
+        HttpResponse<String> offers = send("GET", "/api/drivers/" + driverId + "/offers", null);
+        assertEquals(200, offers.statusCode());
+        assertTrue(offers.body().contains(orderId), offers.body());
+
+        HttpResponse<String> accepted = send("PUT", "/api/orders/" + orderId + "/accept", Map.of("driverId", driverId));
+        assertEquals(200, accepted.statusCode(), accepted.body());
+        assertEquals(OrderStatus.ACCEPTED,
+                cluster.bean("node-2", OrderRepository.class).findById(orderId).orElseThrow().getStatus());
+        var driver = cluster.bean("node-1", DriverRepository.class).findById(driverId).orElseThrow();
+        assertTrue(driver.isBusy());
+        assertEquals(orderId, driver.getCurrentOrderId());
+
+        assertEquals(200, send("PUT", "/api/orders/" + orderId + "/start", Map.of("driverId", driverId)).statusCode());
+        assertEquals(200, send("PUT", "/api/orders/" + orderId + "/complete", Map.of("driverId", driverId)).statusCode());
+        driver = cluster.bean("node-1", DriverRepository.class).findById(driverId).orElseThrow();
+        assertFalse(driver.isBusy());
+        assertEquals(DriverStatus.ONLINE, driver.getStatus());
+    }
+
+    @Test
+    @DisplayName("遠端司機忙碌時接單失敗，訂單維持 PENDING")
+    void testRemoteDriverBusy() throws Exception {
+        String driverId = driverOwnedBy("node-1", "cluster-busy-driver-");
+        double borderX = (borderCell.x() + 1) * 10.0;
+        send("PUT", "/api/drivers/" + driverId + "/online", Map.of("x", borderX - 1, "y", 6));
+        String first = createOrder("cluster-passenger-3", borderX + 1, 6);
+        String second = createOrder("cluster-passenger-4", borderX + 2, 6);
+
+        assertEquals(200, send("PUT", "/api/orders/" + first + "/accept", Map.of("driverId", driverId)).statusCode());
+        HttpResponse<String> rejected = send("PUT", "/api/orders/" + second + "/accept", Map.of("driverId", driverId));
+
+        assertEquals(400, rejected.statusCode());
+        assertEquals("DRIVER_BUSY", objectMapper.readTree(rejected.body()).path("error").path("code").asText());
+        assertEquals(OrderStatus.PENDING,
+                cluster.bean("node-2", OrderRepository.class).findById(second).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("批次查詢跨節點合併，依輸入順序回傳")
+    void testBatchLookupAcrossNodes() throws Exception {
+        double borderX = (borderCell.x() + 1) * 10.0;
+        String onNode1 = createOrder("cluster-passenger-5", borderX - 3, 2);
+        String onNode2 = createOrder("cluster-passenger-6", borderX + 3, 2);
+        String missing = ownership.orderIdPrefix(new Location(borderX + 3, 2)) + "missing";
+
+        HttpResponse<String> response = send("GET", "/api/orders?ids=" + onNode2 + "," + missing + "," + onNode1, null);
+
+        assertEquals(200, response.statusCode(), response.body());
+        JsonNode data = data(response);
+        assertEquals(2, data.path("count").asInt());
+        assertEquals(onNode2, data.path("orders").get(0).path("orderId").asText());
+        assertEquals(onNode1, data.path("orders").get(1).path("orderId").asText());
+        assertEquals(missing, data.path("notFound").get(0).asText());
+    }
+
+    @Test
+    @DisplayName("叢集模式不支援批次匯入")
+    void testBulkRejected() throws Exception {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(cluster.url("node-1") + "/api/orders/bulk"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString("{}\n"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(501, response.statusCode());
+        assertTrue(response.body().contains("CLUSTER_UNSUPPORTED"));
+    }
+}
@@ -15,6 +15,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
@@ -46,6 +47,9 @@ class IntegrationFlowTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ApplicationContext applicationContext;
+
     @Autowired
     private OrderRepository orderRepository;
 
@@ -604,6 +608,13 @@ class IntegrationFlowTest {
                     .andExpect(jsonPath("$.data.pickupLocation").exists())
                     .andExpect(jsonPath("$.data.dropoffLocation").exists());
         }
+
+        @Test
+        @DisplayName("API-04: 未開啟熱備援時不提供複製端點")
+        void testReplicationEndpointsDisabled() {
+            assertFalse(applicationContext.containsBean("replicationController"));
+            assertFalse(applicationContext.containsBean("replicationFollower"));
+        }
     }
 
     // =========================================================================
@@ -0,0 +1,256 @@
+package com.uber.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uber.RideDispatchApplication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.aot.DisabledInAotMode;
+
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 熱備援整合測試 - 主節點與備援節點於 localhost 以不同 port 啟動
+ *
+ * 量測複製延遲 (主節點寫入到備援節點可查詢) 與故障轉移時間 (主節點停止到備援節點接受寫入)
+ */
+@DisabledInAotMode
+@DisplayName("熱備援與故障轉移測試")
+class ReplicationFailoverTest {
+
+    private static final long HEARTBEAT_MILLIS = 200;
+    private static final long FAILOVER_TIMEOUT_MILLIS = 1500;
+
+    private static final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+    @AfterEach
+    void stopNodes() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    @DisplayName("備援節點載入快照並持續複製，只接受查詢；主節點停止後於數秒內升級並可完成進行中的行程")
+    void testReplicationAndFailover() throws Exception {
+        String primaryUrl = "http://localhost:" + freePort();
+        ConfigurableApplicationContext primary = startNode(primaryUrl, "dispatch.replication.enabled=true");
+
+        // 備援節點啟動前已存在的資料經快照同步
+        putDriverOnline(primaryUrl, "standby-driver-1");
+        String existingOrder = createOrder(primaryUrl, "standby-passenger-0");
+
+        String followerUrl = "http://localhost:" + freePort();
+        startNode(followerUrl,
+                "dispatch.replication.enabled=true",
+                "dispatch.replication.role=follower",
+                "dispatch.replication.primary-url=" + primaryUrl,
+                "dispatch.replication.heartbeat-millis=" + HEARTBEAT_MILLIS,
+                "dispatch.replication.failover-timeout-millis=" + FAILOVER_TIMEOUT_MILLIS);
+        awaitStatus(followerUrl, "/api/orders/" + existingOrder, 200, 10_000);
+
+        // 複製延遲：主節點建立訂單後輪詢備援節點直到可查詢
+        long maxLagMillis = 0;
+        String acceptedOrder = null;
+        for (int i = 1; i <= 20; i++) {
+            String orderId = createOrder(primaryUrl, "standby-passenger-" + i);
+            long written = System.nanoTime();
+            awaitStatus(followerUrl, "/api/orders/" + orderId, 200, 5_000);
+            maxLagMillis = Math.max(maxLagMillis, (System.nanoTime() - written) / 1_000_000);
+            acceptedOrder = orderId;
+        }
+        long beforeAccept = data(send(primaryUrl, "GET", "/internal/replication/status", null)).path("sequence").asLong();
+        assertEquals(200, send(primaryUrl, "PUT", "/api/orders/" + acceptedOrder + "/accept",
+                Map.of("driverId", "standby-driver-1")).statusCode());
+        String finalOrder = acceptedOrder;
+        awaitCondition(() -> "ACCEPTED".equals(data(send(followerUrl, "GET", "/api/orders/" + finalOrder, null))
+                .path("status").asText()), 5_000);
+        System.out.printf("replication lag: max %d ms over 20 orders%n", maxLagMillis);
+        assertTrue(maxLagMillis < 1_000, "replication lag " + maxLagMillis + " ms");
+
+        // 升級前只接受查詢
+        HttpResponse<String> rejected = send(followerUrl, "POST", "/api/orders", orderBody("standby-passenger-x"));
+        assertEquals(503, rejected.statusCode());
+        assertEquals("REPLICA_READ_ONLY", objectMapper.readTree(rejected.body()).path("error").path("code").asText());
+        long primarySequence = data(send(primaryUrl, "GET", "/internal/replication/status", null)).path("sequence").asLong();
+
+        // 故障轉移：主節點停止後輪詢備援節點直到升級
+        primary.close();
+        long stopped = System.nanoTime();
+        awaitCondition(() -> "PRIMARY".equals(data(send(followerUrl, "GET", "/internal/replication/status", null))
+                .path("role").asText()), 10_000);
+        long failoverMillis = (System.nanoTime() - stopped) / 1_000_000;
+        System.out.printf("failover: promoted %d ms after primary stopped (timeout %d ms)%n",
+                failoverMillis, FAILOVER_TIMEOUT_MILLIS);
+        assertTrue(failoverMillis < FAILOVER_TIMEOUT_MILLIS + 2_000, "failover took " + failoverMillis + " ms");
+
+        // 升級後：進行中的行程可繼續，變更序號延續主節點
+        assertEquals(200, send(followerUrl, "PUT", "/api/orders/" + acceptedOrder + "/start",
+                Map.of("driverId", "standby-driver-1")).statusCode());
+        assertEquals(200, send(followerUrl, "PUT", "/api/orders/" + acceptedOrder + "/complete",
+                Map.of("driverId", "standby-driver-1")).statusCode());
+        // 複製來的事件保存接單當下的快照，不隨升級後的轉換改變
+        JsonNode accepted = null;
+        for (JsonNode event : data(send(followerUrl, "GET", "/api/changes?since=" + beforeAccept, null)).path("changes")) {
+            if ("ACCEPT".equals(event.path("action").asText()) && acceptedOrder.equals(event.path("id").asText())) {
+                accepted = event;
+            }
+        }
+        assertNotNull(accepted);
+        assertEquals("ACCEPTED", accepted.path("order").path("status").asText());
+        JsonNode changes = data(send(followerUrl, "GET", "/api/changes?since=" + primarySequence, null));
+        assertFalse(changes.path("reset").asBoolean());
+        assertEquals(primarySequence + 1, changes.path("changes").get(0).path("sequence").asLong());
+        assertEquals(201, send(followerUrl, "POST", "/api/orders", orderBody("standby-passenger-y")).statusCode());
+    }
+
+    @Test
+    @DisplayName("審計日誌與費率經快照與日誌串流複製，升級後保留")
+    void testAuditLogsAndRatePlansSurviveFailover() throws Exception {
+        String primaryUrl = "http://localhost:" + freePort();
+        ConfigurableApplicationContext primary = startNode(primaryUrl, "dispatch.replication.enabled=true");
+
+        // 快照前的費率變更與審計日誌
+        assertEquals(200, send(primaryUrl, "PUT", "/api/admin/rate-plans/STANDARD", Map.of(
+                "baseFare", 500.0, "perKmRate", 15.0, "perMinRate", 3.0, "minFare", 70.0, "cancelFee", 30.0))
+                .statusCode());
+        putDriverOnline(primaryUrl, "standby-driver-1");
+        putDriverOnline(primaryUrl, "standby-driver-2");
+        String orderId = createOrder(primaryUrl, "standby-passenger-0");
+        assertEquals(200, send(primaryUrl, "PUT", "/api/orders/" + orderId + "/accept",
+                Map.of("driverId", "standby-driver-1")).statusCode());
+
+        String followerUrl = "http://localhost:" + freePort();
+        startNode(followerUrl,
+                "dispatch.replication.enabled=true",
+                "dispatch.replication.role=follower",
+                "dispatch.replication.primary-url=" + primaryUrl,
+                "dispatch.replication.heartbeat-millis=" + HEARTBEAT_MILLIS,
+                "dispatch.replication.failover-timeout-millis=" + FAILOVER_TIMEOUT_MILLIS);
+        awaitStatus(followerUrl, "/api/orders/" + orderId, 200, 10_000);
+
+        // 快照後的費率變更與不產生變更事件的審計日誌 (搶單失敗) 經日誌串流送達
+        assertEquals(200, send(primaryUrl, "PUT", "/api/admin/rate-plans/PREMIUM", Map.of(
+                "baseFare", 800.0, "perKmRate", 25.0, "perMinRate", 5.0, "minFare", 120.0, "cancelFee", 50.0))
+                .statusCode());
+        assertEquals(409, send(primaryUrl, "PUT", "/api/orders/" + orderId + "/accept",
+                Map.of("driverId", "standby-driver-2")).statusCode());
+        awaitCondition(() -> data(send(followerUrl, "GET", "/api/admin/accept-stats/" + orderId, null))
+                .path("failure").asLong() == 1, 5_000);
+        awaitCondition(() -> baseFare(followerUrl, "PREMIUM") == 800.0, 5_000);
+
+        primary.close();
+        awaitCondition(() -> "PRIMARY".equals(data(send(followerUrl, "GET", "/internal/replication/status", null))
+                .path("role").asText()), 10_000);
+
+        JsonNode stats = data(send(followerUrl, "GET", "/api/admin/accept-stats/" + orderId, null));
+        assertEquals(1, stats.path("success").asLong());
+        assertEquals(1, stats.path("failure").asLong());
+        assertEquals(500.0, baseFare(followerUrl, "STANDARD"));
+        assertEquals(800.0, baseFare(followerUrl, "PREMIUM"));
+        HttpResponse<String> created = send(followerUrl, "POST", "/api/orders", orderBody("standby-passenger-y"));
+        assertEquals(201, created.statusCode());
+        assertTrue(data(created).path("estimatedFare").asDouble() >= 500.0, created.body());
+    }
+
+    // ---------------------------------------------------------------- helpers
+
+    private ConfigurableApplicationContext startNode(String url, String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=" + url.substring(url.lastIndexOf(':') + 1),
+                "--spring.main.banner-mode=off",
+                "--spring.jmx.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.uber=WARN"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(RideDispatchApplication.class)
+                .run(args.toArray(String[]::new));
+        nodes.add(context);
+        return context;
+    }
+
+    private static Map<String, Object> orderBody(String passengerId) {
+        return Map.of("passengerId", passengerId,
+                "pickupX", 10.0, "pickupY", 10.0, "dropoffX", 20.0, "dropoffY", 20.0,
+                "vehicleType", "STANDARD");
+    }
+
+    private static String createOrder(String baseUrl, String passengerId) throws Exception {
+        HttpResponse<String> response = send(baseUrl, "POST", "/api/orders", orderBody(passengerId));
+        assertEquals(201, response.statusCode(), response.body());
+        return data(response).path("orderId").asText();
+    }
+
+    private static void putDriverOnline(String baseUrl, String driverId) throws Exception {
+        assertEquals(200, send(baseUrl, "PUT", "/api/drivers/" + driverId + "/online",
+                Map.of("x", 12.0, "y", 12.0)).statusCode());
+    }
+
+    private static double baseFare(String baseUrl, String vehicleType) throws Exception {
+        for (JsonNode plan : data(send(baseUrl, "GET", "/api/admin/rate-plans", null)).path("ratePlans")) {
+            if (vehicleType.equals(plan.path("vehicleType").asText())) {
+                return plan.path("baseFare").asDouble();
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static HttpResponse<String> send(String baseUrl, String method, String path, Object body) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(5))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static JsonNode data(HttpResponse<String> response) throws Exception {
+        return objectMapper.readTree(response.body()).path("data");
+    }
+
+    private static void awaitStatus(String baseUrl, String path, int status, long timeoutMillis) throws Exception {
+        awaitCondition(() -> send(baseUrl, "GET", path, null).statusCode() == status, timeoutMillis);
+    }
+
+    private static void awaitCondition(Check condition, long timeoutMillis) throws Exception {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (true) {
+            try {
+                if (condition.test()) {
+                    return;
+                }
+            } catch (java.io.IOException e) {
+                // 節點尚未就緒
+            }
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met within " + timeoutMillis + " ms");
+            Thread.sleep(5);
+        }
+    }
+
+    private static int freePort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Check {
+        boolean test() throws Exception;
+    }
+}
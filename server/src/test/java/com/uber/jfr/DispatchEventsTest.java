@@ -0,0 +1,173 @@
+package com.uber.jfr;
+
+import com.uber.exception.BusinessException;
+import com.uber.model.*;
+import com.uber.repository.AuditLogRepository;
+import com.uber.repository.ChangeLogRepository;
+import com.uber.repository.DriverRepository;
+import com.uber.repository.OrderRepository;
+import com.uber.service.AuditService;
+import com.uber.service.ChangeFeedService;
+import com.uber.service.DriverService;
+import com.uber.service.FareService;
+import com.uber.service.MatchingService;
+import com.uber.service.OrderService;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 派單 JFR 事件測試 - 服務層於錄製期間寫入的事件內容
+ */
+@DisplayName("派單 JFR 事件測試")
+class DispatchEventsTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private OrderService orderService;
+    private DriverService driverService;
+    private MatchingService matchingService;
+    
+    @BeforeEach
+    void setUp() {
+        OrderRepository orderRepository = new OrderRepository();
+        DriverRepository driverRepository = new DriverRepository();
+        ChangeFeedService changeFeedService = new ChangeFeedService(new ChangeLogRepository());
+        FareService fareService = new FareService();
+        fareService.initRatePlans();
+        orderService = new OrderService(orderRepository, driverRepository,
+                new AuditService(new AuditLogRepository()), fareService, changeFeedService);
+        driverService = new DriverService(driverRepository, orderRepository, changeFeedService);
+        matchingService = new MatchingService(driverRepository, orderRepository);
+        for (String driverId : List.of("driver-1", "driver-2")) {
+            driverRepository.save(Driver.builder()
+                    .driverId(driverId)
+                    .status(DriverStatus.ONLINE)
+                    .vehicleType(VehicleType.STANDARD)
+                    .location(new Location(10, 20))
+                    .build());
+        }
+    }
+    
+    private List<RecordedEvent> record(Runnable workload) throws IOException {
+        Path file = tempDir.resolve("events.jfr");
+        try (Recording recording = new Recording()) {
+            for (Class<? extends Event> eventClass : FlightRecorderService.DISPATCH_EVENTS) {
+                recording.enable(eventClass);
+            }
+            recording.start();
+            workload.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+    
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+    }
+    
+    @Test
+    @DisplayName("狀態轉移記錄轉移前後狀態，搶單失敗記錄錯誤碼")
+    void testOrderTransitionEvents() throws IOException {
+        List<RecordedEvent> events = record(() -> {
+            Order order = orderService.createOrder("passenger-1", new Location(10, 20), new Location(30, 40),
+                    VehicleType.STANDARD);
+            orderService.acceptOrder(order.getOrderId(), "driver-1");
+            assertThrows(BusinessException.class, () -> orderService.acceptOrder(order.getOrderId(), "driver-2"));
+        });
+        
+        List<RecordedEvent> transitions = ofType(events, "com.uber.dispatch.OrderTransition");
+        assertEquals(3, transitions.size());
+        
+        RecordedEvent create = transitions.get(0);
+        assertEquals("create", create.getString("transition"));
+        assertNull(create.getString("fromStatus"));
+        assertEquals("PENDING", create.getString("toStatus"));
+        
+        RecordedEvent accept = transitions.get(1);
+        assertEquals(create.getString("orderId"), accept.getString("orderId"));
+        assertEquals("PENDING", accept.getString("fromStatus"));
+        assertEquals("ACCEPTED", accept.getString("toStatus"));
+        
+        RecordedEvent conflict = transitions.get(2);
+        assertEquals("ACCEPTED", conflict.getString("fromStatus"));
+        assertEquals("ORDER_ALREADY_ACCEPTED", conflict.getString("failure"));
+        assertNull(conflict.getString("toStatus"));
+    }
+    
+    @Test
+    @DisplayName("接單鎖記錄持有與等待時間")
+    void testAcceptLockEvents() throws IOException {
+        List<RecordedEvent> events = record(() -> {
+            Order order = orderService.createOrder("passenger-1", new Location(10, 20), new Location(30, 40),
+                    VehicleType.STANDARD);
+            orderService.acceptOrder(order.getOrderId(), "driver-1");
+        });
+        
+        List<RecordedEvent> locks = ofType(events, "com.uber.dispatch.AcceptLock");
+        assertEquals(1, locks.size());
+        assertEquals("driver-1", locks.get(0).getString("driverId"));
+        assertTrue(locks.get(0).getLong("waitTime") >= 0);
+        assertFalse(locks.get(0).getDuration().isNegative());
+    }
+    
+    @Test
+    @DisplayName("配對與可接訂單查詢記錄掃描筆數與結果")
+    void testMatchingAndOfferEvents() throws IOException {
+        List<RecordedEvent> events = record(() -> {
+            Order order = orderService.createOrder("passenger-1", new Location(10, 20), new Location(30, 40),
+                    VehicleType.STANDARD);
+            Optional<Driver> best = matchingService.findBestDriver(order);
+            assertTrue(best.isPresent());
+            assertEquals(1, driverService.getOffers("driver-1").size());
+        });
+        
+        RecordedEvent matching = ofType(events, "com.uber.dispatch.Matching").get(0);
+        assertEquals(2, matching.getInt("scanned"));
+        assertEquals(2, matching.getInt("candidates"));
+        assertEquals("driver-1", matching.getString("driverId"));
+        assertEquals("STANDARD", matching.getString("vehicleType"));
+        
+        RecordedEvent offers = ofType(events, "com.uber.dispatch.OfferQuery").get(0);
+        assertEquals("driver-1", offers.getString("driverId"));
+        assertEquals(1, offers.getInt("scanned"));
+        assertEquals(1, offers.getInt("offered"));
+    }
+    
+    @Test
+    @DisplayName("審計日誌寫入記錄動作與批次大小")
+    void testAuditFlushEvents() throws IOException {
+        List<RecordedEvent> events = record(() -> orderService.createOrder("passenger-1",
+                new Location(10, 20), new Location(30, 40), VehicleType.STANDARD));
+        
+        List<RecordedEvent> flushes = ofType(events, "com.uber.dispatch.AuditFlush");
+        assertEquals(1, flushes.size());
+        assertEquals("CREATE", flushes.get(0).getString("action"));
+        assertEquals(1, flushes.get(0).getInt("batchSize"));
+        assertTrue(flushes.get(0).getBoolean("success"));
+    }
+    
+    @Test
+    @DisplayName("未錄製時不寫入事件")
+    void testNoEventsOutsideRecording() throws IOException {
+        orderService.createOrder("passenger-0", new Location(10, 20), new Location(30, 40), VehicleType.STANDARD);
+        
+        List<RecordedEvent> events = record(() -> { });
+        
+        assertTrue(ofType(events, "com.uber.dispatch.OrderTransition").isEmpty());
+    }
+}
@@ -0,0 +1,89 @@
+package com.uber.jfr;
+
+import com.uber.dto.response.RecordingResponse;
+import com.uber.exception.BusinessException;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FlightRecorderService 測試 - 有界錄製的開始、停止與限制
+ */
+@DisplayName("FlightRecorderService 測試")
+class FlightRecorderServiceTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private FlightRecorderService service;
+    
+    @BeforeEach
+    void setUp() {
+        JfrProperties properties = new JfrProperties();
+        properties.setDirectory(tempDir.toString());
+        service = new FlightRecorderService(properties);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+    
+    @Test
+    @DisplayName("開始後停止寫出可讀取的錄製檔")
+    void testStartAndStop() throws Exception {
+        assertNull(service.status());
+        
+        RecordingResponse started = service.start(30L, 10L);
+        assertEquals("RUNNING", started.state());
+        assertEquals(30L, started.durationSeconds());
+        assertEquals(10L * 1024 * 1024, started.maxSizeBytes());
+        assertNull(started.sizeBytes());
+        
+        RecordingResponse stopped = service.stop();
+        
+        // 設定輸出檔的錄製於停止並寫出後即關閉
+        assertEquals("CLOSED", stopped.state());
+        Path file = Path.of(stopped.destination());
+        assertTrue(file.startsWith(tempDir));
+        assertEquals(Files.size(file), stopped.sizeBytes());
+        assertFalse(RecordingFile.readAllEvents(file).isEmpty());
+        assertEquals("CLOSED", service.status().state());
+    }
+    
+    @Test
+    @DisplayName("同時只允許一個錄製")
+    void testSecondStartRejected() {
+        service.start(null, null);
+        
+        BusinessException e = assertThrows(BusinessException.class, () -> service.start(null, null));
+        
+        assertEquals("RECORDING_IN_PROGRESS", e.getCode());
+        assertEquals(409, e.getHttpStatus());
+    }
+    
+    @Test
+    @DisplayName("長度與大小超過上限時拒絕")
+    void testLimitsEnforced() {
+        assertEquals("INVALID_RECORDING_LIMIT",
+                assertThrows(BusinessException.class, () -> service.start(601L, null)).getCode());
+        assertEquals("INVALID_RECORDING_LIMIT",
+                assertThrows(BusinessException.class, () -> service.start(null, 0L)).getCode());
+        assertNull(service.status());
+    }
+    
+    @Test
+    @DisplayName("沒有進行中的錄製時停止失敗")
+    void testStopWithoutRecording() {
+        assertEquals("NO_ACTIVE_RECORDING",
+                assertThrows(BusinessException.class, () -> service.stop()).getCode());
+    }
+}
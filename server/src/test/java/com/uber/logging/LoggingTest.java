@@ -0,0 +1,114 @@
+package com.uber.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.uber.repository.AuditLogRepository;
+import com.uber.service.AuditService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 日誌測試 - 依事件種類取樣與審計日誌輸出
+ */
+@DisplayName("日誌測試")
+class LoggingTest {
+
+    @Nested
+    @DisplayName("LogSampler")
+    class SamplerTests {
+
+        private final AtomicLong clock = new AtomicLong(10_000);
+        private final LogSampler sampler = new LogSampler(2, clock::get);
+
+        @Test
+        @DisplayName("每秒超過額度後略過，下一秒放行時回報略過筆數")
+        void testSuppressAndReport() {
+            assertEquals(0, sampler.tryAcquire("accept"));
+            assertEquals(0, sampler.tryAcquire("accept"));
+            assertEquals(LogSampler.SUPPRESSED, sampler.tryAcquire("accept"));
+            assertEquals(LogSampler.SUPPRESSED, sampler.tryAcquire("accept"));
+
+            clock.addAndGet(1_000);
+
+            assertEquals(2, sampler.tryAcquire("accept"));
+            assertEquals(0, sampler.tryAcquire("accept"));
+        }
+
+        @Test
+        @DisplayName("不同事件種類各自計算額度")
+        void testPerKey() {
+            sampler.tryAcquire("accept");
+            sampler.tryAcquire("accept");
+
+            assertEquals(LogSampler.SUPPRESSED, sampler.tryAcquire("accept"));
+            assertEquals(0, sampler.tryAcquire("cancel"));
+        }
+    }
+
+    @Nested
+    @DisplayName("AuditLogShipper")
+    class ShipperTests {
+
+        private final Logger auditLogger = (Logger) LoggerFactory.getLogger(AuditLogShipper.AUDIT_LOGGER);
+        private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        private AuditLogRepository repository;
+        private AuditService auditService;
+        private AuditLogShipper shipper;
+
+        @BeforeEach
+        void setUp() {
+            appender.start();
+            auditLogger.addAppender(appender);
+            repository = new AuditLogRepository();
+            auditService = new AuditService(repository);
+            LoggingProperties properties = new LoggingProperties();
+            properties.setAuditShipIntervalMillis(60_000);
+            shipper = new AuditLogShipper(auditService, properties);
+        }
+
+        @AfterEach
+        void tearDown() {
+            shipper.close();
+            auditLogger.detachAppender(appender);
+        }
+
+        @Test
+        @DisplayName("依寫入順序輸出 key=value 格式，每筆只輸出一次")
+        void testShipInOrder() {
+            auditService.logSuccess("order-1", "ACCEPT", "DRIVER", "driver-1", "PENDING", "ACCEPTED");
+            auditService.logFailure("order-1", "ACCEPT", "DRIVER", "driver-2", "ACCEPTED", "ORDER_ALREADY_ACCEPTED");
+
+            shipper.ship();
+            shipper.ship();
+
+            assertEquals(2, appender.list.size());
+            String first = appender.list.get(0).getFormattedMessage();
+            assertTrue(first.contains(" order=order-1 action=ACCEPT actor=DRIVER:driver-1 from=PENDING to=ACCEPTED success=true"));
+            assertFalse(first.contains("reason="));
+            assertTrue(appender.list.get(1).getFormattedMessage().contains("success=false reason=ORDER_ALREADY_ACCEPTED"));
+        }
+
+        @Test
+        @DisplayName("關閉時送出尚未輸出的紀錄；儲存庫清空後從頭開始")
+        void testFlushOnCloseAndReset() {
+            auditService.logSuccess("order-1", "CREATE", "PASSENGER", "passenger-1", null, "PENDING");
+            shipper.ship();
+            repository.deleteAll();
+            auditService.logSuccess("order-2", "CREATE", "PASSENGER", "passenger-2", null, "PENDING");
+
+            shipper.close();
+
+            assertEquals(2, appender.list.size());
+            assertTrue(appender.list.get(1).getFormattedMessage().contains("order=order-2"));
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.uber.metrics;
+
+import com.uber.exception.BusinessException;
+import com.uber.model.*;
+import com.uber.repository.AuditLogRepository;
+import com.uber.repository.ChangeLogRepository;
+import com.uber.repository.DriverRepository;
+import com.uber.repository.OrderRepository;
+import com.uber.service.AuditService;
+import com.uber.service.ChangeFeedService;
+import com.uber.service.FareService;
+import com.uber.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DispatchMetrics 測試 - 直方圖 bucket、Prometheus 輸出與服務層埋點
+ */
+@DisplayName("DispatchMetrics 測試")
+class DispatchMetricsTest {
+    
+    private static String scrape(DispatchMetrics metrics) throws IOException {
+        StringWriter body = new StringWriter();
+        metrics.writeTo(new PrometheusWriter(body));
+        return body.toString();
+    }
+    
+    @Nested
+    @DisplayName("直方圖與輸出格式")
+    class ExpositionTests {
+        
+        @Test
+        @DisplayName("延遲依秒輸出為累計 bucket，_count 等於 +Inf bucket")
+        void testLatencyBucketsAreCumulative() throws IOException {
+            DispatchMetrics metrics = new DispatchMetrics(true);
+            metrics.offerQuery().record(200_000);       // 0.2 ms
+            metrics.offerQuery().record(3_000_000);     // 3 ms
+            metrics.offerQuery().record(3_000_000_000L); // 3 s
+            
+            String body = scrape(metrics);
+            
+            assertTrue(body.contains("# TYPE dispatch_offer_query_seconds histogram\n"));
+            assertTrue(body.contains("dispatch_offer_query_seconds_bucket{le=\"0.0001\"} 0\n"));
+            assertTrue(body.contains("dispatch_offer_query_seconds_bucket{le=\"0.00025\"} 1\n"));
+            assertTrue(body.contains("dispatch_offer_query_seconds_bucket{le=\"0.005\"} 2\n"));
+            assertTrue(body.contains("dispatch_offer_query_seconds_bucket{le=\"2.5\"} 2\n"));
+            assertTrue(body.contains("dispatch_offer_query_seconds_bucket{le=\"+Inf\"} 3\n"));
+            assertTrue(body.contains("dispatch_offer_query_seconds_count 3\n"));
+            // _sum 由直方圖計算，誤差 1% 以內
+            String sum = body.lines().filter(line -> line.startsWith("dispatch_offer_query_seconds_sum "))
+                    .findFirst().orElseThrow();
+            assertEquals(3.0032, Double.parseDouble(sum.substring(sum.indexOf(' ') + 1)), 0.03);
+        }
+        
+        @Test
+        @DisplayName("多次抓取累計而非重置")
+        void testScrapesAccumulate() throws IOException {
+            DispatchMetrics metrics = new DispatchMetrics(true);
+            metrics.auditAppend().record(1_000);
+            scrape(metrics);
+            metrics.auditAppend().record(1_000);
+            
+            assertTrue(scrape(metrics).contains("dispatch_audit_append_seconds_count 2\n"));
+        }
+        
+        @Test
+        @DisplayName("標籤依值排序並跳脫引號")
+        void testLabelsSortedAndEscaped() throws IOException {
+            DispatchMetrics metrics = new DispatchMetrics(true);
+            metrics.httpRequest("PUT /api/orders/{orderId}/accept").record(1_000);
+            metrics.httpRequest("GET /api/drivers/{driverId}/offers").record(1_000);
+            metrics.acceptConflicts().increment("ORDER_ALREADY_ACCEPTED");
+            metrics.acceptConflicts().increment("ORDER_ALREADY_ACCEPTED");
+            metrics.httpResponses().increment("a\"b", "409");
+            
+            String body = scrape(metrics);
+            
+            assertTrue(body.indexOf("endpoint=\"GET /api/drivers/{driverId}/offers\"")
+                    < body.indexOf("endpoint=\"PUT /api/orders/{orderId}/accept\""));
+            assertTrue(body.contains("dispatch_accept_conflicts_total{code=\"ORDER_ALREADY_ACCEPTED\"} 2\n"));
+            assertTrue(body.contains("dispatch_http_responses_total{endpoint=\"a\\\"b\",status=\"409\"} 1\n"));
+        }
+        
+        @Test
+        @DisplayName("停用時不記錄，輸出全為 0")
+        void testDisabledRecordsNothing() throws IOException {
+            DispatchMetrics metrics = DispatchMetrics.DISABLED;
+            assertEquals(0, metrics.start());
+            metrics.matching().record(5_000);
+            metrics.idempotentRepeats().increment("accept");
+            
+            String body = scrape(metrics);
+            
+            assertTrue(body.contains("dispatch_matching_seconds_count 0\n"));
+            assertFalse(body.contains("dispatch_idempotent_repeats_total{"));
+        }
+    }
+    
+    @Nested
+    @DisplayName("服務層埋點")
+    class InstrumentationTests {
+        
+        private DispatchMetrics metrics;
+        private OrderService orderService;
+        private DriverRepository driverRepository;
+        
+        @BeforeEach
+        void setUp() {
+            metrics = new DispatchMetrics(true);
+            driverRepository = new DriverRepository();
+            AuditService auditService = new AuditService(new AuditLogRepository());
+            auditService.setMetrics(metrics);
+            FareService fareService = new FareService();
+            fareService.initRatePlans();
+            orderService = new OrderService(new OrderRepository(), driverRepository, auditService, fareService,
+                    new ChangeFeedService(new ChangeLogRepository()));
+            orderService.setMetrics(metrics);
+            for (String driverId : List.of("driver-1", "driver-2")) {
+                driverRepository.save(Driver.builder()
+                        .driverId(driverId)
+                        .status(DriverStatus.ONLINE)
+                        .vehicleType(VehicleType.STANDARD)
+                        .location(new Location(10, 20))
+                        .build());
+            }
+        }
+        
+        @Test
+        @DisplayName("接單記錄轉移、鎖等待與持有時間；搶單失敗與重送分別計數")
+        void testAcceptInstrumentation() throws IOException {
+            Order order = orderService.createOrder("passenger-1", new Location(10, 20), new Location(30, 40),
+                    VehicleType.STANDARD);
+            
+            orderService.acceptOrder(order.getOrderId(), "driver-1");
+            orderService.acceptOrder(order.getOrderId(), "driver-1");
+            assertThrows(BusinessException.class, () -> orderService.acceptOrder(order.getOrderId(), "driver-2"));
+            
+            String body = scrape(metrics);
+            
+            assertTrue(body.contains("dispatch_transition_seconds_count{transition=\"accept\"} 3\n"));
+            assertTrue(body.contains("dispatch_transition_seconds_count{transition=\"create\"} 1\n"));
+            assertTrue(body.contains("dispatch_accept_lock_wait_seconds_count 3\n"));
+            assertTrue(body.contains("dispatch_accept_lock_hold_seconds_count 3\n"));
+            assertTrue(body.contains("dispatch_accept_conflicts_total{code=\"ORDER_ALREADY_ACCEPTED\"} 1\n"));
+            assertTrue(body.contains("dispatch_idempotent_repeats_total{transition=\"accept\"} 1\n"));
+            // create + accept 成功 + accept 失敗
+            assertTrue(body.contains("dispatch_audit_append_seconds_count 3\n"));
+        }
+        
+        @Test
+        @DisplayName("重送開始、完成與取消計入冪等重送")
+        void testIdempotentRepeatsCounted() throws IOException {
+            Order trip = orderService.createOrder("passenger-1", new Location(10, 20), new Location(30, 40),
+                    VehicleType.STANDARD);
+            orderService.acceptOrder(trip.getOrderId(), "driver-1");
+            orderService.startTrip(trip.getOrderId(), "driver-1");
+            orderService.startTrip(trip.getOrderId(), "driver-1");
+            orderService.completeTrip(trip.getOrderId(), "driver-1");
+            orderService.completeTrip(trip.getOrderId(), "driver-1");
+            Order cancelled = orderService.createOrder("passenger-2", new Location(10, 20), new Location(30, 40),
+                    VehicleType.STANDARD);
+            orderService.cancelOrder(cancelled.getOrderId(), "passenger-2");
+            orderService.cancelOrder(cancelled.getOrderId(), "passenger-2");
+            
+            String body = scrape(metrics);
+            
+            for (String transition : List.of("start", "complete", "cancel")) {
+                assertTrue(body.contains("dispatch_idempotent_repeats_total{transition=\"" + transition + "\"} 1\n"));
+                assertTrue(body.contains("dispatch_transition_seconds_count{transition=\"" + transition + "\"} 2\n"));
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.uber.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.aot.DisabledInAotMode;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * /internal/metrics 測試 - 端點樣板標籤、序列化計時與允入控制狀態
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisabledInAotMode
+@DisplayName("/internal/metrics 測試")
+class MetricsEndpointTest {
+    
+    @LocalServerPort
+    private int port;
+    
+    private final HttpClient http = HttpClient.newHttpClient();
+    
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                        .header("Content-Type", "application/json")
+                        .method(method, body == null
+                                ? HttpRequest.BodyPublishers.noBody()
+                                : HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+    
+    /**
+     * 取出單一序列的值 (不存在時為 0)；context 於測試間共用，以前後差值判斷
+     */
+    private static double valueOf(String body, String series) {
+        for (String line : body.split("\n")) {
+            if (line.startsWith(series + " ")) {
+                return Double.parseDouble(line.substring(series.length() + 1));
+            }
+        }
+        return 0;
+    }
+    
+    @Test
+    @DisplayName("以 Prometheus 文字格式輸出，端點以路徑樣板標記")
+    void testScrapeAfterRequests() throws Exception {
+        String offers = "dispatch_http_request_seconds_count{endpoint=\"GET /api/drivers/{driverId}/offers\"}";
+        String notFound = "dispatch_http_responses_total{endpoint=\"GET /api/orders/{orderId}\",status=\"400\"}";
+        String offerQuery = "dispatch_offer_query_seconds_count";
+        String serialization = "dispatch_serialization_seconds_count";
+        String before = send("GET", "/internal/metrics", null).body();
+        
+        send("POST", "/api/drivers", "{\"driverId\":\"metrics-driver\",\"name\":\"D\",\"phone\":\"0912345678\","
+                + "\"vehiclePlate\":\"MET-0001\",\"vehicleType\":\"STANDARD\"}");
+        send("PUT", "/api/drivers/metrics-driver/online", "{\"x\":25.03,\"y\":121.56}");
+        assertEquals(200, send("GET", "/api/drivers/metrics-driver/offers", null).statusCode());
+        assertEquals(400, send("GET", "/api/orders/no-such-order", null).statusCode());
+        
+        HttpResponse<String> response = send("GET", "/internal/metrics", null);
+        
+        assertEquals(200, response.statusCode());
+        MediaType contentType = MediaType.parseMediaType(response.headers().firstValue("Content-Type").orElseThrow());
+        assertTrue(contentType.isCompatibleWith(MediaType.TEXT_PLAIN));
+        assertEquals("0.0.4", contentType.getParameter("version"));
+        String body = response.body();
+        assertEquals(valueOf(before, offers) + 1, valueOf(body, offers));
+        assertEquals(valueOf(before, notFound) + 1, valueOf(body, notFound));
+        assertEquals(valueOf(before, offerQuery) + 1, valueOf(body, offerQuery));
+        assertTrue(valueOf(body, serialization) >= valueOf(before, serialization) + 4);
+        assertTrue(body.contains("dispatch_admission_limit{class=\"accept\"}"));
+        assertTrue(body.contains("dispatch_orders{tier=\"hot\"}"));
+        assertTrue(body.contains("dispatch_order_store_bytes{tier=\"cold\"}"));
+        assertFalse(body.contains("metrics-driver"));
+    }
+}
@@ -0,0 +1,141 @@
+package com.uber.offers;
+
+import com.uber.model.Order;
+import com.uber.service.ValidationResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * OfferLeases 測試 - 名額、逾期與釋放
+ */
+@DisplayName("OfferLeases 測試")
+class OfferLeasesTest {
+
+    private static final long LEASE_MILLIS = 3_000;
+
+    private final AtomicLong clock = new AtomicLong();
+    private OfferLeases leases;
+
+    @BeforeEach
+    void setUp() {
+        leases = new OfferLeases(true, LEASE_MILLIS, 2, 2, clock::get);
+    }
+
+    private static List<Order> orders(String... ids) {
+        return Arrays.stream(ids).map(id -> Order.builder().orderId(id).build()).toList();
+    }
+
+    private static List<String> ids(List<Order> orders) {
+        return orders.stream().map(Order::getOrderId).toList();
+    }
+
+    private void advance(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    @Test
+    @DisplayName("依排序取得保留，每位司機最多 offersPerDriver 筆")
+    void testReserveInRankedOrder() {
+        assertEquals(List.of("o1", "o2"), ids(leases.reserve("d1", orders("o1", "o2", "o3"))));
+        assertEquals(List.of("o1", "o2"), ids(leases.reserve("d2", orders("o1", "o2", "o3"))));
+        // o1、o2 名額已滿
+        assertEquals(List.of("o3"), ids(leases.reserve("d3", orders("o1", "o2", "o3"))));
+    }
+
+    @Test
+    @DisplayName("非保留者接單被拒；保留逾期後可接單")
+    void testCheckAndExpiry() {
+        leases.reserve("d1", orders("o1"));
+        leases.reserve("d2", orders("o1"));
+
+        assertSame(ValidationResult.OK, leases.check("o1", "d1"));
+        assertSame(ValidationResult.OFFER_LEASED, leases.check("o1", "d3"));
+        assertSame(ValidationResult.OK, leases.check("o-unknown", "d3"));
+
+        advance(LEASE_MILLIS);
+        assertSame(ValidationResult.OK, leases.check("o1", "d3"));
+        assertEquals(0, leases.leasedOrderCount());
+    }
+
+    @Test
+    @DisplayName("重新輪詢不延長保留，逾期後名額讓給其他司機")
+    void testNoRenewalOnRepoll() {
+        leases.reserve("d1", orders("o1"));
+        leases.reserve("d2", orders("o1"));
+        advance(LEASE_MILLIS - 1);
+        leases.reserve("d1", orders("o1"));
+        advance(1);
+
+        assertEquals(List.of("o1"), ids(leases.reserve("d3", orders("o1"))));
+        assertSame(ValidationResult.OFFER_LEASED, leases.check("o1", "d1"));
+    }
+
+    @Test
+    @DisplayName("重新輪詢時未再取得的舊保留立即釋放")
+    void testReleaseDroppedOffers() {
+        leases.reserve("d1", orders("o1", "o2"));
+        leases.reserve("d2", orders("o1", "o2"));
+        assertTrue(leases.reserve("d3", orders("o1", "o2")).isEmpty());
+
+        // d1 的列表已不含 o2 (例如移出搜尋半徑)
+        leases.reserve("d1", orders("o1"));
+        assertEquals(List.of("o2"), ids(leases.reserve("d3", orders("o1", "o2"))));
+    }
+
+    @Test
+    @DisplayName("接單或取消後釋放全部保留並改變版本")
+    void testRelease() {
+        leases.reserve("d1", orders("o1"));
+        leases.reserve("d2", orders("o1"));
+        long changes = leases.changes();
+
+        leases.release("o1");
+        assertTrue(leases.changes() > changes);
+        assertEquals(0, leases.leasedOrderCount());
+        assertSame(ValidationResult.OK, leases.check("o1", "d3"));
+    }
+
+    @Test
+    @DisplayName("變更次數與期間分段分開計算：一次變更與一個期間經過不會得到相同的值")
+    void testChangesAndPeriodSeparate() {
+        long changes = leases.changes();
+        long period = leases.period();
+
+        leases.reserve("d1", orders("o1"));
+        assertEquals(changes + 1, leases.changes());
+        assertEquals(period, leases.period());
+
+        advance(LEASE_MILLIS);
+        assertEquals(changes + 1, leases.changes());
+        assertEquals(period + 1, leases.period());
+    }
+
+    @Test
+    @DisplayName("司機接單後釋放其在其他訂單上的保留")
+    void testAcceptedReleasesDriverHolds() {
+        leases.reserve("d1", orders("o1", "o2"));
+        leases.reserve("d2", orders("o1", "o2"));
+
+        leases.accepted("o1", "d1");
+        assertEquals(1, leases.leasedOrderCount());
+        assertEquals(List.of("o2"), ids(leases.reserve("d3", orders("o2"))));
+        assertSame(ValidationResult.OFFER_LEASED, leases.check("o2", "d1"));
+    }
+
+    @Test
+    @DisplayName("未開啟時原樣回傳且不檢查")
+    void testDisabled() {
+        List<Order> ranked = orders("o1", "o2", "o3");
+        assertSame(ranked, OfferLeases.DISABLED.reserve("d1", ranked));
+        assertSame(ValidationResult.OK, OfferLeases.DISABLED.check("o1", "d2"));
+        assertFalse(OfferLeases.DISABLED.isEnabled());
+    }
+}
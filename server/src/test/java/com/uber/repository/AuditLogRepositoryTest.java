@@ -0,0 +1,180 @@
+package com.uber.repository;
+
+import com.uber.model.AuditLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AuditLogRepository 測試 - 區段封存後查詢結果不變
+ */
+@DisplayName("AuditLogRepository 測試")
+class AuditLogRepositoryTest {
+
+    private static final Instant BASE = Instant.parse("2024-01-01T00:00:00Z");
+    private static final String[] ACTIONS = {"CREATE", "ACCEPT", "START", "COMPLETE"};
+
+    private AuditLogRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new AuditLogRepository();
+    }
+
+    /**
+     * 第 i 筆：每 4 筆同一訂單，時間每筆遞增 1 秒又 i 奈秒
+     */
+    private static AuditLog log(int i) {
+        return AuditLog.builder()
+                .id(UUID.randomUUID().toString())
+                .timestamp(BASE.plusSeconds(i).plusNanos(i))
+                .orderId("order-" + i / 4)
+                .action(ACTIONS[i % 4])
+                .actorType(i % 4 == 0 ? "PASSENGER" : "DRIVER")
+                .actorId(i % 4 == 0 ? "passenger-" + i % 50 : "driver-" + i % 30)
+                .previousState(i % 4 == 0 ? null : "PENDING")
+                .newState("ACCEPTED")
+                .success(i % 7 != 0)
+                .failureReason(i % 7 == 0 ? "ORDER_ALREADY_ACCEPTED" : null)
+                .build();
+    }
+
+    private List<AuditLog> fill(int rows) {
+        List<AuditLog> saved = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            saved.add(log(i));
+        }
+        repository.saveAll(saved);
+        repository.sealPending();
+        return saved;
+    }
+
+    @Test
+    @DisplayName("封存為欄式後依寫入順序還原全部欄位")
+    void testSealedRoundTrip() {
+        int rows = AuditLogRepository.SEGMENT_ROWS * 2 + 100;
+        List<AuditLog> saved = fill(rows);
+
+        assertEquals(2, repository.columnarSegmentCount());
+        assertEquals(rows, repository.count());
+        assertEquals(saved, repository.findAll());
+        assertEquals(saved.subList(4000, 4200), repository.findFrom(4000, 200));
+        assertEquals(saved.subList(rows - 10, rows), repository.findFrom(rows - 10, 500));
+        assertTrue(repository.findFrom(rows, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("依訂單與 action 查詢跨越封存與寫入中區段")
+    void testFindByOrderIdAndAction() {
+        List<AuditLog> saved = fill(AuditLogRepository.SEGMENT_ROWS + 8);
+
+        assertEquals(saved.subList(400, 404), repository.findByOrderId("order-100"));
+        // 最後兩筆訂單仍在寫入中區段
+        String lastOrder = "order-" + (AuditLogRepository.SEGMENT_ROWS + 7) / 4;
+        assertEquals(4, repository.findByOrderId(lastOrder).size());
+        assertTrue(repository.findByOrderId("order-unknown").isEmpty());
+
+        assertEquals(List.of(saved.get(401)), repository.findByOrderIdAndAction("order-100", "ACCEPT"));
+        assertEquals((AuditLogRepository.SEGMENT_ROWS + 8) / 4, repository.findByAction("START").size());
+        assertTrue(repository.findByAction("UNKNOWN").isEmpty());
+    }
+
+    @Test
+    @DisplayName("時間範圍查詢 (含 from、不含 to)")
+    void testFindByTimeRange() {
+        List<AuditLog> saved = fill(AuditLogRepository.SEGMENT_ROWS * 3);
+
+        Instant from = saved.get(5000).getTimestamp();
+        Instant to = saved.get(9000).getTimestamp();
+        assertEquals(saved.subList(5000, 9000), repository.find(null, null, from, to));
+        assertEquals(saved.subList(12000, saved.size()), repository.find(null, null, saved.get(12000).getTimestamp(), null));
+        assertTrue(repository.find(null, null, null, BASE).isEmpty());
+
+        List<AuditLog> accepts = repository.find(null, "ACCEPT", from, to);
+        assertEquals(1000, accepts.size());
+        assertTrue(accepts.stream().allMatch(log -> "ACCEPT".equals(log.getAction())));
+    }
+
+    @Test
+    @DisplayName("統計成功與失敗次數")
+    void testCountSuccessAndFailure() {
+        fill(AuditLogRepository.SEGMENT_ROWS + 1);
+
+        // order-7 的 ACCEPT 為第 29 筆 (29 % 7 != 0)；order-0 的 CREATE 為第 0 筆 (失敗)
+        assertEquals(1, repository.countSuccessByOrderIdAndAction("order-7", "ACCEPT"));
+        assertEquals(0, repository.countFailureByOrderIdAndAction("order-7", "ACCEPT"));
+        assertEquals(1, repository.countFailureByOrderIdAndAction("order-0", "CREATE"));
+    }
+
+    @Test
+    @DisplayName("非標準 id、無時間或帶 metadata 的紀錄原樣保存")
+    void testIrregularRows() {
+        List<AuditLog> saved = new ArrayList<>();
+        for (int i = 0; i < AuditLogRepository.SEGMENT_ROWS; i++) {
+            AuditLog log = log(i);
+            if (i == 1) {
+                log.setId("custom-id");
+            } else if (i == 2) {
+                log.setTimestamp(null);
+            } else if (i == 3) {
+                log.setMetadata(Map.of("source", "import"));
+            }
+            saved.add(log);
+        }
+        repository.saveAll(saved);
+        repository.sealPending();
+
+        assertEquals(1, repository.columnarSegmentCount());
+        assertEquals(saved, repository.findAll());
+        assertSame(saved.get(3), repository.findByOrderIdAndAction("order-0", "COMPLETE").get(0));
+        // 無時間的紀錄不符合任何時間範圍
+        assertFalse(repository.find("order-0", null, BASE.minusSeconds(1), null).contains(saved.get(2)));
+    }
+
+    @Test
+    @DisplayName("清空後重新寫入")
+    void testDeleteAll() {
+        fill(AuditLogRepository.SEGMENT_ROWS + 10);
+        long modifications = repository.getModificationCount();
+
+        repository.deleteAll();
+        assertEquals(0, repository.count());
+        assertTrue(repository.findAll().isEmpty());
+        assertTrue(repository.findByOrderId("order-1").isEmpty());
+        assertEquals(modifications + 1, repository.getModificationCount());
+
+        AuditLog log = log(0);
+        repository.save(log);
+        assertEquals(List.of(log), repository.findAll());
+    }
+
+    @Test
+    @DisplayName("依序號範圍逐區段走訪")
+    void testScan() {
+        int rows = AuditLogRepository.SEGMENT_ROWS * 2 + 100;
+        List<AuditLog> saved = fill(rows);
+
+        List<AuditLog> all = new ArrayList<>();
+        repository.scan(null, null, null, null, 0, Integer.MAX_VALUE).forEachRemaining(all::add);
+        assertEquals(saved, all);
+
+        List<AuditLog> range = new ArrayList<>();
+        repository.scan(null, null, null, null, 4000, rows - 50).forEachRemaining(range::add);
+        assertEquals(saved.subList(4000, rows - 50), range);
+
+        List<AuditLog> accepts = new ArrayList<>();
+        repository.scan(null, "ACCEPT", null, null, 10, 8000).forEachRemaining(accepts::add);
+        assertEquals(saved.subList(10, 8000).stream().filter(log -> "ACCEPT".equals(log.getAction())).toList(),
+                accepts);
+
+        assertFalse(repository.scan(null, null, null, null, rows, rows + 10).hasNext());
+    }
+}
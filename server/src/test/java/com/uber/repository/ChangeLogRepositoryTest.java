@@ -0,0 +1,139 @@
+package com.uber.repository;
+
+import com.uber.model.ChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ChangeLogRepository 測試 - 序號、環狀覆寫與 reset 協定
+ */
+@DisplayName("ChangeLogRepository 測試")
+class ChangeLogRepositoryTest {
+
+    private ChangeLogRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ChangeLogRepository(4);
+    }
+
+    private ChangeEvent event(String entityId) {
+        return ChangeEvent.builder()
+                .entityType(ChangeEvent.EntityType.ORDER)
+                .entityId(entityId)
+                .action("CREATE")
+                .build();
+    }
+
+    @Test
+    @DisplayName("寫入時依序指定全域序號")
+    void testAppendAssignsSequence() {
+        assertEquals(1, repository.append(event("o1")).getSequence());
+        repository.appendAll(List.of(event("o2"), event("o3")));
+
+        assertEquals(3, repository.getLastSequence());
+        ChangeSet<ChangeEvent> changes = repository.findSince(0, 10);
+        assertFalse(changes.reset());
+        assertEquals(3, changes.sequence());
+        assertEquals(List.of("o1", "o2", "o3"), changes.changes().stream().map(ChangeEvent::getEntityId).toList());
+    }
+
+    @Test
+    @DisplayName("依 limit 分段取得，sequence 為最後一筆序號")
+    void testFindSinceWithLimit() {
+        repository.appendAll(List.of(event("o1"), event("o2"), event("o3")));
+
+        ChangeSet<ChangeEvent> first = repository.findSince(0, 2);
+        assertEquals(2, first.sequence());
+        assertEquals(2, first.changes().size());
+
+        ChangeSet<ChangeEvent> rest = repository.findSince(first.sequence(), 2);
+        assertEquals(3, rest.sequence());
+        assertEquals("o3", rest.changes().get(0).getEntityId());
+
+        ChangeSet<ChangeEvent> none = repository.findSince(3, 2);
+        assertFalse(none.reset());
+        assertEquals(3, none.sequence());
+        assertTrue(none.changes().isEmpty());
+    }
+
+    @Test
+    @DisplayName("since 已被環狀緩衝覆寫時回傳 reset")
+    void testOverflowRequiresResnapshot() {
+        for (int i = 1; i <= 6; i++) {
+            repository.append(event("o" + i));
+        }
+
+        // 容量 4：保留序號 3..6，since=2 仍可完整取得
+        assertFalse(repository.findSince(2, 10).reset());
+        assertEquals(4, repository.findSince(2, 10).changes().size());
+
+        ChangeSet<ChangeEvent> overflow = repository.findSince(1, 10);
+        assertTrue(overflow.reset());
+        assertEquals(6, overflow.sequence());
+        assertTrue(overflow.changes().isEmpty());
+    }
+
+    @Test
+    @DisplayName("since 超過最新序號 (伺服器重啟) 或早於清空時回傳 reset")
+    void testResetAfterRestartOrClear() {
+        repository.append(event("o1"));
+        assertTrue(repository.findSince(5, 10).reset());
+
+        repository.deleteAll();
+        assertTrue(repository.findSince(0, 10).reset());
+        assertFalse(repository.findSince(1, 10).reset());
+
+        repository.append(event("o2"));
+        ChangeSet<ChangeEvent> afterClear = repository.findSince(1, 10);
+        assertEquals(2, afterClear.sequence());
+        assertEquals("o2", afterClear.changes().get(0).getEntityId());
+    }
+
+    @Test
+    @DisplayName("等待新事件：已有事件立即返回，無事件逾時返回 false")
+    void testAwaitAfter() throws InterruptedException {
+        assertFalse(repository.awaitAfter(0, 10));
+
+        Thread writer = new Thread(() -> repository.append(event("o1")));
+        writer.start();
+        assertTrue(repository.awaitAfter(0, 5_000));
+        writer.join();
+
+        assertTrue(repository.awaitAfter(0, 0));
+    }
+
+    @Test
+    @DisplayName("restartAt 後自指定序號接續，先前的 since 回傳 reset")
+    void testRestartAt() {
+        repository.append(event("o1"));
+
+        repository.restartAt(100);
+
+        assertEquals(100, repository.getLastSequence());
+        assertTrue(repository.findSince(1, 10).reset());
+        assertFalse(repository.findSince(100, 10).reset());
+        assertEquals(101, repository.append(event("o2")).getSequence());
+    }
+
+    @Test
+    @DisplayName("複製事件保留原序號，不連續時拒絕")
+    void testAppendReplicated() {
+        repository.restartAt(10);
+        ChangeEvent replicated = event("o1");
+        replicated.setSequence(11);
+
+        repository.appendReplicated(replicated);
+
+        assertEquals(11, repository.getLastSequence());
+        assertEquals("o1", repository.findSince(10, 10).changes().get(0).getEntityId());
+        ChangeEvent gap = event("o2");
+        gap.setSequence(13);
+        assertThrows(IllegalStateException.class, () -> repository.appendReplicated(gap));
+    }
+}
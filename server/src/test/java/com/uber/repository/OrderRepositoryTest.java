@@ -6,8 +6,11 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -292,5 +295,251 @@ class OrderRepositoryTest {
         List<Order> nullDriver = repository.findByDriverId(null);
         assertTrue(nullDriver.isEmpty());
     }
-}
 
+    @Test
+    @DisplayName("寫入時遞增版本號與集合修改計數")
+    void testVersionAndModificationCount() {
+        Order order = Order.builder()
+                .orderId("o1")
+                .passengerId("p1")
+                .status(OrderStatus.PENDING)
+                .build();
+
+        assertEquals(0, repository.getVersion("o1"));
+        long before = repository.getModificationCount();
+
+        repository.save(order);
+        long firstVersion = repository.getVersion("o1");
+
+        order.setStatus(OrderStatus.ACCEPTED);
+        repository.save(order);
+
+        assertTrue(repository.getVersion("o1") > firstVersion);
+        assertEquals(before + 2, repository.getModificationCount());
+
+        repository.deleteAll();
+        assertEquals(0, repository.getVersion("o1"));
+        assertTrue(repository.getModificationCount() > before + 2);
+    }
+
+    @Test
+    @DisplayName("批次寫入共用一個版本號且只遞增一次修改計數")
+    void testSaveAll() {
+        List<Order> batch = List.of(
+                Order.builder().orderId("o1").passengerId("p1").status(OrderStatus.PENDING).build(),
+                Order.builder().orderId("o2").passengerId("p2").status(OrderStatus.PENDING).build());
+        long before = repository.getModificationCount();
+
+        repository.saveAll(batch);
+
+        assertEquals(before + 1, repository.getModificationCount());
+        assertEquals(repository.getVersion("o1"), repository.getVersion("o2"));
+        assertTrue(repository.findById("o2").isPresent());
+        assertEquals(2, repository.findByStatus(OrderStatus.PENDING).size());
+    }
+
+    @Test
+    @DisplayName("增量查詢只回傳版本號大於 since 的資料，清空後要求重新載入")
+    void testFindChangedSince() {
+        Order first = Order.builder().orderId("o1").passengerId("p1").status(OrderStatus.PENDING).build();
+        Order second = Order.builder().orderId("o2").passengerId("p2").status(OrderStatus.PENDING).build();
+        repository.save(first);
+        long afterFirst = repository.getModificationCount();
+        repository.save(second);
+        first.setStatus(OrderStatus.CANCELLED);
+        repository.save(first);
+
+        ChangeSet<Order> changes = repository.findChangedSince(afterFirst);
+        assertFalse(changes.reset());
+        assertEquals(repository.getModificationCount(), changes.sequence());
+        assertEquals(2, changes.changes().size());
+
+        assertTrue(repository.findChangedSince(changes.sequence()).changes().isEmpty());
+
+        repository.deleteAll();
+        assertTrue(repository.findChangedSince(changes.sequence()).reset());
+        assertFalse(repository.findChangedSince(repository.getModificationCount()).reset());
+    }
+
+    private static Order finished(String orderId, String passengerId, String driverId, OrderStatus status,
+                                  Instant finishedAt) {
+        return Order.builder()
+                .orderId(orderId)
+                .passengerId(passengerId)
+                .driverId(driverId)
+                .status(status)
+                .vehicleType(VehicleType.PREMIUM)
+                .pickupLocation(new Location(25.033, 121.565))
+                .dropoffLocation(new Location(25.042, 121.52))
+                .estimatedFare(180.5)
+                .actualFare(status == OrderStatus.COMPLETED ? 192.25 : null)
+                .distance(4.6)
+                .duration(status == OrderStatus.COMPLETED ? 17 : null)
+                .createdAt(finishedAt.minusSeconds(1800))
+                .acceptedAt(driverId == null ? null : finishedAt.minusSeconds(1500))
+                .completedAt(status == OrderStatus.COMPLETED ? finishedAt : null)
+                .cancelledAt(status == OrderStatus.CANCELLED ? finishedAt : null)
+                .cancelledBy(status == OrderStatus.CANCELLED ? passengerId : null)
+                .cancelFee(status == OrderStatus.CANCELLED ? 0.0 : null)
+                .build();
+    }
+
+    @Test
+    @DisplayName("並行寫入時依回傳的 sequence 連續增量查詢不會遺漏任何寫入")
+    void testFindChangedSince_ConcurrentWrites() throws Exception {
+        int writers = 4;
+        int perWriter = 5_000;
+        Thread[] threads = new Thread[writers];
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            threads[w] = new Thread(() -> {
+                for (int i = 0; i < perWriter; i += 2) {
+                    repository.save(Order.builder().orderId(writer + "-" + i).status(OrderStatus.PENDING).build());
+                    repository.saveAll(List.of(
+                            Order.builder().orderId(writer + "-" + (i + 1)).status(OrderStatus.PENDING).build()));
+                }
+            });
+            threads[w].start();
+        }
+
+        Set<String> seen = new HashSet<>();
+        long cursor = 0;
+        boolean running = true;
+        while (running) {
+            running = false;
+            for (Thread thread : threads) {
+                running |= thread.isAlive();
+            }
+            // 寫入結束後再查詢一次
+            ChangeSet<Order> changes = repository.findChangedSince(cursor);
+            changes.changes().forEach(order -> seen.add(order.getOrderId()));
+            cursor = changes.sequence();
+        }
+
+        assertEquals(writers * perWriter, seen.size());
+    }
+
+    @Test
+    @DisplayName("結束超過寬限期的訂單移入冷儲存，欄位與版本號不變")
+    void testArchiveRoundTrip() {
+        Instant old = Instant.parse("2026-01-01T10:00:00.123456789Z");
+        Order completed = finished("o1", "p1", "d1", OrderStatus.COMPLETED, old);
+        Order cancelled = finished("o2", "p1", null, OrderStatus.CANCELLED, old);
+        Order recent = finished("o3", "p2", "d1", OrderStatus.COMPLETED, Instant.now());
+        Order pending = Order.builder().orderId("o4").passengerId("p2").status(OrderStatus.PENDING).build();
+        repository.save(completed);
+        repository.save(cancelled);
+        repository.save(recent);
+        repository.save(pending);
+        long version = repository.getVersion("o1");
+        long modifications = repository.getModificationCount();
+
+        assertEquals(2, repository.archiveFinishedBefore(Instant.now().minusSeconds(60)));
+
+        assertEquals(2, repository.countHot());
+        assertEquals(2, repository.countCold());
+        assertEquals(4, repository.count());
+        assertTrue(repository.getColdStoreBytes() > 0);
+        assertEquals(modifications, repository.getModificationCount());
+        assertEquals(version, repository.getVersion("o1"));
+        assertEquals(completed, repository.findById("o1").orElseThrow());
+        assertEquals(cancelled, repository.findById("o2").orElseThrow());
+        assertEquals(0, repository.archiveFinishedBefore(Instant.now().minusSeconds(60)));
+    }
+
+    @Test
+    @DisplayName("依乘客、司機、狀態與增量查詢時合併熱區與冷儲存")
+    void testQueriesSpanTiers() {
+        Instant old = Instant.now().minusSeconds(3600);
+        repository.save(finished("o1", "p1", "d1", OrderStatus.COMPLETED, old));
+        repository.save(finished("o2", "p2", "d2", OrderStatus.CANCELLED, old));
+        long afterFirst = repository.getModificationCount() - 1;
+        repository.save(finished("o3", "p1", "d1", OrderStatus.COMPLETED, Instant.now()));
+        repository.archiveFinishedBefore(Instant.now().minusSeconds(60));
+
+        assertEquals(2, repository.findByPassengerId("p1").size());
+        assertEquals(2, repository.findByDriverId("d1").size());
+        assertEquals(1, repository.findByDriverId("d2").size());
+        assertEquals(2, repository.findByStatus(OrderStatus.COMPLETED).size());
+        assertEquals(1, repository.findByStatus(OrderStatus.CANCELLED).size());
+        assertEquals(3, repository.findAll().size());
+        assertEquals(List.of("o2", "o3"), repository.findChangedSince(afterFirst).changes().stream()
+                .map(Order::getOrderId).sorted().toList());
+    }
+
+    @Test
+    @DisplayName("冷儲存回傳的訂單為複本，修改不影響儲存內容")
+    void testColdOrdersAreCopies() {
+        repository.save(finished("o1", "p1", "d1", OrderStatus.COMPLETED, Instant.now().minusSeconds(3600)));
+        repository.archiveFinishedBefore(Instant.now());
+
+        repository.findById("o1").orElseThrow().getPickupLocation().setX(0);
+        repository.findById("o1").orElseThrow().setStatus(OrderStatus.PENDING);
+
+        Order stored = repository.findById("o1").orElseThrow();
+        assertEquals(OrderStatus.COMPLETED, stored.getStatus());
+        assertEquals(25.033, stored.getPickupLocation().getX());
+    }
+
+    @Test
+    @DisplayName("超過一個區塊的批次與清空")
+    void testLargeArchiveAndDeleteAll() {
+        Instant old = Instant.now().minusSeconds(3600);
+        for (int i = 0; i < 2500; i++) {
+            repository.save(finished("o" + i, "p" + (i % 10), "d" + (i % 7), OrderStatus.COMPLETED, old));
+        }
+
+        assertEquals(2500, repository.archiveFinishedBefore(Instant.now()));
+        assertEquals(0, repository.countHot());
+        assertEquals(250, repository.findByPassengerId("p3").size());
+        assertEquals("p9", repository.findById("o2499").orElseThrow().getPassengerId());
+
+        repository.deleteAll();
+        assertEquals(0, repository.count());
+        assertTrue(repository.findById("o1").isEmpty());
+        assertTrue(repository.findByPassengerId("p3").isEmpty());
+    }
+
+    @Test
+    @DisplayName("逐筆走訪熱區與冷儲存，條件下推")
+    void testScanSpansTiers() {
+        Instant old = Instant.now().minusSeconds(3600);
+        for (int i = 0; i < 600; i++) {
+            repository.save(finished("o" + i, "p" + (i % 10), "d" + (i % 7), OrderStatus.COMPLETED, old));
+        }
+        repository.archiveFinishedBefore(Instant.now());
+        repository.save(finished("hot-done", "p1", "d1", OrderStatus.COMPLETED, Instant.now()));
+        repository.save(Order.builder().orderId("hot-pending").passengerId("p1").status(OrderStatus.PENDING)
+                .createdAt(Instant.now()).build());
+
+        List<String> all = new ArrayList<>();
+        repository.scan(OrderFilter.ALL).forEachRemaining(order -> all.add(order.getOrderId()));
+        assertEquals(602, all.size());
+        assertEquals(602, all.stream().distinct().count());
+
+        List<Order> pending = new ArrayList<>();
+        repository.scan(new OrderFilter(OrderStatus.PENDING, null, null, null, null)).forEachRemaining(pending::add);
+        assertEquals(List.of("hot-pending"), pending.stream().map(Order::getOrderId).toList());
+
+        List<Order> byPassenger = new ArrayList<>();
+        repository.scan(new OrderFilter(OrderStatus.COMPLETED, "p1", null, null, old))
+                .forEachRemaining(byPassenger::add);
+        assertEquals(60, byPassenger.size());
+        assertTrue(byPassenger.stream().allMatch(order -> "p1".equals(order.getPassengerId())));
+    }
+
+    @Test
+    @DisplayName("冷儲存中仍在熱區的訂單只走訪一次 (以熱區為準)")
+    void testScanPrefersHot() {
+        Order order = finished("o1", "p1", "d1", OrderStatus.COMPLETED, Instant.now().minusSeconds(3600));
+        repository.save(order);
+        repository.archiveFinishedBefore(Instant.now());
+        // 重新寫入熱區 (模擬歸檔與寫入並行)
+        repository.save(order);
+
+        List<Order> scanned = new ArrayList<>();
+        repository.scan(OrderFilter.ALL).forEachRemaining(scanned::add);
+        assertEquals(1, scanned.size());
+        assertSame(order, scanned.get(0));
+    }
+}
@@ -0,0 +1,226 @@
+package com.uber.repository;
+
+import com.uber.cluster.GridCell;
+import com.uber.model.Location;
+import com.uber.model.Order;
+import com.uber.model.OrderStatus;
+import com.uber.model.VehicleType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 待派訂單索引測試：堆的更新 / 移除，以及 best-first 排序與暴力排序一致
+ */
+@DisplayName("PendingOrderIndex 測試")
+class PendingOrderIndexTest {
+
+    private static final long NOW = 1_000_000_000L;
+
+    private PendingOrderIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PendingOrderIndex();
+    }
+
+    private static Order order(String id, double x, double y, long createdAtMillis) {
+        return Order.builder()
+                .orderId(id)
+                .status(OrderStatus.PENDING)
+                .vehicleType(VehicleType.STANDARD)
+                .pickupLocation(new Location(x, y))
+                .createdAt(Instant.ofEpochMilli(createdAtMillis))
+                .build();
+    }
+
+    private static List<String> ids(List<Order> orders) {
+        return orders.stream().map(Order::getOrderId).toList();
+    }
+
+    @Nested
+    @DisplayName("IndexedOrderHeap")
+    class HeapTests {
+
+        @Test
+        @DisplayName("依 key 維持最小值在頂端，更新 key 與移除後仍正確")
+        void testDecreaseIncreaseAndRemove() {
+            IndexedOrderHeap heap = new IndexedOrderHeap();
+            for (int i = 0; i < 20; i++) {
+                heap.put(order("o" + i, 0, 0, 0), 100 + i);
+            }
+            assertEquals("o0", heap.orderAt(0).getOrderId());
+
+            // decrease-key
+            heap.put(order("o15", 0, 0, 0), 1);
+            assertEquals("o15", heap.orderAt(0).getOrderId());
+            // increase-key
+            heap.put(order("o15", 0, 0, 0), 500);
+            assertEquals("o0", heap.orderAt(0).getOrderId());
+
+            assertTrue(heap.remove("o0"));
+            assertFalse(heap.remove("o0"));
+            assertEquals("o1", heap.orderAt(0).getOrderId());
+            assertEquals(19, heap.size());
+
+            // 每個節點都不小於父節點
+            for (int i = 1; i < heap.size(); i++) {
+                assertTrue(heap.keyAt(IndexedOrderHeap.parent(i)) <= heap.keyAt(i));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("索引維護")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("非 PENDING 或缺少上車地點的訂單不列入")
+        void testOnlyPendingIndexed() {
+            Order accepted = order("o1", 1, 1, NOW);
+            accepted.setStatus(OrderStatus.ACCEPTED);
+            Order noPickup = order("o2", 1, 1, NOW);
+            noPickup.setPickupLocation(null);
+
+            index.update(accepted);
+            index.update(noPickup);
+            index.update(order("o3", 1, 1, NOW));
+
+            assertEquals(1, index.size());
+        }
+
+        @Test
+        @DisplayName("狀態改變時移出索引，上車地點改變時移到新格子")
+        void testStatusAndCellChange() {
+            Order order = order("o1", 1, 1, NOW);
+            index.update(order);
+
+            Order moved = order("o1", 55, 55, NOW);
+            index.update(moved);
+            assertEquals(1, index.size());
+            assertTrue(index.rank(new Location(0, 0), VehicleType.STANDARD, 10, 0, NOW, 10).isEmpty());
+            assertEquals(List.of("o1"),
+                    ids(index.rank(new Location(55, 55), VehicleType.STANDARD, 10, 0, NOW, 10)));
+
+            moved.setStatus(OrderStatus.CANCELLED);
+            index.update(moved);
+            assertEquals(0, index.size());
+        }
+
+        @Test
+        @DisplayName("依其他大小的格子取得待派訂單 (叢集節點間查詢)")
+        void testInCells() {
+            index.update(order("o1", 1, 1, NOW));
+            index.update(order("o2", 4.5, 1, NOW));
+            index.update(order("o3", 5, 1, NOW));
+            index.update(order("o4", 19.9, 14, NOW));
+            index.update(order("o5", -0.5, 1, NOW));
+            Order premium = order("o6", 1, 1, NOW);
+            premium.setVehicleType(VehicleType.PREMIUM);
+            index.update(premium);
+
+            // 格子大小 5：(0,0) 為 [0,5) x [0,5)，(3,2) 為 [15,20) x [10,15)
+            List<Order> found = index.inCells(VehicleType.STANDARD,
+                    List.of(new GridCell(0, 0), new GridCell(3, 2)), 5.0);
+
+            assertEquals(List.of("o1", "o2", "o4"), ids(found).stream().sorted().toList());
+            assertTrue(index.inCells(VehicleType.XL, List.of(new GridCell(0, 0)), 5.0).isEmpty());
+        }
+
+        @Test
+        @DisplayName("各車種最老待派訂單的建立時間")
+        void testOldestCreatedAt() {
+            index.update(order("o1", 1, 1, NOW - 5000));
+            index.update(order("o2", 80, 80, NOW - 9000));
+            index.update(order("o3", 80, 80, NOW - 1000));
+
+            Map<VehicleType, Long> oldest = index.oldestCreatedAt();
+            assertEquals(Map.of(VehicleType.STANDARD, NOW - 9000), oldest);
+
+            index.remove("o2");
+            assertEquals(NOW - 5000, index.oldestCreatedAt().get(VehicleType.STANDARD));
+        }
+    }
+
+    @Nested
+    @DisplayName("排序")
+    class RankTests {
+
+        @Test
+        @DisplayName("只依距離：由近到遠，同距離時 orderId 較小者優先")
+        void testDistanceOnly() {
+            index.update(order("b", 3, 4, NOW));
+            index.update(order("a", 4, 3, NOW));
+            index.update(order("c", 1, 0, NOW - 60_000));
+
+            assertEquals(List.of("c", "a", "b"),
+                    ids(index.rank(new Location(0, 0), VehicleType.STANDARD, 10, 0, NOW, 10)));
+        }
+
+        @Test
+        @DisplayName("等候加權：等候較久的遠訂單排在新的近訂單之前")
+        void testAgingPromotesOldOrders() {
+            index.update(order("near", 1, 0, NOW));
+            index.update(order("far", 25, 0, NOW - 30_000));
+
+            // far: 25 - 1 × 30 = -5 < near: 1
+            assertEquals(List.of("far", "near"),
+                    ids(index.rank(new Location(0, 0), VehicleType.STANDARD, 30, 1, NOW, 10)));
+            // 等候加權不影響 radius 篩選
+            assertEquals(List.of("near"),
+                    ids(index.rank(new Location(0, 0), VehicleType.STANDARD, 20, 1, NOW, 10)));
+        }
+
+        @Test
+        @DisplayName("與暴力排序 (全部計算分數後排序) 結果一致，limit 取前幾筆")
+        void testMatchesBruteForce() {
+            Random random = new Random(42);
+            List<Order> orders = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                Order order = order("o" + i, random.nextDouble() * 200 - 100, random.nextDouble() * 200 - 100,
+                        NOW - random.nextInt(600_000));
+                order.setVehicleType(i % 3 == 0 ? VehicleType.PREMIUM : VehicleType.STANDARD);
+                orders.add(order);
+                index.update(order);
+            }
+            // 部分訂單被接走
+            for (int i = 0; i < 2000; i += 7) {
+                orders.get(i).setStatus(OrderStatus.ACCEPTED);
+                index.update(orders.get(i));
+            }
+
+            for (double aging : new double[]{0, 0.05, 1}) {
+                for (double radius : new double[]{15, 40, 300}) {
+                    Location from = new Location(random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50);
+                    Comparator<Order> byScore = Comparator
+                            .comparingDouble((Order o) -> from.distanceTo(o.getPickupLocation())
+                                    - aging * (NOW - o.getCreatedAt().toEpochMilli()) / 1000.0)
+                            .thenComparing(Order::getOrderId);
+                    List<String> expected = ids(orders.stream()
+                            .filter(o -> o.getStatus() == OrderStatus.PENDING)
+                            .filter(o -> o.getVehicleType() == VehicleType.STANDARD)
+                            .filter(o -> from.distanceTo(o.getPickupLocation()) <= radius)
+                            .sorted(byScore)
+                            .toList());
+
+                    assertEquals(expected,
+                            ids(index.rank(from, VehicleType.STANDARD, radius, aging, NOW, Integer.MAX_VALUE)),
+                            "aging=" + aging + " radius=" + radius);
+                    assertEquals(expected.subList(0, Math.min(5, expected.size())),
+                            ids(index.rank(from, VehicleType.STANDARD, radius, aging, NOW, 5)),
+                            "aging=" + aging + " radius=" + radius);
+                }
+            }
+        }
+    }
+}
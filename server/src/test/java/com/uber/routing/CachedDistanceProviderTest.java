@@ -0,0 +1,132 @@
+package com.uber.routing;
+
+import com.uber.model.Location;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 司機到上車點距離快取測試
+ */
+@DisplayName("CachedDistanceProvider 測試")
+class CachedDistanceProviderTest {
+
+    /**
+     * 直線距離的 1.5 倍 (非直線距離，會被快取)，記錄呼叫次數
+     */
+    private static final class CountingDistance implements DistanceProvider {
+        final AtomicInteger distanceCalls = new AtomicInteger();
+        final AtomicInteger matrixCalls = new AtomicInteger();
+
+        @Override
+        public double distance(Location from, Location to) {
+            distanceCalls.incrementAndGet();
+            return from.distanceTo(to) * 1.5;
+        }
+
+        @Override
+        public double[][] matrix(List<Location> sources, List<Location> targets) {
+            matrixCalls.incrementAndGet();
+            double[][] result = new double[sources.size()][targets.size()];
+            for (int i = 0; i < result.length; i++) {
+                for (int j = 0; j < result[i].length; j++) {
+                    result[i][j] = sources.get(i).distanceTo(targets.get(j)) * 1.5;
+                }
+            }
+            return result;
+        }
+    }
+
+    @Test
+    @DisplayName("同一組格子只計算一次，以格子中心點計算")
+    void testSameCellsHit() {
+        CountingDistance delegate = new CountingDistance();
+        CachedDistanceProvider cache = new CachedDistanceProvider(delegate, 1.0, 100);
+
+        double first = cache.distance(new Location(0.2, 0.3), new Location(10.1, 0.9));
+        // 司機在同一格內移動
+        double second = cache.distance(new Location(0.7, 0.6), new Location(10.4, 0.2));
+
+        // 中心點 (0.5, 0.5) → (10.5, 0.5)
+        assertEquals(15.0, first, 1e-9);
+        assertEquals(15.0, second, 1e-9);
+        assertEquals(1, delegate.distanceCalls.get());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("結果不小於兩點的直線距離")
+    void testLowerBound() {
+        CachedDistanceProvider cache = new CachedDistanceProvider(new CountingDistance(), 1.0, 100);
+
+        // 中心點 (0.5, 0.5) → (1.5, 0.5)：1.5，直線距離 1.98
+        assertEquals(new Location(0.01, 0.5).distanceTo(new Location(1.99, 0.5)),
+                cache.distance(new Location(0.01, 0.5), new Location(1.99, 0.5)), 1e-9);
+        // 同一格內：直線距離
+        assertEquals(0.5, cache.distance(new Location(0.2, 0.2), new Location(0.2, 0.7)), 1e-9);
+        assertEquals(0.0, cache.distance(new Location(0.2, 0.2), new Location(0.2, 0.2)));
+    }
+
+    @Test
+    @DisplayName("多對多將未命中的組合合併為一次查詢，結果與逐一查詢一致")
+    void testMatrix() {
+        CountingDistance delegate = new CountingDistance();
+        CachedDistanceProvider cache = new CachedDistanceProvider(delegate, 0.5, 100);
+        List<Location> drivers = List.of(new Location(0, 0), new Location(3.1, 4.2));
+        List<Location> pickups = List.of(new Location(5, 5), new Location(5.1, 5.1), new Location(0, 0));
+        cache.distance(drivers.get(0), pickups.get(0));
+
+        double[][] matrix = cache.matrix(drivers, pickups);
+
+        assertEquals(1, delegate.matrixCalls.get());
+        for (int i = 0; i < drivers.size(); i++) {
+            for (int j = 0; j < pickups.size(); j++) {
+                assertEquals(cache.distance(drivers.get(i), pickups.get(j)), matrix[i][j], 1e-9);
+            }
+        }
+        assertEquals(0.0, matrix[0][2]);
+        // 第二次全部命中
+        cache.matrix(drivers, pickups);
+        assertEquals(1, delegate.matrixCalls.get());
+    }
+
+    @Test
+    @DisplayName("無法到達的距離同樣快取")
+    void testUnreachable() {
+        AtomicInteger calls = new AtomicInteger();
+        CachedDistanceProvider cache = new CachedDistanceProvider((from, to) -> {
+            calls.incrementAndGet();
+            return Double.POSITIVE_INFINITY;
+        }, 1.0, 100);
+
+        assertEquals(Double.POSITIVE_INFINITY, cache.distance(new Location(0, 0), new Location(5, 5)));
+        assertEquals(Double.POSITIVE_INFINITY, cache.distance(new Location(0.1, 0), new Location(5, 5.1)));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("直線距離或容量為 0 時不快取")
+    void testDisabled() {
+        CachedDistanceProvider euclidean = new CachedDistanceProvider(DistanceProvider.EUCLIDEAN, 1.0, 100);
+        assertFalse(euclidean.isEnabled());
+        assertTrue(euclidean.isEuclidean());
+        assertEquals(5.0, euclidean.distance(new Location(0.1, 0.1), new Location(3.1, 4.1)), 1e-12);
+
+        CountingDistance delegate = new CountingDistance();
+        CachedDistanceProvider disabled = new CachedDistanceProvider(delegate, 1.0, 0);
+        disabled.distance(new Location(0, 0), new Location(1, 1));
+        disabled.distance(new Location(0, 0), new Location(1, 1));
+        assertFalse(disabled.isEnabled());
+        assertEquals(2, delegate.distanceCalls.get());
+        assertEquals(0, disabled.hitCount());
+
+        assertThrows(IllegalArgumentException.class, () -> new CachedDistanceProvider(delegate, 0, 100));
+        assertThrows(IllegalArgumentException.class, () -> new CachedDistanceProvider(delegate, 1.0, -1));
+    }
+}
@@ -0,0 +1,154 @@
+package com.uber.routing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ContractionHierarchy 測試 - 查詢結果與原圖 Dijkstra 一致
+ */
+@DisplayName("ContractionHierarchy 測試")
+class ContractionHierarchyTest {
+
+    /**
+     * 帶隨機缺口、單向路段與加長路段的格狀路網
+     */
+    static RoadGraph randomCity(int size, long seed) {
+        Random random = new Random(seed);
+        RoadGraph.Builder builder = RoadGraph.builder();
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                builder.addNode(x + random.nextDouble() * 0.3, y + random.nextDouble() * 0.3);
+            }
+        }
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                int node = x * size + y;
+                int[] neighbors = {x + 1 < size ? node + size : -1, y + 1 < size ? node + 1 : -1};
+                for (int neighbor : neighbors) {
+                    double roll = random.nextDouble();
+                    if (neighbor < 0 || roll < 0.1) {
+                        continue;
+                    }
+                    double length = random.nextDouble() < 0.3 ? 1 + random.nextDouble() * 2 : 0;
+                    if (roll < 0.2) {
+                        builder.addOneWay(node, neighbor, length);
+                    } else if (roll < 0.3) {
+                        builder.addOneWay(neighbor, node, length);
+                    } else {
+                        builder.addRoad(node, neighbor, length);
+                    }
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * 原圖上的 Dijkstra (對照用)
+     */
+    static double[] dijkstra(RoadGraph graph, int source) {
+        double[] dist = new double[graph.nodeCount()];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[source] = 0;
+        PriorityQueue<double[]> queue = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        queue.add(new double[]{0, source});
+        while (!queue.isEmpty()) {
+            double[] entry = queue.poll();
+            int u = (int) entry[1];
+            if (entry[0] > dist[u]) {
+                continue;
+            }
+            for (int e = graph.firstArc(u); e < graph.firstArc(u + 1); e++) {
+                int v = graph.arcHead(e);
+                double candidate = dist[u] + graph.arcLength(e);
+                if (candidate < dist[v]) {
+                    dist[v] = candidate;
+                    queue.add(new double[]{candidate, v});
+                }
+            }
+        }
+        return dist;
+    }
+
+    @Test
+    @DisplayName("點對點查詢與 Dijkstra 一致 (含單向路段與無法到達)")
+    void testPointToPointMatchesDijkstra() {
+        RoadGraph graph = randomCity(25, 7);
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+        Random random = new Random(11);
+
+        int unreachable = 0;
+        for (int i = 0; i < 40; i++) {
+            int source = random.nextInt(graph.nodeCount());
+            double[] expected = dijkstra(graph, source);
+            for (int k = 0; k < 40; k++) {
+                int target = random.nextInt(graph.nodeCount());
+                double actual = hierarchy.distance(source, target);
+                if (expected[target] == Double.POSITIVE_INFINITY) {
+                    unreachable++;
+                    assertEquals(Double.POSITIVE_INFINITY, actual);
+                } else {
+                    assertEquals(expected[target], actual, 1e-9, source + " -> " + target);
+                }
+            }
+        }
+        assertTrue(unreachable > 0, "測試資料應包含無法到達的節點");
+        assertEquals(0, hierarchy.distance(5, 5));
+    }
+
+    @Test
+    @DisplayName("多對多查詢與逐一查詢一致")
+    void testManyToManyMatchesPointToPoint() {
+        RoadGraph graph = randomCity(20, 3);
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+        Random random = new Random(5);
+        int[] sources = random.ints(15, 0, graph.nodeCount()).toArray();
+        int[] targets = random.ints(25, 0, graph.nodeCount()).toArray();
+        targets[0] = sources[0];
+
+        double[][] matrix = hierarchy.distances(sources, targets);
+
+        for (int i = 0; i < sources.length; i++) {
+            for (int j = 0; j < targets.length; j++) {
+                assertEquals(hierarchy.distance(sources[i], targets[j]), matrix[i][j], 1e-9);
+            }
+        }
+        assertEquals(0, matrix[0][0]);
+        assertEquals(0, hierarchy.distances(new int[0], targets).length);
+    }
+
+    @Test
+    @DisplayName("多執行緒同時查詢")
+    void testConcurrentQueries() throws Exception {
+        RoadGraph graph = randomCity(15, 9);
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+        double[] expected = dijkstra(graph, 0);
+
+        Thread[] threads = new Thread[4];
+        AtomicBoolean failed = new AtomicBoolean();
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int round = 0; round < 50; round++) {
+                    for (int target = 0; target < graph.nodeCount(); target++) {
+                        double actual = hierarchy.distance(0, target);
+                        if (actual != expected[target] && !(Math.abs(actual - expected[target]) <= 1e-9)) {
+                            failed.set(true);
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertFalse(failed.get());
+    }
+}
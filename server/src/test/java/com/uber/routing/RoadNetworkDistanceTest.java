@@ -0,0 +1,154 @@
+package com.uber.routing;
+
+import com.uber.model.Location;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 路網檔案載入、最近節點與路網距離測試
+ */
+@DisplayName("RoadNetworkDistance 測試")
+class RoadNetworkDistanceTest {
+
+    /**
+     * 河流 (x = 5) 只有 y = 0 一座橋：兩岸直線很近，行駛需繞到橋
+     *
+     * <pre>
+     * 0 (0,0) ─ 1 (4,0) ═ 2 (6,0) ─ 3 (10,0)
+     * │                           │
+     * 4 (4,10)                    5 (6,10)
+     * </pre>
+     */
+    private static final String RIVER = """
+            # 河流兩岸
+            n 0 0
+            n 4 0
+            n 6 0
+            n 10 0
+            n 4 10
+            n 6 10
+            e 0 1
+            e 1 2
+            e 2 3
+            e 1 4
+            e 2 5
+            """;
+
+    private static RoadGraph load(Path dir, String content) throws IOException {
+        Path file = dir.resolve("graph.txt");
+        Files.writeString(file, content);
+        return RoadGraph.load(file);
+    }
+
+    @Nested
+    @DisplayName("路網檔案")
+    class LoadTests {
+
+        @Test
+        @DisplayName("載入節點、雙向與單向路段")
+        void testLoad(@TempDir Path dir) throws IOException {
+            RoadGraph graph = load(dir, RIVER + "a 4 5 3\n");
+
+            assertEquals(6, graph.nodeCount());
+            // 5 條雙向路段 + 1 條單向
+            assertEquals(11, graph.arcCount());
+            assertEquals(new Location(6, 10), graph.location(5));
+        }
+
+        @Test
+        @DisplayName("路段長度小於直線距離時以直線距離計")
+        void testLengthClampedToStraightLine(@TempDir Path dir) throws IOException {
+            RoadGraph graph = load(dir, "n 0 0\nn 3 4\na 0 1 1\n");
+
+            assertEquals(5.0, graph.arcLength(graph.firstArc(0)));
+        }
+
+        @Test
+        @DisplayName("格式錯誤時回報行號")
+        void testInvalidLine(@TempDir Path dir) {
+            IllegalArgumentException unknownNode = assertThrows(IllegalArgumentException.class,
+                    () -> load(dir, "n 0 0\n\ne 0 7\n"));
+            assertTrue(unknownNode.getMessage().contains(":3: unknown node: 7"), unknownNode.getMessage());
+
+            IllegalArgumentException badNumber = assertThrows(IllegalArgumentException.class,
+                    () -> load(dir, "n 0 x\n"));
+            assertTrue(badNumber.getMessage().contains(":1:"), badNumber.getMessage());
+
+            assertThrows(IllegalArgumentException.class, () -> load(dir, "# empty\n"));
+        }
+    }
+
+    @Test
+    @DisplayName("最近節點與逐一比較結果一致 (含路網範圍外的點)")
+    void testNearestNode() {
+        RoadGraph graph = ContractionHierarchyTest.randomCity(30, 1);
+        Random random = new Random(2);
+        for (int i = 0; i < 500; i++) {
+            Location location = new Location(random.nextDouble() * 50 - 10, random.nextDouble() * 50 - 10);
+            int expected = 0;
+            for (int v = 1; v < graph.nodeCount(); v++) {
+                if (location.distanceTo(graph.location(v)) < location.distanceTo(graph.location(expected))) {
+                    expected = v;
+                }
+            }
+            assertEquals(location.distanceTo(graph.location(expected)),
+                    location.distanceTo(graph.location(graph.nearestNode(location))), 1e-12);
+        }
+    }
+
+    @Test
+    @DisplayName("跨河的兩點需繞到橋，距離大於直線距離")
+    void testRiverDetour(@TempDir Path dir) throws IOException {
+        RoadNetworkDistance distance = new RoadNetworkDistance(load(dir, RIVER));
+
+        // 4,10 → 6,10：直線 2，行駛 10 + 2 + 10
+        assertEquals(22.0, distance.distance(new Location(4, 10), new Location(6, 10)), 1e-9);
+        // 不在節點上的點加上到最近節點的直線距離
+        assertEquals(23.0, distance.distance(new Location(4, 11), new Location(6, 10)), 1e-9);
+        assertEquals(0.0, distance.distance(new Location(4, 11), new Location(4, 11)));
+    }
+
+    @Test
+    @DisplayName("路網距離不小於直線距離，多對多與逐一查詢一致")
+    void testLowerBoundAndMatrix() {
+        RoadNetworkDistance distance = new RoadNetworkDistance(ContractionHierarchyTest.randomCity(20, 4));
+        Random random = new Random(8);
+        List<Location> sources = new ArrayList<>();
+        List<Location> targets = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            sources.add(new Location(random.nextDouble() * 20, random.nextDouble() * 20));
+            targets.add(new Location(random.nextDouble() * 20, random.nextDouble() * 20));
+        }
+        targets.add(sources.get(0));
+
+        double[][] matrix = distance.matrix(sources, targets);
+
+        for (int i = 0; i < sources.size(); i++) {
+            for (int j = 0; j < targets.size(); j++) {
+                double single = distance.distance(sources.get(i), targets.get(j));
+                assertEquals(single, matrix[i][j], 1e-9);
+                assertTrue(single >= sources.get(i).distanceTo(targets.get(j)) - 1e-9);
+            }
+        }
+        assertEquals(0.0, matrix[0][targets.size() - 1]);
+    }
+
+    @Test
+    @DisplayName("直線距離為預設實作")
+    void testEuclideanDefault() {
+        assertTrue(DistanceProvider.EUCLIDEAN.isEuclidean());
+        assertEquals(5.0, DistanceProvider.EUCLIDEAN.distance(new Location(0, 0), new Location(3, 4)));
+        assertFalse(new RoadNetworkDistance(ContractionHierarchyTest.randomCity(3, 1)).isEuclidean());
+    }
+}
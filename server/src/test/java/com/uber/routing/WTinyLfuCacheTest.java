@@ -0,0 +1,141 @@
+package com.uber.routing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * W-TinyLFU 快取測試
+ */
+@DisplayName("WTinyLfuCache 測試")
+class WTinyLfuCacheTest {
+
+    /**
+     * 讀取，未命中時放入 (與 CachedDistanceProvider 的使用方式相同)
+     */
+    private static boolean access(WTinyLfuCache<Integer> cache, int key) {
+        if (Double.isNaN(cache.get(key))) {
+            cache.put(key, key * 2.0);
+            return false;
+        }
+        return true;
+    }
+
+    @Test
+    @DisplayName("未命中回傳 NaN，命中回傳放入的值並計數")
+    void testGetAndPut() {
+        WTinyLfuCache<Integer> cache = new WTinyLfuCache<>(10);
+
+        assertTrue(Double.isNaN(cache.get(1)));
+        cache.put(1, 3.5);
+        assertEquals(3.5, cache.get(1));
+        cache.put(1, 4.5);
+        assertEquals(4.5, cache.get(1));
+
+        assertEquals(2, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("項目數不超過上限")
+    void testBounded() {
+        WTinyLfuCache<Integer> cache = new WTinyLfuCache<>(100);
+
+        for (int key = 0; key < 10_000; key++) {
+            access(cache, key);
+        }
+
+        assertEquals(100, cache.size());
+        assertEquals(9_900, cache.evictionCount());
+    }
+
+    @Test
+    @DisplayName("大量只出現一次的 key 不會擠掉常用的項目")
+    void testScanResistant() {
+        WTinyLfuCache<Integer> cache = new WTinyLfuCache<>(100);
+        for (int round = 0; round < 10; round++) {
+            for (int key = 0; key < 50; key++) {
+                access(cache, key);
+            }
+        }
+
+        for (int key = 1_000; key < 11_000; key++) {
+            access(cache, key);
+        }
+
+        int hits = 0;
+        for (int key = 0; key < 50; key++) {
+            hits += access(cache, key) ? 1 : 0;
+        }
+        // 純 LRU 在掃描後全部未命中
+        assertTrue(hits >= 45, "hits: " + hits);
+    }
+
+    @Test
+    @DisplayName("以近期性為主的存取 (每個 key 只在連續幾輪出現) 時放大 window")
+    void testAdaptsToRecency() {
+        WTinyLfuCache<Integer> cache = new WTinyLfuCache<>(2_000);
+        int hits = 0;
+        int accesses = 0;
+        for (int round = 0; round < 400; round++) {
+            // 每輪存取最近 5 輪產生的 key，每輪 200 個新 key
+            for (int age = 4; age >= 0; age--) {
+                for (int i = 0; i < 200; i++) {
+                    boolean hit = access(cache, (round - age) * 200 + i);
+                    if (round >= 300) {
+                        hits += hit ? 1 : 0;
+                        accesses++;
+                    }
+                }
+            }
+        }
+
+        assertTrue(cache.windowFraction() > 0.01, "window: " + cache.windowFraction());
+        // LRU 為 80%
+        assertTrue(hits >= accesses * 0.7, "hit ratio: " + (double) hits / accesses);
+    }
+
+    @Test
+    @DisplayName("多執行緒同時存取")
+    void testConcurrentAccess() throws Exception {
+        WTinyLfuCache<Integer> cache = new WTinyLfuCache<>(256, 4);
+        AtomicBoolean failed = new AtomicBoolean();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            long seed = t;
+            threads[t] = new Thread(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 50_000; i++) {
+                    int key = random.nextInt(1_000);
+                    double value = cache.get(key);
+                    if (Double.isNaN(value)) {
+                        cache.put(key, key * 2.0);
+                    } else if (value != key * 2.0) {
+                        failed.set(true);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertFalse(failed.get());
+        assertTrue(cache.size() <= 256);
+        assertEquals(8 * 50_000, cache.hitCount() + cache.missCount());
+    }
+
+    @Test
+    @DisplayName("上限與區段數檢查")
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new WTinyLfuCache<>(0));
+        assertThrows(IllegalArgumentException.class, () -> new WTinyLfuCache<>(100, 3));
+        assertThrows(IllegalArgumentException.class, () -> new WTinyLfuCache<>(2, 4));
+    }
+}
@@ -0,0 +1,78 @@
+package com.uber.service;
+
+import com.uber.model.ChangeEvent;
+import com.uber.model.Driver;
+import com.uber.model.DriverStatus;
+import com.uber.model.Location;
+import com.uber.model.VehicleType;
+import com.uber.repository.ChangeLogRepository;
+import com.uber.repository.DriverRepository;
+import com.uber.repository.OrderRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ChangeFeedService 測試 - 事件順序與實體狀態一致
+ */
+@DisplayName("ChangeFeedService 測試")
+class ChangeFeedServiceTest {
+
+    @Test
+    @DisplayName("未互斥的修改並行時，同一實體的事件依修改先後排列，最後一筆與儲存庫狀態一致")
+    void testLatestEventMatchesRepository() throws Exception {
+        ChangeLogRepository changeLog = new ChangeLogRepository(1 << 20);
+        ChangeFeedService changeFeedService = new ChangeFeedService(changeLog);
+        DriverRepository driverRepository = new DriverRepository();
+        DriverService driverService = new DriverService(driverRepository, new OrderRepository(), changeFeedService);
+        int drivers = 4;
+        int rounds = 50_000;
+        for (int i = 0; i < drivers; i++) {
+            driverRepository.save(Driver.builder()
+                    .driverId("d" + i)
+                    .status(DriverStatus.ONLINE)
+                    .vehicleType(VehicleType.STANDARD)
+                    .location(new Location(0, 0))
+                    .build());
+        }
+
+        // 位置更新 (不取得接單鎖) 與接單 / 釋放 (與 OrderService 相同的寫入順序) 同時修改同一位司機
+        Thread locations = new Thread(() -> {
+            for (int round = 0; round < rounds; round++) {
+                driverService.updateLocation("d" + round % drivers, new Location(round, round));
+            }
+        });
+        Thread assignments = new Thread(() -> {
+            for (int round = 0; round < rounds; round++) {
+                Driver driver = driverRepository.findById("d" + round % drivers).orElseThrow();
+                driver.setBusy(!driver.isBusy());
+                driverRepository.save(driver);
+                changeFeedService.driverChanged(driver, driver.isBusy() ? "ASSIGN" : "RELEASE");
+            }
+        });
+        locations.start();
+        assignments.start();
+        locations.join();
+        assignments.join();
+
+        // 位置依序遞增：事件依序號排列時同一司機的位置不應倒退 (快照較舊的事件取得較新的序號)
+        Map<String, Driver> latest = new HashMap<>();
+        for (ChangeEvent event : changeFeedService.getChangesSince(0, Integer.MAX_VALUE).changes()) {
+            Driver previous = latest.put(event.getEntityId(), event.getDriver());
+            if (previous != null) {
+                assertTrue(event.getDriver().getLocation().getX() >= previous.getLocation().getX(),
+                        "sequence " + event.getSequence());
+            }
+        }
+        for (int i = 0; i < drivers; i++) {
+            Driver stored = driverRepository.findById("d" + i).orElseThrow();
+            Driver event = latest.get("d" + i);
+            assertEquals(stored.isBusy(), event.isBusy(), "d" + i);
+            assertEquals(stored.getLocation(), event.getLocation(), "d" + i);
+        }
+    }
+}
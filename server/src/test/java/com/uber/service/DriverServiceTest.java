@@ -2,13 +2,18 @@ package com.uber.service;
 
 import com.uber.exception.BusinessException;
 import com.uber.model.*;
+import com.uber.offers.OfferRanking;
+import com.uber.repository.ChangeLogRepository;
 import com.uber.repository.DriverRepository;
 import com.uber.repository.OrderRepository;
+import com.uber.routing.RoadGraph;
+import com.uber.routing.RoadNetworkDistance;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.time.Instant;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,6 +31,7 @@ import static org.junit.jupiter.api.Assertions.*;
 class DriverServiceTest {
     
     private DriverService driverService;
+    private ChangeFeedService changeFeedService;
     private DriverRepository driverRepository;
     private OrderRepository orderRepository;
     
@@ -33,7 +39,8 @@ class DriverServiceTest {
     void setUp() {
         driverRepository = new DriverRepository();
         orderRepository = new OrderRepository();
-        driverService = new DriverService(driverRepository, orderRepository);
+        changeFeedService = new ChangeFeedService(new ChangeLogRepository());
+        driverService = new DriverService(driverRepository, orderRepository, changeFeedService);
     }
     
     // =========================================================================
@@ -262,7 +269,111 @@ class DriverServiceTest {
             assertTrue(offers.isEmpty());
         }
     }
-    
+
+    @Nested
+    @DisplayName("getOffers() - 等候加權排序")
+    class OfferRankingTests {
+
+        @BeforeEach
+        void createTestOrders() {
+            Instant now = Instant.now();
+            orderRepository.save(Order.builder()
+                    .orderId("order-near")
+                    .passengerId("passenger-1")
+                    .status(OrderStatus.PENDING)
+                    .vehicleType(VehicleType.STANDARD)
+                    .pickupLocation(new Location(11.0, 20.0))
+                    .dropoffLocation(new Location(50.0, 50.0))
+                    .createdAt(now)
+                    .build());
+            orderRepository.save(Order.builder()
+                    .orderId("order-old")
+                    .passengerId("passenger-2")
+                    .status(OrderStatus.PENDING)
+                    .vehicleType(VehicleType.STANDARD)
+                    .pickupLocation(new Location(40.0, 20.0))
+                    .dropoffLocation(new Location(60.0, 60.0))
+                    .createdAt(now.minusSeconds(120))
+                    .build());
+            driverService.goOnline("driver-1", new Location(10.0, 20.0));
+        }
+
+        @Test
+        @DisplayName("未開啟加權時只依距離排序")
+        void testDistanceOnly() {
+            List<Order> offers = driverService.getOffers("driver-1");
+
+            assertEquals(List.of("order-near", "order-old"),
+                    offers.stream().map(Order::getOrderId).toList());
+        }
+
+        @Test
+        @DisplayName("等候較久的遠訂單排在剛建立的近訂單之前")
+        void testOldOrderBeatsNewNearOrder() {
+            // order-old: 30 - 1 × 120 < order-near: 1
+            driverService.setOfferRanking(new OfferRanking(1.0));
+
+            List<Order> offers = driverService.getOffers("driver-1");
+
+            assertEquals(List.of("order-old", "order-near"),
+                    offers.stream().map(Order::getOrderId).toList());
+        }
+
+        @Test
+        @DisplayName("limit 只回傳前幾筆")
+        void testLimit() {
+            List<Order> offers = driverService.getOffers("driver-1", 1);
+
+            assertEquals(List.of("order-near"), offers.stream().map(Order::getOrderId).toList());
+        }
+
+        @Test
+        @DisplayName("使用路網距離時，直線較近但需繞路的訂單排在後面")
+        void testRoadDistance() {
+            orderRepository.save(Order.builder()
+                    .orderId("order-west")
+                    .passengerId("passenger-3")
+                    .status(OrderStatus.PENDING)
+                    .vehicleType(VehicleType.STANDARD)
+                    .pickupLocation(new Location(2.0, 20.0))
+                    .dropoffLocation(new Location(0.0, 0.0))
+                    .createdAt(Instant.now())
+                    .build());
+            // 河流介於 x = 10 與 x = 11 之間，橋在 y = 0
+            RoadGraph.Builder builder = RoadGraph.builder();
+            int west = builder.addNode(2, 20);
+            int driver = builder.addNode(10, 20);
+            int near = builder.addNode(11, 20);
+            int far = builder.addNode(40, 20);
+            int westBridge = builder.addNode(10, 0);
+            int eastBridge = builder.addNode(11, 0);
+            builder.addRoad(west, driver, 0)
+                    .addRoad(driver, westBridge, 0)
+                    .addRoad(westBridge, eastBridge, 0)
+                    .addRoad(eastBridge, near, 0)
+                    .addRoad(near, far, 0);
+            driverService.setOfferRanking(new OfferRanking(0, new RoadNetworkDistance(builder.build())));
+
+            // 路網距離 8 / 41 / 70
+            assertEquals(List.of("order-west", "order-near", "order-old"),
+                    driverService.getOffers("driver-1").stream().map(Order::getOrderId).toList());
+            assertEquals(List.of("order-west"),
+                    driverService.getOffers("driver-1", 1).stream().map(Order::getOrderId).toList());
+        }
+
+        @Test
+        @DisplayName("已接走的訂單不再出現在可接列表")
+        void testAcceptedOrderRemoved() {
+            Order order = orderRepository.findById("order-near").get();
+            order.setStatus(OrderStatus.ACCEPTED);
+            orderRepository.save(order);
+
+            List<Order> offers = driverService.getOffers("driver-1");
+
+            assertEquals(List.of("order-old"), offers.stream().map(Order::getOrderId).toList());
+        }
+    }
+
     // =========================================================================
     // registerDriver() 測試
     // =========================================================================
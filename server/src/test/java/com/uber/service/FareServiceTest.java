@@ -1,5 +1,7 @@
 package com.uber.service;
 
+import com.uber.model.FareQuote;
+import com.uber.model.Location;
 import com.uber.model.RatePlan;
 import com.uber.model.VehicleType;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,6 +10,7 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -270,4 +273,109 @@ class FareServiceTest {
             assertEquals(150.0, plan.getMinFare(), 0.01);
         }
     }
+
+    @Nested
+    @DisplayName("批次報價測試")
+    class QuoteTests {
+
+        @Test
+        @DisplayName("報價結果與 calculateEstimatedFare 一致")
+        void testQuoteRoute_MatchesEstimatedFare() {
+            // 距離 (0,0) -> (6,8) = 10km
+            FareQuote quote = fareService.quoteRoute(new Location(0, 0), new Location(6, 8));
+
+            assertEquals(10.0, quote.distance(), 0.001);
+            for (VehicleType type : VehicleType.values()) {
+                assertEquals(fareService.calculateEstimatedFare(type, 10.0),
+                        quote.estimates().get(type), 0.001);
+            }
+        }
+
+        @Test
+        @DisplayName("短程報價取最低車資")
+        void testQuoteAllVehicleTypes_MinFare() {
+            double[] fares = fareService.quoteAllVehicleTypes(0.5);
+
+            assertEquals(70.0, fares[VehicleType.STANDARD.ordinal()], 0.01);
+            assertEquals(120.0, fares[VehicleType.PREMIUM.ordinal()], 0.01);
+            assertEquals(150.0, fares[VehicleType.XL.ordinal()], 0.01);
+        }
+
+        @Test
+        @DisplayName("相同路線命中快取")
+        void testQuoteRoute_Cached() {
+            FareQuote first = fareService.quoteRoute(new Location(1, 1), new Location(4, 5));
+            FareQuote second = fareService.quoteRoute(new Location(1, 1), new Location(4, 5));
+
+            assertSame(first, second);
+        }
+
+        @Test
+        @DisplayName("更新費率後報價使用新費率")
+        void testQuoteRoute_AfterRatePlanUpdate() {
+            fareService.quoteRoute(new Location(0, 0), new Location(6, 8));
+
+            fareService.updateRatePlan(VehicleType.STANDARD, RatePlan.builder()
+                    .baseFare(60.0)
+                    .perKmRate(20.0)
+                    .perMinRate(3.0)
+                    .minFare(80.0)
+                    .cancelFee(30.0)
+                    .build());
+
+            // 新公式: 60 + 10km * 20/km = 260
+            FareQuote quote = fareService.quoteRoute(new Location(0, 0), new Location(6, 8));
+            assertEquals(260.0, quote.estimates().get(VehicleType.STANDARD), 0.01);
+        }
+
+        @Test
+        @DisplayName("快取的報價不可修改")
+        void testQuoteRoute_Immutable() {
+            FareQuote quote = fareService.quoteRoute(new Location(0, 0), new Location(6, 8));
+
+            assertThrows(UnsupportedOperationException.class,
+                    () -> quote.estimates().put(VehicleType.STANDARD, 0.0));
+        }
+
+        @Test
+        @DisplayName("計算期間費率變更時不快取以舊費率計算的報價")
+        void testQuoteRoute_RatePlanUpdatedDuringQuote() {
+            AtomicBoolean updated = new AtomicBoolean();
+            fareService.setDistanceProvider((from, to) -> {
+                // 報價已讀取快取、尚未寫回時更新費率
+                if (updated.compareAndSet(false, true)) {
+                    fareService.updateRatePlan(VehicleType.STANDARD, RatePlan.builder()
+                            .baseFare(60.0)
+                            .perKmRate(20.0)
+                            .perMinRate(3.0)
+                            .minFare(80.0)
+                            .cancelFee(30.0)
+                            .build());
+                }
+                return from.distanceTo(to);
+            });
+
+            FareQuote first = fareService.quoteRoute(new Location(0, 0), new Location(6, 8));
+
+            // 新公式: 60 + 10km * 20/km = 260
+            FareQuote second = fareService.quoteRoute(new Location(0, 0), new Location(6, 8));
+            assertNotSame(first, second);
+            assertEquals(260.0, second.estimates().get(VehicleType.STANDARD), 0.01);
+            assertSame(second, fareService.quoteRoute(new Location(0, 0), new Location(6, 8)));
+        }
+
+        @Test
+        @DisplayName("報價使用路網距離，無法互通時以直線距離計")
+        void testQuoteRoute_RoadDistance() {
+            fareService.setDistanceProvider((from, to) -> from.getX() < 100 ? 2 * from.distanceTo(to)
+                    : Double.POSITIVE_INFINITY);
+
+            // 路網距離 20km: 50 + 20 * 15 = 350
+            FareQuote quote = fareService.quoteRoute(new Location(0, 0), new Location(6, 8));
+            assertEquals(20.0, quote.distance(), 0.001);
+            assertEquals(350.0, quote.estimates().get(VehicleType.STANDARD), 0.01);
+
+            assertEquals(10.0, fareService.routeDistance(new Location(100, 0), new Location(106, 8)), 0.001);
+        }
+    }
 }
@@ -3,6 +3,8 @@ package com.uber.service;
 import com.uber.model.*;
 import com.uber.repository.DriverRepository;
 import com.uber.repository.OrderRepository;
+import com.uber.routing.RoadGraph;
+import com.uber.routing.RoadNetworkDistance;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -14,6 +16,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -439,4 +442,76 @@ class MatchingServiceTest {
             assertEquals(Double.MAX_VALUE, matchingService.calculateDistance(pendingOrder, null));
         }
     }
+
+    @Nested
+    @DisplayName("路網距離測試")
+    class RoadDistanceTests {
+
+        private Driver westDriver;
+        private Driver eastDriver;
+
+        /**
+         * 河流 (x = 5) 只有 y = 0 一座橋：西岸 (4,8) 到東岸 (6,8) 直線 2，行駛 18
+         */
+        @BeforeEach
+        void setUpRoadNetwork() {
+            RoadGraph.Builder builder = RoadGraph.builder();
+            int westBridge = builder.addNode(4, 0);
+            int eastBridge = builder.addNode(6, 0);
+            int west = builder.addNode(4, 8);
+            int east = builder.addNode(6, 8);
+            int eastMiddle = builder.addNode(6, 3);
+            builder.addRoad(westBridge, eastBridge, 0)
+                    .addRoad(westBridge, west, 0)
+                    .addRoad(eastBridge, eastMiddle, 0)
+                    .addRoad(eastMiddle, east, 0);
+            matchingService.setDistanceProvider(new RoadNetworkDistance(builder.build()));
+
+            westDriver = Driver.builder()
+                    .driverId("driver-west")
+                    .status(DriverStatus.ONLINE)
+                    .vehicleType(VehicleType.STANDARD)
+                    .location(new Location(4, 8))
+                    .build();
+            eastDriver = Driver.builder()
+                    .driverId("driver-east")
+                    .status(DriverStatus.ONLINE)
+                    .vehicleType(VehicleType.STANDARD)
+                    .location(new Location(6, 3))
+                    .build();
+            when(driverRepository.findAll()).thenReturn(List.of(westDriver, eastDriver));
+        }
+
+        private Order orderAt(String orderId, double x, double y) {
+            return Order.builder()
+                    .orderId(orderId)
+                    .status(OrderStatus.PENDING)
+                    .vehicleType(VehicleType.STANDARD)
+                    .pickupLocation(new Location(x, y))
+                    .build();
+        }
+
+        @Test
+        @DisplayName("直線較近但需繞路超過半徑的司機不列入，改派同岸司機")
+        void testRiverCrossingExcluded() {
+            Optional<Driver> result = matchingService.findBestDriver(orderAt("order-east", 6, 8));
+
+            assertTrue(result.isPresent());
+            assertEquals("driver-east", result.get().getDriverId());
+            assertEquals(18.0, matchingService.calculateDistance(orderAt("order-east", 6, 8), westDriver), 1e-9);
+        }
+
+        @Test
+        @DisplayName("批次配對：每位司機最多一筆，依路網距離由近到遠指派")
+        void testBatchMatching() {
+            Map<String, Driver> assignments = matchingService.findBestDrivers(List.of(
+                    orderAt("order-east", 6, 8),
+                    orderAt("order-west", 4, 7),
+                    orderAt("order-extra", 6, 7)));
+
+            assertEquals(List.of("order-west", "order-east"), List.copyOf(assignments.keySet()));
+            assertEquals("driver-west", assignments.get("order-west").getDriverId());
+            assertEquals("driver-east", assignments.get("order-east").getDriverId());
+        }
+    }
 }
@@ -1,7 +1,14 @@
 package com.uber.service;
 
+import com.uber.cluster.ClaimOutcome;
+import com.uber.cluster.DispatchCluster;
+import com.uber.cluster.DriverClaim;
+import com.uber.dto.CreateOrderRequest;
 import com.uber.exception.BusinessException;
 import com.uber.model.*;
+import com.uber.offers.OfferLeaseProperties;
+import com.uber.offers.OfferLeases;
+import com.uber.repository.ChangeLogRepository;
 import com.uber.repository.DriverRepository;
 import com.uber.repository.OrderRepository;
 import com.uber.repository.AuditLogRepository;
@@ -10,6 +17,11 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -26,6 +38,7 @@ import static org.junit.jupiter.api.Assertions.*;
 class OrderServiceTest {
     
     private OrderService orderService;
+    private ChangeFeedService changeFeedService;
     private OrderRepository orderRepository;
     private DriverRepository driverRepository;
     private AuditService auditService;
@@ -40,7 +53,8 @@ class OrderServiceTest {
         fareService = new FareService();
         fareService.initRatePlans();
         
-        orderService = new OrderService(orderRepository, driverRepository, auditService, fareService);
+        changeFeedService = new ChangeFeedService(new ChangeLogRepository());
+        orderService = new OrderService(orderRepository, driverRepository, auditService, fareService, changeFeedService);
     }
     
     // =========================================================================
@@ -83,6 +97,47 @@ class OrderServiceTest {
             );
             assertEquals("INVALID_REQUEST", ex.getCode());
         }
+        
+        @Test
+        @DisplayName("UT-C03: 批次建立訂單並寫入審計日誌")
+        void testCreateOrders_Batch() {
+            // Given
+            List<CreateOrderRequest> requests = List.of(
+                    new CreateOrderRequest("passenger-1", 0.0, 0.0, 3.0, 4.0, VehicleType.STANDARD),
+                    new CreateOrderRequest("passenger-2", 1.0, 1.0, 2.0, 2.0, VehicleType.PREMIUM));
+            
+            // When
+            List<Order> orders = orderService.createOrders(requests);
+            
+            // Then
+            assertEquals(2, orders.size());
+            assertEquals("passenger-1", orders.get(0).getPassengerId());
+            assertEquals(5.0, orders.get(0).getDistance(), 0.001);
+            assertEquals(OrderStatus.PENDING, orders.get(1).getStatus());
+            assertTrue(orderRepository.findById(orders.get(1).getOrderId()).isPresent());
+            assertEquals(2, auditService.getAllLogs().size());
+        }
+        
+        @Test
+        @DisplayName("UT-C05: 批次查詢依輸入順序回傳並略過不存在的訂單")
+        void testGetOrders() {
+            Order first = orderService.createOrder("passenger-1", new Location(0, 0), new Location(1, 1), VehicleType.STANDARD);
+            Order second = orderService.createOrder("passenger-2", new Location(0, 0), new Location(2, 2), VehicleType.STANDARD);
+            
+            List<Order> orders = orderService.getOrders(List.of(second.getOrderId(), "missing", first.getOrderId()));
+            
+            assertEquals(List.of(second.getOrderId(), first.getOrderId()),
+                    orders.stream().map(Order::getOrderId).toList());
+        }
+        
+        @Test
+        @DisplayName("UT-C04: checkNewOrder 回傳結果碼而不拋例外")
+        void testCheckNewOrder() {
+            Location location = new Location(10.0, 20.0);
+            
+            assertSame(ValidationResult.SAME_PICKUP_DROPOFF, orderService.checkNewOrder(location, location));
+            assertSame(ValidationResult.OK, orderService.checkNewOrder(location, new Location(11.0, 20.0)));
+        }
     }
     
     // =========================================================================
@@ -508,4 +563,276 @@ class OrderServiceTest {
             assertEquals("INVALID_STATE", ex.getCode());
         }
     }
+    
+    // =========================================================================
+    // 變更事件 (change feed) 測試
+    // =========================================================================
+    
+    @Nested
+    @DisplayName("變更事件")
+    class ChangeFeedTests {
+        
+        @Test
+        @DisplayName("每次狀態轉換依序寫入事件，快照保留轉換當下的狀態")
+        void testTransitionsRecordedInOrder() {
+            Driver driver = Driver.builder()
+                    .driverId("driver-1")
+                    .name("Test Driver")
+                    .status(DriverStatus.ONLINE)
+                    .busy(false)
+                    .vehicleType(VehicleType.STANDARD)
+                    .location(new Location(15.0, 25.0))
+                    .build();
+            driverRepository.save(driver);
+            
+            Order order = orderService.createOrder("passenger-1",
+                    new Location(10.0, 20.0), new Location(30.0, 40.0), VehicleType.STANDARD);
+            orderService.acceptOrder(order.getOrderId(), "driver-1");
+            orderService.cancelOrder(order.getOrderId(), "passenger-1");
+            
+            List<ChangeEvent> events = changeFeedService.getChangesSince(0, 100).changes();
+            assertEquals(List.of("CREATE", "ACCEPT", "ASSIGN", "RELEASE", "CANCEL"),
+                    events.stream().map(ChangeEvent::getAction).toList());
+            assertEquals(List.of(1L, 2L, 3L, 4L, 5L),
+                    events.stream().map(ChangeEvent::getSequence).toList());
+            assertEquals(OrderStatus.PENDING, events.get(0).getOrder().getStatus());
+            assertEquals(OrderStatus.ACCEPTED, events.get(1).getOrder().getStatus());
+            assertTrue(events.get(2).getDriver().isBusy());
+            assertFalse(events.get(3).getDriver().isBusy());
+            assertEquals(OrderStatus.CANCELLED, events.get(4).getOrder().getStatus());
+        }
+        
+        @Test
+        @DisplayName("搶單失敗不寫入事件")
+        void testFailedAcceptNotRecorded() {
+            Order order = orderService.createOrder("passenger-1",
+                    new Location(10.0, 20.0), new Location(30.0, 40.0), VehicleType.STANDARD);
+            
+            assertThrows(BusinessException.class, () -> orderService.acceptOrder(order.getOrderId(), "missing"));
+            
+            assertEquals(1, changeFeedService.getLastSequence());
+        }
+    }
+    
+    // =========================================================================
+    // 司機保留 (叢集模式兩階段接單的司機端) 測試
+    // =========================================================================
+    
+    @Nested
+    @DisplayName("司機保留 (fenced claim)")
+    class DriverClaimTests {
+        
+        @BeforeEach
+        void setUpDriver() {
+            driverRepository.save(Driver.builder()
+                    .driverId("driver-1")
+                    .name("Test Driver")
+                    .status(DriverStatus.ONLINE)
+                    .busy(false)
+                    .vehicleType(VehicleType.STANDARD)
+                    .location(new Location(15.0, 25.0))
+                    .build());
+        }
+        
+        @Test
+        @DisplayName("保留後司機忙碌，其他訂單保留回應 DRIVER_BUSY；commit 後不再逾期")
+        void testReserveAndCommit() {
+            orderService.reserveDriver("driver-1", "order-1", 1, 0);
+            
+            assertTrue(driverRepository.findById("driver-1").orElseThrow().isBusy());
+            BusinessException busy = assertThrows(BusinessException.class,
+                    () -> orderService.reserveDriver("driver-1", "order-2", 2, 60_000));
+            assertEquals("DRIVER_BUSY", busy.getCode());
+            
+            orderService.commitDriver("driver-1", "order-1", 1);
+            orderService.commitDriver("driver-1", "order-1", 1);
+            assertTrue(orderService.getExpiredDriverClaims().isEmpty());
+        }
+        
+        @Test
+        @DisplayName("租約逾期的保留經裁決 ABORTED 後釋放司機並封鎖該 token")
+        void testExpiredClaimAborted() {
+            orderService.reserveDriver("driver-1", "order-1", 1, 0);
+            
+            List<DriverClaim> expired = orderService.getExpiredDriverClaims();
+            assertEquals(List.of(new DriverClaim("driver-1", "order-1", 1)), expired);
+            
+            orderService.settleDriverClaim(expired.get(0), ClaimOutcome.ABORTED, 60_000, 60_000);
+            assertFalse(driverRepository.findById("driver-1").orElseThrow().isBusy());
+            BusinessException fenced = assertThrows(BusinessException.class,
+                    () -> orderService.reserveDriver("driver-1", "order-1", 1, 60_000));
+            assertEquals("CLAIM_FENCED", fenced.getCode());
+        }
+        
+        @Test
+        @DisplayName("較舊 token 的延遲 abort 不影響已 commit 的較新保留")
+        void testStaleAbortIgnored() {
+            orderService.reserveDriver("driver-1", "order-1", 2, 60_000);
+            orderService.commitDriver("driver-1", "order-1", 2);
+            
+            orderService.abortDriver("driver-1", "order-1", 1, 60_000);
+            
+            assertEquals("order-1", driverRepository.findById("driver-1").orElseThrow().getCurrentOrderId());
+        }
+        
+        @Test
+        @DisplayName("訂單端裁決：已由該司機接單為 COMMITTED，否則 ABORTED")
+        void testResolveClaim() {
+            Order order = orderService.createOrder("passenger-1",
+                    new Location(10.0, 20.0), new Location(30.0, 40.0), VehicleType.STANDARD);
+            
+            assertEquals(ClaimOutcome.ABORTED, orderService.resolveClaim(order.getOrderId(), "driver-1", 1));
+            orderService.acceptOrder(order.getOrderId(), "driver-1");
+            assertEquals(ClaimOutcome.COMMITTED, orderService.resolveClaim(order.getOrderId(), "driver-1", 1));
+        }
+        
+        @Test
+        @DisplayName("遠端保留拋出例外時回應 NODE_UNAVAILABLE 並釋放接單鎖，重送可接單成功")
+        void testRemoteReserveThrows() throws Exception {
+            AtomicInteger reserves = new AtomicInteger();
+            orderService.setDispatchCluster(new RemoteDriverCluster() {
+                @Override
+                public ValidationResult reserveDriver(String driverId, String orderId, long token) {
+                    if (reserves.incrementAndGet() == 1) {
+                        throw new IllegalStateException("malformed response");
+                    }
+                    return ValidationResult.OK;
+                }
+            });
+            Order order = orderService.createOrder("passenger-1",
+                    new Location(10.0, 20.0), new Location(30.0, 40.0), VehicleType.STANDARD);
+            
+            BusinessException unavailable = assertThrows(BusinessException.class,
+                    () -> orderService.acceptOrder(order.getOrderId(), "driver-remote"));
+            assertEquals("NODE_UNAVAILABLE", unavailable.getCode());
+            
+            // 於其他執行緒重送：接單鎖未釋放時會卡住而逾時
+            Order accepted = CompletableFuture
+                    .supplyAsync(() -> orderService.acceptOrder(order.getOrderId(), "driver-remote"))
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals(OrderStatus.ACCEPTED, accepted.getStatus());
+            assertEquals("driver-remote", accepted.getDriverId());
+        }
+    }
+    
+    /**
+     * 所有司機都在其他節點、保留與 commit 皆成功的叢集
+     */
+    private static class RemoteDriverCluster implements DispatchCluster {
+        
+        @Override
+        public String newOrderId(Location pickup) {
+            return DispatchCluster.STANDALONE.newOrderId(pickup);
+        }
+        
+        @Override
+        public boolean isRemoteDriver(String driverId) {
+            return true;
+        }
+        
+        @Override
+        public ValidationResult reserveDriver(String driverId, String orderId, long token) {
+            return ValidationResult.OK;
+        }
+        
+        @Override
+        public ValidationResult commitDriver(String driverId, String orderId, long token) {
+            return ValidationResult.OK;
+        }
+        
+        @Override
+        public void abortDriver(String driverId, String orderId, long token) {
+        }
+        
+        @Override
+        public void releaseDriver(String driverId, String orderId) {
+        }
+        
+        @Override
+        public ClaimOutcome resolveClaim(DriverClaim claim) {
+            return ClaimOutcome.ABORTED;
+        }
+        
+        @Override
+        public long claimLeaseMillis() {
+            return 1_000;
+        }
+        
+        @Override
+        public List<Order> remotePendingOrders(Location location, VehicleType vehicleType) {
+            return List.of();
+        }
+        
+        @Override
+        public double matchRadius() {
+            return Double.POSITIVE_INFINITY;
+        }
+    }
+    
+    @Nested
+    @DisplayName("訂單保留 (offer lease)")
+    class OfferLeaseTests {
+        
+        private DriverService driverService;
+        private Order order;
+        
+        @BeforeEach
+        void enableLeases() {
+            OfferLeaseProperties properties = new OfferLeaseProperties();
+            properties.setMaxHolders(2);
+            properties.setLeaseMillis(60_000);
+            OfferLeases offerLeases = new OfferLeases(properties);
+            orderService.setOfferLeases(offerLeases);
+            driverService = new DriverService(driverRepository, orderRepository, changeFeedService);
+            driverService.setOfferLeases(offerLeases);
+            
+            order = orderService.createOrder("passenger-1",
+                    new Location(10.0, 20.0), new Location(30.0, 40.0), VehicleType.STANDARD);
+            for (int i = 1; i <= 3; i++) {
+                driverService.goOnline("driver-" + i, new Location(10.0 + i, 20.0));
+            }
+        }
+        
+        @Test
+        @DisplayName("訂單最多顯示給 K 位司機")
+        void testOfferedToAtMostK() {
+            assertEquals(1, driverService.getOffers("driver-1").size());
+            assertEquals(1, driverService.getOffers("driver-2").size());
+            assertTrue(driverService.getOffers("driver-3").isEmpty());
+        }
+        
+        @Test
+        @DisplayName("非保留者接單以 OFFER_LEASED 拒絕並寫入失敗審計")
+        void testNonHolderRejected() {
+            driverService.getOffers("driver-1");
+            driverService.getOffers("driver-2");
+            
+            BusinessException e = assertThrows(BusinessException.class,
+                    () -> orderService.acceptOrder(order.getOrderId(), "driver-3"));
+            assertEquals("OFFER_LEASED", e.getCode());
+            assertEquals(409, e.getHttpStatus());
+            assertEquals(1L, auditService.getAcceptStats(order.getOrderId()).get("failure"));
+            assertEquals(OrderStatus.PENDING, orderService.getOrder(order.getOrderId()).getStatus());
+        }
+        
+        @Test
+        @DisplayName("保留者接單成功後釋放保留，其他保留者回到一般搶單結果")
+        void testHolderAccepts() {
+            driverService.getOffers("driver-1");
+            driverService.getOffers("driver-2");
+            
+            assertEquals("driver-2", orderService.acceptOrder(order.getOrderId(), "driver-2").getDriverId());
+            BusinessException e = assertThrows(BusinessException.class,
+                    () -> orderService.acceptOrder(order.getOrderId(), "driver-1"));
+            assertEquals("ORDER_ALREADY_ACCEPTED", e.getCode());
+            // 冪等重送不受保留影響
+            assertEquals("driver-2", orderService.acceptOrder(order.getOrderId(), "driver-2").getDriverId());
+        }
+        
+        @Test
+        @DisplayName("無人保留的訂單維持原本的搶單行為")
+        void testUnleasedOrderAcceptable() {
+            assertEquals("driver-3", orderService.acceptOrder(order.getOrderId(), "driver-3").getDriverId());
+        }
+    }
 }
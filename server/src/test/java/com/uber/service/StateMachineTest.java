@@ -3,6 +3,7 @@ package com.uber.service;
 import com.uber.exception.BusinessException;
 import com.uber.model.*;
 import com.uber.repository.AuditLogRepository;
+import com.uber.repository.ChangeLogRepository;
 import com.uber.repository.DriverRepository;
 import com.uber.repository.OrderRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,6 +26,7 @@ import static org.junit.jupiter.api.Assertions.*;
 class StateMachineTest {
 
     private OrderService orderService;
+    private ChangeFeedService changeFeedService;
     private OrderRepository orderRepository;
     private DriverRepository driverRepository;
     private AuditService auditService;
@@ -39,7 +41,8 @@ class StateMachineTest {
         fareService = new FareService();
         fareService.initRatePlans();
 
-        orderService = new OrderService(orderRepository, driverRepository, auditService, fareService);
+        changeFeedService = new ChangeFeedService(new ChangeLogRepository());
+        orderService = new OrderService(orderRepository, driverRepository, auditService, fareService, changeFeedService);
     }
 
     // =========================================================================
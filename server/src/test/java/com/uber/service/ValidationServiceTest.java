@@ -836,5 +836,76 @@ class ValidationServiceTest {
             assertFalse(validationService.isDriverComplete(driver));
         }
     }
-}
 
+    @Nested
+    @DisplayName("結果碼驗證 (不拋例外)")
+    class ResultCodeValidationTests {
+
+        @Test
+        @DisplayName("可接單訂單回傳 OK")
+        void testCheckOrderAcceptable_Ok() {
+            Order order = new Order();
+            order.setStatus(OrderStatus.PENDING);
+            order.setCreatedAt(Instant.now());
+
+            assertSame(ValidationResult.OK, validationService.checkOrderAcceptable(order));
+            assertTrue(ValidationResult.OK.isValid());
+        }
+
+        @Test
+        @DisplayName("已被接單回傳預先建立的 ORDER_ALREADY_ACCEPTED")
+        void testCheckOrderAcceptable_AlreadyAccepted() {
+            Order order = new Order();
+            order.setStatus(OrderStatus.ACCEPTED);
+
+            ValidationResult result = validationService.checkOrderAcceptable(order);
+
+            assertSame(ValidationResult.ORDER_ALREADY_ACCEPTED, result);
+            assertFalse(result.isValid());
+            assertEquals("ORDER_ALREADY_ACCEPTED", result.getCode());
+            assertEquals(409, result.getHttpStatus());
+        }
+
+        @Test
+        @DisplayName("忙碌司機回傳 DRIVER_BUSY")
+        void testCheckDriverCanAccept_Busy() {
+            Driver driver = new Driver();
+            driver.setStatus(DriverStatus.ONLINE);
+            driver.setBusy(true);
+
+            assertSame(ValidationResult.DRIVER_BUSY, validationService.checkDriverCanAccept(driver));
+        }
+
+        @Test
+        @DisplayName("接單路徑不要求司機位置")
+        void testCheckDriverCanAccept_LocationOptional() {
+            Driver driver = new Driver();
+            driver.setStatus(DriverStatus.ONLINE);
+
+            assertSame(ValidationResult.DRIVER_LOCATION_MISSING, validationService.checkDriverCanAccept(driver));
+            assertSame(ValidationResult.OK, ValidationService.checkDriverCanAccept(driver, false));
+            assertSame(ValidationResult.DRIVER_NOT_FOUND, ValidationService.checkDriverCanAccept(null, false));
+        }
+
+        @Test
+        @DisplayName("拋出的例外不含 stack trace 且可重複使用")
+        void testToException_Stackless() {
+            BusinessException first = assertThrows(BusinessException.class,
+                    ValidationResult.DRIVER_BUSY::throwIfInvalid);
+            BusinessException second = assertThrows(BusinessException.class,
+                    ValidationResult.DRIVER_BUSY::throwIfInvalid);
+
+            assertSame(first, second);
+            assertEquals(0, first.getStackTrace().length);
+            assertEquals("DRIVER_BUSY", first.getCode());
+            assertEquals(400, first.getHttpStatus());
+        }
+
+        @Test
+        @DisplayName("OK 結果不可轉為例外")
+        void testToException_Ok() {
+            assertDoesNotThrow(ValidationResult.OK::throwIfInvalid);
+            assertThrows(IllegalStateException.class, ValidationResult.OK::toException);
+        }
+    }
+}
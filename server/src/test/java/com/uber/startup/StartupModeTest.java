@@ -0,0 +1,88 @@
+package com.uber.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uber.model.Order;
+import com.uber.model.OrderStatus;
+import com.uber.repository.OrderRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.aot.DisabledInAotMode;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 啟動最佳化模式測試 - 管理端延遲建立、背景預熱與 AppCDS 訓練流程
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "dispatch.startup.lazy-admin=true",
+        "dispatch.startup.warm-up=true"
+})
+@DisabledInAotMode
+@DisplayName("啟動最佳化模式測試")
+class StartupModeTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private StartupWarmup startupWarmup;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Test
+    @DisplayName("管理端 controller 於第一次請求時才建立")
+    void testAdminControllerCreatedOnFirstRequest() throws Exception {
+        var beanFactory = context.getBeanFactory();
+        assertTrue(beanFactory.getBeanDefinition("adminController").isLazyInit());
+        assertFalse(beanFactory.getBeanDefinition("orderController").isLazyInit());
+
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/admin/orders")).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertTrue(beanFactory.containsSingleton("adminController"));
+    }
+
+    @Test
+    @DisplayName("背景預熱於就緒後完成")
+    void testWarmUpCompletes() throws Exception {
+        assertTrue(startupWarmup.completion().get(10, TimeUnit.SECONDS) >= 0);
+    }
+
+    @Test
+    @DisplayName("訓練流程重播 IT-FLOW-01 ~ 03 全部成功")
+    void testTrainingRunReplaysIntegrationFlow() throws Exception {
+        long completedBefore = countByStatus(OrderStatus.COMPLETED);
+        long cancelledBefore = countByStatus(OrderStatus.CANCELLED);
+
+        int requests = new TrainingRun(objectMapper).replay("http://localhost:" + port);
+
+        assertEquals(13, requests);
+        assertEquals(completedBefore + 1, countByStatus(OrderStatus.COMPLETED));
+        assertEquals(cancelledBefore + 2, countByStatus(OrderStatus.CANCELLED));
+    }
+
+    private long countByStatus(OrderStatus status) {
+        List<Order> orders = orderRepository.findAll();
+        return orders.stream().filter(order -> order.getStatus() == status).count();
+    }
+}